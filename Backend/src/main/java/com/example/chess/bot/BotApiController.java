@@ -0,0 +1,70 @@
+package com.example.chess.bot;
+
+import com.example.chess.common.Dto;
+import com.example.chess.game.Move;
+import com.example.chess.game.MoveDispatcher;
+import com.example.chess.user.User;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * HTTP interface for external bots, authenticated with the same JWT as everything else: a
+ * long-lived NDJSON event feed and batched move submission.
+ */
+@RestController
+@RequestMapping("/api/bot")
+@RequiredArgsConstructor
+@Slf4j
+public class BotApiController {
+
+    private final BotStreams streams;
+    private final MoveDispatcher dispatcher;
+
+    /** GAME_START, MOVE and GAME_OVER events for the caller's games, one JSON object per line. */
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseBodyEmitter stream(@AuthenticationPrincipal User me) {
+        return streams.open(me.getId());
+    }
+
+    /**
+     * Queues every move on its game's stripe, then waits for them all, so a bot can pipeline moves
+     * for many games in one request and they are played in parallel. Moves for the same game are
+     * played in the order given. A move that fails, for whatever reason, is reported in its result and
+     * does not stop the rest; the others may already be played, so the batch never fails as a whole.
+     */
+    @PostMapping("/moves")
+    public List<Dto.BotMoveResult> moves(@RequestBody @Valid Dto.BotMoveBatch batch, @AuthenticationPrincipal User me) {
+        List<CompletableFuture<Move>> pending = new ArrayList<>(batch.moves().size());
+        for (Dto.BotMove request : batch.moves()) {
+            pending.add(dispatcher.submit(request.gameId(), me.getId(),
+                    new Dto.MoveSend(request.from(), request.to(), request.promotion(), request.san())));
+        }
+        List<Dto.BotMoveResult> results = new ArrayList<>(pending.size());
+        for (int i = 0; i < pending.size(); i++) {
+            Long gameId = batch.moves().get(i).gameId();
+            try {
+                Move move = pending.get(i).join();
+                results.add(new Dto.BotMoveResult(gameId, move.getMoveNumber(), move.getSan(), null));
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (!(cause instanceof IllegalArgumentException || cause instanceof IllegalStateException
+                        || cause instanceof NoSuchElementException || cause instanceof AccessDeniedException)) {
+                    log.warn("Bot move failed in game {}", gameId, cause);
+                }
+                results.add(new Dto.BotMoveResult(gameId, null, null, cause.getMessage()));
+            }
+        }
+        return results;
+    }
+}
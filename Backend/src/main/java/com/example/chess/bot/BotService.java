@@ -0,0 +1,274 @@
+package com.example.chess.bot;
+
+import com.example.chess.common.Dto;
+import com.example.chess.engine.Search;
+import com.example.chess.engine.TranspositionTable;
+import com.example.chess.game.Bitbases;
+import com.example.chess.game.Bitboards;
+import com.example.chess.game.Game;
+import com.example.chess.game.GameService;
+import com.example.chess.game.MoveDispatcher;
+import com.example.chess.game.MoveCodec;
+import com.example.chess.game.MovePlayed;
+import com.example.chess.game.Position;
+import com.example.chess.lobby.LobbyService;
+import com.example.chess.user.User;
+import com.example.chess.user.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plays bot accounts. A bot's move is a {@link Search} run in short slices on the bot pool: after
+ * each slice the turn goes to the back of the queue, so every bot game gets a fair share of the
+ * threads and none can hold one for a whole move. The shared table keeps the work of earlier slices,
+ * so a resumed turn climbs back to its last depth quickly. The move is played through
+ * {@link MoveDispatcher} like anyone else's, on the game's stripe. A turn the pool cannot take is
+ * retried after {@link #RETRY_MILLIS} rather than dropped, so a busy pool delays a bot but never
+ * leaves its game waiting.
+ */
+@Service
+@Slf4j
+public class BotService {
+
+    static final long RETRY_MILLIS = 200;
+
+    private final UserRepository users;
+    private final GameService games;
+    private final MoveDispatcher moves;
+    private final LobbyService lobby;
+    private final ThreadPoolExecutor executor;
+    private final TranspositionTable table;
+    private final Bitbases bitbases;
+    private final int maxGames;
+    private final long sliceNanos;
+    private final long maxMoveMillis;
+    private final ScheduledExecutorService retries;
+
+    private final Map<Long, User> bots = new ConcurrentHashMap<>();
+    private final Map<Long, BotGame> active = new ConcurrentHashMap<>();
+    private final AtomicInteger slots = new AtomicInteger(); // games reserved or in active, bounded by maxGames
+    private final Set<Long> thinking = ConcurrentHashMap.newKeySet();
+
+    private record BotGame(Long gameId, Long whitePlayerId, Long blackPlayerId) {
+    }
+
+    public BotService(UserRepository users,
+                      GameService games,
+                      MoveDispatcher moves,
+                      LobbyService lobby,
+                      @Qualifier("botExecutor") ThreadPoolExecutor executor,
+                      Bitbases bitbases,
+                      @Value("${chess.bot.hash-mb:32}") int hashMb,
+                      @Value("${chess.bot.max-games:200}") int maxGames,
+                      @Value("${chess.bot.slice-millis:25}") long sliceMillis,
+                      @Value("${chess.bot.max-move-millis:2000}") long maxMoveMillis) {
+        this.users = users;
+        this.games = games;
+        this.moves = moves;
+        this.lobby = lobby;
+        this.executor = executor;
+        this.table = new TranspositionTable(hashMb);
+        this.bitbases = bitbases;
+        this.maxGames = maxGames;
+        this.sliceNanos = sliceMillis * 1_000_000L;
+        this.maxMoveMillis = maxMoveMillis;
+        this.retries = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "bot-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        retries.shutdownNow();
+    }
+
+    /** Loads the bot accounts, lists them as online and resumes games left unfinished by a restart. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        for (User bot : users.findByBotLevelNotNull()) {
+            bots.put(bot.getId(), bot);
+            lobby.registerBot(bot);
+            for (Game game : games.getActiveGamesFor(bot.getId())) {
+                if (active.putIfAbsent(game.getId(), toBotGame(game)) == null) {
+                    slots.incrementAndGet(); // resumed games count even beyond the limit; they are already running
+                    schedule(game.getId());
+                }
+            }
+        }
+        log.info("Bots ready: {} accounts, {} games resumed", bots.size(), active.size());
+    }
+
+    public boolean isBot(Long userId) {
+        return bots.containsKey(userId);
+    }
+
+    public Optional<Dto.UserLite> bot(Long userId) {
+        return Optional.ofNullable(bots.get(userId)).map(bot -> new Dto.UserLite(bot.getId(), bot.getDisplayName()));
+    }
+
+    public int activeGames() {
+        return active.size();
+    }
+
+    /**
+     * Accepts an invite on the bot's behalf; the inviter plays white as with human invites. Empty
+     * when the bots are already playing {@code chess.bot.max-games} games.
+     */
+    public Optional<Game> accept(Long fromUserId, Long botId) {
+        if (!isBot(botId)) throw new IllegalArgumentException("Not a bot: " + botId);
+        if (slots.incrementAndGet() > maxGames) {
+            slots.decrementAndGet();
+            return Optional.empty();
+        }
+        Game game;
+        try {
+            game = games.createGame(fromUserId, botId);
+        } catch (RuntimeException e) {
+            slots.decrementAndGet();
+            throw e;
+        }
+        active.put(game.getId(), toBotGame(game));
+        if (isBot(game.getWhitePlayerId())) schedule(game.getId());
+        return Optional.of(game);
+    }
+
+    @EventListener
+    public void onMovePlayed(MovePlayed event) {
+        if (!active.containsKey(event.gameId())) return;
+        if (event.gameOver()) {
+            forget(event.gameId());
+            return;
+        }
+        BotGame game = active.get(event.gameId());
+        // Move n was white's when n is odd, so the reply belongs to the other side
+        Long next = event.move().getMoveNumber() % 2 == 1 ? game.blackPlayerId() : game.whitePlayerId();
+        if (isBot(next)) schedule(event.gameId());
+    }
+
+    private void schedule(Long gameId) {
+        if (!thinking.add(gameId)) return; // already on it
+        try {
+            executor.execute(() -> begin(gameId));
+        } catch (RejectedExecutionException e) {
+            thinking.remove(gameId);
+            if (executor.isShutdown()) return;
+            log.warn("Bot pool full, game {} retries in {} ms", gameId, RETRY_MILLIS);
+            try {
+                retries.schedule(() -> schedule(gameId), RETRY_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException stopped) {
+                // shutting down; the game resumes at the next start
+            }
+        }
+    }
+
+    private void forget(Long gameId) {
+        if (active.remove(gameId) != null) slots.decrementAndGet();
+    }
+
+    /** First slice of a turn: loads the position and decides who is to move. */
+    private void begin(Long gameId) {
+        try {
+            BotGame game = active.get(gameId);
+            Position position = games.position(gameId);
+            Long mover = game == null ? null
+                    : position.sideToMove() == Position.WHITE ? game.whitePlayerId() : game.blackPlayerId();
+            if (mover == null || !isBot(mover)) {
+                thinking.remove(gameId);
+                return;
+            }
+            table.newSearch(); // entries from earlier turns may be replaced
+            int level = bots.get(mover).getBotLevel();
+            long budget = Math.min(maxMoveMillis, 150L * level);
+            new Turn(gameId, mover, position, level, System.nanoTime() + budget * 1_000_000L).run();
+        } catch (RuntimeException e) {
+            thinking.remove(gameId);
+            log.warn("Bot could not start a turn in game {}", gameId, e);
+        }
+    }
+
+    private BotGame toBotGame(Game game) {
+        return new BotGame(game.getId(), game.getWhitePlayerId(), game.getBlackPlayerId());
+    }
+
+    /** One bot move, searched a slice at a time until its depth or deadline is reached. */
+    private final class Turn implements Runnable {
+
+        private final Long gameId;
+        private final Long botId;
+        private final int maxDepth;
+        private final long deadline;
+        private final Search search;
+        private Search.Info best;
+
+        Turn(Long gameId, Long botId, Position position, int level, long deadline) {
+            this.gameId = gameId;
+            this.botId = botId;
+            this.maxDepth = Math.max(1, level);
+            this.deadline = deadline;
+            this.search = new Search(position, table, new AtomicBoolean(), bitbases);
+        }
+
+        @Override
+        public void run() {
+            try {
+                long slice = Math.max(1, Math.min(sliceNanos, deadline - System.nanoTime()));
+                Search.Info info = search.run(maxDepth, slice, null);
+                if (info != null && (best == null || info.depth() >= best.depth())) best = info;
+                boolean done = best == null || best.depth() >= maxDepth || best.isMate() || System.nanoTime() >= deadline;
+                if (!done) {
+                    try {
+                        executor.execute(this); // back of the queue; other games get their slice first
+                        return;
+                    } catch (RejectedExecutionException e) {
+                        // pool shutting down or saturated: settle for what the search has so far
+                    }
+                }
+                play();
+            } catch (RuntimeException e) {
+                thinking.remove(gameId);
+                log.warn("Bot turn failed in game {}", gameId, e);
+            }
+        }
+
+        private void play() {
+            thinking.remove(gameId);
+            if (best == null || best.bestMove() == MoveCodec.NONE) {
+                forget(gameId); // no legal move: the game is already over
+                return;
+            }
+            int move = best.bestMove();
+            Search.Info played = best;
+            moves.submit(gameId, botId, new Dto.MoveSend(
+                    Bitboards.squareName(MoveCodec.from(move)),
+                    Bitboards.squareName(MoveCodec.to(move)),
+                    MoveCodec.promotionLetter(move),
+                    null)).whenComplete((recorded, failure) -> {
+                if (failure != null) {
+                    log.warn("Bot move failed in game {}", gameId, failure);
+                } else {
+                    log.debug("Bot {} played {} in game {} (depth {}, {} nodes)",
+                            botId, recorded.getSan(), gameId, played.depth(), played.nodes());
+                }
+            });
+        }
+    }
+}
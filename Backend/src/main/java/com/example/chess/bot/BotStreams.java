@@ -0,0 +1,165 @@
+package com.example.chess.bot;
+
+import com.example.chess.common.Dto;
+import com.example.chess.game.Game;
+import com.example.chess.game.GameService;
+import com.example.chess.game.GameStarted;
+import com.example.chess.game.Move;
+import com.example.chess.game.MovePlayed;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Open NDJSON game feeds by user. Streams are async servlet responses: an idle stream holds a
+ * connection and an emitter, not a thread, so one node can keep thousands open. Events are written
+ * by whichever thread produced them; a blank line goes to every stream periodically so proxies keep
+ * idle connections and dead clients are noticed.
+ */
+@Component
+@Slf4j
+public class BotStreams {
+
+    public static final MediaType NDJSON = new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+
+    private record Players(Long white, Long black) {
+    }
+
+    private final GameService games;
+    private final ObjectMapper mapper;
+    private final long timeoutMillis;
+    private final ScheduledExecutorService keepAlive;
+
+    private final Map<Long, Set<ResponseBodyEmitter>> streams = new ConcurrentHashMap<>();
+    private final Map<Long, Players> watched = new ConcurrentHashMap<>(); // games with a streaming player, see close()
+
+    public BotStreams(GameService games,
+                      ObjectMapper mapper,
+                      @Value("${chess.bot.stream.timeout-millis:0}") long timeoutMillis,
+                      @Value("${chess.bot.stream.keepalive-seconds:20}") long keepAliveSeconds) {
+        this.games = games;
+        this.mapper = mapper;
+        this.timeoutMillis = timeoutMillis;
+        this.keepAlive = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bot-stream-keepalive");
+            thread.setDaemon(true);
+            return thread;
+        });
+        keepAlive.scheduleAtFixedRate(this::ping, keepAliveSeconds, keepAliveSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        keepAlive.shutdownNow();
+        streams.values().forEach(set -> set.forEach(ResponseBodyEmitter::complete));
+    }
+
+    /** Opens a feed for {@code userId}, starting with a GAME_START line for each game already in progress. */
+    public ResponseBodyEmitter open(Long userId) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeoutMillis <= 0 ? -1L : timeoutMillis);
+        streams.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(emitter);
+        emitter.onCompletion(() -> close(userId, emitter));
+        emitter.onTimeout(() -> close(userId, emitter));
+        emitter.onError(e -> close(userId, emitter));
+
+        for (Game game : games.getActiveGamesFor(userId)) {
+            watched.put(game.getId(), new Players(game.getWhitePlayerId(), game.getBlackPlayerId()));
+            send(userId, emitter, new Dto.BotGameStart(game.getId(), game.getWhitePlayerId(), game.getBlackPlayerId()));
+        }
+        return emitter;
+    }
+
+    public int openStreams() {
+        return streams.values().stream().mapToInt(Set::size).sum();
+    }
+
+    int watchedGames() {
+        return watched.size();
+    }
+
+    // The game row must be visible before a bot reacts by submitting a move
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGameStarted(GameStarted event) {
+        if (!streams.containsKey(event.whitePlayerId()) && !streams.containsKey(event.blackPlayerId())) return;
+        Players players = new Players(event.whitePlayerId(), event.blackPlayerId());
+        watched.put(event.gameId(), players);
+        publish(players, new Dto.BotGameStart(event.gameId(), players.white(), players.black()));
+    }
+
+    @EventListener
+    public void onMovePlayed(MovePlayed event) {
+        Players players = event.gameOver() ? watched.remove(event.gameId()) : watched.get(event.gameId());
+        if (players == null) return;
+        Move move = event.move();
+        String uci = move.getFromSquare() + move.getToSquare() + (move.getPromotion() == null ? "" : move.getPromotion());
+        publish(players, new Dto.BotGameMove(event.gameId(), move.getMoveNumber(), uci, move.getSan(), move.getPlayedByUserId()));
+        if (event.gameOver()) publish(players, event.over());
+    }
+
+    private void publish(Players players, Object event) {
+        String line = toLine(event);
+        sendAll(players.white(), line);
+        if (!players.black().equals(players.white())) sendAll(players.black(), line);
+    }
+
+    private void sendAll(Long userId, String line) {
+        Set<ResponseBodyEmitter> open = streams.get(userId);
+        if (open == null) return;
+        for (ResponseBodyEmitter emitter : open) {
+            write(userId, emitter, line);
+        }
+    }
+
+    private void send(Long userId, ResponseBodyEmitter emitter, Object event) {
+        write(userId, emitter, toLine(event));
+    }
+
+    private void write(Long userId, ResponseBodyEmitter emitter, String line) {
+        try {
+            emitter.send(line, NDJSON);
+        } catch (IOException | IllegalStateException e) {
+            close(userId, emitter); // client went away or the emitter already completed
+        }
+    }
+
+    private void ping() {
+        streams.forEach((userId, open) -> open.forEach(emitter -> write(userId, emitter, "\n")));
+    }
+
+    private String toLine(Object event) {
+        try {
+            return mapper.writeValueAsString(event) + "\n";
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void close(Long userId, ResponseBodyEmitter emitter) {
+        streams.computeIfPresent(userId, (id, open) -> {
+            open.remove(emitter);
+            return open.isEmpty() ? null : open;
+        });
+        if (streams.containsKey(userId)) return;
+        // Last stream of this user gone: stop watching games neither player streams any more,
+        // including abandoned ones that will never see a game-over move
+        watched.values().removeIf(players -> (players.white().equals(userId) || players.black().equals(userId))
+                && !streams.containsKey(players.white()) && !streams.containsKey(players.black()));
+    }
+}
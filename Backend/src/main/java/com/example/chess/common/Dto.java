@@ -1,5 +1,6 @@
 package com.example.chess.common;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 import java.time.Instant;
 import java.util.List;
@@ -68,11 +69,12 @@ public class Dto {
   ) {}
 
   // Game/Move DTOs
+  // Either from/to (plus promotion) or a SAN string alone; the server derives the other
   public record MoveSend(
-          @NotBlank @Pattern(regexp = "^[a-h][1-8]$") String from,
-          @NotBlank @Pattern(regexp = "^[a-h][1-8]$") String to,
+          @Pattern(regexp = "^[a-h][1-8]$") String from,
+          @Pattern(regexp = "^[a-h][1-8]$") String to,
           @Pattern(regexp = "^[qrbn]$") String promotion,
-          String san
+          @Size(max = 16) String san
   ) {}
 
   public record MoveBroadcast(
@@ -82,8 +84,16 @@ public class Dto {
           String san,
           Long by,
           Instant ts,
-          String promotion
-  ) {}
+          String promotion,
+          String eco,
+          String opening,
+          String type
+  ) {
+    public MoveBroadcast(Integer moveNumber, String from, String to, String san, Long by, Instant ts,
+                         String promotion, String eco, String opening) {
+      this(moveNumber, from, to, san, by, ts, promotion, eco, opening, "MOVE");
+    }
+  }
 
   public record MoveRecord(
           Integer moveNumber,
@@ -96,6 +106,133 @@ public class Dto {
           String fenAfter
   ) {}
 
+  public record GameOver(
+          Long gameId,
+          String result,
+          String termination,
+          Integer moveNumber,
+          String type
+  ) {
+    public GameOver(Long gameId, String result, String termination, Integer moveNumber) {
+      this(gameId, result, termination, moveNumber, "GAME_OVER");
+    }
+  }
+
+  // Post-game review
+  public record GameReviewDto(
+          Long gameId,
+          String status,
+          Float whiteAccuracy,
+          Float blackAccuracy,
+          List<MoveReviewDto> moves
+  ) {}
+
+  public record MoveReviewDto(
+          Integer moveNumber,
+          String san,
+          Integer evalCp,  // white's view; null when the score is a mate
+          Integer mateIn,  // moves to mate, negative when black mates
+          String judgment
+  ) {}
+
+  // Bot API: one JSON object per line on /api/bot/stream, plus batched move submission
+  public record BotGameStart(
+          Long gameId,
+          Long white,
+          Long black,
+          String type
+  ) {
+    public BotGameStart(Long gameId, Long white, Long black) {
+      this(gameId, white, black, "GAME_START");
+    }
+  }
+
+  public record BotGameMove(
+          Long gameId,
+          Integer moveNumber,
+          String uci,
+          String san,
+          Long by,
+          String type
+  ) {
+    public BotGameMove(Long gameId, Integer moveNumber, String uci, String san, Long by) {
+      this(gameId, moveNumber, uci, san, by, "MOVE");
+    }
+  }
+
+  public record BotMove(
+          @NotNull Long gameId,
+          @Pattern(regexp = "^[a-h][1-8]$") String from,
+          @Pattern(regexp = "^[a-h][1-8]$") String to,
+          @Pattern(regexp = "^[qrbn]$") String promotion,
+          @Size(max = 16) String san
+  ) {}
+
+  public record BotMoveBatch(
+          @NotNull @Size(min = 1, max = 100) List<@Valid BotMove> moves
+  ) {}
+
+  public record BotMoveResult(
+          Long gameId,
+          Integer moveNumber,
+          String san,
+          String error // null when the move was played
+  ) {}
+
+  public record BookMoveDto(
+          String uci,
+          String san,
+          Integer weight
+  ) {}
+
+  // Explorer DTOs
+  public record ExplorerDto(
+          String fen,
+          Integer games,
+          Integer whiteWins,
+          Integer draws,
+          Integer blackWins,
+          List<ExplorerMoveDto> moves  // most played first
+  ) {}
+
+  public record ExplorerMoveDto(
+          String uci,
+          String san,
+          Integer games,
+          Integer whiteWins,
+          Integer draws,
+          Integer blackWins,
+          List<Long> sampleGameIds  // most recent first, at most three
+  ) {}
+
+  // Analysis DTOs
+  public record AnalysisRequest(
+          @NotBlank String fen,
+          @Min(1) @Max(64) Integer depth,
+          @Min(1) @Max(600000) Long movetimeMs,
+          @Pattern(regexp = "^[A-Za-z0-9-]{8,64}$") String analysisId, // lets the client subscribe before starting
+          @Min(1) @Max(64) Integer threads
+  ) {}
+
+  public record AnalysisStarted(
+          String analysisId,
+          String topic
+  ) {}
+
+  public record AnalysisInfo(
+          String analysisId,
+          Integer depth,
+          Integer scoreCp,
+          Integer mateIn,
+          Long nodes,
+          Long nps,
+          Long timeMs,
+          List<String> pv,
+          String bestMove,
+          String type,
+          Integer threads
+  ) {}
+
   public record ActiveGameDto(
           Long gameId,
           Boolean youAreWhite,
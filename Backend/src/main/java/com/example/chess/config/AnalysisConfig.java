@@ -0,0 +1,91 @@
+package com.example.chess.config;
+
+import com.example.chess.engine.TranspositionTable;
+import com.example.chess.game.Bitbases;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dedicated pool for engine work. Fixed size with a bounded queue: when it is full new analyses are
+ * rejected instead of piling up, and searches never run on the STOMP inbound/outbound threads that
+ * relay game moves.
+ */
+@Configuration
+@Slf4j
+public class AnalysisConfig {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor analysisExecutor(@Value("${chess.analysis.threads:2}") int threads,
+                                               @Value("${chess.analysis.queue:16}") int queue) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("analysis-");
+        threadFactory.setDaemon(true);
+        threadFactory.setThreadPriority(Thread.NORM_PRIORITY - 1); // move relays win any contention
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queue), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Lazy SMP helper threads, shared by all analyses. The pool size is the global helper cap; the
+     * analysis service hands out helpers with a semaphore of the same size, so the queue only absorbs
+     * the moment between a finished helper releasing its permit and its thread going idle.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor analysisHelperExecutor(@Value("${chess.analysis.helper-threads:2}") int helperThreads) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("analysis-helper-");
+        threadFactory.setDaemon(true);
+        threadFactory.setThreadPriority(Thread.NORM_PRIORITY - 1);
+        int size = Math.max(1, helperThreads);
+        return new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(size), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * One off-heap table shared by every analysis, so a position searched for one client is already
+     * warm for the next. With {@code chess.analysis.hash-file} set it is memory-mapped and survives
+     * restarts.
+     */
+    @Bean(destroyMethod = "close")
+    public TranspositionTable transpositionTable(@Value("${chess.analysis.hash-mb:64}") int hashMb,
+                                                 @Value("${chess.analysis.hash-file:}") String hashFile) {
+        if (hashFile.isBlank()) return new TranspositionTable(hashMb);
+        TranspositionTable table = TranspositionTable.mapped(Path.of(hashFile), hashMb);
+        log.info("Mapped transposition table {} ({} slots, {})", hashFile, table.slots(), table.isWarm() ? "warm" : "cold");
+        return table;
+    }
+
+    /**
+     * Three-piece endgame bitbases for the engine, the bots and adjudication. Generated into
+     * {@code chess.bitbase.dir} on first start and memory-mapped after that; with the directory
+     * blank they are generated on the heap on every start instead.
+     */
+    @Bean
+    public Bitbases bitbases(@Value("${chess.bitbase.dir:}") String dir) {
+        long start = System.nanoTime();
+        Bitbases bitbases = dir.isBlank() ? Bitbases.inMemory() : Bitbases.open(Path.of(dir));
+        log.info("Bitbases ready in {} ms", (System.nanoTime() - start) / 1_000_000);
+        return bitbases;
+    }
+
+    /**
+     * Bot thinking. Turns run in short slices and go to the back of the queue between slices, so
+     * hundreds of bot games share a few low-priority threads round-robin. The queue holds at most one
+     * turn per bot game, which is what {@code chess.bot.max-games} caps.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor botExecutor(@Value("${chess.bot.threads:1}") int threads,
+                                          @Value("${chess.bot.max-games:200}") int maxGames) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("bot-");
+        threadFactory.setDaemon(true);
+        threadFactory.setThreadPriority(Thread.MIN_PRIORITY);
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, maxGames)), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+}
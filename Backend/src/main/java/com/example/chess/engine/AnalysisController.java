@@ -0,0 +1,33 @@
+package com.example.chess.engine;
+
+import com.example.chess.common.Dto;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/analysis")
+@RequiredArgsConstructor
+public class AnalysisController {
+
+    private final AnalysisService service;
+
+    @PostMapping
+    public ResponseEntity<Dto.AnalysisStarted> start(@RequestBody @Valid Dto.AnalysisRequest request) {
+        try {
+            String id = service.start(request);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(new Dto.AnalysisStarted(id, AnalysisService.topic(id)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build(); // analysis pool saturated
+        }
+    }
+}
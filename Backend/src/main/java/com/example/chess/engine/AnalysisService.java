@@ -0,0 +1,131 @@
+package com.example.chess.engine;
+
+import com.example.chess.common.Dto;
+import com.example.chess.game.MoveCodec;
+import com.example.chess.game.Bitbases;
+import com.example.chess.game.Position;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs engine searches on the analysis pool and streams each completed iteration to
+ * {@code /topic/analysis/{id}}, ending with a BEST_MOVE message, or an ERROR message when the search
+ * fails, so a subscriber is never left waiting. A request may ask for several
+ * threads; helpers come from a pool shared by all analyses and a busy server simply runs the search
+ * with fewer of them. All analyses share one transposition table.
+ */
+@Service
+@Slf4j
+public class AnalysisService {
+
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor helperExecutor;
+    private final Semaphore helperPermits;
+    private final SimpMessagingTemplate msg;
+    private final TranspositionTable table;
+    private final Bitbases bitbases;
+    private final int maxDepth;
+    private final long maxMillis;
+    private final int maxThreads;
+
+    public AnalysisService(@Qualifier("analysisExecutor") ThreadPoolExecutor executor,
+                           @Qualifier("analysisHelperExecutor") ThreadPoolExecutor helperExecutor,
+                           SimpMessagingTemplate msg,
+                           TranspositionTable table,
+                           Bitbases bitbases,
+                           @Value("${chess.analysis.max-depth:30}") int maxDepth,
+                           @Value("${chess.analysis.max-millis:30000}") long maxMillis,
+                           @Value("${chess.analysis.max-threads:4}") int maxThreads) {
+        this.executor = executor;
+        this.helperExecutor = helperExecutor;
+        this.helperPermits = new Semaphore(helperExecutor.getMaximumPoolSize());
+        this.msg = msg;
+        this.table = table;
+        this.bitbases = bitbases;
+        this.maxDepth = maxDepth;
+        this.maxMillis = maxMillis;
+        this.maxThreads = Math.max(1, maxThreads);
+    }
+
+    /**
+     * Queues an analysis and returns its id. Throws IllegalArgumentException for a bad FEN and
+     * RejectedExecutionException when the pool and its queue are full.
+     */
+    public String start(Dto.AnalysisRequest request) {
+        Position position = Position.fromFen(request.fen());
+        int depth = request.depth() == null ? maxDepth : Math.min(request.depth(), maxDepth);
+        long millis = request.movetimeMs() == null ? maxMillis : Math.min(request.movetimeMs(), maxMillis);
+        int threads = request.threads() == null ? 1 : Math.min(request.threads(), maxThreads);
+        String id = request.analysisId() != null ? request.analysisId() : UUID.randomUUID().toString();
+
+        executor.execute(() -> run(id, position, depth, millis, threads));
+        return id;
+    }
+
+    public static String topic(String analysisId) {
+        return "/topic/analysis/" + analysisId;
+    }
+
+    private void run(String id, Position position, int depth, long millis, int threads) {
+        int helpers = acquireHelpers(threads - 1);
+        try {
+            table.newSearch();
+            ParallelSearch search = new ParallelSearch(position, table, new AtomicBoolean(), helpers, bitbases);
+            Search.Info result = search.run(helperExecutor, depth, millis * 1_000_000L,
+                    info -> msg.convertAndSend(topic(id), toDto(id, info, "PV", search.threads())));
+            if (result == null) return;
+            msg.convertAndSend(topic(id), toDto(id, result, "BEST_MOVE", search.threads()));
+            log.debug("Analysis {} done: depth {} in {} ms, {} nodes on {} threads",
+                    id, result.depth(), result.nanos() / 1_000_000, result.nodes(), search.threads());
+        } catch (RuntimeException e) {
+            log.warn("Analysis {} failed", id, e);
+            msg.convertAndSend(topic(id), failed(id, helpers + 1));
+        } finally {
+            helperPermits.release(helpers);
+        }
+    }
+
+    /** Takes up to {@code wanted} helper permits without waiting; returns how many were granted. */
+    private int acquireHelpers(int wanted) {
+        int granted = 0;
+        while (granted < wanted && helperPermits.tryAcquire()) {
+            granted++;
+        }
+        return granted;
+    }
+
+    /** The last message of an analysis whose search threw. */
+    static Dto.AnalysisInfo failed(String id, int threads) {
+        return new Dto.AnalysisInfo(id, null, null, null, null, null, null, List.of(), null, "ERROR", threads);
+    }
+
+    static Dto.AnalysisInfo toDto(String id, Search.Info info, String type, int threads) {
+        List<String> pv = new ArrayList<>(info.pv().length);
+        for (int move : info.pv()) {
+            pv.add(MoveCodec.toUci(move));
+        }
+        return new Dto.AnalysisInfo(
+                id,
+                info.depth(),
+                info.isMate() ? null : info.score(),
+                info.isMate() ? info.mateIn() : null,
+                info.nodes(),
+                info.nodesPerSecond(),
+                info.nanos() / 1_000_000,
+                pv,
+                pv.isEmpty() ? null : pv.get(0),
+                type,
+                threads
+        );
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.chess.engine;
+
+import com.example.chess.game.PackedPosition;
+import com.example.chess.game.Position;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link Evaluator} for many positions at once, straight from {@link PackedPosition} snapshots
+ * stored back to back, for offline work such as explorer statistics and review. Results equal
+ * {@code Evaluator.evaluate} on the loaded positions, from the side to move's point of view.
+ * <p>
+ * When the JVM runs with {@code --add-modules jdk.incubator.vector}, {@code VectorBatchEvaluator}
+ * scores a whole board in a few dozen vector operations; otherwise a scalar loop over a combined
+ * table is used, where each square's entry holds material plus square bonus shifted left by 8 and
+ * the phase weight in the low byte, so one sum yields both.
+ */
+@Slf4j
+public final class BatchEvaluator {
+
+    /** One implementation of the batch loop; both write {@code count} scores starting at {@code scores[0]}. */
+    interface Kernel {
+        void evaluate(byte[] boards, int offset, int count, int[] scores);
+    }
+
+    static final int WHITE_KING = Position.KING + 1;       // nibble codes are piece + 1, 0 = empty
+    static final int BLACK_KING = 6 + Position.KING + 1;
+
+    /** Entry for nibble {@code code} on {@code sq} at {@code code << 6 | sq}: score << 8 | phase weight. */
+    static final int[] TABLE = new int[13 * 64];
+
+    static {
+        for (int piece = 0; piece < 12; piece++) {
+            for (int sq = 0; sq < 64; sq++) {
+                TABLE[(piece + 1) << 6 | sq] = Evaluator.PIECE_SQUARE[piece][sq] * 256
+                        + Evaluator.PHASE_WEIGHT[Position.typeOf(piece)];
+            }
+        }
+    }
+
+    static final Kernel SCALAR = BatchEvaluator::evaluateScalar;
+    private static final Kernel KERNEL = load();
+
+    private BatchEvaluator() {
+    }
+
+    private static Kernel load() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return SCALAR;
+        try {
+            Kernel vector = (Kernel) Class.forName("com.example.chess.engine.VectorBatchEvaluator")
+                    .getDeclaredConstructor().newInstance();
+            log.info("Batch evaluation uses the Vector API");
+            return vector;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.warn("Vector API present but unusable, batch evaluation stays scalar", e);
+            return SCALAR;
+        }
+    }
+
+    /** True when batches run on the Vector API rather than the scalar loop. */
+    public static boolean isVectorized() {
+        return KERNEL != SCALAR;
+    }
+
+    /**
+     * Scores the {@code count} snapshots starting at {@code boards[offset]} into {@code scores[0..count)}.
+     * Snapshots are {@link PackedPosition#SIZE} bytes apart and are not validated.
+     */
+    public static void evaluate(byte[] boards, int offset, int count, int[] scores) {
+        if (count < 0 || offset < 0 || offset + (long) count * PackedPosition.SIZE > boards.length || count > scores.length) {
+            throw new IndexOutOfBoundsException("Batch of " + count + " at " + offset + " does not fit");
+        }
+        KERNEL.evaluate(boards, offset, count, scores);
+    }
+
+    static void evaluateScalar(byte[] boards, int offset, int count, int[] scores) {
+        for (int n = 0; n < count; n++) {
+            int base = offset + n * PackedPosition.SIZE;
+            int total = 0, whiteKing = 0, blackKing = 0;
+            for (int i = 0; i < PackedPosition.PLACEMENT_BYTES; i++) {
+                int pair = boards[base + i] & 0xFF;
+                if (pair == 0) continue;
+                int low = pair & 0xF, high = pair >>> 4, sq = 2 * i;
+                total += TABLE[low << 6 | sq] + TABLE[high << 6 | sq + 1];
+                if (low == WHITE_KING) whiteKing = sq;
+                else if (low == BLACK_KING) blackKing = sq;
+                if (high == WHITE_KING) whiteKing = sq + 1;
+                else if (high == BLACK_KING) blackKing = sq + 1;
+            }
+            int shift = Evaluator.KING_SHIFT[Position.WHITE][whiteKing] + Evaluator.KING_SHIFT[Position.BLACK][blackKing];
+            scores[n] = finish(total >> 8, total & 0xFF, shift, PackedPosition.sideToMove(boards, base));
+        }
+    }
+
+    /** Same tail as {@link Evaluator#evaluate}: blends the king tables by phase and turns to the side to move. */
+    static int finish(int score, int phase, int kingShift, int sideToMove) {
+        int endgame = Evaluator.MAX_PHASE - Math.min(phase, Evaluator.MAX_PHASE);
+        score += kingShift * endgame / Evaluator.MAX_PHASE;
+        return sideToMove == Position.WHITE ? score : -score;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.chess.engine;
+
+import com.example.chess.game.Position;
+
+/**
+ * Static evaluation: material plus piece-square tables (the "simplified evaluation function"
+ * values), with the king table blended from middlegame to endgame by remaining material.
+ * Scores are centipawns from the side to move's point of view.
+ */
+public final class Evaluator {
+
+    static final int[] MATERIAL = {100, 320, 330, 500, 900, 0};
+
+    // Tables are written rank 8 first, as printed; see index()
+    private static final int[][] TABLES = {
+            { // pawn
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    50, 50, 50, 50, 50, 50, 50, 50,
+                    10, 10, 20, 30, 30, 20, 10, 10,
+                    5, 5, 10, 25, 25, 10, 5, 5,
+                    0, 0, 0, 20, 20, 0, 0, 0,
+                    5, -5, -10, 0, 0, -10, -5, 5,
+                    5, 10, 10, -20, -20, 10, 10, 5,
+                    0, 0, 0, 0, 0, 0, 0, 0},
+            { // knight
+                    -50, -40, -30, -30, -30, -30, -40, -50,
+                    -40, -20, 0, 0, 0, 0, -20, -40,
+                    -30, 0, 10, 15, 15, 10, 0, -30,
+                    -30, 5, 15, 20, 20, 15, 5, -30,
+                    -30, 0, 15, 20, 20, 15, 0, -30,
+                    -30, 5, 10, 15, 15, 10, 5, -30,
+                    -40, -20, 0, 5, 5, 0, -20, -40,
+                    -50, -40, -30, -30, -30, -30, -40, -50},
+            { // bishop
+                    -20, -10, -10, -10, -10, -10, -10, -20,
+                    -10, 0, 0, 0, 0, 0, 0, -10,
+                    -10, 0, 5, 10, 10, 5, 0, -10,
+                    -10, 5, 5, 10, 10, 5, 5, -10,
+                    -10, 0, 10, 10, 10, 10, 0, -10,
+                    -10, 10, 10, 10, 10, 10, 10, -10,
+                    -10, 5, 0, 0, 0, 0, 5, -10,
+                    -20, -10, -10, -10, -10, -10, -10, -20},
+            { // rook
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    5, 10, 10, 10, 10, 10, 10, 5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    0, 0, 0, 5, 5, 0, 0, 0},
+            { // queen
+                    -20, -10, -10, -5, -5, -10, -10, -20,
+                    -10, 0, 0, 0, 0, 0, 0, -10,
+                    -10, 0, 5, 5, 5, 5, 0, -10,
+                    -5, 0, 5, 5, 5, 5, 0, -5,
+                    0, 0, 5, 5, 5, 5, 0, -5,
+                    -10, 5, 5, 5, 5, 5, 0, -10,
+                    -10, 0, 5, 0, 0, 0, 0, -10,
+                    -20, -10, -10, -5, -5, -10, -10, -20},
+            { // king, middlegame
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -20, -30, -30, -40, -40, -30, -30, -20,
+                    -10, -20, -20, -20, -20, -20, -20, -10,
+                    20, 20, 0, 0, 0, 0, 20, 20,
+                    20, 30, 10, 0, 0, 10, 30, 20}
+    };
+
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50};
+
+    static final int[] PHASE_WEIGHT = {0, 1, 1, 2, 4, 0};
+    static final int MAX_PHASE = 24;
+
+    /** Material + square bonus per piece code, signed for white (+) and black (-); kings use their middlegame table. */
+    static final int[][] PIECE_SQUARE = new int[12][64];
+    /** Endgame minus middlegame king bonus per king piece code (index 0 white, 1 black), signed like PIECE_SQUARE. */
+    static final int[][] KING_SHIFT = new int[2][64];
+
+    static {
+        for (int type = Position.PAWN; type <= Position.KING; type++) {
+            for (int sq = 0; sq < 64; sq++) {
+                PIECE_SQUARE[type][sq] = MATERIAL[type] + TABLES[type][index(Position.WHITE, sq)];
+                PIECE_SQUARE[6 + type][sq] = -(MATERIAL[type] + TABLES[type][index(Position.BLACK, sq)]);
+            }
+        }
+        for (int sq = 0; sq < 64; sq++) {
+            KING_SHIFT[Position.WHITE][sq] = KING_ENDGAME[index(Position.WHITE, sq)] - TABLES[Position.KING][index(Position.WHITE, sq)];
+            KING_SHIFT[Position.BLACK][sq] = -(KING_ENDGAME[index(Position.BLACK, sq)] - TABLES[Position.KING][index(Position.BLACK, sq)]);
+        }
+    }
+
+    private Evaluator() {
+    }
+
+    /** Table index for a piece of {@code color} on {@code sq} (a1 = 0), mirroring ranks for black. */
+    private static int index(int color, int sq) {
+        int rank = sq >>> 3, file = sq & 7;
+        return color == Position.WHITE ? (7 - rank) * 8 + file : rank * 8 + file;
+    }
+
+    public static int evaluate(Position position) {
+        int score = 0, phase = 0;
+        for (long occupied = position.occupied(); occupied != 0; occupied &= occupied - 1) {
+            int sq = Long.numberOfTrailingZeros(occupied);
+            int piece = position.pieceAt(sq);
+            score += PIECE_SQUARE[piece][sq];
+            phase += PHASE_WEIGHT[Position.typeOf(piece)];
+        }
+        int endgame = MAX_PHASE - Math.min(phase, MAX_PHASE);
+        int whiteKing = position.kingSquare(Position.WHITE), blackKing = position.kingSquare(Position.BLACK);
+        score += (KING_SHIFT[Position.WHITE][whiteKing] + KING_SHIFT[Position.BLACK][blackKing]) * endgame / MAX_PHASE;
+        return position.sideToMove() == Position.WHITE ? score : -score;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.chess.engine;
+
+import com.example.chess.game.Bitbases;
+import com.example.chess.game.Position;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Lazy SMP: the calling thread runs the main search while helper threads search the same root on
+ * their own copies of the position. Nothing is split explicitly; helpers start at staggered depths
+ * and fill the shared {@link TranspositionTable}, so the main thread finds cutoffs and move ordering
+ * it did not have to compute. Only the main thread reports iterations and picks the move.
+ */
+public final class ParallelSearch {
+
+    private final Search main;
+    private final Search[] helpers;
+    private final AtomicBoolean done = new AtomicBoolean(); // stops the helpers once the main search returns
+
+    /** {@code helperCount} extra threads beyond the caller; 0 is a plain single-threaded search. */
+    public ParallelSearch(Position position, TranspositionTable table, AtomicBoolean stop, int helperCount) {
+        this(position, table, stop, helperCount, Bitbases.NONE);
+    }
+
+    public ParallelSearch(Position position, TranspositionTable table, AtomicBoolean stop, int helperCount, Bitbases bitbases) {
+        main = new Search(position, table, stop, bitbases);
+        helpers = new Search[helperCount];
+        for (int i = 0; i < helperCount; i++) {
+            Position copy = new Position();
+            copy.copyFrom(position);
+            helpers[i] = new Search(copy, table, done, bitbases);
+        }
+    }
+
+    /**
+     * Starts the helpers on {@code executor}, searches on the calling thread and returns once every
+     * helper has stopped. Helpers the executor refuses are skipped. Reported node counts cover all
+     * threads; mid-search totals read the helpers' counters without synchronization and may lag.
+     */
+    public Search.Info run(Executor executor, int maxDepth, long budgetNanos, Consumer<Search.Info> listener) {
+        CountDownLatch finished = new CountDownLatch(helpers.length);
+        for (int i = 0; i < helpers.length; i++) {
+            Search helper = helpers[i];
+            int index = i;
+            try {
+                executor.execute(() -> {
+                    try {
+                        helper.runHelper(index, maxDepth);
+                    } finally {
+                        finished.countDown();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                finished.countDown();
+            }
+        }
+
+        Search.Info result;
+        try {
+            result = main.run(maxDepth, budgetNanos,
+                    listener == null ? null : info -> listener.accept(withTotalNodes(info)));
+        } finally {
+            done.set(true);
+        }
+        try {
+            finished.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return result == null ? null : withTotalNodes(result);
+    }
+
+    public int threads() {
+        return helpers.length + 1;
+    }
+
+    public long nodes() {
+        long total = main.nodes();
+        for (Search helper : helpers) {
+            total += helper.nodes();
+        }
+        return total;
+    }
+
+    private Search.Info withTotalNodes(Search.Info info) {
+        return helpers.length == 0 ? info : new Search.Info(info.depth(), info.score(), nodes(), info.nanos(), info.pv());
+    }
+}
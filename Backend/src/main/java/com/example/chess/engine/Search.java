@@ -0,0 +1,331 @@
+package com.example.chess.engine;
+
+import com.example.chess.game.Bitbases;
+import com.example.chess.game.MoveCodec;
+import com.example.chess.game.Position;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Iterative-deepening principal variation search with a transposition table, check extension,
+ * late move reductions, quiescence on captures and promotions, and move ordering by hash move,
+ * MVV-LVA, killers and history. Endgames covered by {@link Bitbases} are scored from the table below
+ * the root instead of searched. One instance searches one position on one thread; all working buffers are allocated
+ * here, so the search itself does not allocate until it reports an iteration. Several instances may
+ * share one table, which is how {@link ParallelSearch} splits work.
+ */
+public final class Search {
+
+    public static final int INFINITE = 32000;
+    public static final int MATE = 31000;
+    public static final int MAX_PLY = 100;
+    public static final int KNOWN_WIN = 20000; // bitbase win, below every mate score
+
+    /** Result of a completed iteration. Scores are centipawns for the side to move, or mate distance. */
+    public record Info(int depth, int score, long nodes, long nanos, int[] pv) {
+
+        public boolean isMate() {
+            return Math.abs(score) >= MATE - MAX_PLY;
+        }
+
+        /** Moves to mate, negative when the side to move is getting mated. */
+        public int mateIn() {
+            return score > 0 ? (MATE - score + 1) / 2 : -(MATE + score) / 2;
+        }
+
+        public int bestMove() {
+            return pv.length == 0 ? MoveCodec.NONE : pv[0];
+        }
+
+        public long nodesPerSecond() {
+            return nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos;
+        }
+    }
+
+    private static final int CHECK_INTERVAL = 2048;
+
+    private final Position position;
+    private final TranspositionTable table;
+    private final AtomicBoolean stop;
+    private final Bitbases bitbases;
+
+    private final int[][] moves = new int[MAX_PLY + 1][Position.MAX_MOVES];
+    private final int[][] order = new int[MAX_PLY + 1][Position.MAX_MOVES];
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+    private final int[][] history = new int[12][64];
+    private final int[][] pv = new int[MAX_PLY + 1][MAX_PLY + 1];
+    private final int[] pvLength = new int[MAX_PLY + 1];
+
+    private long nodes;
+    private long deadline;
+    private boolean stopped;
+    private boolean interruptible; // false until the first iteration completes
+
+    public Search(Position position, TranspositionTable table, AtomicBoolean stop) {
+        this(position, table, stop, Bitbases.NONE);
+    }
+
+    public Search(Position position, TranspositionTable table, AtomicBoolean stop, Bitbases bitbases) {
+        this.position = position;
+        this.table = table;
+        this.stop = stop;
+        this.bitbases = bitbases;
+    }
+
+    public long nodes() {
+        return nodes;
+    }
+
+    /**
+     * Deepens until {@code maxDepth} or the time budget runs out, reporting every completed iteration
+     * to {@code listener}. Returns the last completed iteration; depth 1 always completes.
+     */
+    public Info run(int maxDepth, long budgetNanos, Consumer<Info> listener) {
+        return deepen(1, maxDepth, budgetNanos, false, listener);
+    }
+
+    /**
+     * Lazy SMP helper pass: deepens from a staggered first depth until {@code maxDepth} or the stop
+     * flag, feeding the shared table. Helpers may be stopped before finishing any iteration, so the
+     * result is only useful for its node count.
+     */
+    Info runHelper(int index, int maxDepth) {
+        return deepen(1 + (index & 1), maxDepth, 0, true, null);
+    }
+
+    private Info deepen(int firstDepth, int maxDepth, long budgetNanos, boolean interruptibleAtOnce, Consumer<Info> listener) {
+        long start = System.nanoTime();
+        deadline = budgetNanos <= 0 ? Long.MAX_VALUE : start + budgetNanos;
+        nodes = 0;
+        stopped = false;
+        interruptible = interruptibleAtOnce;
+        Info last = null;
+        for (int depth = firstDepth; depth <= Math.min(maxDepth, MAX_PLY - 1); depth++) {
+            int score = alphaBeta(depth, -INFINITE, INFINITE, 0);
+            if (stopped) break;
+            interruptible = true;
+            last = new Info(depth, score, nodes, System.nanoTime() - start, Arrays.copyOf(pv[0], pvLength[0]));
+            if (listener != null) listener.accept(last);
+            if (stop.get() || last.isMate() && depth >= 2 * Math.abs(last.mateIn())) break; // deeper cannot find a shorter mate
+        }
+        return last;
+    }
+
+    private int alphaBeta(int depth, int alpha, int beta, int ply) {
+        pvLength[ply] = 0;
+        if (ply > 0 && isDraw()) return 0;
+        if (ply >= MAX_PLY) return Evaluator.evaluate(position);
+        if (ply > 0) {
+            int known = bitbases.probe(position);
+            if (known != Bitbases.UNKNOWN) return knownScore(known, ply);
+        }
+
+        boolean inCheck = position.inCheck();
+        if (inCheck) depth++;
+        if (depth <= 0) return quiescence(alpha, beta, ply);
+        if (++nodes % CHECK_INTERVAL == 0) checkTime();
+        if (stopped) return 0;
+
+        // Mate distance pruning
+        alpha = Math.max(alpha, -MATE + ply);
+        beta = Math.min(beta, MATE - ply - 1);
+        if (alpha >= beta) return alpha;
+
+        long key = position.key();
+        long entry = table.probe(key);
+        int hashMove = MoveCodec.NONE;
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.BOUND_EXACT
+                        || bound == TranspositionTable.BOUND_LOWER && score >= beta
+                        || bound == TranspositionTable.BOUND_UPPER && score <= alpha) {
+                    return score;
+                }
+            }
+        }
+
+        int[] list = moves[ply];
+        int count = position.generateLegal(list);
+        if (count == 0) return inCheck ? -MATE + ply : 0;
+        scoreMoves(list, order[ply], count, hashMove, ply);
+
+        int originalAlpha = alpha;
+        int best = -INFINITE, bestMove = MoveCodec.NONE;
+        for (int i = 0; i < count; i++) {
+            int move = pickNext(list, order[ply], i, count);
+            position.makeMove(move);
+            int score;
+            if (i == 0) {
+                score = -alphaBeta(depth - 1, -beta, -alpha, ply + 1);
+            } else {
+                // Late quiet moves are tried one ply shallower first and re-searched only if they look good
+                boolean reduce = i >= 4 && depth >= 3 && !inCheck && !MoveCodec.isCapture(move)
+                        && !MoveCodec.isPromotion(move) && !position.inCheck();
+                score = -alphaBeta(depth - (reduce ? 2 : 1), -alpha - 1, -alpha, ply + 1);
+                if (reduce && score > alpha) score = -alphaBeta(depth - 1, -alpha - 1, -alpha, ply + 1);
+                if (score > alpha && score < beta) score = -alphaBeta(depth - 1, -beta, -alpha, ply + 1);
+            }
+            position.unmakeMove();
+            if (stopped) return 0;
+
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (score >= beta) {
+                        if (!MoveCodec.isCapture(move) && !MoveCodec.isPromotion(move)) rememberQuiet(move, depth, ply);
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = best >= beta ? TranspositionTable.BOUND_LOWER
+                : best > originalAlpha ? TranspositionTable.BOUND_EXACT : TranspositionTable.BOUND_UPPER;
+        table.store(key, bestMove, toTable(best, ply), depth, bound);
+        return best;
+    }
+
+    private int quiescence(int alpha, int beta, int ply) {
+        pvLength[ply] = 0;
+        if (++nodes % CHECK_INTERVAL == 0) checkTime();
+        if (stopped) return 0;
+        if (ply >= MAX_PLY) return Evaluator.evaluate(position);
+
+        boolean inCheck = position.inCheck();
+        if (!inCheck) {
+            int standPat = Evaluator.evaluate(position);
+            if (standPat >= beta) return standPat;
+            if (standPat > alpha) alpha = standPat;
+        }
+
+        int[] list = moves[ply];
+        int count = position.generateLegal(list);
+        if (count == 0) return inCheck ? -MATE + ply : 0;
+        if (!inCheck) count = keepTactical(list, count); // in check every evasion is searched
+        scoreMoves(list, order[ply], count, MoveCodec.NONE, ply);
+
+        int best = inCheck ? -INFINITE : alpha;
+        for (int i = 0; i < count; i++) {
+            int move = pickNext(list, order[ply], i, count);
+            position.makeMove(move);
+            int score = -quiescence(-beta, -alpha, ply + 1);
+            position.unmakeMove();
+            if (stopped) return 0;
+            if (score > best) best = score;
+            if (score > alpha) {
+                alpha = score;
+                if (score >= beta) break;
+            }
+        }
+        return best;
+    }
+
+    private static int keepTactical(int[] list, int count) {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            if (MoveCodec.isCapture(list[i]) || MoveCodec.isPromotion(list[i])) list[kept++] = list[i];
+        }
+        return kept;
+    }
+
+    private void scoreMoves(int[] list, int[] scores, int count, int hashMove, int ply) {
+        for (int i = 0; i < count; i++) {
+            int move = list[i];
+            if (move == hashMove) {
+                scores[i] = 1_000_000;
+            } else if (MoveCodec.isCapture(move)) {
+                int victim = MoveCodec.isEnPassant(move) ? Position.PAWN : Position.typeOf(position.pieceAt(MoveCodec.to(move)));
+                int attacker = Position.typeOf(position.pieceAt(MoveCodec.from(move)));
+                scores[i] = 100_000 + Evaluator.MATERIAL[victim] * 10 - attacker;
+            } else if (MoveCodec.isPromotion(move)) {
+                scores[i] = 90_000 + MoveCodec.promotionType(move);
+            } else if (move == killers[ply][0]) {
+                scores[i] = 80_000;
+            } else if (move == killers[ply][1]) {
+                scores[i] = 79_000;
+            } else {
+                scores[i] = history[position.pieceAt(MoveCodec.from(move))][MoveCodec.to(move)];
+            }
+        }
+    }
+
+    /** Selection step: swaps the best remaining move into slot {@code i}; cheaper than sorting when a cutoff comes early. */
+    private static int pickNext(int[] list, int[] scores, int i, int count) {
+        int best = i;
+        for (int j = i + 1; j < count; j++) {
+            if (scores[j] > scores[best]) best = j;
+        }
+        int move = list[best];
+        list[best] = list[i];
+        list[i] = move;
+        int score = scores[best];
+        scores[best] = scores[i];
+        scores[i] = score;
+        return move;
+    }
+
+    private void rememberQuiet(int move, int depth, int ply) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] row = history[position.pieceAt(MoveCodec.from(move))];
+        row[MoveCodec.to(move)] = Math.min(row[MoveCodec.to(move)] + depth * depth, 70_000);
+    }
+
+    private void updatePv(int ply, int move) {
+        pv[ply][0] = move;
+        System.arraycopy(pv[ply + 1], 0, pv[ply], 1, pvLength[ply + 1]);
+        pvLength[ply] = pvLength[ply + 1] + 1;
+    }
+
+    /**
+     * Score of a bitbase result. Wins rank above any material but below mates, nearer ones first;
+     * within a win the static evaluation plus a pull of the weak king towards the edge and the
+     * strong king steers the search towards actually mating instead of shuffling.
+     */
+    private int knownScore(int known, int ply) {
+        if (known == Bitbases.DRAW) return 0;
+        int strong = known == Bitbases.WIN ? position.sideToMove() : position.sideToMove() ^ 1;
+        int strongKing = position.kingSquare(strong), weakKing = position.kingSquare(strong ^ 1);
+        int edge = Math.max(3 - (weakKing >>> 3), (weakKing >>> 3) - 4) + Math.max(3 - (weakKing & 7), (weakKing & 7) - 4);
+        int distance = Math.abs((strongKing >>> 3) - (weakKing >>> 3)) + Math.abs((strongKing & 7) - (weakKing & 7));
+        int progress = 20 * edge + 10 * (14 - distance) + Math.abs(Evaluator.evaluate(position));
+        return known == Bitbases.WIN ? KNOWN_WIN + progress - ply : -KNOWN_WIN - progress + ply;
+    }
+
+    /** Fifty-move rule or a repetition of any position since the last irreversible move. */
+    private boolean isDraw() {
+        int clock = position.halfmoveClock();
+        if (clock >= 100) return true;
+        long key = position.key();
+        int now = position.ply();
+        for (int i = now - 2; i >= Math.max(0, now - clock); i -= 2) {
+            if (position.keyAt(i) == key) return true;
+        }
+        return false;
+    }
+
+    private void checkTime() {
+        if (interruptible && (stop.get() || System.nanoTime() > deadline || Thread.currentThread().isInterrupted())) {
+            stopped = true;
+        }
+    }
+
+    // Mate scores are stored relative to the node so they stay valid at other depths
+    private static int toTable(int score, int ply) {
+        return score >= MATE - MAX_PLY ? score + ply : score <= -MATE + MAX_PLY ? score - ply : score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        return score >= MATE - MAX_PLY ? score - ply : score <= -MATE + MAX_PLY ? score + ply : score;
+    }
+}
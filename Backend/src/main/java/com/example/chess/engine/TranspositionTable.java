@@ -0,0 +1,200 @@
+package com.example.chess.engine;
+
+import com.example.chess.game.Position;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Fixed-size hash of search results, kept off the Java heap so a multi-gigabyte table adds nothing
+ * to GC work. Each slot is 16 bytes: the key XOR-ed with the packed entry, then the entry, so a slot
+ * torn by concurrent writers fails verification instead of returning another position's data. Reads
+ * and writes are single opaque 64-bit accesses; no locks anywhere. Replacement prefers deeper
+ * results from the current search.
+ * <p>
+ * Entry layout: move (bits 0-15), score (16-31, signed), depth (32-39), bound (40-41), generation (42-49).
+ * <p>
+ * A table opened with {@link #mapped} lives in a file behind a small header, so a restarted server
+ * keeps its warmed entries. Keys come from the fixed {@code Zobrist} seed; the header records the
+ * start position key and the slot count, and a file that disagrees with either is wiped.
+ */
+public final class TranspositionTable implements AutoCloseable {
+
+    public static final int BOUND_EXACT = 1;
+    public static final int BOUND_LOWER = 2;  // score >= stored (fail high)
+    public static final int BOUND_UPPER = 3;  // score <= stored (fail low)
+
+    static final int SLOT_SIZE = 16;
+    static final int HEADER_SIZE = 64;
+    static final long MAGIC = 0x4348455353545431L; // "CHESSTT1"
+
+    // Buffers are capped at 2 GB, so large tables are split into 1 GB chunks
+    private static final int CHUNK_SHIFT = 26; // slots per chunk
+    private static final int CHUNK_SLOTS = 1 << CHUNK_SHIFT;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final ByteBuffer[] chunks;
+    private final long mask;
+    private final MappedByteBuffer header; // null unless file-backed
+    private final boolean warm;
+    private volatile int generation;
+
+    /** Table in direct memory, rounded down to a power-of-two number of slots. */
+    public TranspositionTable(int megabytes) {
+        long slots = slotsFor(megabytes);
+        mask = slots - 1;
+        chunks = new ByteBuffer[chunkCount(slots)];
+        for (int c = 0; c < chunks.length; c++) {
+            chunks[c] = ByteBuffer.allocateDirect(chunkBytes(slots, c)).order(ByteOrder.nativeOrder());
+        }
+        header = null;
+        warm = false;
+    }
+
+    private TranspositionTable(FileChannel channel, long slots) throws IOException {
+        mask = slots - 1;
+        header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        header.order(ByteOrder.nativeOrder());
+        boolean valid = channel.size() == HEADER_SIZE + slots * SLOT_SIZE
+                && header.getLong(0) == MAGIC
+                && header.getLong(8) == slots
+                && header.getLong(16) == new Position().key();
+        chunks = new ByteBuffer[chunkCount(slots)];
+        for (int c = 0; c < chunks.length; c++) {
+            long offset = HEADER_SIZE + ((long) c << CHUNK_SHIFT) * SLOT_SIZE;
+            chunks[c] = channel.map(FileChannel.MapMode.READ_WRITE, offset, chunkBytes(slots, c)).order(ByteOrder.nativeOrder());
+        }
+        if (valid) {
+            generation = header.getInt(24) & 0xFF;
+        } else {
+            clear();
+            header.putLong(0, MAGIC).putLong(8, slots).putLong(16, new Position().key()).putInt(24, 0);
+        }
+        warm = valid;
+    }
+
+    /**
+     * Opens or creates a table backed by {@code file}. Existing entries are kept when the file was
+     * written for the same size and key scheme, otherwise the file is resized and cleared.
+     */
+    public static TranspositionTable mapped(Path file, int megabytes) {
+        long slots = slotsFor(megabytes);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long bytes = HEADER_SIZE + slots * SLOT_SIZE;
+            if (channel.size() > bytes) channel.truncate(bytes);
+            return new TranspositionTable(channel, slots); // mappings stay valid after close
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map transposition table " + file, e);
+        }
+    }
+
+    private static long slotsFor(int megabytes) {
+        return Long.highestOneBit(Math.max(SLOT_SIZE, ((long) Math.max(1, megabytes) << 20) / SLOT_SIZE));
+    }
+
+    private static int chunkCount(long slots) {
+        return (int) ((slots + CHUNK_SLOTS - 1) >>> CHUNK_SHIFT);
+    }
+
+    private static int chunkBytes(long slots, int chunk) {
+        return (int) (Math.min(CHUNK_SLOTS, slots - ((long) chunk << CHUNK_SHIFT)) * SLOT_SIZE);
+    }
+
+    /** Ages out entries from earlier searches without clearing them. */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+        if (header != null) header.putInt(24, generation);
+    }
+
+    public void clear() {
+        for (ByteBuffer chunk : chunks) {
+            for (int i = 0; i < chunk.capacity(); i += 8) {
+                LONGS.setOpaque(chunk, i, 0L);
+            }
+        }
+    }
+
+    public long slots() {
+        return mask + 1;
+    }
+
+    /** True when this table was reopened from a file with usable entries. */
+    public boolean isWarm() {
+        return warm;
+    }
+
+    /** Writes a mapped table back to its file; a no-op for in-memory tables. */
+    public void flush() {
+        if (header == null) return;
+        for (ByteBuffer chunk : chunks) {
+            ((MappedByteBuffer) chunk).force();
+        }
+        header.force();
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    /** Packed entry for {@code key}, or 0 when absent. */
+    public long probe(long key) {
+        long i = index(key);
+        ByteBuffer chunk = chunks[(int) (i >>> CHUNK_SHIFT)];
+        int at = (int) (i & (CHUNK_SLOTS - 1)) * SLOT_SIZE;
+        long check = (long) LONGS.getOpaque(chunk, at);
+        long entry = (long) LONGS.getOpaque(chunk, at + 8);
+        return (check ^ entry) == key && entry != 0 ? entry : 0L;
+    }
+
+    public void store(long key, int move, int score, int depth, int bound) {
+        long i = index(key);
+        ByteBuffer chunk = chunks[(int) (i >>> CHUNK_SHIFT)];
+        int at = (int) (i & (CHUNK_SLOTS - 1)) * SLOT_SIZE;
+        long old = (long) LONGS.getOpaque(chunk, at + 8);
+        boolean sameKey = ((long) LONGS.getOpaque(chunk, at) ^ old) == key;
+        int current = generation;
+        if (old != 0 && generation(old) == current && depth(old) > depth && !sameKey) return;
+        if (sameKey && move == 0) move = move(old); // keep the best move of a shallower pass
+        long entry = (move & 0xFFFFL)
+                | (score & 0xFFFFL) << 16
+                | (long) (depth & 0xFF) << 32
+                | (long) bound << 40
+                | (long) current << 42;
+        LONGS.setOpaque(chunk, at + 8, entry);
+        LONGS.setOpaque(chunk, at, key ^ entry);
+    }
+
+    private long index(long key) {
+        return (key ^ (key >>> 32)) & mask;
+    }
+
+    public static int move(long entry) {
+        return (int) (entry & 0xFFFF);
+    }
+
+    public static int score(long entry) {
+        return (short) (entry >>> 16);
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> 32) & 0xFF;
+    }
+
+    public static int bound(long entry) {
+        return (int) (entry >>> 40) & 3;
+    }
+
+    static int generation(long entry) {
+        return (int) (entry >>> 42) & 0xFF;
+    }
+}
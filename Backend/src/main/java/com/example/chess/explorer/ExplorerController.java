@@ -0,0 +1,28 @@
+package com.example.chess.explorer;
+
+import com.example.chess.common.Dto;
+import com.example.chess.game.Position;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/explorer")
+@RequiredArgsConstructor
+public class ExplorerController {
+
+    private final ExplorerService service;
+
+    /** Every move played from the position in stored games, with results and a few example game ids. */
+    @GetMapping
+    public ResponseEntity<Dto.ExplorerDto> explore(@RequestParam(defaultValue = Position.START_FEN) String fen) {
+        try {
+            return ResponseEntity.ok(service.lookup(fen));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
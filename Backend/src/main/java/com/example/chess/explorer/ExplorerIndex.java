@@ -0,0 +1,242 @@
+package com.example.chess.explorer;
+
+import com.example.chess.game.Position;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+/**
+ * Move statistics per position, in an open-addressing hash (linear probing, power-of-two capacity)
+ * held in direct memory, so millions of continuations cost no GC work. A slot is keyed by the
+ * Zobrist key of the position and the move played from it, and holds the number of games, their
+ * results and the ids of the last few games that played it.
+ * <p>
+ * The same table records how far each game has been counted, under the reserved move code
+ * {@link #GAME}, so replaying a game that is already counted adds nothing. Not thread-safe.
+ * <pre>
+ *   slot:     key (0-7), move (8-11, 0 = empty), games (12-15), white wins, draws, black wins (16-27),
+ *             sample cursor (28-31), three sample game ids (32-55), reserved (56-63)
+ *   progress: game id (0-7), GAME (8-11), plies counted (12-15), result counted (16-19)
+ *   file:     magic, slot count, slots used, start position key, taken at (epoch millis), then the slots
+ * </pre>
+ */
+public final class ExplorerIndex {
+
+    public static final int WHITE_WINS = 0;
+    public static final int DRAW = 1;
+    public static final int BLACK_WINS = 2;
+
+    /** Game statistics for one continuation; samples are newest first. */
+    public record Stats(int games, int whiteWins, int draws, int blackWins, long[] sampleGameIds) {
+    }
+
+    /** An index read back from disk with the time it was written. */
+    public record Snapshot(ExplorerIndex index, Instant takenAt) {
+    }
+
+    static final int SLOT_SIZE = 64;
+    static final int HEADER_SIZE = 64;
+    static final long MAGIC = 0x4348455353455831L; // "CHESSEX1"
+    static final int GAME = 1 << 16; // above every 16-bit move code
+    static final int SAMPLES = 3;
+
+    private static final int MAX_SLOTS = 1 << 24; // 1 GB; one buffer cannot exceed 2 GB
+
+    private static final int KEY = 0;
+    private static final int MOVE = 8;
+    private static final int GAMES = 12;
+    private static final int RESULTS = 16;
+    private static final int CURSOR = 28;
+    private static final int SAMPLE = 32;
+
+    private ByteBuffer slots;
+    private int mask;
+    private int size;
+
+    public ExplorerIndex(int expectedEntries) {
+        int capacity = Integer.highestOneBit(Math.max(16, Math.min(MAX_SLOTS / 2, expectedEntries) * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    private ExplorerIndex(ByteBuffer slots, int size) {
+        this.slots = slots;
+        this.mask = slots.capacity() / SLOT_SIZE - 1;
+        this.size = size;
+    }
+
+    private void allocate(int capacity) {
+        slots = ByteBuffer.allocateDirect(capacity * SLOT_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    /** Slots in use, continuations and game progress records together. */
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /** Counts one more game playing {@code move} from the position with {@code key}. */
+    public void addGame(long key, int move, long gameId) {
+        int at = findOrInsert(key, move);
+        slots.putInt(at + GAMES, slots.getInt(at + GAMES) + 1);
+        int cursor = slots.getInt(at + CURSOR);
+        slots.putLong(at + SAMPLE + 8 * cursor, gameId);
+        slots.putInt(at + CURSOR, (cursor + 1) % SAMPLES);
+    }
+
+    /** Adds a finished game's result to a continuation it played; {@code result} is one of the result constants. */
+    public void addResult(long key, int move, int result) {
+        if (result < WHITE_WINS || result > BLACK_WINS) throw new IllegalArgumentException("Unknown result " + result);
+        int at = find(key, move);
+        if (at < 0) return;
+        int field = at + RESULTS + 4 * result;
+        slots.putInt(field, slots.getInt(field) + 1);
+    }
+
+    /** Statistics for {@code move} from the position with {@code key}, or null when no game played it. */
+    public Stats get(long key, int move) {
+        int at = find(key, move);
+        if (at < 0) return null;
+        int games = slots.getInt(at + GAMES);
+        int cursor = slots.getInt(at + CURSOR);
+        long[] samples = new long[Math.min(games, SAMPLES)];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = slots.getLong(at + SAMPLE + 8 * Math.floorMod(cursor - 1 - i, SAMPLES));
+        }
+        return new Stats(games, slots.getInt(at + RESULTS), slots.getInt(at + RESULTS + 4),
+                slots.getInt(at + RESULTS + 8), samples);
+    }
+
+    /** Number of the game's plies already counted. */
+    public int countedPlies(long gameId) {
+        int at = find(gameId, GAME);
+        return at < 0 ? 0 : slots.getInt(at + GAMES);
+    }
+
+    /** True once the game's result has been added to its moves. */
+    public boolean resultCounted(long gameId) {
+        int at = find(gameId, GAME);
+        return at >= 0 && slots.getInt(at + RESULTS) != 0;
+    }
+
+    public void markCounted(long gameId, int plies, boolean result) {
+        int at = findOrInsert(gameId, GAME);
+        slots.putInt(at + GAMES, plies);
+        slots.putInt(at + RESULTS, result ? 1 : 0);
+    }
+
+    private int find(long key, int move) {
+        for (int i = slot(key, move); ; i = (i + 1) & mask) {
+            int at = i * SLOT_SIZE;
+            int stored = slots.getInt(at + MOVE);
+            if (stored == 0) return -1;
+            if (stored == move && slots.getLong(at + KEY) == key) return at;
+        }
+    }
+
+    private int findOrInsert(long key, int move) {
+        if (move == 0) throw new IllegalArgumentException("Move code 0 marks empty slots");
+        int at = find(key, move);
+        if (at >= 0) return at;
+        if ((size + 1) * 10L > capacity() * 7L) grow();
+        for (int i = slot(key, move); ; i = (i + 1) & mask) {
+            at = i * SLOT_SIZE;
+            if (slots.getInt(at + MOVE) == 0) {
+                slots.putLong(at + KEY, key).putInt(at + MOVE, move);
+                size++;
+                return at;
+            }
+        }
+    }
+
+    private void grow() {
+        if (capacity() >= MAX_SLOTS) {
+            if ((size + 1) * 10L > capacity() * 9L) throw new IllegalStateException("Explorer index is full");
+            return;
+        }
+        ByteBuffer old = slots;
+        allocate(capacity() * 2);
+        for (int at = 0; at < old.capacity(); at += SLOT_SIZE) {
+            int move = old.getInt(at + MOVE);
+            if (move == 0) continue;
+            for (int i = slot(old.getLong(at + KEY), move); ; i = (i + 1) & mask) {
+                int to = i * SLOT_SIZE;
+                if (slots.getInt(to + MOVE) != 0) continue;
+                slots.put(to, old, at, SLOT_SIZE);
+                size++;
+                break;
+            }
+        }
+    }
+
+    private int slot(long key, int move) {
+        // Game ids are sequential, so mix before masking
+        long h = (key ^ (long) move << 32) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ h >>> 29) & mask;
+    }
+
+    /**
+     * Writes the whole table to {@code file}, under a temporary name first so a crash mid-write keeps
+     * the previous snapshot. Callers must keep the index from changing meanwhile.
+     */
+    public void write(Path file, Instant takenAt) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN)
+                .putLong(MAGIC).putLong(capacity()).putLong(size).putLong(new Position().key())
+                .putLong(takenAt.toEpochMilli());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer[] buffers = {header.clear(), slots.duplicate().clear()};
+            while (buffers[1].hasRemaining()) {
+                channel.write(buffers);
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write explorer snapshot " + file, e);
+        }
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot replace explorer snapshot " + file, e);
+        }
+    }
+
+    /**
+     * Reads a snapshot written by {@link #write}, or returns null when the file is missing, truncated or
+     * was written with another key scheme.
+     */
+    public static Snapshot read(Path file) {
+        if (!Files.isRegularFile(file)) return null;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+            long capacity = header.getLong(8);
+            if (header.getLong(0) != MAGIC
+                    || capacity < 16 || capacity > MAX_SLOTS || Long.bitCount(capacity) != 1
+                    || header.getLong(24) != new Position().key()
+                    || channel.size() != HEADER_SIZE + capacity * SLOT_SIZE) {
+                return null;
+            }
+            ByteBuffer slots = ByteBuffer.allocateDirect((int) capacity * SLOT_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (slots.hasRemaining()) {
+                if (channel.read(slots, HEADER_SIZE + slots.position()) < 0) return null;
+            }
+            slots.clear();
+            return new Snapshot(new ExplorerIndex(slots, (int) header.getLong(16)), Instant.ofEpochMilli(header.getLong(32)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read explorer snapshot " + file, e);
+        }
+    }
+}
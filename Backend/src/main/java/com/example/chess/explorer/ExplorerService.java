@@ -0,0 +1,259 @@
+package com.example.chess.explorer;
+
+import com.example.chess.common.Dto;
+import com.example.chess.game.Game;
+import com.example.chess.game.GameRepository;
+import com.example.chess.game.GameRules;
+import com.example.chess.game.GameService;
+import com.example.chess.game.GameStatus;
+import com.example.chess.game.MoveCodec;
+import com.example.chess.game.MovePlayed;
+import com.example.chess.game.MoveRepository;
+import com.example.chess.game.Position;
+import com.example.chess.game.San;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Opening explorer: for any position, every move played from it in stored games with how those
+ * games ended. Backed by an {@link ExplorerIndex} that each recorded move updates in place, so a
+ * lookup is one probe per legal move and never touches the database.
+ * <p>
+ * The index is written to {@code chess.explorer.snapshot-file} every few minutes and on shutdown.
+ * At startup the snapshot is read back and only games updated since it was taken are replayed, in
+ * id order and a page at a time; without a snapshot every game is. Counting is idempotent per game,
+ * so a game replayed twice, or seen both by the catch-up and a live move, is counted once.
+ */
+@Service
+@Slf4j
+public class ExplorerService {
+
+    // Games whose transaction committed around the snapshot may carry an older updated_at
+    private static final Duration CATCH_UP_SLACK = Duration.ofMinutes(5);
+
+    private final GameRepository games;
+    private final MoveRepository moves;
+    private final GameService gameService;
+    private final GameRules rules;
+    private final Path snapshotFile; // null when snapshots are off
+    private final int snapshotSeconds;
+    private final int batch;
+    private final ScheduledExecutorService snapshots;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExplorerIndex index; // guarded by lock
+    private final Instant catchUpSince;
+    private long changes; // updates since the last snapshot; guarded by lock
+    private volatile boolean caughtUp;
+
+    public ExplorerService(GameRepository games,
+                           MoveRepository moves,
+                           GameService gameService,
+                           GameRules rules,
+                           @Value("${chess.explorer.snapshot-file:}") String snapshotFile,
+                           @Value("${chess.explorer.snapshot-seconds:300}") int snapshotSeconds,
+                           @Value("${chess.explorer.initial-entries:65536}") int initialEntries,
+                           @Value("${chess.explorer.batch:200}") int batch) {
+        this.games = games;
+        this.moves = moves;
+        this.gameService = gameService;
+        this.rules = rules;
+        this.snapshotFile = snapshotFile == null || snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+        this.snapshotSeconds = Math.max(1, snapshotSeconds);
+        this.batch = Math.max(1, batch);
+
+        ExplorerIndex.Snapshot snapshot = this.snapshotFile == null ? null : ExplorerIndex.read(this.snapshotFile);
+        if (snapshot != null) {
+            log.info("Explorer snapshot {} loaded: {} entries, taken {}", snapshotFile, snapshot.index().size(), snapshot.takenAt());
+            this.index = snapshot.index();
+            this.catchUpSince = snapshot.takenAt().minus(CATCH_UP_SLACK);
+        } else {
+            this.index = new ExplorerIndex(initialEntries);
+            this.catchUpSince = Instant.EPOCH;
+        }
+        this.snapshots = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "explorer");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /** Replays the games the snapshot misses in the background, then starts periodic snapshots. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        snapshots.execute(() -> {
+            try {
+                catchUp();
+            } catch (RuntimeException e) {
+                log.warn("Explorer catch-up failed; the index misses older games until the next start", e);
+                return; // a snapshot now would hide the gap from the next catch-up
+            }
+            if (snapshotFile != null) {
+                snapshots.scheduleWithFixedDelay(this::snapshot, snapshotSeconds, snapshotSeconds, TimeUnit.SECONDS);
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        snapshots.shutdownNow();
+        snapshot();
+    }
+
+    @EventListener
+    public void onMovePlayed(MovePlayed event) {
+        try {
+            // The live position may already hold the game's next move, not yet committed; count up to this one only
+            Position position = gameService.position(event.gameId());
+            count(event.gameId(), position, event.move().getMoveNumber(), event.gameOver() ? event.over().result() : null);
+        } catch (RuntimeException e) {
+            // Never fail a move over statistics; the next catch-up counts the game
+            log.warn("Explorer update for game {} failed", event.gameId(), e);
+        }
+    }
+
+    /** Moves played from the position in {@code fen}, most played first. */
+    public Dto.ExplorerDto lookup(String fen) {
+        Position position = Position.fromFen(fen);
+        int[] legal = new int[Position.MAX_MOVES];
+        int n = position.generateLegal(legal);
+        List<Dto.ExplorerMoveDto> found = new ArrayList<>();
+        int total = 0, whiteWins = 0, draws = 0, blackWins = 0;
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < n; i++) {
+                ExplorerIndex.Stats stats = index.get(position.key(), legal[i]);
+                if (stats == null) continue;
+                total += stats.games();
+                whiteWins += stats.whiteWins();
+                draws += stats.draws();
+                blackWins += stats.blackWins();
+                found.add(new Dto.ExplorerMoveDto(
+                        MoveCodec.toUci(legal[i]),
+                        San.encode(position, legal[i]),
+                        stats.games(),
+                        stats.whiteWins(),
+                        stats.draws(),
+                        stats.blackWins(),
+                        Arrays.stream(stats.sampleGameIds()).boxed().toList()
+                ));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        found.sort(Comparator.comparing(Dto.ExplorerMoveDto::games).reversed());
+        return new Dto.ExplorerDto(fen, total, whiteWins, draws, blackWins, found);
+    }
+
+    /** True once the games missing from the snapshot have been replayed. */
+    public boolean isCaughtUp() {
+        return caughtUp;
+    }
+
+    void catchUp() {
+        long started = System.nanoTime();
+        int replayed = 0;
+        Long after = 0L;
+        while (true) {
+            List<Game> page = games.findUpdatedSince(catchUpSince, after, PageRequest.of(0, batch));
+            for (Game game : page) {
+                try {
+                    Position end = game.getPackedMoves() != null
+                            ? rules.replay(game.getPackedMoves())
+                            : rules.replay(moves.findByGameIdOrderByMoveNumberAsc(game.getId()));
+                    count(game.getId(), end, end.ply(), game.getStatus() == GameStatus.FINISHED ? game.getResult() : null);
+                    replayed++;
+                } catch (IllegalStateException | IllegalArgumentException e) {
+                    log.warn("Explorer skips game {}: its moves do not replay", game.getId(), e);
+                }
+            }
+            if (page.size() < batch) break;
+            after = page.get(page.size() - 1).getId();
+        }
+        caughtUp = true;
+        log.info("Explorer caught up on {} games updated since {} in {} ms", replayed, catchUpSince,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    /**
+     * Counts the game's first {@code upTo} moves from {@code position}, which must carry the game's
+     * history from the start, and its result once {@code result} is set. Moves already counted are
+     * skipped.
+     */
+    void count(long gameId, Position position, int upTo, String result) {
+        int plies = Math.min(position.ply(), upTo);
+        int outcome = outcome(result);
+        lock.writeLock().lock();
+        try {
+            int counted = index.countedPlies(gameId);
+            boolean resultCounted = index.resultCounted(gameId);
+            for (int i = counted; i < plies; i++) {
+                index.addGame(position.keyAt(i), position.moveAt(i), gameId);
+            }
+            boolean addResult = outcome >= 0 && !resultCounted;
+            if (addResult) {
+                for (int i = 0; i < plies; i++) {
+                    index.addResult(position.keyAt(i), position.moveAt(i), outcome);
+                }
+            }
+            if (plies > counted || addResult) {
+                index.markCounted(gameId, Math.max(plies, counted), resultCounted || addResult);
+                changes++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static int outcome(String result) {
+        if (result == null) return -1;
+        return switch (result) {
+            case "1-0" -> ExplorerIndex.WHITE_WINS;
+            case "0-1" -> ExplorerIndex.BLACK_WINS;
+            case "1/2-1/2" -> ExplorerIndex.DRAW;
+            default -> -1;
+        };
+    }
+
+    /** Writes the index when it changed and the catch-up is done; readers carry on meanwhile, moves wait. */
+    void snapshot() {
+        if (snapshotFile == null || !caughtUp) return;
+        long written;
+        lock.readLock().lock();
+        try {
+            written = changes;
+            if (written == 0) return;
+            index.write(snapshotFile, Instant.now());
+        } catch (RuntimeException e) {
+            log.warn("Explorer snapshot failed", e);
+            return;
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            changes -= written;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
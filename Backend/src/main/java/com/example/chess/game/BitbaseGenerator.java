@@ -0,0 +1,126 @@
+package com.example.chess.game;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Builds one {@link Bitbases} table by fixed-point iteration. Every legal position of the ending is
+ * set up once and its moves resolved to successor indices; after that the passes only walk int
+ * arrays. A position with the strong side to move is won if any successor is won; one with the weak
+ * side to move is won if it has moves and all of them lead to won positions, or if it is mate.
+ * Captures of the piece are draws, and promotions are looked up in the already finished queen and
+ * rook tables, which is why those are built first.
+ */
+final class BitbaseGenerator {
+
+    private static final int WON = -1;   // successor outside this table, won for the strong side
+    private static final int DRAWN = -2; // successor outside this table, drawn
+
+    private BitbaseGenerator() {
+    }
+
+    static byte[] generate(int type, Bitbases finished) {
+        int[] first = new int[Bitbases.POSITIONS + 1];
+        int[] successors = new int[Bitbases.POSITIONS * 4];
+        int count = 0;
+        long[] won = new long[Bitbases.POSITIONS / 64];
+        boolean[] legal = new boolean[Bitbases.POSITIONS];
+
+        Position position = new Position();
+        byte[] packed = new byte[PackedPosition.SIZE];
+        int[] moves = new int[Position.MAX_MOVES];
+        for (int index = 0; index < Bitbases.POSITIONS; index++) {
+            first[index] = count;
+            if (!setUp(position, packed, type, index)) continue;
+            legal[index] = true;
+            int n = position.generateLegal(moves);
+            if (n == 0) {
+                // Mate of the bare king is a win; the strong side can only be stalemated
+                if (index >= 1 << 18 && position.inCheck()) won[index >>> 6] |= 1L << index;
+                continue;
+            }
+            if (count + n > successors.length) successors = Arrays.copyOf(successors, successors.length * 2);
+            for (int i = 0; i < n; i++) {
+                position.makeMove(moves[i]);
+                successors[count++] = successor(position, type, finished);
+                position.unmakeMove();
+            }
+        }
+        first[Bitbases.POSITIONS] = count;
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int index = 0; index < Bitbases.POSITIONS; index++) {
+                if (!legal[index] || (won[index >>> 6] & 1L << index) != 0) continue;
+                boolean strongToMove = index < 1 << 18;
+                int from = first[index], to = first[index + 1];
+                boolean win = !strongToMove && to > from;
+                for (int i = from; i < to; i++) {
+                    int next = successors[i];
+                    boolean nextWon = next == WON || next >= 0 && (won[next >>> 6] & 1L << next) != 0;
+                    if (strongToMove && nextWon) {
+                        win = true;
+                        break;
+                    }
+                    if (!strongToMove && !nextWon) {
+                        win = false;
+                        break;
+                    }
+                }
+                if (win) {
+                    won[index >>> 6] |= 1L << index;
+                    changed = true;
+                }
+            }
+        }
+
+        ByteBuffer bits = ByteBuffer.allocate(Bitbases.TABLE_BYTES).order(java.nio.ByteOrder.LITTLE_ENDIAN);
+        for (long word : won) {
+            bits.putLong(word);
+        }
+        return bits.array();
+    }
+
+    /** Loads the position for {@code index}, with white as the strong side; false when it is not legal. */
+    private static boolean setUp(Position position, byte[] packed, int type, int index) {
+        int strongKing = index >>> 12 & 63, weakKing = index >>> 6 & 63, piece = index & 63;
+        if (strongKing == weakKing || strongKing == piece || weakKing == piece) return false;
+        if (type == Position.PAWN && (piece < 8 || piece >= 56)) return false;
+        Arrays.fill(packed, (byte) 0);
+        put(packed, strongKing, Position.KING);
+        put(packed, weakKing, 6 + Position.KING);
+        put(packed, piece, type);
+        packed[PackedPosition.FLAGS] = (byte) (index >>> 18 << 4);
+        packed[PackedPosition.EP_SQUARE] = (byte) PackedPosition.NO_EP;
+        packed[PackedPosition.FULLMOVE + 1] = 1;
+        try {
+            position.setPacked(packed, 0);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false; // the side not to move is in check
+        }
+    }
+
+    private static void put(byte[] packed, int sq, int piece) {
+        packed[sq >>> 1] |= (byte) ((piece + 1) << ((sq & 1) << 2));
+    }
+
+    private static int successor(Position position, int type, Bitbases finished) {
+        if (Long.bitCount(position.occupied()) < 3) return DRAWN; // the bare king took the piece
+        int strongKing = position.kingSquare(Position.WHITE);
+        int weakKing = position.kingSquare(Position.BLACK);
+        boolean strongToMove = position.sideToMove() == Position.WHITE;
+        long piece = position.pieces(Position.WHITE, type);
+        if (piece != 0) return Bitbases.index(strongToMove, strongKing, weakKing, Long.numberOfTrailingZeros(piece));
+
+        // Promotion: only a queen or rook keeps winning chances
+        for (int promoted : new int[]{Position.QUEEN, Position.ROOK}) {
+            long bit = position.pieces(Position.WHITE, promoted);
+            if (bit == 0) continue;
+            int index = Bitbases.index(strongToMove, strongKing, weakKing, Long.numberOfTrailingZeros(bit));
+            return Bitbases.isWin(finished.table(promoted), index) ? WON : DRAWN;
+        }
+        return DRAWN;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.chess.game;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Win/draw bitbases for king and one piece against a bare king (KQK, KRK, KPK). One bit per
+ * position says whether the side with the piece wins with best play; these endings cannot be lost
+ * by that side, so one bit is the whole answer. Positions are indexed with the stronger side as
+ * white (black's positions are mirrored top to bottom), which makes every table 2^19 bits, 64 KB.
+ * <p>
+ * Tables are produced by {@link BitbaseGenerator} the first time {@link #open} finds them missing and
+ * are memory-mapped from then on, so a probe is a shift and a byte read. King and a minor piece
+ * against a king needs no table: it is always a draw. Castling rights and the fifty-move rule are
+ * not part of the index; positions with castling rights are reported as unknown.
+ * <pre>
+ *   file:  magic (8 bytes), piece type (4 bytes), reserved (4 bytes), then the bits
+ *   index: strong side to move ? 0 : 1 (bit 18), strong king (12-17), weak king (6-11), piece (0-5)
+ * </pre>
+ */
+public final class Bitbases {
+
+    public static final int LOSS = -1;
+    public static final int DRAW = 0;
+    public static final int WIN = 1;
+    public static final int UNKNOWN = 2;
+
+    /** Knows no positions; for callers without tables. */
+    public static final Bitbases NONE = new Bitbases(new ByteBuffer[6]);
+
+    static final int POSITIONS = 1 << 19;
+    static final int TABLE_BYTES = POSITIONS / 8;
+    static final int HEADER_SIZE = 16;
+    static final long MAGIC = 0x4348455353424231L; // "CHESSBB1"
+
+    private static final int[] TYPES = {Position.QUEEN, Position.ROOK, Position.PAWN}; // pawns promote into the others
+    private static final String[] NAMES = {"kpk", null, null, "krk", "kqk"};
+
+    private final ByteBuffer[] tables; // by piece type, null when absent
+
+    private Bitbases(ByteBuffer[] tables) {
+        this.tables = tables;
+    }
+
+    /**
+     * Maps the tables in {@code dir}, generating any that are missing or unreadable first. Generation
+     * takes a few seconds per table and happens once; files are written under a temporary name and
+     * moved into place, so an interrupted run leaves nothing half written.
+     */
+    public static Bitbases open(Path dir) {
+        ByteBuffer[] tables = new ByteBuffer[6];
+        try {
+            Files.createDirectories(dir);
+            for (int type : TYPES) {
+                Path file = dir.resolve(NAMES[type] + ".bb");
+                if (!isValid(file, type)) {
+                    byte[] bits = BitbaseGenerator.generate(type, new Bitbases(tables));
+                    write(file, type, bits);
+                }
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    tables[type] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, TABLE_BYTES);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open bitbases in " + dir, e);
+        }
+        return new Bitbases(tables);
+    }
+
+    /** Generates every table on the heap without touching the disk. */
+    public static Bitbases inMemory() {
+        ByteBuffer[] tables = new ByteBuffer[6];
+        for (int type : TYPES) {
+            tables[type] = ByteBuffer.wrap(BitbaseGenerator.generate(type, new Bitbases(tables)));
+        }
+        return new Bitbases(tables);
+    }
+
+    private static boolean isValid(Path file, int type) throws IOException {
+        if (!Files.isRegularFile(file) || Files.size(file) != HEADER_SIZE + TABLE_BYTES) return false;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+            return header.getLong(0) == MAGIC && header.getInt(8) == type;
+        }
+    }
+
+    private static void write(Path file, int type, byte[] bits) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN).putLong(MAGIC).putInt(type).putInt(0);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(new ByteBuffer[]{header.flip(), ByteBuffer.wrap(bits)});
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * {@link #WIN}, {@link #DRAW} or {@link #LOSS} for the side to move with best play, or
+     * {@link #UNKNOWN} when the position is not covered. Allocation-free; cheap enough for every node.
+     */
+    public int probe(Position position) {
+        if (Long.bitCount(position.occupied()) != 3) return UNKNOWN;
+        for (int color = Position.WHITE; color <= Position.BLACK; color++) {
+            for (int type = Position.PAWN; type <= Position.QUEEN; type++) {
+                long piece = position.pieces(color, type);
+                if (piece == 0) continue;
+                if (type == Position.KNIGHT || type == Position.BISHOP) return DRAW;
+                ByteBuffer table = tables[type];
+                if (table == null || position.castlingRights() != 0) return UNKNOWN;
+                int flip = color == Position.WHITE ? 0 : 56;
+                int index = index(position.sideToMove() == color,
+                        position.kingSquare(color) ^ flip,
+                        position.kingSquare(color ^ 1) ^ flip,
+                        Long.numberOfTrailingZeros(piece) ^ flip);
+                if (!isWin(table, index)) return DRAW;
+                return position.sideToMove() == color ? WIN : LOSS;
+            }
+        }
+        return UNKNOWN;
+    }
+
+    /** The table for {@code type}, or null when it is not loaded; used while generating the next one. */
+    ByteBuffer table(int type) {
+        return tables[type];
+    }
+
+    static int index(boolean strongToMove, int strongKing, int weakKing, int piece) {
+        return (strongToMove ? 0 : 1 << 18) | strongKing << 12 | weakKing << 6 | piece;
+    }
+
+    static boolean isWin(ByteBuffer table, int index) {
+        return (table.get(index >>> 3) >>> (index & 7) & 1) != 0;
+    }
+}
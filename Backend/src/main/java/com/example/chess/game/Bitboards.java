@@ -0,0 +1,193 @@
+package com.example.chess.game;
+
+/**
+ * Precomputed attack tables for the bitboard move generator.
+ * Squares are numbered a1 = 0, b1 = 1, ... h8 = 63; bit {@code n} of a bitboard is square {@code n}.
+ * Sliding pieces use magic bitboards whose multipliers are searched once, deterministically, at class load.
+ */
+public final class Bitboards {
+
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = FILE_A << 7;
+    public static final long RANK_1 = 0xFFL;
+    public static final long RANK_2 = RANK_1 << 8;
+    public static final long RANK_4 = RANK_1 << 24;
+    public static final long RANK_5 = RANK_1 << 32;
+    public static final long RANK_7 = RANK_1 << 48;
+    public static final long RANK_8 = RANK_1 << 56;
+
+    static final long[] KNIGHT_ATTACKS = new long[64];
+    static final long[] KING_ATTACKS = new long[64];
+    static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    /** Squares strictly between two aligned squares, empty otherwise. */
+    static final long[][] BETWEEN = new long[64][64];
+    /** Full line through two aligned squares (edge to edge), empty otherwise. */
+    static final long[][] LINE = new long[64][64];
+
+    private static final long[] ROOK_MASK = new long[64];
+    private static final long[] BISHOP_MASK = new long[64];
+    private static final long[] ROOK_MAGIC = new long[64];
+    private static final long[] BISHOP_MAGIC = new long[64];
+    private static final int[] ROOK_SHIFT = new int[64];
+    private static final int[] BISHOP_SHIFT = new int[64];
+    private static final long[][] ROOK_TABLE = new long[64][];
+    private static final long[][] BISHOP_TABLE = new long[64][];
+
+    private static final int[][] ROOK_DIRS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    static {
+        for (int sq = 0; sq < 64; sq++) {
+            KNIGHT_ATTACKS[sq] = leaperAttacks(sq, new int[][]{
+                    {1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}});
+            KING_ATTACKS[sq] = leaperAttacks(sq, new int[][]{
+                    {1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}});
+            PAWN_ATTACKS[Position.WHITE][sq] = leaperAttacks(sq, new int[][]{{-1, 1}, {1, 1}});
+            PAWN_ATTACKS[Position.BLACK][sq] = leaperAttacks(sq, new int[][]{{-1, -1}, {1, -1}});
+        }
+        java.util.SplittableRandom random = new java.util.SplittableRandom(0x5EEDC4E55L);
+        for (int sq = 0; sq < 64; sq++) {
+            ROOK_MASK[sq] = relevantMask(sq, ROOK_DIRS);
+            BISHOP_MASK[sq] = relevantMask(sq, BISHOP_DIRS);
+            ROOK_SHIFT[sq] = 64 - Long.bitCount(ROOK_MASK[sq]);
+            BISHOP_SHIFT[sq] = 64 - Long.bitCount(BISHOP_MASK[sq]);
+            ROOK_TABLE[sq] = new long[1 << Long.bitCount(ROOK_MASK[sq])];
+            BISHOP_TABLE[sq] = new long[1 << Long.bitCount(BISHOP_MASK[sq])];
+            ROOK_MAGIC[sq] = findMagic(sq, ROOK_MASK[sq], ROOK_SHIFT[sq], ROOK_TABLE[sq], ROOK_DIRS, random);
+            BISHOP_MAGIC[sq] = findMagic(sq, BISHOP_MASK[sq], BISHOP_SHIFT[sq], BISHOP_TABLE[sq], BISHOP_DIRS, random);
+        }
+        for (int a = 0; a < 64; a++) {
+            for (int b = 0; b < 64; b++) {
+                if (a == b) continue;
+                long sa = 1L << a, sb = 1L << b;
+                if ((slidingAttacks(a, 0L, ROOK_DIRS) & sb) != 0) {
+                    BETWEEN[a][b] = slidingAttacks(a, sb, ROOK_DIRS) & slidingAttacks(b, sa, ROOK_DIRS);
+                    LINE[a][b] = (slidingAttacks(a, 0L, ROOK_DIRS) & slidingAttacks(b, 0L, ROOK_DIRS)) | sa | sb;
+                } else if ((slidingAttacks(a, 0L, BISHOP_DIRS) & sb) != 0) {
+                    BETWEEN[a][b] = slidingAttacks(a, sb, BISHOP_DIRS) & slidingAttacks(b, sa, BISHOP_DIRS);
+                    LINE[a][b] = (slidingAttacks(a, 0L, BISHOP_DIRS) & slidingAttacks(b, 0L, BISHOP_DIRS)) | sa | sb;
+                }
+            }
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    public static long knightAttacks(int sq) {
+        return KNIGHT_ATTACKS[sq];
+    }
+
+    public static long kingAttacks(int sq) {
+        return KING_ATTACKS[sq];
+    }
+
+    public static long pawnAttacks(int color, int sq) {
+        return PAWN_ATTACKS[color][sq];
+    }
+
+    public static long rookAttacks(int sq, long occupied) {
+        return ROOK_TABLE[sq][(int) (((occupied & ROOK_MASK[sq]) * ROOK_MAGIC[sq]) >>> ROOK_SHIFT[sq])];
+    }
+
+    public static long bishopAttacks(int sq, long occupied) {
+        return BISHOP_TABLE[sq][(int) (((occupied & BISHOP_MASK[sq]) * BISHOP_MAGIC[sq]) >>> BISHOP_SHIFT[sq])];
+    }
+
+    public static long queenAttacks(int sq, long occupied) {
+        return rookAttacks(sq, occupied) | bishopAttacks(sq, occupied);
+    }
+
+    public static int fileOf(int sq) {
+        return sq & 7;
+    }
+
+    public static int rankOf(int sq) {
+        return sq >>> 3;
+    }
+
+    /** Parses "e4" style squares without allocating; returns -1 for anything malformed. */
+    public static int parseSquare(CharSequence s) {
+        if (s == null || s.length() != 2) return -1;
+        int file = s.charAt(0) - 'a';
+        int rank = s.charAt(1) - '1';
+        if (file < 0 || file > 7 || rank < 0 || rank > 7) return -1;
+        return rank * 8 + file;
+    }
+
+    public static String squareName(int sq) {
+        return String.valueOf(new char[]{(char) ('a' + fileOf(sq)), (char) ('1' + rankOf(sq))});
+    }
+
+    // ---- table construction ----
+
+    private static long leaperAttacks(int sq, int[][] deltas) {
+        long result = 0L;
+        int file = fileOf(sq), rank = rankOf(sq);
+        for (int[] d : deltas) {
+            int f = file + d[0], r = rank + d[1];
+            if (f >= 0 && f < 8 && r >= 0 && r < 8) result |= 1L << (r * 8 + f);
+        }
+        return result;
+    }
+
+    private static long slidingAttacks(int sq, long occupied, int[][] dirs) {
+        long result = 0L;
+        for (int[] d : dirs) {
+            int f = fileOf(sq) + d[0], r = rankOf(sq) + d[1];
+            while (f >= 0 && f < 8 && r >= 0 && r < 8) {
+                long bit = 1L << (r * 8 + f);
+                result |= bit;
+                if ((occupied & bit) != 0) break;
+                f += d[0];
+                r += d[1];
+            }
+        }
+        return result;
+    }
+
+    private static long relevantMask(int sq, int[][] dirs) {
+        long result = 0L;
+        for (int[] d : dirs) {
+            int f = fileOf(sq) + d[0], r = rankOf(sq) + d[1];
+            // The last square on each ray never blocks anything further, so it is not relevant
+            while (f + d[0] >= 0 && f + d[0] < 8 && r + d[1] >= 0 && r + d[1] < 8) {
+                result |= 1L << (r * 8 + f);
+                f += d[0];
+                r += d[1];
+            }
+        }
+        return result;
+    }
+
+    private static long findMagic(int sq, long mask, int shift, long[] table, int[][] dirs,
+                                  java.util.SplittableRandom random) {
+        int bits = Long.bitCount(mask);
+        int size = 1 << bits;
+        long[] occupancies = new long[size];
+        long[] attacks = new long[size];
+        long subset = 0L;
+        for (int i = 0; i < size; i++) {
+            occupancies[i] = subset;
+            attacks[i] = slidingAttacks(sq, subset, dirs);
+            subset = (subset - mask) & mask; // Carry-Rippler enumeration of all subsets
+        }
+        int[] epoch = new int[size];
+        for (int attempt = 1; ; attempt++) {
+            long magic = random.nextLong() & random.nextLong() & random.nextLong();
+            if (Long.bitCount((mask * magic) >>> 56) < 6) continue;
+            boolean ok = true;
+            for (int i = 0; i < size && ok; i++) {
+                int index = (int) ((occupancies[i] * magic) >>> shift);
+                if (epoch[index] != attempt) {
+                    epoch[index] = attempt;
+                    table[index] = attacks[i];
+                } else if (table[index] != attacks[i]) {
+                    ok = false;
+                }
+            }
+            if (ok) return magic;
+        }
+    }
+}
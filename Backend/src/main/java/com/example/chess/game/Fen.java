@@ -0,0 +1,46 @@
+package com.example.chess.game;
+
+/** FEN rendering, on demand where a position leaves as text (see {@link PackedPosition#toFen}). */
+public final class Fen {
+
+    private static final char[] PIECE_CHARS = {'P', 'N', 'B', 'R', 'Q', 'K', 'p', 'n', 'b', 'r', 'q', 'k'};
+
+    private Fen() {
+    }
+
+    public static String of(Position position) {
+        StringBuilder sb = new StringBuilder(90);
+        for (int rank = 7; rank >= 0; rank--) {
+            int empty = 0;
+            for (int file = 0; file < 8; file++) {
+                int piece = position.pieceAt(rank * 8 + file);
+                if (piece == Position.NO_PIECE) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    sb.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                sb.append(PIECE_CHARS[piece]);
+            }
+            if (empty > 0) sb.append((char) ('0' + empty));
+            if (rank > 0) sb.append('/');
+        }
+        sb.append(position.sideToMove() == Position.WHITE ? " w " : " b ");
+        int castling = position.castlingRights();
+        if (castling == 0) {
+            sb.append('-');
+        } else {
+            if ((castling & Position.WHITE_OO) != 0) sb.append('K');
+            if ((castling & Position.WHITE_OOO) != 0) sb.append('Q');
+            if ((castling & Position.BLACK_OO) != 0) sb.append('k');
+            if ((castling & Position.BLACK_OOO) != 0) sb.append('q');
+        }
+        sb.append(' ');
+        sb.append(position.epSquare() == Position.NO_SQUARE ? "-" : Bitboards.squareName(position.epSquare()));
+        sb.append(' ').append(position.halfmoveClock());
+        sb.append(' ').append(position.fullmoveNumber());
+        return sb.toString();
+    }
+}
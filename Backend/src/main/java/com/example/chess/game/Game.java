@@ -24,7 +24,8 @@ import java.time.Instant;
 public class Game {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "games_seq")
+    @SequenceGenerator(name = "games_seq", sequenceName = "games_seq", allocationSize = 50) // pooled-lo blocks
     private Long id;
 
     @Column(name = "white_player_id", nullable = false)
@@ -39,7 +40,26 @@ public class Game {
     private GameStatus status;
 
     @Column(name = "last_fen", columnDefinition = "text")
-    private String lastFen; // optional snapshot
+    private String lastFen; // legacy text snapshot, superseded by lastPosition
+
+    @Column(name = "last_position", columnDefinition = "bytea")
+    private byte[] lastPosition; // PackedPosition of the current position
+
+    @Column(name = "packed_moves", columnDefinition = "bytea")
+    private byte[] packedMoves; // see PackedMoves; null for games stored before the column existed
+
+    @Column(name = "eco", length = 3)
+    private String eco; // ECO code of the most recent named opening, e.g. "C65"
+
+    @Column(name = "opening", length = 128)
+    private String opening;
+
+    @Column(name = "result", length = 7)
+    private String result; // "1-0", "0-1" or "1/2-1/2" once finished
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "termination", length = 32)
+    private Termination termination;
 
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
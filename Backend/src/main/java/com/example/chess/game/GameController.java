@@ -4,9 +4,11 @@ import com.example.chess.common.Dto;
 import com.example.chess.user.User;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
@@ -14,15 +16,17 @@ import org.springframework.web.bind.annotation.*;
 
 import java.security.Principal;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 @RestController
 @Controller
 @RequestMapping("/api/games")
 @RequiredArgsConstructor
+@Slf4j
 public class GameController {
 
     private final GameService service;
-    private final SimpMessagingTemplate msg;
+    private final MoveDispatcher dispatcher;
 
     @GetMapping("/active")
     public List<Dto.ActiveGameDto> active(@AuthenticationPrincipal User me) {
@@ -31,7 +35,7 @@ public class GameController {
                         game.getId(),
                         game.getWhitePlayerId().equals(me.getId()),
                         game.getStatus().name(),
-                        game.getLastFen()
+                        fen(game.getLastPosition(), game.getLastFen())
                 ))
                 .toList();
     }
@@ -48,12 +52,24 @@ public class GameController {
                         move.getPromotion(),
                         move.getPlayedByUserId(),
                         move.getPlayedAt(),
-                        move.getFenAfter()
+                        fen(move.getPositionAfter(), move.getFenAfter())
                 ))
                 .toList();
     }
 
+    /** Same list as {@link PackedMoves}: 16-bit move codes, two bytes per ply. Readable by anyone, like the JSON list. */
+    @GetMapping(value = "/{id}/moves", params = "format=packed", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> packedMoves(@PathVariable Long id) {
+        return ResponseEntity.of(service.packedMoves(id));
+    }
+
+    /** Rows written before packed snapshots existed still carry their FEN text. */
+    private static String fen(byte[] packed, String legacy) {
+        return packed != null ? PackedPosition.toFen(packed) : legacy;
+    }
+
     // === WebSocket mapping ===
+    /** Queued on the game's stripe; the inbound channel thread moves on to the next frame right away. */
     @MessageMapping("/games/{id}/move")
     public void submitMove(@DestinationVariable("id") Long gameId,
                            @Valid Dto.MoveSend request,
@@ -61,18 +77,14 @@ public class GameController {
         var authentication = (Authentication) principal;
         var user = (User) authentication.getPrincipal();
 
-        Move move = service.recordMove(gameId, user.getId(), request);
-
-        var payload = new Dto.MoveBroadcast(
-                move.getMoveNumber(),
-                move.getFromSquare(),
-                move.getToSquare(),
-                move.getSan(),
-                move.getPlayedByUserId(),
-                move.getPlayedAt(),
-                move.getPromotion()
-        );
-
-        msg.convertAndSend("/topic/games/" + gameId, payload);
+        dispatcher.submit(gameId, user.getId(), request).whenComplete((move, failure) -> {
+            if (failure == null) return;
+            if (failure instanceof IllegalArgumentException || failure instanceof IllegalStateException
+                    || failure instanceof NoSuchElementException) {
+                log.debug("Move by user {} in game {} rejected: {}", user.getId(), gameId, failure.getMessage());
+            } else {
+                log.warn("Move by user {} in game {} failed", user.getId(), gameId, failure);
+            }
+        });
     }
 }
\ No newline at end of file
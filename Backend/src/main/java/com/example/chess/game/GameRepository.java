@@ -1,10 +1,13 @@
 package com.example.chess.game;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 
 @Repository
@@ -14,4 +17,37 @@ public interface GameRepository extends JpaRepository<Game, Long> {
             "and g.status in (com.example.chess.game.GameStatus.CREATED, com.example.chess.game.GameStatus.STARTED) " +
             "order by g.updatedAt desc")
     List<Game> findActiveByUser(@Param("uid") Long userId);
-}
\ No newline at end of file
+
+    /** Games updated at or after {@code since}, in id order after {@code afterId}; a keyset page. */
+    @Query("select g from Game g where g.updatedAt >= :since and g.id > :afterId order by g.id")
+    List<Game> findUpdatedSince(@Param("since") Instant since, @Param("afterId") Long afterId, Pageable page);
+
+    /**
+     * Finished games after ({@code at}, {@code afterId}) in (updated_at, id) order, a keyset page; games
+     * updated at or after {@code settledBefore} are left for later.
+     */
+    @Query("select g from Game g where g.status = com.example.chess.game.GameStatus.FINISHED " +
+            "and g.updatedAt < :settledBefore " +
+            "and (g.updatedAt > :at or (g.updatedAt = :at and g.id > :afterId)) " +
+            "order by g.updatedAt, g.id")
+    List<Game> findFinishedAfter(@Param("at") Instant at, @Param("afterId") Long afterId,
+                                 @Param("settledBefore") Instant settledBefore, Pageable page);
+
+    /** Stores the state after a move in one statement, without reading the row first; returns rows updated. */
+    @Modifying
+    @Query("update Game g set g.lastPosition = :position, g.packedMoves = :packedMoves, " +
+            "g.eco = coalesce(:eco, g.eco), g.opening = coalesce(:opening, g.opening), g.updatedAt = :at " +
+            "where g.id = :id")
+    int recordMove(@Param("id") Long id, @Param("position") byte[] position, @Param("packedMoves") byte[] packedMoves,
+                   @Param("eco") String eco, @Param("opening") String opening, @Param("at") Instant at);
+
+    /** Same as {@link #recordMove} for the move that ended the game. */
+    @Modifying
+    @Query("update Game g set g.lastPosition = :position, g.packedMoves = :packedMoves, " +
+            "g.eco = coalesce(:eco, g.eco), g.opening = coalesce(:opening, g.opening), g.updatedAt = :at, " +
+            "g.status = com.example.chess.game.GameStatus.FINISHED, g.result = :result, g.termination = :termination " +
+            "where g.id = :id")
+    int recordFinalMove(@Param("id") Long id, @Param("position") byte[] position, @Param("packedMoves") byte[] packedMoves,
+                        @Param("eco") String eco, @Param("opening") String opening, @Param("at") Instant at,
+                        @Param("result") String result, @Param("termination") Termination termination);
+}
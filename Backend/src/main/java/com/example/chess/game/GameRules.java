@@ -1,33 +1,180 @@
 package com.example.chess.game;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 public class GameRules {
 
+    private final Bitbases bitbases;
+    private final boolean adjudicate;
+
+    public GameRules() {
+        this(Bitbases.NONE, false);
+    }
+
+    @Autowired
+    public GameRules(Bitbases bitbases, @Value("${chess.bitbase.adjudicate:true}") boolean adjudicate) {
+        this.bitbases = bitbases;
+        this.adjudicate = adjudicate;
+    }
+
     public void validateSquares(String from, String to) {
-        if (!from.matches("^[a-h][1-8]$") || !to.matches("^[a-h][1-8]$") || from.equals(to)) {
+        int fromSq = Bitboards.parseSquare(from);
+        int toSq = Bitboards.parseSquare(to);
+        if (fromSq < 0 || toSq < 0 || fromSq == toSq) {
             throw new IllegalArgumentException("Invalid squares");
         }
     }
 
+    /**
+     * Resolves a submitted move against the current position; returns the encoded move or rejects it.
+     * Runs entirely on the position's preallocated buffers.
+     */
+    public int validateMove(Position position, String from, String to, String promotion) {
+        int move = position.findLegal(Bitboards.parseSquare(from), Bitboards.parseSquare(to),
+                MoveCodec.promotionType(promotion));
+        if (move == MoveCodec.NONE) {
+            throw new IllegalArgumentException("Illegal move");
+        }
+        return move;
+    }
+
+    /** Resolves a SAN-only submission; the notation must name exactly one legal move. */
+    public int validateSan(Position position, String san) {
+        if (san == null || san.isBlank()) {
+            throw new IllegalArgumentException("Move requires from/to or san");
+        }
+        int move = San.decode(position, san.trim());
+        if (move == MoveCodec.NONE) {
+            throw new IllegalArgumentException("Illegal move");
+        }
+        return move;
+    }
+
+    /** Rebuilds the current position from the stored move list (oldest first). */
+    public Position replay(List<Move> history) {
+        Position position = new Position();
+        for (Move stored : history) {
+            int move = position.findLegal(Bitboards.parseSquare(stored.getFromSquare()),
+                    Bitboards.parseSquare(stored.getToSquare()), MoveCodec.promotionType(stored.getPromotion()));
+            if (move == MoveCodec.NONE) {
+                throw new IllegalStateException("Stored move " + stored.getMoveNumber() + " is not legal");
+            }
+            position.makeMove(move);
+        }
+        return position;
+    }
+
+    /** Same as {@link #replay(List)} for a {@link PackedMoves} list; every code must match a legal move exactly. */
+    public Position replay(byte[] packed) {
+        Position position = new Position();
+        for (int i = 0, n = PackedMoves.count(packed); i < n; i++) {
+            int stored = PackedMoves.moveAt(packed, i);
+            int move = position.findLegal(MoveCodec.from(stored), MoveCodec.to(stored), MoveCodec.promotionType(stored));
+            if (move == MoveCodec.NONE || move != stored) {
+                throw new IllegalStateException("Stored move " + (i + 1) + " is not legal");
+            }
+            position.makeMove(move);
+        }
+        return position;
+    }
+
+    public void validateInProgress(Game game) {
+        if (game.getStatus() == GameStatus.FINISHED) {
+            throw new IllegalStateException("Game is finished");
+        }
+    }
+
+    public void validateInProgress(LiveGame game) {
+        if (game.isFinished()) {
+            throw new IllegalStateException("Game is finished");
+        }
+    }
+
+    /**
+     * End-of-game check for the position just reached. Cheapest tests first: the legal-move probe
+     * stops at the first legal move, and everything else is a counter or bitboard comparison.
+     * Returns null while the game goes on.
+     */
+    public Termination detectTermination(Position position, int occurrences) {
+        if (!position.hasLegalMove()) {
+            return position.inCheck() ? Termination.CHECKMATE : Termination.STALEMATE;
+        }
+        if (isInsufficientMaterial(position)) return Termination.INSUFFICIENT_MATERIAL;
+        // Three-piece endings are only reached by a capture or pawn move, so the fifty-move counter
+        // is at zero and every bitbase win fits inside it
+        if (adjudicate && position.halfmoveClock() == 0) {
+            int known = bitbases.probe(position);
+            if (known == Bitbases.DRAW) return Termination.ADJUDICATED_DRAW;
+            if (known == Bitbases.WIN || known == Bitbases.LOSS) return Termination.ADJUDICATED_WIN;
+        }
+        if (occurrences >= 5) return Termination.FIVEFOLD_REPETITION;
+        if (position.halfmoveClock() >= 150) return Termination.SEVENTY_FIVE_MOVE_RULE;
+        if (occurrences >= 3) return Termination.THREEFOLD_REPETITION;
+        if (position.halfmoveClock() >= 100) return Termination.FIFTY_MOVE_RULE;
+        return null;
+    }
+
+    /** "1-0", "0-1" or "1/2-1/2" for a game that just ended with {@code position} on the board. */
+    public String result(Position position, Termination termination) {
+        if (!termination.isDecisive()) return "1/2-1/2";
+        boolean moverLost = termination == Termination.CHECKMATE || bitbases.probe(position) == Bitbases.LOSS;
+        return position.sideToMove() == Position.WHITE == moverLost ? "0-1" : "1-0";
+    }
+
+    /** Neither side can mate by any series of legal moves: K vs K, K+minor vs K, or bishops on one colour only. */
+    boolean isInsufficientMaterial(Position position) {
+        long heavy = 0L;
+        for (int color = Position.WHITE; color <= Position.BLACK; color++) {
+            heavy |= position.pieces(color, Position.PAWN) | position.pieces(color, Position.ROOK)
+                    | position.pieces(color, Position.QUEEN);
+        }
+        if (heavy != 0) return false;
+        long knights = position.pieces(Position.WHITE, Position.KNIGHT) | position.pieces(Position.BLACK, Position.KNIGHT);
+        long bishops = position.pieces(Position.WHITE, Position.BISHOP) | position.pieces(Position.BLACK, Position.BISHOP);
+        int minors = Long.bitCount(knights | bishops);
+        if (minors <= 1) return true;
+        long darkSquares = 0xAA55AA55AA55AA55L;
+        return knights == 0 && ((bishops & darkSquares) == 0 || (bishops & ~darkSquares) == 0);
+    }
+
     public boolean isWhitesTurn(int nextMoveNumber) {
         return nextMoveNumber % 2 == 1;
     }
 
     public void validateTurn(Game game, Long userId, int nextMoveNumber) {
+        validateTurn(game.getWhitePlayerId(), game.getBlackPlayerId(), userId, nextMoveNumber);
+    }
+
+    public void validateTurn(LiveGame game, Long userId, int nextMoveNumber) {
+        validateTurn(game.whitePlayerId(), game.blackPlayerId(), userId, nextMoveNumber);
+    }
+
+    private void validateTurn(Long whitePlayerId, Long blackPlayerId, Long userId, int nextMoveNumber) {
         boolean whiteToMove = isWhitesTurn(nextMoveNumber);
-        if (whiteToMove && !userId.equals(game.getWhitePlayerId())) {
+        if (whiteToMove && !userId.equals(whitePlayerId)) {
             throw new IllegalStateException("Not your turn");
         }
-        if (!whiteToMove && !userId.equals(game.getBlackPlayerId())) {
+        if (!whiteToMove && !userId.equals(blackPlayerId)) {
             throw new IllegalStateException("Not your turn");
         }
     }
 
     public void validateParticipant(Game game, Long userId) {
-        if (!userId.equals(game.getWhitePlayerId()) && !userId.equals(game.getBlackPlayerId())) {
+        validateParticipant(game.getWhitePlayerId(), game.getBlackPlayerId(), userId);
+    }
+
+    public void validateParticipant(LiveGame game, Long userId) {
+        validateParticipant(game.whitePlayerId(), game.blackPlayerId(), userId);
+    }
+
+    private void validateParticipant(Long whitePlayerId, Long blackPlayerId, Long userId) {
+        if (!userId.equals(whitePlayerId) && !userId.equals(blackPlayerId)) {
             throw new AccessDeniedException("Not a participant");
         }
     }
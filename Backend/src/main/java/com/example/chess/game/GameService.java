@@ -1,21 +1,33 @@
 package com.example.chess.game;
 
 import com.example.chess.common.Dto;
+import com.example.chess.opening.Openings;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class GameService {
 
     private final GameRepository games;
     private final MoveRepository moves;
     private final GameRules rules;
+    private final LiveGames liveGames;
+    private final Openings openings;
+    private final ApplicationEventPublisher events;
+    private final MoveJournal journal;
+    private final MoveOutbox outbox;
+    private final TransactionTemplate transactions;
 
     @Transactional
     public Game createGame(Long userA, Long userB) {
@@ -27,7 +39,9 @@ public class GameService {
                 .createdAt(Instant.now())
                 .updatedAt(Instant.now())
                 .build();
-        return games.save(game);
+        game = games.save(game);
+        events.publishEvent(new GameStarted(game.getId(), game.getWhitePlayerId(), game.getBlackPlayerId()));
+        return game;
     }
 
     @Transactional(readOnly = true)
@@ -40,36 +54,157 @@ public class GameService {
         return games.findActiveByUser(userId);
     }
 
-    @Transactional
+    /**
+     * Validates the move against the live state and stores it: one insert for the move row and one
+     * update for the game, with no reads while the game is loaded, plus its broadcast in the
+     * {@link MoveOutbox}. With the {@link MoveJournal} on, the move is journaled instead and reaches
+     * the database in the background, and its broadcast goes to the relay directly.
+     * <p>
+     * Not transactional as a whole: only the writes run in a transaction, so a stripe waiting on the
+     * journal holds no pooled connection, and the live state is dropped if they fail.
+     */
     public Move recordMove(Long gameId, Long userId, Dto.MoveSend request) {
-        Game game = games.findById(gameId)
-                .orElseThrow(() -> new NoSuchElementException("Game not found"));
-
-        rules.validateParticipant(game, userId);
-        rules.validateSquares(request.from(), request.to());
-
-        int nextMoveNumber = moves.lastMoveNumber(gameId) + 1;
-        rules.validateTurn(game, userId, nextMoveNumber);
-
-        // Optional: compute SAN, fenAfter here if you have a helper (skip if short on time)
-        Move move = Move.builder()
-                .gameId(gameId)
-                .moveNumber(nextMoveNumber)
-                .fromSquare(request.from())
-                .toSquare(request.to())
-                .san(request.san())             // may be null; client often sends SAN
-                .promotion(request.promotion()) // may be null
-                .fenAfter(null)                 // if not computing now
-                .playedByUserId(userId)
-                .playedAt(Instant.now())
-                .build();
-        move = moves.save(move);
+        LiveGame live = liveGames.acquire(gameId); // not evicted while this move is under way
+        try {
+            return recordMove(gameId, live, userId, request);
+        } finally {
+            liveGames.release(live);
+        }
+    }
+
+    private Move recordMove(Long gameId, LiveGame live, Long userId, Dto.MoveSend request) {
+        rules.validateParticipant(live, userId);
+        boolean bySan = request.from() == null && request.to() == null;
+        if (!bySan) {
+            rules.validateSquares(request.from(), request.to());
+        }
+
+        Move move;
+        byte[] position;
+        byte[] packed;
+        Openings.Opening opening;
+        Termination termination;
+        String result;
+        boolean journaled;
+        long seq = 0;
+        synchronized (live) {
+            // A journaled move of this game was refused and the state evicted; the next attempt reloads it
+            if (live.isDiscarded()) throw new IllegalStateException("Game is being reloaded, try again");
+            rules.validateInProgress(live);
+            int nextMoveNumber = live.lastMoveNumber() + 1;
+            rules.validateTurn(live, userId, nextMoveNumber);
+
+            // Reject illegal moves before anything is written or broadcast
+            int legal = bySan
+                    ? rules.validateSan(live.position(), request.san())
+                    : rules.validateMove(live.position(), request.from(), request.to(), request.promotion());
+            String san = San.encode(live.position(), legal); // never trust the client's notation
+            journaled = journal.admit(); // before the live state moves on, so a full journal rejects cleanly
+            int occurrences = live.play(legal);
+            position = PackedPosition.of(live.position());
+            packed = PackedMoves.of(live.position()); // also backfills games stored before the column
+            Openings.Opening named = openings.classify(live.position().key());
+            if (named != null) live.opening(named); // out of book the last named opening sticks
+            opening = live.opening();
+
+            termination = rules.detectTermination(live.position(), occurrences);
+            if (termination != null) {
+                live.finish(termination, rules.result(live.position(), termination));
+                log.info("Game {} finished at move {}: {} {}", gameId, nextMoveNumber, live.result(), termination);
+            }
+            result = live.result();
+
+            move = Move.builder()
+                    .gameId(gameId)
+                    .moveNumber(nextMoveNumber)
+                    .fromSquare(Bitboards.squareName(MoveCodec.from(legal)))
+                    .toSquare(Bitboards.squareName(MoveCodec.to(legal)))
+                    .san(san)
+                    .promotion(MoveCodec.promotionLetter(legal)) // null unless promoting
+                    .positionAfter(position)
+                    .positionKey(live.position().key())
+                    .playedByUserId(userId)
+                    .playedAt(Instant.now())
+                    .build();
+            if (journaled) {
+                seq = journal.append(live, move, packed, eco(opening), name(opening), result, termination);
+            }
+        }
+        Dto.GameOver over = termination == null ? null
+                : new Dto.GameOver(gameId, result, termination.name(), move.getMoveNumber());
+        if (journaled) {
+            // The game's end waits for the database so whatever reacts to it reads the whole game
+            if (termination != null) journal.awaitFlushed(seq);
+            else journal.awaitSynced(seq);
+            outbox.send(move, opening, over);
+            return move;
+        }
+        try {
+            return transactions.execute(status -> {
+                Move saved = moves.save(move);
+
+                // Snapshot for resume: the last row is enough to restore the board
+                int updated = termination == null
+                        ? games.recordMove(gameId, position, packed, eco(opening), name(opening), Instant.now())
+                        : games.recordFinalMove(gameId, position, packed, eco(opening), name(opening), Instant.now(), result, termination);
+                if (updated == 0) throw new NoSuchElementException("Game not found"); // deleted while loaded; rolls back
+                outbox.append(saved, opening, over); // announced only once all of this commits
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            // The live state moved on before the writes; rebuild it from what was actually stored
+            liveGames.evict(gameId);
+            throw e;
+        }
+    }
 
-        // Touch game.updatedAt (and optional lastFen)
-        game.setUpdatedAt(Instant.now());
-        games.save(game);
+    private static String eco(Openings.Opening opening) {
+        return opening == null ? null : opening.eco();
+    }
+
+    private static String name(Openings.Opening opening) {
+        return opening == null ? null : opening.name();
+    }
+
+    /**
+     * The game's move list as {@link PackedMoves}, two bytes per ply, or empty for an unknown game.
+     * Answered from the live state when the game is loaded, otherwise from the stored column, so
+     * reading old games never pushes active ones out of {@link LiveGames}.
+     */
+    @Transactional(readOnly = true)
+    public Optional<byte[]> packedMoves(Long gameId) {
+        LiveGame live = liveGames.peek(gameId);
+        if (live != null) {
+            synchronized (live) {
+                return Optional.of(PackedMoves.of(live.position()));
+            }
+        }
+        return games.findById(gameId).map(game -> game.getPackedMoves() != null
+                ? game.getPackedMoves()
+                : PackedMoves.of(rules.replay(moves.findByGameIdOrderByMoveNumberAsc(gameId)))); // stored before the column
+    }
+
+    /** Copy of the game's current position, history included, that callers may search without holding the game. */
+    public Position position(Long gameId) {
+        LiveGame live = liveGames.get(gameId);
+        Position copy = new Position();
+        synchronized (live) {
+            copy.copyFrom(live.position());
+        }
+        return copy;
+    }
+
+    /** Opening the game is currently classified as, answered from the live state. */
+    public Optional<Openings.Opening> opening(Long gameId) {
+        LiveGame live = liveGames.peek(gameId);
+        return live == null ? Optional.empty() : Optional.ofNullable(live.opening());
+    }
 
-        return move;
+    /** Terminal event for a game that ended on its last recorded move, answered from the live state. */
+    public Optional<Dto.GameOver> gameOver(Long gameId) {
+        LiveGame live = liveGames.peek(gameId);
+        if (live == null || live.termination() == null) return Optional.empty();
+        return Optional.of(new Dto.GameOver(gameId, live.result(), live.termination().name(), live.lastMoveNumber()));
     }
 
     // Legacy method for lobby compatibility - returns DTO instead of entity
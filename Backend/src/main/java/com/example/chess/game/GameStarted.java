@@ -0,0 +1,5 @@
+package com.example.chess.game;
+
+/** Published when a game is created; listeners that need the row committed should wait for the commit. */
+public record GameStarted(Long gameId, Long whitePlayerId, Long blackPlayerId) {
+}
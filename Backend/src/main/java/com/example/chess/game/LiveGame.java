@@ -0,0 +1,140 @@
+package com.example.chess.game;
+
+import com.example.chess.opening.Openings;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory state of a game in progress: the players, the current position with every move played
+ * so far, plus a count of every position reached, keyed by Zobrist key, so repetitions are detected
+ * in O(1) per move. Callers serialize access per game; FEN is rendered on demand with
+ * {@link Fen#of(Position)} where it is still needed.
+ */
+public final class LiveGame {
+
+    private final Long whitePlayerId;
+    private final Long blackPlayerId;
+    private final Position position;
+    private final LongIntMap repetitions;
+    private boolean finished;
+    private Termination termination;
+    private String result;
+    private Openings.Opening opening;
+    private volatile long lastAccess = System.nanoTime(); // for idle eviction, see LiveGames
+    private final AtomicInteger unflushed = new AtomicInteger(); // journaled moves not yet in the database, see MoveJournal
+    private final AtomicInteger updating = new AtomicInteger(); // moves being recorded, see LiveGames#acquire
+    private volatile boolean discarded;
+
+    LiveGame(Position position) {
+        this(position, null, null);
+    }
+
+    LiveGame(Position position, Long whitePlayerId, Long blackPlayerId) {
+        this.whitePlayerId = whitePlayerId;
+        this.blackPlayerId = blackPlayerId;
+        this.position = position;
+        this.repetitions = new LongIntMap(Math.max(64, position.ply() + 1));
+        for (int i = 0; i <= position.ply(); i++) {
+            repetitions.add(position.keyAt(i), 1);
+        }
+    }
+
+    public Long whitePlayerId() {
+        return whitePlayerId;
+    }
+
+    public Long blackPlayerId() {
+        return blackPlayerId;
+    }
+
+    public Position position() {
+        return position;
+    }
+
+    public int lastMoveNumber() {
+        return position.ply();
+    }
+
+    /** Plays an already validated move and returns how often the resulting position has now occurred. */
+    public int play(int move) {
+        position.makeMove(move);
+        return repetitions.add(position.key(), 1);
+    }
+
+    /** Most recent named opening the game passed through; null until it reaches one. */
+    public Openings.Opening opening() {
+        return opening;
+    }
+
+    void opening(Openings.Opening opening) {
+        this.opening = opening;
+    }
+
+    /** True once the game has ended, whether on a move here or before it was loaded. */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /** How the game ended; null while it goes on, and for finished games stored without one. */
+    public Termination termination() {
+        return termination;
+    }
+
+    public String result() {
+        return result;
+    }
+
+    void finish(Termination termination, String result) {
+        this.finished = true;
+        this.termination = termination;
+        this.result = result;
+    }
+
+    void touch() {
+        lastAccess = System.nanoTime();
+    }
+
+    long lastAccess() {
+        return lastAccess;
+    }
+
+    void journaled() {
+        unflushed.incrementAndGet();
+    }
+
+    void flushed() {
+        unflushed.decrementAndGet();
+    }
+
+    /** True while moves of this game sit in the journal only; reloading it from its row would lose them. */
+    boolean hasUnflushed() {
+        return unflushed.get() > 0;
+    }
+
+    void acquire() {
+        updating.incrementAndGet();
+    }
+
+    void release() {
+        updating.decrementAndGet();
+    }
+
+    /** True while a move of this game is being recorded; evicting it would let a stale copy load alongside. */
+    boolean isUpdating() {
+        return updating.get() > 0;
+    }
+
+    void discard() {
+        discarded = true;
+    }
+
+    /** True once the database refused one of this game's journaled moves; the game must be reloaded. */
+    boolean isDiscarded() {
+        return discarded;
+    }
+
+    /** Occurrences of the current position, including this one. */
+    public int repetitionCount() {
+        return repetitions.get(position.key(), 0);
+    }
+}
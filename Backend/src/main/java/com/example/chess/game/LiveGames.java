@@ -0,0 +1,206 @@
+package com.example.chess.game;
+
+import com.example.chess.opening.Openings;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live game state by game id: players, position and move history, so the move path validates
+ * against memory and only writes go to the database. A game is loaded from its row and packed move
+ * list the first time it is touched, and loaded again the same way after it was evicted.
+ * <p>
+ * At most {@code chess.live.max-games} games are held; loading one more evicts the least recently
+ * used of a small sample, taken clock-wise round the map so every game is considered in turn. Games
+ * are loaded outside the map, so a slow load never blocks other games. Games untouched for {@code chess.live.idle-minutes} are evicted by a periodic sweep. Hits,
+ * misses and evictions are published as {@code chess.live.games.*} meters. Neither evicts a game whose
+ * journaled moves have not reached the database yet (see {@link MoveJournal}), nor one whose move is
+ * being recorded (see {@link #acquire}).
+ */
+@Component
+@Slf4j
+public class LiveGames implements MeterBinder {
+
+    static final int EVICTION_SAMPLE = 16;
+
+    private final GameRepository games;
+    private final MoveRepository moves;
+    private final GameRules rules;
+    private final Openings openings;
+    private final int maxGames;
+    private final long idleNanos;
+    private final ScheduledExecutorService sweeper;
+
+    private final Map<Long, LiveGame> live = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder idleEvictions = new LongAdder();
+    private final LongAdder sizeEvictions = new LongAdder();
+    private Iterator<Map.Entry<Long, LiveGame>> clock = Collections.emptyIterator(); // guarded by this
+
+    public LiveGames(GameRepository games,
+                     MoveRepository moves,
+                     GameRules rules,
+                     Openings openings,
+                     @Value("${chess.live.max-games:10000}") int maxGames,
+                     @Value("${chess.live.idle-minutes:30}") int idleMinutes) {
+        this.games = games;
+        this.moves = moves;
+        this.rules = rules;
+        this.openings = openings;
+        this.maxGames = Math.max(1, maxGames);
+        this.idleNanos = Duration.ofMinutes(Math.max(1, idleMinutes)).toNanos();
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "live-games-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, Math.min(60, idleMinutes * 60L / 4));
+        sweeper.scheduleWithFixedDelay(() -> evictIdle(idleNanos), period, period, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("chess.live.games.requests", hits, LongAdder::sum).tag("result", "hit").register(registry);
+        FunctionCounter.builder("chess.live.games.requests", misses, LongAdder::sum).tag("result", "miss").register(registry);
+        FunctionCounter.builder("chess.live.games.evictions", idleEvictions, LongAdder::sum).tag("cause", "idle").register(registry);
+        FunctionCounter.builder("chess.live.games.evictions", sizeEvictions, LongAdder::sum).tag("cause", "size").register(registry);
+        Gauge.builder("chess.live.games.size", live, Map::size).register(registry);
+    }
+
+    /**
+     * Live state of the game, loaded on a miss. Prefers the game's packed move list; games stored
+     * before it existed replay their move rows.
+     *
+     * @throws NoSuchElementException when there is no such game
+     */
+    public LiveGame get(Long gameId) {
+        LiveGame found = live.get(gameId);
+        if (found != null) {
+            hits.increment();
+            found.touch();
+            return found;
+        }
+        // Loaded without holding a map bin; if another thread got there first, its state wins
+        LiveGame loaded = load(gameId);
+        found = live.putIfAbsent(gameId, loaded);
+        if (found == null) found = loaded;
+        found.touch();
+        if (live.size() > maxGames) evictLeastRecentlyUsed(gameId);
+        return found;
+    }
+
+    /**
+     * Same as {@link #get} for a caller about to record a move: the game is not evicted for size or
+     * idleness until it is handed back through {@link #release}. A game evicted between the lookup
+     * and the claim is loaded again, so the caller always holds the registered copy.
+     *
+     * @throws NoSuchElementException when there is no such game
+     */
+    public LiveGame acquire(Long gameId) {
+        while (true) {
+            LiveGame found = get(gameId);
+            found.acquire();
+            if (live.get(gameId) == found) return found;
+            found.release();
+        }
+    }
+
+    public void release(LiveGame game) {
+        game.release();
+    }
+
+    private LiveGame load(Long gameId) {
+        misses.increment();
+        Game game = games.findById(gameId).orElseThrow(() -> new NoSuchElementException("Game not found"));
+        LiveGame loaded = new LiveGame(game.getPackedMoves() != null
+                ? rules.replay(game.getPackedMoves())
+                : rules.replay(moves.findByGameIdOrderByMoveNumberAsc(gameId)),
+                game.getWhitePlayerId(), game.getBlackPlayerId());
+        loaded.opening(openings.classify(loaded.position()));
+        if (game.getStatus() == GameStatus.FINISHED) loaded.finish(game.getTermination(), game.getResult());
+        return loaded;
+    }
+
+    /** Live state if the game is already loaded; never touches the database. */
+    public LiveGame peek(Long gameId) {
+        return live.get(gameId);
+    }
+
+    public void evict(Long gameId) {
+        live.remove(gameId);
+    }
+
+    /** Evicts {@code game} only if it is still the game's live state, not one reloaded since. */
+    void evict(Long gameId, LiveGame game) {
+        live.remove(gameId, game);
+    }
+
+    public int size() {
+        return live.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /** Evicts games untouched for {@code idleFor} nanoseconds; returns how many. */
+    int evictIdle(long idleFor) {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Map.Entry<Long, LiveGame> entry : live.entrySet()) {
+            LiveGame game = entry.getValue();
+            if (now - game.lastAccess() >= idleFor && !game.hasUnflushed() && !game.isUpdating()
+                    && live.remove(entry.getKey(), game)) evicted++;
+        }
+        idleEvictions.add(evicted);
+        if (evicted > 0) log.debug("Evicted {} idle live games, {} left", evicted, live.size());
+        return evicted;
+    }
+
+    // Approximate LRU, only on a miss with the registry full: the oldest of a sample, read on from where
+    // the last eviction stopped. Games with journaled moves still on their way to the database stay, as do
+    // games with a move being recorded, even if that leaves the registry over its bound
+    private synchronized void evictLeastRecentlyUsed(Long keep) {
+        while (live.size() > maxGames) {
+            Map.Entry<Long, LiveGame> oldest = null;
+            int sampled = 0;
+            for (int budget = live.size(); sampled < EVICTION_SAMPLE && budget > 0; budget--) {
+                if (!clock.hasNext()) clock = live.entrySet().iterator();
+                if (!clock.hasNext()) return;
+                Map.Entry<Long, LiveGame> entry = clock.next();
+                LiveGame game = entry.getValue();
+                if (entry.getKey().equals(keep) || game.hasUnflushed() || game.isUpdating()) continue;
+                sampled++;
+                if (oldest == null || game.lastAccess() < oldest.getValue().lastAccess()) oldest = entry;
+            }
+            if (oldest == null) return;
+            if (live.remove(oldest.getKey(), oldest.getValue())) sizeEvictions.increment();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.chess.game;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing long-to-int map on primitive arrays (linear probing, power-of-two capacity).
+ * Meant for Zobrist-keyed counters and lookups, where boxing every key would dominate the cost.
+ * Not thread-safe.
+ */
+public final class LongIntMap {
+
+    private static final long EMPTY = 0L;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    // Key 0 doubles as the empty marker, so it is stored out of band
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    public LongIntMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    public int size() {
+        return size + (hasZeroKey ? 1 : 0);
+    }
+
+    /** Value stored for {@code key}, or {@code missing} when absent. */
+    public int get(long key, int missing) {
+        if (key == EMPTY) return hasZeroKey ? zeroValue : missing;
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) return values[i];
+            if (k == EMPTY) return missing;
+        }
+    }
+
+    public boolean containsKey(long key) {
+        if (key == EMPTY) return hasZeroKey;
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) return true;
+            if (k == EMPTY) return false;
+        }
+    }
+
+    public void put(long key, int value) {
+        if (key == EMPTY) {
+            hasZeroKey = true;
+            zeroValue = value;
+            return;
+        }
+        int i = slot(key);
+        for (; keys[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > keys.length) rehash();
+    }
+
+    /** Adds {@code delta} to the value for {@code key} (absent counts as 0) and returns the new value. */
+    public int add(long key, int delta) {
+        if (key == EMPTY) {
+            if (!hasZeroKey) zeroValue = 0;
+            hasZeroKey = true;
+            return zeroValue += delta;
+        }
+        int i = slot(key);
+        for (; keys[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == key) return values[i] += delta;
+        }
+        keys[i] = key;
+        values[i] = delta;
+        if (++size * 2 > keys.length) rehash();
+        return delta;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        hasZeroKey = false;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            long k = oldKeys[j];
+            if (k == EMPTY) continue;
+            int i = slot(k);
+            while (keys[i] != EMPTY) i = (i + 1) & mask;
+            keys[i] = k;
+            values[i] = oldValues[j];
+        }
+    }
+}
@@ -14,8 +14,12 @@ import java.time.Instant;
 @Builder
 public class Move {
 
+    /** Ids taken per sequence value; Hibernate numbers the block itself (pooled-lo), and so does {@link MoveJournal}. */
+    public static final int ID_BLOCK = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "moves_seq")
+    @SequenceGenerator(name = "moves_seq", sequenceName = "moves_seq", allocationSize = ID_BLOCK)
     private Long id;
 
     @Column(nullable = false)
@@ -37,7 +41,16 @@ public class Move {
     private String promotion; // q/r/b/n if present
 
     @Column(columnDefinition = "text")
-    private String fenAfter; // optional snapshot for fast resume
+    private String fenAfter; // legacy text snapshot, only set on rows written before positionAfter
+
+    @Column(columnDefinition = "bytea")
+    private byte[] positionAfter; // PackedPosition snapshot for fast resume
+
+    private Long positionKey; // Zobrist key of the position after this move
+
+    private Short evalCp; // post-game review: score after the move, white's view (see review.Scores)
+
+    private Short judgment; // post-game review: Judgment code, null until reviewed
 
     @Column(nullable = false)
     private Long playedByUserId;
@@ -0,0 +1,112 @@
+package com.example.chess.game;
+
+import com.example.chess.common.Dto;
+import com.example.chess.opening.Openings;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Announces a recorded move on {@code /topic/games/{id}}, followed by the terminal event when it
+ * ended the game, then publishes {@link MovePlayed}. Every move goes out through here, whoever
+ * played it, called by the {@link MoveOutbox} relay once the move is stored.
+ *
+ * <p>Only the sends run on the relay. {@link MovePlayed} listeners run in order on a single
+ * {@code move-events} thread, so a slow listener does not hold up each send. The queue is
+ * bounded, and when it is full the relay waits for room: bots, the explorer and reviews all rely on
+ * seeing every move, so an event is never dropped.
+ */
+@Component
+@Slf4j
+public class MoveBroadcaster {
+
+    private final SimpMessagingTemplate msg;
+    private final ApplicationEventPublisher events;
+    private final ExecutorService listeners;
+
+    public MoveBroadcaster(SimpMessagingTemplate msg,
+                           ApplicationEventPublisher events,
+                           @Value("${chess.moves.events.queue:10000}") int queue) {
+        if (queue <= 0) throw new IllegalArgumentException("chess.moves.events.queue must be positive");
+        this.msg = msg;
+        this.events = events;
+        this.listeners = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(queue), task -> {
+            Thread thread = new Thread(task, "move-events");
+            thread.setDaemon(true);
+            return thread;
+        }, MoveBroadcaster::awaitRoom);
+    }
+
+    /** Blocks the relay until the queue has room; once shut down, the event runs on the caller. */
+    private static void awaitRoom(Runnable task, ThreadPoolExecutor pool) {
+        if (pool.isShutdown()) {
+            task.run();
+            return;
+        }
+        try {
+            pool.getQueue().put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            task.run();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        listeners.shutdown();
+        listeners.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /** What subscribers get for a move; {@code opening} is the game's opening after it, if any. */
+    public static Dto.MoveBroadcast payload(Move move, Openings.Opening opening) {
+        return new Dto.MoveBroadcast(
+                move.getMoveNumber(),
+                move.getFromSquare(),
+                move.getToSquare(),
+                move.getSan(),
+                move.getPlayedByUserId(),
+                move.getPlayedAt(),
+                move.getPromotion(),
+                opening == null ? null : opening.eco(),
+                opening == null ? null : opening.name()
+        );
+    }
+
+    /**
+     * Sends the move and, when it ended the game, {@code over}. Listeners of {@link MovePlayed} run
+     * afterwards on the event thread; one failing is logged and does not undo the send. Blocks while
+     * the event queue is full.
+     */
+    public void broadcast(Long gameId, Dto.MoveBroadcast payload, Dto.GameOver over) {
+        msg.convertAndSend("/topic/games/" + gameId, payload);
+        if (over != null) msg.convertAndSend("/topic/games/" + gameId, over);
+        Move move = Move.builder()
+                .gameId(gameId)
+                .moveNumber(payload.moveNumber())
+                .fromSquare(payload.from())
+                .toSquare(payload.to())
+                .san(payload.san())
+                .promotion(payload.promotion())
+                .playedByUserId(payload.by())
+                .playedAt(payload.ts())
+                .build();
+        MovePlayed played = new MovePlayed(gameId, move, over);
+        listeners.execute(() -> publish(played));
+    }
+
+    private void publish(MovePlayed played) {
+        try {
+            events.publishEvent(played);
+        } catch (RuntimeException e) {
+            log.warn("A MovePlayed listener failed for game {} move {}", played.gameId(), played.move().getMoveNumber(), e);
+        }
+    }
+}
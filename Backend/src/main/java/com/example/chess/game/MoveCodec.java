@@ -0,0 +1,92 @@
+package com.example.chess.game;
+
+/**
+ * Moves are plain ints holding a 16-bit code: bits 0-5 from-square, bits 6-11 to-square, bits 12-15 flags.
+ * Keeping them primitive lets the generator fill reusable int buffers without allocating.
+ */
+public final class MoveCodec {
+
+    public static final int NONE = 0;
+
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PUSH = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    public static final int PROMOTION = 8;      // + (piece type - KNIGHT), set CAPTURE bit for capture-promotions
+
+    private MoveCodec() {
+    }
+
+    public static int encode(int from, int to, int flags) {
+        return from | (to << 6) | (flags << 12);
+    }
+
+    public static int promotion(int from, int to, int pieceType, boolean capture) {
+        return encode(from, to, PROMOTION | (pieceType - Position.KNIGHT) | (capture ? CAPTURE : 0));
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int flags(int move) {
+        return (move >>> 12) & 0xF;
+    }
+
+    public static boolean isCapture(int move) {
+        return (flags(move) & CAPTURE) != 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return (flags(move) & PROMOTION) != 0;
+    }
+
+    public static boolean isCastle(int move) {
+        int flags = flags(move);
+        return flags == KING_CASTLE || flags == QUEEN_CASTLE;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return flags(move) == EN_PASSANT;
+    }
+
+    /** Promotion piece type (KNIGHT..QUEEN), or -1 when the move does not promote. */
+    public static int promotionType(int move) {
+        return isPromotion(move) ? Position.KNIGHT + (flags(move) & 3) : -1;
+    }
+
+    /** Maps the wire promotion letter (q/r/b/n, either case) to a piece type; -1 when absent or unknown. */
+    public static int promotionType(String letter) {
+        if (letter == null || letter.length() != 1) return -1;
+        return switch (Character.toLowerCase(letter.charAt(0))) {
+            case 'n' -> Position.KNIGHT;
+            case 'b' -> Position.BISHOP;
+            case 'r' -> Position.ROOK;
+            case 'q' -> Position.QUEEN;
+            default -> -1;
+        };
+    }
+
+    public static String promotionLetter(int move) {
+        return switch (promotionType(move)) {
+            case Position.KNIGHT -> "n";
+            case Position.BISHOP -> "b";
+            case Position.ROOK -> "r";
+            case Position.QUEEN -> "q";
+            default -> null;
+        };
+    }
+
+    /** Long algebraic form used by UCI engines, e.g. "e2e4" or "e7e8q". */
+    public static String toUci(int move) {
+        String promo = promotionLetter(move);
+        String base = Bitboards.squareName(from(move)) + Bitboards.squareName(to(move));
+        return promo == null ? base : base + promo;
+    }
+}
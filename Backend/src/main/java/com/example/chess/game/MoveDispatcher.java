@@ -0,0 +1,84 @@
+package com.example.chess.game;
+
+import com.example.chess.common.Dto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single writer per game: every submitted move is recorded on one of {@code chess.moves.stripes}
+ * threads, chosen by game id. Moves of one game therefore commit strictly in the order they arrived,
+ * one transaction at a time, while games on other stripes run in parallel. Broadcasting is left to
+ * the {@link MoveOutbox} relay, which sends in commit order. Each stripe queues at most
+ * {@code chess.moves.queue} moves; beyond that a submission fails straight away instead of piling up
+ * behind a slow game.
+ */
+@Component
+@Slf4j
+public class MoveDispatcher {
+
+    private final GameService service;
+    private final ThreadPoolExecutor[] stripes;
+
+    public MoveDispatcher(GameService service,
+                          @Value("${chess.moves.stripes:0}") int stripes,
+                          @Value("${chess.moves.queue:1000}") int queue) {
+        this.service = service;
+        int count = stripes > 0 ? stripes : 2 * Runtime.getRuntime().availableProcessors();
+        this.stripes = new ThreadPoolExecutor[count];
+        for (int i = 0; i < count; i++) {
+            String name = "moves-" + i;
+            this.stripes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(Math.max(1, queue)), task -> {
+                        Thread thread = new Thread(task, name);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        for (ThreadPoolExecutor stripe : stripes) stripe.shutdown();
+        // Let queued moves commit; anything still waiting after that is lost with the process anyway
+        for (ThreadPoolExecutor stripe : stripes) stripe.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Records the move on the game's stripe. The future completes with the recorded move, or
+     * exceptionally with whatever {@link GameService#recordMove} threw, or with an
+     * {@link IllegalStateException} when the stripe is full or shutting down.
+     */
+    public CompletableFuture<Move> submit(Long gameId, Long userId, Dto.MoveSend request) {
+        CompletableFuture<Move> done = new CompletableFuture<>();
+        try {
+            stripeOf(gameId).execute(() -> {
+                try {
+                    done.complete(service.recordMove(gameId, userId, request));
+                } catch (RuntimeException e) {
+                    done.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Move for game {} rejected: {} moves queued on its stripe", gameId, stripeOf(gameId).getQueue().size());
+            done.completeExceptionally(new IllegalStateException("Too many moves in flight, try again"));
+        }
+        return done;
+    }
+
+    public int stripes() {
+        return stripes.length;
+    }
+
+    // Game ids are sequential, so plain modulo already spreads consecutive games over every stripe
+    private ThreadPoolExecutor stripeOf(Long gameId) {
+        return stripes[(int) Math.floorMod(gameId, (long) stripes.length)];
+    }
+}
@@ -0,0 +1,644 @@
+package com.example.chess.game;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Write-behind store for recorded moves, off unless {@code chess.moves.journal.enabled}. A move is
+ * appended to a local journal and the caller goes on to broadcast it; the journal is written and
+ * fsynced every {@code sync-millis} as one group, and a second thread copies moves to the database
+ * every {@code flush-millis} in JDBC batches, with one update per game for its row.
+ * <p>
+ * With {@code wait-for-sync} the caller waits for the group its move went out with, so an accepted
+ * move survives a crash of this process; without it, up to {@code sync-millis} of moves may be lost
+ * in exchange for not waiting on the disk at all. A move that ends its game always waits until it is
+ * in the database, so everything that reacts to the end of a game reads the whole game.
+ * <p>
+ * The journal is a directory of segments, each a run of length- and CRC-prefixed records; a segment
+ * is deleted once its moves are in the database. At startup whatever segments are left are written
+ * to the database before anything else runs. Writes are idempotent, so replaying moves that had
+ * already been flushed changes nothing. Appends are rejected when {@code max-pending} moves are
+ * waiting for the database, and if the journal cannot be written it turns itself off and moves go
+ * straight to the database again. A move the database refuses for good is logged and dropped, with
+ * the game's later moves, which build on it; the game's live state is discarded so it reloads as
+ * the database has it.
+ */
+@Component
+@Slf4j
+public class MoveJournal implements MeterBinder {
+
+    private static final String INSERT_MOVE = """
+            insert into moves (id, game_id, move_number, from_square, to_square, san, promotion,
+                               position_after, position_key, played_by_user_id, played_at)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            on conflict (game_id, move_number) do nothing""";
+
+    // Guarded by the length of the move list so an older move never overwrites a newer one
+    private static final String UPDATE_GAME = """
+            update games set last_position = ?, packed_moves = ?, eco = coalesce(?, eco),
+                             opening = coalesce(?, opening), updated_at = ?,
+                             status = case when ? then cast('FINISHED' as game_status) else status end,
+                             result = coalesce(?, result), termination = coalesce(?, termination)
+            where id = ? and coalesce(octet_length(packed_moves), 0) <= ?""";
+
+    private static final String SEGMENT_PREFIX = "moves-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final int MAX_RECORD = 1 << 16;
+    private static final long FLUSH_WAIT_MILLIS = 10_000;
+
+    /** A journaled move with what its game's row needs; {@code live} is null for moves read back at startup. */
+    private record Entry(long seq, LiveGame live, Move move, byte[] packedMoves, String eco, String opening,
+                         String result, Termination termination) {
+    }
+
+    private record Segment(Path file, long lastSeq) {
+    }
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final LiveGames liveGames;
+    private final boolean enabled;
+    private final Path dir;
+    private final long syncMillis;
+    private final boolean waitForSync;
+    private final long flushMillis;
+    private final int batch;
+    private final int maxPending;
+    private final long segmentBytes;
+    private final ScheduledExecutorService syncer;
+    private final ScheduledExecutorService flusher;
+
+    // Guarded by this
+    private long nextSeq = 1;
+    private ByteArrayOutputStream unsynced = new ByteArrayOutputStream();
+    private long unsyncedLastSeq;
+    private final Deque<Segment> sealed = new ArrayDeque<>();
+    private volatile boolean failed;
+
+    // Only touched by the sync thread, and by shutdown once it has stopped
+    private FileChannel segment;
+    private Path segmentFile;
+    private long segmentSize;
+
+    private volatile long appendedSeq;
+    private volatile long syncedSeq;
+    private volatile long flushedSeq;
+    private final ConcurrentLinkedQueue<Entry> unflushed = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger unflushedCount = new AtomicInteger();
+
+    private final LongAdder syncs = new LongAdder();
+    private final LongAdder syncNanos = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private final LongAdder flushedMoves = new LongAdder();
+    private final LongAdder droppedMoves = new LongAdder();
+
+    public MoveJournal(JdbcTemplate jdbc,
+                       TransactionTemplate tx,
+                       LiveGames liveGames,
+                       @Value("${chess.moves.journal.enabled:false}") boolean enabled,
+                       @Value("${chess.moves.journal.dir:journal}") String dir,
+                       @Value("${chess.moves.journal.sync-millis:2}") long syncMillis,
+                       @Value("${chess.moves.journal.wait-for-sync:true}") boolean waitForSync,
+                       @Value("${chess.moves.journal.flush-millis:100}") long flushMillis,
+                       @Value("${chess.moves.journal.batch:500}") int batch,
+                       @Value("${chess.moves.journal.max-pending:50000}") int maxPending,
+                       @Value("${chess.moves.journal.segment-mb:16}") int segmentMb) {
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.liveGames = liveGames;
+        this.dir = Path.of(dir);
+        this.syncMillis = Math.max(1, syncMillis);
+        this.waitForSync = waitForSync;
+        this.flushMillis = Math.max(1, flushMillis);
+        this.batch = Math.max(1, batch);
+        this.maxPending = Math.max(1, maxPending);
+        this.segmentBytes = Math.max(1, segmentMb) * 1024L * 1024L;
+
+        // Moves journaled by an earlier run go in first, even if the journal has been switched off since
+        long last = replay();
+        this.enabled = enabled;
+        if (!enabled) {
+            this.syncer = null;
+            this.flusher = null;
+            return;
+        }
+        nextSeq = last + 1;
+        appendedSeq = syncedSeq = flushedSeq = last;
+        try {
+            Files.createDirectories(this.dir);
+            openSegment(nextSeq);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open move journal in " + this.dir, e);
+        }
+        this.syncer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "journal-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "journal-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        syncer.scheduleWithFixedDelay(this::sync, this.syncMillis, this.syncMillis, TimeUnit.MILLISECONDS);
+        flusher.scheduleWithFixedDelay(this::flush, this.flushMillis, this.flushMillis, TimeUnit.MILLISECONDS);
+        log.info("Move journal on in {}: group commit every {} ms ({}), database flush every {} ms",
+                this.dir, this.syncMillis, waitForSync ? "moves wait for it" : "moves do not wait", this.flushMillis);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (!enabled) return;
+        syncer.shutdown();
+        flusher.shutdown();
+        syncer.awaitTermination(5, TimeUnit.SECONDS);
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        sync();
+        while (!unflushed.isEmpty() && flush()) {
+            // drain what the database takes; the rest stays journaled for the next start
+        }
+        try {
+            segment.close();
+        } catch (IOException e) {
+            log.warn("Closing move journal segment {} failed", segmentFile, e);
+        }
+        if (unflushed.isEmpty() && !failed) {
+            deleteQuietly(segmentFile);
+            synchronized (this) {
+                sealed.forEach(sealedSegment -> deleteQuietly(sealedSegment.file()));
+                sealed.clear();
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("chess.moves.journal.sync.interval", () -> enabled ? syncMillis : 0)
+                .tag("wait", String.valueOf(waitForSync)).baseUnit("milliseconds").register(registry);
+        // Moves a crash would lose right now: accepted but not yet on disk
+        Gauge.builder("chess.moves.journal.unsynced", () -> appendedSeq - syncedSeq).register(registry);
+        Gauge.builder("chess.moves.journal.unflushed", unflushedCount, AtomicInteger::get).register(registry);
+        FunctionTimer.builder("chess.moves.journal.syncs", syncs, LongAdder::sum, adder -> syncNanos.sum(), TimeUnit.NANOSECONDS)
+                .register(registry);
+        FunctionTimer.builder("chess.moves.journal.flushes", flushes, LongAdder::sum, adder -> flushNanos.sum(), TimeUnit.NANOSECONDS)
+                .register(registry);
+        FunctionCounter.builder("chess.moves.journal.flushed", flushedMoves, LongAdder::sum).register(registry);
+        // Moves the database refused for good, e.g. because their game was deleted; logged one by one
+        FunctionCounter.builder("chess.moves.journal.dropped", droppedMoves, LongAdder::sum).register(registry);
+    }
+
+    /**
+     * Whether the next move goes through the journal. False when it is off or has failed, and the
+     * caller writes the move itself.
+     *
+     * @throws IllegalStateException when too many moves are waiting for the database
+     */
+    public boolean admit() {
+        if (!enabled || failed) return false;
+        if (unflushedCount.get() >= maxPending) throw new IllegalStateException("Too many moves waiting to be stored, try again");
+        return true;
+    }
+
+    /**
+     * Journals a recorded move; returns its sequence number for {@link #awaitSynced} and
+     * {@link #awaitFlushed}. Callers hold the game's lock, so its moves are journaled in order.
+     */
+    public long append(LiveGame live, Move move, byte[] packedMoves, String eco, String opening,
+                       String result, Termination termination) {
+        live.journaled();
+        synchronized (this) {
+            Entry entry = new Entry(nextSeq++, live, move, packedMoves, eco, opening, result, termination);
+            if (!failed) {
+                byte[] record = encode(entry);
+                unsynced.write(record, 0, record.length);
+                unsyncedLastSeq = entry.seq();
+            }
+            unflushed.add(entry);
+            unflushedCount.incrementAndGet();
+            appendedSeq = entry.seq();
+            return entry.seq();
+        }
+    }
+
+    /** Waits until the move is on disk, when moves are configured to; falls back to the database if the journal failed. */
+    public void awaitSynced(long seq) {
+        if (!waitForSync) return;
+        synchronized (this) {
+            while (syncedSeq < seq && !failed) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        if (syncedSeq < seq) awaitFlushed(seq);
+    }
+
+    /** Waits until the move is in the database, asking for an early flush; gives up after a while. */
+    public void awaitFlushed(long seq) {
+        flusher.execute(this::flush);
+        long deadline = System.currentTimeMillis() + FLUSH_WAIT_MILLIS;
+        synchronized (this) {
+            while (flushedSeq < seq) {
+                long left = deadline - System.currentTimeMillis();
+                if (left <= 0) {
+                    log.warn("Move {} is still not in the database after {} ms", seq, FLUSH_WAIT_MILLIS);
+                    return;
+                }
+                try {
+                    wait(left);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled && !failed;
+    }
+
+    /** Writes and fsyncs the records appended since the last group, then releases their waiters. */
+    void sync() {
+        ByteArrayOutputStream group;
+        long last;
+        synchronized (this) {
+            if (failed || unsynced.size() == 0) return;
+            group = unsynced;
+            last = unsyncedLastSeq;
+            unsynced = new ByteArrayOutputStream(Math.max(256, group.size()));
+        }
+        long started = System.nanoTime();
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(group.toByteArray());
+            while (buffer.hasRemaining()) segment.write(buffer);
+            segment.force(false);
+            segmentSize += group.size();
+            if (segmentSize >= segmentBytes) {
+                segment.close();
+                synchronized (this) {
+                    sealed.add(new Segment(segmentFile, last));
+                }
+                openSegment(last + 1);
+            }
+        } catch (IOException e) {
+            // Journaled moves still reach the database; new moves are written there directly
+            log.error("Move journal {} cannot be written; moves go straight to the database from now on", segmentFile, e);
+            synchronized (this) {
+                failed = true;
+                notifyAll();
+            }
+            return;
+        }
+        syncs.increment();
+        syncNanos.add(System.nanoTime() - started);
+        synchronized (this) {
+            syncedSeq = last;
+            notifyAll();
+        }
+    }
+
+    /** Copies the oldest moves waiting for the database in one transaction; false when that failed. */
+    boolean flush() {
+        List<Entry> entries = new ArrayList<>(Math.min(batch, unflushedCount.get()));
+        Iterator<Entry> it = unflushed.iterator();
+        while (it.hasNext() && entries.size() < batch) entries.add(it.next());
+        if (entries.isEmpty()) return true;
+        long started = System.nanoTime();
+        try {
+            store(entries);
+        } catch (RuntimeException e) {
+            log.warn("Flushing {} journaled moves failed; retrying", entries.size(), e);
+            return false;
+        }
+        for (Entry entry : entries) {
+            unflushed.poll();
+            unflushedCount.decrementAndGet();
+            if (entry.live() != null) entry.live().flushed();
+        }
+        flushes.increment();
+        flushNanos.add(System.nanoTime() - started);
+        flushedMoves.add(entries.size());
+        long last = entries.get(entries.size() - 1).seq();
+        synchronized (this) {
+            flushedSeq = last;
+            notifyAll();
+            while (!sealed.isEmpty() && sealed.peekFirst().lastSeq() <= last) {
+                deleteQuietly(sealed.pollFirst().file());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the entries as one batch. If the database refuses the batch over a constraint, the
+     * entries are written one at a time and any it refuses on its own is logged and dropped, so one
+     * move that can never be stored (its game was deleted, say) does not hold up every move behind
+     * it. Later moves of that game are dropped too. Anything else, such as the database being down,
+     * is thrown for the caller to retry.
+     */
+    private void store(List<Entry> entries) {
+        List<Entry> writable = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            if (entry.live() != null && entry.live().isDiscarded()) skip(entry);
+            else writable.add(entry);
+        }
+        if (writable.isEmpty()) return;
+        try {
+            write(writable);
+            return;
+        } catch (DataIntegrityViolationException e) {
+            if (writable.size() == 1) {
+                drop(writable.get(0), e);
+                return;
+            }
+            log.warn("Database refused a batch of {} journaled moves; writing them one by one", writable.size());
+        }
+        Set<Long> refused = new HashSet<>(); // covers moves read back at startup, which have no live state
+        for (Entry entry : writable) {
+            if (refused.contains(entry.move().getGameId())) {
+                skip(entry);
+                continue;
+            }
+            try {
+                write(List.of(entry));
+            } catch (DataIntegrityViolationException e) {
+                drop(entry, e);
+                refused.add(entry.move().getGameId());
+            }
+        }
+    }
+
+    private void drop(Entry entry, DataIntegrityViolationException e) {
+        droppedMoves.increment();
+        log.error("Dropping journaled move {} of game {}: the database refuses it",
+                entry.move().getMoveNumber(), entry.move().getGameId(), e);
+        LiveGame live = entry.live();
+        if (live == null) return;
+        // The live state has played the move already; discard it so the game reloads without it
+        synchronized (live) {
+            live.discard();
+        }
+        liveGames.evict(entry.move().getGameId(), live);
+    }
+
+    /** A move played after one that was dropped; it extends a position the database never had. */
+    private void skip(Entry entry) {
+        droppedMoves.increment();
+        log.warn("Dropping journaled move {} of game {}: an earlier move of the game was refused",
+                entry.move().getMoveNumber(), entry.move().getGameId());
+    }
+
+    private void write(List<Entry> entries) {
+        Map<Long, Entry> latest = new LinkedHashMap<>();
+        for (Entry entry : entries) latest.put(entry.move().getGameId(), entry);
+        tx.executeWithoutResult(status -> {
+            long[] ids = moveIds(entries.size());
+            jdbc.batchUpdate(INSERT_MOVE, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Move move = entries.get(i).move();
+                    ps.setLong(1, ids[i]);
+                    ps.setLong(2, move.getGameId());
+                    ps.setInt(3, move.getMoveNumber());
+                    ps.setString(4, move.getFromSquare());
+                    ps.setString(5, move.getToSquare());
+                    ps.setString(6, move.getSan());
+                    ps.setString(7, move.getPromotion());
+                    ps.setBytes(8, move.getPositionAfter());
+                    ps.setObject(9, move.getPositionKey());
+                    ps.setLong(10, move.getPlayedByUserId());
+                    ps.setTimestamp(11, Timestamp.from(move.getPlayedAt()));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return entries.size();
+                }
+            });
+            jdbc.batchUpdate(UPDATE_GAME, latest.values(), latest.size(), (ps, entry) -> {
+                Move move = entry.move();
+                ps.setBytes(1, move.getPositionAfter());
+                ps.setBytes(2, entry.packedMoves());
+                ps.setString(3, entry.eco());
+                ps.setString(4, entry.opening());
+                ps.setTimestamp(5, Timestamp.from(move.getPlayedAt()));
+                ps.setBoolean(6, entry.termination() != null);
+                ps.setString(7, entry.result());
+                ps.setString(8, entry.termination() == null ? null : entry.termination().name());
+                ps.setLong(9, move.getGameId());
+                ps.setInt(10, entry.packedMoves().length);
+            });
+        });
+    }
+
+    // Same allocation as Hibernate's pooled-lo optimizer: one sequence value starts a block of Move.ID_BLOCK ids
+    private long[] moveIds(int count) {
+        int blocks = (count + Move.ID_BLOCK - 1) / Move.ID_BLOCK;
+        List<Long> starts = jdbc.queryForList("select nextval('moves_seq') from generate_series(1, ?)", Long.class, blocks);
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) ids[i] = starts.get(i / Move.ID_BLOCK) + i % Move.ID_BLOCK;
+        return ids;
+    }
+
+    /** Writes every move left in the journal directory to the database and deletes the segments; returns the last sequence seen. */
+    private long replay() {
+        if (!Files.isDirectory(dir)) return 0;
+        List<Path> files;
+        try (Stream<Path> listed = Files.list(dir)) {
+            files = listed.filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list move journal " + dir, e);
+        }
+        long last = 0;
+        int replayed = 0;
+        for (Path file : files) {
+            List<Entry> entries = read(file);
+            for (int from = 0; from < entries.size(); from += batch) {
+                store(entries.subList(from, Math.min(entries.size(), from + batch)));
+            }
+            if (!entries.isEmpty()) last = Math.max(last, entries.get(entries.size() - 1).seq());
+            replayed += entries.size();
+        }
+        files.forEach(MoveJournal::deleteQuietly);
+        if (!files.isEmpty()) log.info("Move journal replayed {} moves from {} segments", replayed, files.size());
+        return last;
+    }
+
+    /** Records of one segment, up to the first torn or corrupt one, which a crash mid-write leaves at the end. */
+    private static List<Entry> read(Path file) {
+        List<Entry> entries = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                long crc = in.readInt() & 0xFFFFFFFFL;
+                if (length <= 0 || length > MAX_RECORD) {
+                    log.warn("Move journal {} ends in a corrupt record after {} moves", file, entries.size());
+                    break;
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                CRC32 check = new CRC32();
+                check.update(payload);
+                if (check.getValue() != crc) {
+                    log.warn("Move journal {} ends in a corrupt record after {} moves", file, entries.size());
+                    break;
+                }
+                entries.add(decode(payload));
+            }
+        } catch (EOFException e) {
+            log.warn("Move journal {} ends in a torn record after {} moves", file, entries.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read move journal " + file, e);
+        }
+        return entries;
+    }
+
+    private static byte[] encode(Entry entry) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            Move move = entry.move();
+            out.writeLong(entry.seq());
+            out.writeLong(move.getGameId());
+            out.writeInt(move.getMoveNumber());
+            out.writeUTF(move.getFromSquare());
+            out.writeUTF(move.getToSquare());
+            writeNullable(out, move.getSan());
+            writeNullable(out, move.getPromotion());
+            writeBytes(out, move.getPositionAfter());
+            out.writeLong(move.getPositionKey() == null ? 0 : move.getPositionKey());
+            out.writeLong(move.getPlayedByUserId());
+            out.writeLong(move.getPlayedAt().getEpochSecond());
+            out.writeInt(move.getPlayedAt().getNano());
+            writeBytes(out, entry.packedMoves());
+            writeNullable(out, entry.eco());
+            writeNullable(out, entry.opening());
+            writeNullable(out, entry.result());
+            writeNullable(out, entry.termination() == null ? null : entry.termination().name());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // in memory; cannot happen
+        }
+        byte[] payload = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return ByteBuffer.allocate(8 + payload.length)
+                .putInt(payload.length).putInt((int) crc.getValue()).put(payload)
+                .array();
+    }
+
+    private static Entry decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        long seq = in.readLong();
+        Move move = Move.builder()
+                .gameId(in.readLong())
+                .moveNumber(in.readInt())
+                .fromSquare(in.readUTF())
+                .toSquare(in.readUTF())
+                .san(readNullable(in))
+                .promotion(readNullable(in))
+                .positionAfter(readBytes(in))
+                .positionKey(in.readLong())
+                .playedByUserId(in.readLong())
+                .playedAt(Instant.ofEpochSecond(in.readLong(), in.readInt()))
+                .build();
+        byte[] packedMoves = readBytes(in);
+        String eco = readNullable(in);
+        String opening = readNullable(in);
+        String result = readNullable(in);
+        String termination = readNullable(in);
+        return new Entry(seq, null, move, packedMoves, eco, opening, result,
+                termination == null ? null : Termination.valueOf(termination));
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+        out.writeInt(value.length);
+        out.write(value);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] value = new byte[in.readInt()];
+        in.readFully(value);
+        return value;
+    }
+
+    private void openSegment(long firstSeq) throws IOException {
+        segmentFile = dir.resolve(SEGMENT_PREFIX + String.format("%020d", firstSeq) + SEGMENT_SUFFIX);
+        segment = FileChannel.open(segmentFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentSize = segment.size();
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Cannot delete move journal segment {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.chess.game;
+
+import com.example.chess.common.Dto;
+import com.example.chess.opening.Openings;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Transactional outbox for move broadcasts. {@link GameService#recordMove} adds the move's
+ * broadcast to the {@code outbox} table in the transaction that stores the move, and a single relay
+ * thread sends what has committed, oldest first, through {@link MoveBroadcaster}. A move whose
+ * transaction rolls back is never announced, and one that commits is announced even if the process
+ * dies right after: the row is still there at the next start.
+ * <p>
+ * The relay is woken after every commit and otherwise polls every {@code chess.outbox.poll-millis}.
+ * Each round trip reads up to {@code chess.outbox.batch} entries across all games and one statement
+ * deletes those sent. If that delete fails the relay retries it before reading again, so nothing is
+ * sent twice while the process lives. A crash between send and delete resends that batch once:
+ * the game page keeps the first frame per move number, and the {@link MovePlayed} listeners treat a
+ * repeated move as already handled. Moves written through the
+ * {@link MoveJournal} are in no transaction and are handed to the relay directly.
+ */
+@Component
+@Slf4j
+public class MoveOutbox {
+
+    /** What is stored per move: the broadcast, and the terminal event when the move ended the game. */
+    public record Body(Long gameId, Dto.MoveBroadcast move, Dto.GameOver over) {
+    }
+
+    private final OutboxRepository outbox;
+    private final MoveBroadcaster broadcaster;
+    private final ObjectMapper mapper;
+    private final int batch;
+    private final long pollMillis;
+    private final ScheduledExecutorService relay;
+
+    private final AtomicBoolean woken = new AtomicBoolean();
+    private final AtomicBoolean committed = new AtomicBoolean(); // rows committed since the relay last read the table
+    private final Queue<Body> direct = new ConcurrentLinkedQueue<>();
+    private List<Long> undeleted = List.of(); // sent, delete failed; only touched by the relay thread
+
+    public MoveOutbox(OutboxRepository outbox,
+                      MoveBroadcaster broadcaster,
+                      ObjectMapper mapper,
+                      @Value("${chess.outbox.batch:500}") int batch,
+                      @Value("${chess.outbox.poll-millis:1000}") long pollMillis) {
+        this.outbox = outbox;
+        this.broadcaster = broadcaster;
+        this.mapper = mapper;
+        this.batch = Math.max(1, batch);
+        this.pollMillis = Math.max(10, pollMillis);
+        this.relay = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Sends what a previous run left behind, then keeps polling for anything a wake-up missed. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        relay.scheduleWithFixedDelay(() -> relay(true), 0, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        relay.shutdown();
+        relay.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Adds the move's broadcast to the outbox in the caller's transaction; the relay is woken once it
+     * commits.
+     */
+    public void append(Move move, Openings.Opening opening, Dto.GameOver over) {
+        Body body = new Body(move.getGameId(), MoveBroadcaster.payload(move, opening), over);
+        outbox.save(OutboxMessage.builder()
+                .gameId(move.getGameId())
+                .payload(write(body))
+                .createdAt(Instant.now())
+                .build());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    committed.set(true);
+                    wake();
+                }
+            });
+        } else {
+            committed.set(true);
+            wake();
+        }
+    }
+
+    /** Hands the relay a move that is stored without a transaction; sent ahead of the table. */
+    public void send(Move move, Openings.Opening opening, Dto.GameOver over) {
+        direct.add(new Body(move.getGameId(), MoveBroadcaster.payload(move, opening), over));
+        wake();
+    }
+
+    private void wake() {
+        if (!woken.compareAndSet(false, true)) return; // a relay round is already on its way
+        try {
+            relay.execute(() -> {
+                woken.set(false);
+                relay(committed.getAndSet(false));
+            });
+        } catch (RejectedExecutionException e) {
+            woken.set(false); // shutting down; the rows wait for the next start
+        }
+    }
+
+    /**
+     * One relay round: the direct hand-offs, then, when {@code readTable}, the table a batch at a time
+     * until it is empty. Journaled moves wake the relay without touching the database.
+     */
+    void relay(boolean readTable) {
+        try {
+            for (Body body = direct.poll(); body != null; body = direct.poll()) {
+                broadcaster.broadcast(body.gameId(), body.move(), body.over());
+            }
+            if (!readTable) return;
+            if (!undeleted.isEmpty()) {
+                outbox.deleteAllByIdInBatch(undeleted);
+                undeleted = List.of();
+            }
+            while (true) {
+                List<OutboxMessage> page = outbox.findAllByOrderByIdAsc(PageRequest.of(0, batch));
+                if (page.isEmpty()) return;
+                List<Long> sent = new ArrayList<>(page.size());
+                try {
+                    for (OutboxMessage message : page) {
+                        Body body = read(message);
+                        if (body != null) broadcaster.broadcast(body.gameId(), body.move(), body.over());
+                        sent.add(message.getId());
+                    }
+                } finally {
+                    // Whatever went out is never sent again, even if the rest of the page failed
+                    undeleted = sent;
+                }
+                outbox.deleteAllByIdInBatch(sent);
+                undeleted = List.of();
+                if (page.size() < batch) return;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Outbox relay round failed, {} sent entries still to delete; retrying", undeleted.size(), e);
+        }
+    }
+
+    private String write(Body body) {
+        try {
+            return mapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize broadcast for game " + body.gameId(), e);
+        }
+    }
+
+    private Body read(OutboxMessage message) {
+        try {
+            return mapper.readValue(message.getPayload(), Body.class);
+        } catch (JsonProcessingException e) {
+            log.error("Dropping unreadable outbox entry {} for game {}", message.getId(), message.getGameId(), e);
+            return null;
+        }
+    }
+}
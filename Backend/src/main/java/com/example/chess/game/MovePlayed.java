@@ -0,0 +1,14 @@
+package com.example.chess.game;
+
+import com.example.chess.common.Dto;
+
+/**
+ * Published after a move has been stored and broadcast. {@code over} is the terminal event when
+ * the move ended the game, otherwise null. Listeners run on one thread, in the order moves went out.
+ */
+public record MovePlayed(Long gameId, Move move, Dto.GameOver over) {
+
+    public boolean gameOver() {
+        return over != null;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.chess.game;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/** A broadcast waiting in the outbox; see {@link MoveOutbox}. */
+@Entity
+@Table(name = "outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_seq")
+    @SequenceGenerator(name = "outbox_seq", sequenceName = "outbox_seq", allocationSize = 50) // pooled-lo blocks
+    private Long id;
+
+    @Column(nullable = false)
+    private Long gameId;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload; // MoveOutbox.Body as JSON
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,13 @@
+package com.example.chess.game;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxMessage, Long> {
+
+    List<OutboxMessage> findAllByOrderByIdAsc(Pageable page);
+}
@@ -0,0 +1,53 @@
+package com.example.chess.game;
+
+import java.util.Arrays;
+
+/**
+ * Binary move list: each move is its 16-bit {@link MoveCodec} value, big-endian, two bytes per ply.
+ * This is the layout of {@code games.packed_moves} and of {@code GET /api/games/{id}/moves?format=packed},
+ * so a whole game loads in one small read and replays without touching the move rows.
+ */
+public final class PackedMoves {
+
+    public static final byte[] EMPTY = new byte[0];
+
+    private PackedMoves() {
+    }
+
+    public static int count(byte[] packed) {
+        return packed.length >>> 1;
+    }
+
+    /** Move at {@code index} (0 = the first move of the game). */
+    public static int moveAt(byte[] packed, int index) {
+        int i = index << 1;
+        return ((packed[i] & 0xFF) << 8) | (packed[i + 1] & 0xFF);
+    }
+
+    /** A copy of {@code packed} with {@code move} added at the end. */
+    public static byte[] append(byte[] packed, int move) {
+        byte[] out = Arrays.copyOf(packed, packed.length + 2);
+        out[packed.length] = (byte) (move >>> 8);
+        out[packed.length + 1] = (byte) move;
+        return out;
+    }
+
+    /** Every move played from the start position to reach {@code position}. */
+    public static byte[] of(Position position) {
+        byte[] out = new byte[position.ply() << 1];
+        for (int i = 0; i < position.ply(); i++) {
+            int move = position.moveAt(i);
+            out[i << 1] = (byte) (move >>> 8);
+            out[(i << 1) + 1] = (byte) move;
+        }
+        return out;
+    }
+
+    public static int[] decode(byte[] packed) {
+        int[] moves = new int[count(packed)];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = moveAt(packed, i);
+        }
+        return moves;
+    }
+}
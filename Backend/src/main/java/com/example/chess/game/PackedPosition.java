@@ -0,0 +1,84 @@
+package com.example.chess.game;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size binary snapshot of a position, the stored replacement for FEN text.
+ * <pre>
+ *   0..31  placement, one nibble per square from a1 (low nibble = even square): 0 empty, else piece code + 1
+ *   32     castling rights (bits 0-3), side to move (bit 4, set = black)
+ *   33     en-passant square, 0xFF when none
+ *   34..35 halfmove clock, unsigned big-endian
+ *   36..37 fullmove number, unsigned big-endian
+ * </pre>
+ * Every field maps one-to-one onto FEN, so conversion is lossless both ways, and two snapshots hold
+ * the same position exactly when their bytes are equal.
+ */
+public final class PackedPosition {
+
+    public static final int SIZE = 38;
+    public static final int PLACEMENT_BYTES = 32;
+
+    static final int FLAGS = 32;
+    static final int EP_SQUARE = 33;
+    static final int HALFMOVE = 34;
+    static final int FULLMOVE = 36;
+    static final int NO_EP = 0xFF;
+
+    private PackedPosition() {
+    }
+
+    public static byte[] of(Position position) {
+        byte[] out = new byte[SIZE];
+        write(position, out, 0);
+        return out;
+    }
+
+    /** Writes {@link #SIZE} bytes at {@code offset} without allocating. */
+    public static void write(Position position, byte[] out, int offset) {
+        if (position.halfmoveClock() > 0xFFFF || position.fullmoveNumber() > 0xFFFF) {
+            throw new IllegalArgumentException("Move counters out of range");
+        }
+        for (int i = 0; i < 32; i++) {
+            out[offset + i] = (byte) (nibble(position, 2 * i) | nibble(position, 2 * i + 1) << 4);
+        }
+        out[offset + FLAGS] = (byte) (position.castlingRights() | position.sideToMove() << 4);
+        out[offset + EP_SQUARE] = (byte) (position.epSquare() == Position.NO_SQUARE ? NO_EP : position.epSquare());
+        writeShort(out, offset + HALFMOVE, position.halfmoveClock());
+        writeShort(out, offset + FULLMOVE, position.fullmoveNumber());
+    }
+
+    public static byte[] fromFen(String fen) {
+        return of(Position.fromFen(fen));
+    }
+
+    public static String toFen(byte[] packed) {
+        Position position = new Position();
+        position.setPacked(packed, 0);
+        return Fen.of(position);
+    }
+
+    /** Side to move of the snapshot at {@code offset}, without loading it. */
+    public static int sideToMove(byte[] packed, int offset) {
+        return (packed[offset + FLAGS] >>> 4) & 1;
+    }
+
+    /** Same placement, rights and side to move, ignoring the move counters. */
+    public static boolean samePosition(byte[] a, byte[] b) {
+        return Arrays.equals(a, 0, HALFMOVE, b, 0, HALFMOVE);
+    }
+
+    private static int nibble(Position position, int sq) {
+        int piece = position.pieceAt(sq);
+        return piece == Position.NO_PIECE ? 0 : piece + 1;
+    }
+
+    static int readShort(byte[] in, int at) {
+        return (in[at] & 0xFF) << 8 | (in[at + 1] & 0xFF);
+    }
+
+    private static void writeShort(byte[] out, int at, int value) {
+        out[at] = (byte) (value >>> 8);
+        out[at + 1] = (byte) value;
+    }
+}
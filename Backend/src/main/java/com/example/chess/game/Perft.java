@@ -0,0 +1,101 @@
+package com.example.chess.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Leaf-node counter for the move generator. Counts must match the published reference values
+ * exactly; the timing makes the same run double as a throughput check.
+ */
+public final class Perft {
+
+    public record Result(long nodes, long nanos) {
+        public long nodesPerSecond() {
+            return nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos;
+        }
+    }
+
+    private Perft() {
+    }
+
+    public static Result run(String fen, int depth) {
+        Position position = Position.fromFen(fen);
+        long start = System.nanoTime();
+        long nodes = count(position, depth);
+        return new Result(nodes, System.nanoTime() - start);
+    }
+
+    /** Splits the root moves across the pool; every subtree gets its own position and buffers. */
+    public static Result runParallel(String fen, int depth, ForkJoinPool pool) {
+        long start = System.nanoTime();
+        long nodes = pool.invoke(new RootTask(fen, depth));
+        return new Result(nodes, System.nanoTime() - start);
+    }
+
+    public static long count(Position position, int depth) {
+        if (depth <= 0) return 1;
+        return count(position, depth, new int[depth + 1][Position.MAX_MOVES]);
+    }
+
+    private static long count(Position position, int depth, int[][] buffers) {
+        int[] moves = buffers[depth];
+        int n = position.generateLegal(moves);
+        if (depth == 1) return n; // bulk counting at the frontier
+        long nodes = 0;
+        for (int i = 0; i < n; i++) {
+            position.makeMove(moves[i]);
+            nodes += count(position, depth - 1, buffers);
+            position.unmakeMove();
+        }
+        return nodes;
+    }
+
+    private static final class RootTask extends RecursiveTask<Long> {
+        private final String fen;
+        private final int depth;
+
+        RootTask(String fen, int depth) {
+            this.fen = fen;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            Position root = Position.fromFen(fen);
+            if (depth <= 1) return count(root, depth);
+
+            int[] moves = new int[Position.MAX_MOVES];
+            int n = root.generateLegal(moves);
+            List<SubtreeTask> tasks = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                tasks.add(new SubtreeTask(fen, moves[i], depth - 1));
+            }
+            long nodes = 0;
+            for (SubtreeTask task : invokeAll(tasks)) {
+                nodes += task.join();
+            }
+            return nodes;
+        }
+    }
+
+    private static final class SubtreeTask extends RecursiveTask<Long> {
+        private final String fen;
+        private final int rootMove;
+        private final int depth;
+
+        SubtreeTask(String fen, int rootMove, int depth) {
+            this.fen = fen;
+            this.rootMove = rootMove;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            Position position = Position.fromFen(fen);
+            position.makeMove(rootMove);
+            return count(position, depth);
+        }
+    }
+}
@@ -0,0 +1,655 @@
+package com.example.chess.game;
+
+import static com.example.chess.game.Bitboards.*;
+
+/**
+ * Mutable bitboard position with make/unmake and a legal move generator.
+ * Instances are not thread-safe; every buffer is allocated up front so that generating and
+ * validating moves never allocates.
+ */
+public final class Position {
+
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    public static final int PAWN = 0;
+    public static final int KNIGHT = 1;
+    public static final int BISHOP = 2;
+    public static final int ROOK = 3;
+    public static final int QUEEN = 4;
+    public static final int KING = 5;
+
+    /** Piece codes are {@code color * 6 + type}; 12 marks an empty square. */
+    public static final int NO_PIECE = 12;
+    public static final int NO_SQUARE = -1;
+
+    public static final int WHITE_OO = 1;
+    public static final int WHITE_OOO = 2;
+    public static final int BLACK_OO = 4;
+    public static final int BLACK_OOO = 8;
+
+    public static final int MAX_MOVES = 256;
+
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final int[] CASTLE_MASK = new int[64];
+
+    static {
+        java.util.Arrays.fill(CASTLE_MASK, 0xF);
+        CASTLE_MASK[0] = ~WHITE_OOO & 0xF;
+        CASTLE_MASK[7] = ~WHITE_OO & 0xF;
+        CASTLE_MASK[4] = ~(WHITE_OO | WHITE_OOO) & 0xF;
+        CASTLE_MASK[56] = ~BLACK_OOO & 0xF;
+        CASTLE_MASK[63] = ~BLACK_OO & 0xF;
+        CASTLE_MASK[60] = ~(BLACK_OO | BLACK_OOO) & 0xF;
+    }
+
+    private final long[] pieces = new long[12];
+    private final long[] occupancy = new long[2];
+    private long occupied;
+    private final int[] board = new int[64];
+
+    private int sideToMove;
+    private int castling;
+    private int epSquare = NO_SQUARE;
+    private int halfmoveClock;
+    private int fullmoveNumber = 1;
+    private long key;
+
+    // Derived on each generation pass, consumed by isLegal
+    private long checkers;
+    private long pinned;
+
+    // Undo stack, grown only when a game outlives the initial capacity
+    private int ply;
+    private int[] undoMove = new int[256];
+    private int[] undoCaptured = new int[256];
+    private int[] undoState = new int[256];
+    private long[] undoKey = new long[256];
+
+    private final int[] scratch = new int[MAX_MOVES];
+
+    public Position() {
+        setFen(START_FEN);
+    }
+
+    public static Position fromFen(String fen) {
+        Position position = new Position();
+        position.setFen(fen);
+        return position;
+    }
+
+    /**
+     * Makes this position an exact copy of {@code other}, history included, so repetition checks
+     * and {@link #keyAt} behave the same on both. Reuses this instance's buffers where they fit.
+     */
+    public void copyFrom(Position other) {
+        System.arraycopy(other.pieces, 0, pieces, 0, pieces.length);
+        System.arraycopy(other.occupancy, 0, occupancy, 0, occupancy.length);
+        System.arraycopy(other.board, 0, board, 0, board.length);
+        occupied = other.occupied;
+        sideToMove = other.sideToMove;
+        castling = other.castling;
+        epSquare = other.epSquare;
+        halfmoveClock = other.halfmoveClock;
+        fullmoveNumber = other.fullmoveNumber;
+        key = other.key;
+        ply = other.ply;
+        if (undoMove.length < other.undoMove.length) {
+            undoMove = new int[other.undoMove.length];
+            undoCaptured = new int[other.undoMove.length];
+            undoState = new int[other.undoMove.length];
+            undoKey = new long[other.undoMove.length];
+        }
+        System.arraycopy(other.undoMove, 0, undoMove, 0, ply);
+        System.arraycopy(other.undoCaptured, 0, undoCaptured, 0, ply);
+        System.arraycopy(other.undoState, 0, undoState, 0, ply);
+        System.arraycopy(other.undoKey, 0, undoKey, 0, ply);
+    }
+
+    // ---- accessors ----
+
+    public int sideToMove() {
+        return sideToMove;
+    }
+
+    public int castlingRights() {
+        return castling;
+    }
+
+    public int epSquare() {
+        return epSquare;
+    }
+
+    public int halfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public int fullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /** Zobrist key of the current position, maintained incrementally. */
+    public long key() {
+        return key;
+    }
+
+    /** Key of the position reached after {@code index} moves since setup; {@code keyAt(ply())} is the current key. */
+    public long keyAt(int index) {
+        return index == ply ? key : undoKey[index];
+    }
+
+    /** True when the side to move has a pawn that could capture on the en-passant square. */
+    public boolean epCaptureAvailable() {
+        return epSquare != NO_SQUARE
+                && (PAWN_ATTACKS[sideToMove ^ 1][epSquare] & pieces[sideToMove * 6 + PAWN]) != 0;
+    }
+
+    /** Number of moves made since the position was set up. */
+    public int ply() {
+        return ply;
+    }
+
+    public int pieceAt(int sq) {
+        return board[sq];
+    }
+
+    public long pieces(int color, int type) {
+        return pieces[color * 6 + type];
+    }
+
+    public long occupancy(int color) {
+        return occupancy[color];
+    }
+
+    public long occupied() {
+        return occupied;
+    }
+
+    public int kingSquare(int color) {
+        return Long.numberOfTrailingZeros(pieces[color * 6 + KING]);
+    }
+
+    public static int colorOf(int piece) {
+        return piece >= 6 ? BLACK : WHITE;
+    }
+
+    public static int typeOf(int piece) {
+        return piece >= 6 ? piece - 6 : piece;
+    }
+
+    public boolean inCheck() {
+        int us = sideToMove;
+        return (attackersTo(kingSquare(us), occupied) & occupancy[us ^ 1]) != 0;
+    }
+
+    public boolean isAttacked(int sq, int byColor) {
+        return (attackersTo(sq, occupied) & occupancy[byColor]) != 0;
+    }
+
+    long attackersTo(int sq, long occ) {
+        long bishopsQueens = pieces[BISHOP] | pieces[QUEEN] | pieces[6 + BISHOP] | pieces[6 + QUEEN];
+        long rooksQueens = pieces[ROOK] | pieces[QUEEN] | pieces[6 + ROOK] | pieces[6 + QUEEN];
+        return (PAWN_ATTACKS[BLACK][sq] & pieces[PAWN])
+                | (PAWN_ATTACKS[WHITE][sq] & pieces[6 + PAWN])
+                | (KNIGHT_ATTACKS[sq] & (pieces[KNIGHT] | pieces[6 + KNIGHT]))
+                | (KING_ATTACKS[sq] & (pieces[KING] | pieces[6 + KING]))
+                | (bishopAttacks(sq, occ) & bishopsQueens)
+                | (rookAttacks(sq, occ) & rooksQueens);
+    }
+
+    // ---- setup ----
+
+    public void setFen(String fen) {
+        String[] parts = fen == null ? new String[0] : fen.trim().split("\\s+");
+        if (parts.length < 2) {
+            throw new IllegalArgumentException("Invalid FEN");
+        }
+        java.util.Arrays.fill(pieces, 0L);
+        java.util.Arrays.fill(occupancy, 0L);
+        java.util.Arrays.fill(board, NO_PIECE);
+        occupied = 0L;
+
+        int rank = 7, file = 0;
+        for (int i = 0; i < parts[0].length(); i++) {
+            char c = parts[0].charAt(i);
+            if (c == '/') {
+                if (file != 8) throw new IllegalArgumentException("Invalid FEN");
+                rank--;
+                file = 0;
+            } else if (c >= '1' && c <= '8') {
+                file += c - '0';
+            } else {
+                int piece = pieceFromChar(c);
+                if (piece == NO_PIECE || file > 7 || rank < 0) throw new IllegalArgumentException("Invalid FEN");
+                putPiece(rank * 8 + file, piece);
+                file++;
+            }
+            if (file > 8) throw new IllegalArgumentException("Invalid FEN");
+        }
+        if (rank != 0 || file != 8
+                || Long.bitCount(pieces[KING]) != 1 || Long.bitCount(pieces[6 + KING]) != 1) {
+            throw new IllegalArgumentException("Invalid FEN");
+        }
+
+        sideToMove = switch (parts[1]) {
+            case "w" -> WHITE;
+            case "b" -> BLACK;
+            default -> throw new IllegalArgumentException("Invalid FEN");
+        };
+
+        castling = 0;
+        if (parts.length > 2 && !parts[2].equals("-")) {
+            for (char c : parts[2].toCharArray()) {
+                castling |= switch (c) {
+                    case 'K' -> WHITE_OO;
+                    case 'Q' -> WHITE_OOO;
+                    case 'k' -> BLACK_OO;
+                    case 'q' -> BLACK_OOO;
+                    default -> throw new IllegalArgumentException("Invalid FEN");
+                };
+            }
+        }
+        epSquare = NO_SQUARE;
+        if (parts.length > 3 && !parts[3].equals("-")) {
+            epSquare = parseSquare(parts[3]);
+            if (epSquare < 0 || rankOf(epSquare) != (sideToMove == WHITE ? 5 : 2)) {
+                throw new IllegalArgumentException("Invalid FEN");
+            }
+        }
+
+        try {
+            halfmoveClock = parts.length > 4 ? Integer.parseInt(parts[4]) : 0;
+            fullmoveNumber = parts.length > 5 ? Math.max(1, Integer.parseInt(parts[5])) : 1;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid FEN", e);
+        }
+        if (halfmoveClock < 0 || !finishSetup()) throw new IllegalArgumentException("Invalid FEN");
+    }
+
+    /**
+     * Loads a {@link PackedPosition} snapshot starting at {@code offset}, with the same checks as
+     * {@link #setFen}. Reads straight into the existing buffers, so it never allocates.
+     */
+    public void setPacked(byte[] packed, int offset) {
+        java.util.Arrays.fill(pieces, 0L);
+        java.util.Arrays.fill(occupancy, 0L);
+        java.util.Arrays.fill(board, NO_PIECE);
+        occupied = 0L;
+        for (int sq = 0; sq < 64; sq++) {
+            int code = (packed[offset + (sq >>> 1)] >>> ((sq & 1) << 2)) & 0xF;
+            if (code == 0) continue;
+            if (code > NO_PIECE) throw new IllegalArgumentException("Invalid packed position");
+            putPiece(sq, code - 1);
+        }
+        if (Long.bitCount(pieces[KING]) != 1 || Long.bitCount(pieces[6 + KING]) != 1) {
+            throw new IllegalArgumentException("Invalid packed position");
+        }
+
+        int flags = packed[offset + PackedPosition.FLAGS] & 0xFF;
+        castling = flags & 0xF;
+        sideToMove = (flags >>> 4) & 1;
+        int ep = packed[offset + PackedPosition.EP_SQUARE] & 0xFF;
+        epSquare = ep == PackedPosition.NO_EP ? NO_SQUARE : ep;
+        if (epSquare != NO_SQUARE && (epSquare > 63 || rankOf(epSquare) != (sideToMove == WHITE ? 5 : 2))) {
+            throw new IllegalArgumentException("Invalid packed position");
+        }
+        halfmoveClock = PackedPosition.readShort(packed, offset + PackedPosition.HALFMOVE);
+        fullmoveNumber = Math.max(1, PackedPosition.readShort(packed, offset + PackedPosition.FULLMOVE));
+        if (!finishSetup()) throw new IllegalArgumentException("Invalid packed position");
+    }
+
+    /**
+     * Shared tail of {@link #setFen} and {@link #setPacked} once placement and state fields are loaded;
+     * false when the position cannot have arisen in a game.
+     */
+    private boolean finishSetup() {
+        // Drop rights that the placement cannot support so make() never moves a phantom rook
+        if (board[4] != KING) castling &= ~(WHITE_OO | WHITE_OOO);
+        if (board[7] != ROOK) castling &= ~WHITE_OO;
+        if (board[0] != ROOK) castling &= ~WHITE_OOO;
+        if (board[60] != 6 + KING) castling &= ~(BLACK_OO | BLACK_OOO);
+        if (board[63] != 6 + ROOK) castling &= ~BLACK_OO;
+        if (board[56] != 6 + ROOK) castling &= ~BLACK_OOO;
+
+        // The side that just moved cannot still be giving check to the side not on move
+        if (isAttacked(kingSquare(sideToMove ^ 1), sideToMove)) return false;
+        ply = 0;
+        key = Zobrist.hash(this);
+        return true;
+    }
+
+    static int pieceFromChar(char c) {
+        int color = Character.isUpperCase(c) ? WHITE : BLACK;
+        int type = switch (Character.toLowerCase(c)) {
+            case 'p' -> PAWN;
+            case 'n' -> KNIGHT;
+            case 'b' -> BISHOP;
+            case 'r' -> ROOK;
+            case 'q' -> QUEEN;
+            case 'k' -> KING;
+            default -> -1;
+        };
+        return type < 0 ? NO_PIECE : color * 6 + type;
+    }
+
+    private void putPiece(int sq, int piece) {
+        long bit = 1L << sq;
+        pieces[piece] |= bit;
+        occupancy[colorOf(piece)] |= bit;
+        occupied |= bit;
+        board[sq] = piece;
+    }
+
+    private void removePiece(int sq) {
+        int piece = board[sq];
+        long bit = 1L << sq;
+        pieces[piece] &= ~bit;
+        occupancy[colorOf(piece)] &= ~bit;
+        occupied &= ~bit;
+        board[sq] = NO_PIECE;
+    }
+
+    private void movePiece(int from, int to) {
+        int piece = board[from];
+        long fromTo = (1L << from) | (1L << to);
+        pieces[piece] ^= fromTo;
+        occupancy[colorOf(piece)] ^= fromTo;
+        occupied ^= fromTo;
+        board[from] = NO_PIECE;
+        board[to] = piece;
+    }
+
+    // ---- move generation ----
+
+    /**
+     * Writes every legal move into {@code moves} (at least {@link #MAX_MOVES} long) and returns the count.
+     */
+    public int generateLegal(int[] moves) {
+        int count = generatePseudoLegal(moves);
+        int legal = 0;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            if (isLegal(move)) moves[legal++] = move;
+        }
+        return legal;
+    }
+
+    /**
+     * Looks up the legal move matching the given squares; {@code promotionType} is -1 for non-promotions.
+     * Returns {@link MoveCodec#NONE} when no such legal move exists.
+     */
+    public int findLegal(int from, int to, int promotionType) {
+        if (from < 0 || to < 0) return MoveCodec.NONE;
+        int count = generatePseudoLegal(scratch);
+        for (int i = 0; i < count; i++) {
+            int move = scratch[i];
+            if (MoveCodec.from(move) == from && MoveCodec.to(move) == to
+                    && MoveCodec.promotionType(move) == promotionType && isLegal(move)) {
+                return move;
+            }
+        }
+        return MoveCodec.NONE;
+    }
+
+    /** True when the side to move has at least one legal move. */
+    public boolean hasLegalMove() {
+        int count = generatePseudoLegal(scratch);
+        for (int i = 0; i < count; i++) {
+            if (isLegal(scratch[i])) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Pseudo-legal generation already restricted to check evasions; {@link #isLegal} only has to
+     * resolve pins, king safety and en-passant discoveries afterwards.
+     */
+    private int generatePseudoLegal(int[] out) {
+        int us = sideToMove, them = us ^ 1;
+        long own = occupancy[us], enemy = occupancy[them];
+        int ksq = kingSquare(us);
+
+        checkers = attackersTo(ksq, occupied) & enemy;
+        pinned = computePinned(us, ksq);
+
+        int n = 0;
+        n = addMoves(out, n, ksq, KING_ATTACKS[ksq] & ~own, enemy);
+        if (Long.bitCount(checkers) > 1) return n;
+
+        long target = checkers != 0 ? (BETWEEN[ksq][Long.numberOfTrailingZeros(checkers)] | checkers) : ~own;
+        target &= ~own;
+
+        int base = us * 6;
+        for (long bb = pieces[base + KNIGHT]; bb != 0; bb &= bb - 1) {
+            int from = Long.numberOfTrailingZeros(bb);
+            n = addMoves(out, n, from, KNIGHT_ATTACKS[from] & target, enemy);
+        }
+        for (long bb = pieces[base + BISHOP] | pieces[base + QUEEN]; bb != 0; bb &= bb - 1) {
+            int from = Long.numberOfTrailingZeros(bb);
+            n = addMoves(out, n, from, bishopAttacks(from, occupied) & target, enemy);
+        }
+        for (long bb = pieces[base + ROOK] | pieces[base + QUEEN]; bb != 0; bb &= bb - 1) {
+            int from = Long.numberOfTrailingZeros(bb);
+            n = addMoves(out, n, from, rookAttacks(from, occupied) & target, enemy);
+        }
+        n = addPawnMoves(out, n, us, target, enemy);
+
+        if (checkers == 0) {
+            n = addCastles(out, n, us);
+        }
+        return n;
+    }
+
+    private long computePinned(int us, int ksq) {
+        int them = us ^ 1;
+        long snipers = (rookAttacks(ksq, 0L) & (pieces[them * 6 + ROOK] | pieces[them * 6 + QUEEN]))
+                | (bishopAttacks(ksq, 0L) & (pieces[them * 6 + BISHOP] | pieces[them * 6 + QUEEN]));
+        long result = 0L;
+        for (; snipers != 0; snipers &= snipers - 1) {
+            long blockers = BETWEEN[ksq][Long.numberOfTrailingZeros(snipers)] & occupied;
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0) result |= blockers & occupancy[us];
+        }
+        return result;
+    }
+
+    private static int addMoves(int[] out, int n, int from, long targets, long enemy) {
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            out[n++] = MoveCodec.encode(from, to, (enemy & (1L << to)) != 0 ? MoveCodec.CAPTURE : MoveCodec.QUIET);
+        }
+        return n;
+    }
+
+    private int addPawnMoves(int[] out, int n, int us, long target, long enemy) {
+        long pawns = pieces[us * 6 + PAWN];
+        long empty = ~occupied;
+        int up = us == WHITE ? 8 : -8;
+        long promoRank = us == WHITE ? RANK_8 : RANK_1;
+
+        long single = (us == WHITE ? pawns << 8 : pawns >>> 8) & empty;
+        long dbl = (us == WHITE ? (single & (RANK_2 << 8)) << 8 : (single & (RANK_7 >>> 8)) >>> 8) & empty;
+        single &= target;
+        dbl &= target;
+
+        for (long bb = single; bb != 0; bb &= bb - 1) {
+            int to = Long.numberOfTrailingZeros(bb);
+            if (((1L << to) & promoRank) != 0) {
+                n = addPromotions(out, n, to - up, to, false);
+            } else {
+                out[n++] = MoveCodec.encode(to - up, to, MoveCodec.QUIET);
+            }
+        }
+        for (long bb = dbl; bb != 0; bb &= bb - 1) {
+            int to = Long.numberOfTrailingZeros(bb);
+            out[n++] = MoveCodec.encode(to - 2 * up, to, MoveCodec.DOUBLE_PUSH);
+        }
+        for (long bb = pawns; bb != 0; bb &= bb - 1) {
+            int from = Long.numberOfTrailingZeros(bb);
+            long attacks = PAWN_ATTACKS[us][from];
+            for (long caps = attacks & enemy & target; caps != 0; caps &= caps - 1) {
+                int to = Long.numberOfTrailingZeros(caps);
+                if (((1L << to) & promoRank) != 0) {
+                    n = addPromotions(out, n, from, to, true);
+                } else {
+                    out[n++] = MoveCodec.encode(from, to, MoveCodec.CAPTURE);
+                }
+            }
+            if (epSquare != NO_SQUARE && (attacks & (1L << epSquare)) != 0) {
+                int captured = epSquare ^ 8;
+                // Either the evasion lands on a blocking square or it removes the checking pawn itself
+                if ((target & (1L << epSquare)) != 0 || (checkers & (1L << captured)) != 0) {
+                    out[n++] = MoveCodec.encode(from, epSquare, MoveCodec.EN_PASSANT);
+                }
+            }
+        }
+        return n;
+    }
+
+    private static int addPromotions(int[] out, int n, int from, int to, boolean capture) {
+        out[n++] = MoveCodec.promotion(from, to, QUEEN, capture);
+        out[n++] = MoveCodec.promotion(from, to, ROOK, capture);
+        out[n++] = MoveCodec.promotion(from, to, BISHOP, capture);
+        out[n++] = MoveCodec.promotion(from, to, KNIGHT, capture);
+        return n;
+    }
+
+    private int addCastles(int[] out, int n, int us) {
+        int them = us ^ 1;
+        if (us == WHITE) {
+            if ((castling & WHITE_OO) != 0 && (occupied & 0x60L) == 0
+                    && !isAttacked(5, them) && !isAttacked(6, them)) {
+                out[n++] = MoveCodec.encode(4, 6, MoveCodec.KING_CASTLE);
+            }
+            if ((castling & WHITE_OOO) != 0 && (occupied & 0x0EL) == 0
+                    && !isAttacked(3, them) && !isAttacked(2, them)) {
+                out[n++] = MoveCodec.encode(4, 2, MoveCodec.QUEEN_CASTLE);
+            }
+        } else {
+            if ((castling & BLACK_OO) != 0 && (occupied & (0x60L << 56)) == 0
+                    && !isAttacked(61, them) && !isAttacked(62, them)) {
+                out[n++] = MoveCodec.encode(60, 62, MoveCodec.KING_CASTLE);
+            }
+            if ((castling & BLACK_OOO) != 0 && (occupied & (0x0EL << 56)) == 0
+                    && !isAttacked(59, them) && !isAttacked(58, them)) {
+                out[n++] = MoveCodec.encode(60, 58, MoveCodec.QUEEN_CASTLE);
+            }
+        }
+        return n;
+    }
+
+    /** Legality of a move produced by the generator in the current position. */
+    private boolean isLegal(int move) {
+        int us = sideToMove, them = us ^ 1;
+        int from = MoveCodec.from(move), to = MoveCodec.to(move);
+        int ksq = kingSquare(us);
+
+        if (from == ksq) {
+            if (MoveCodec.isCastle(move)) return true; // path already checked during generation
+            return (attackersTo(to, occupied ^ (1L << from)) & occupancy[them]) == 0;
+        }
+        if (MoveCodec.isEnPassant(move)) {
+            int captured = to ^ 8;
+            long occ = (occupied ^ (1L << from) ^ (1L << captured)) | (1L << to);
+            return (attackersTo(ksq, occ) & occupancy[them] & ~(1L << captured)) == 0;
+        }
+        return (pinned & (1L << from)) == 0 || (LINE[from][ksq] & (1L << to)) != 0;
+    }
+
+    // ---- make / unmake ----
+
+    public void makeMove(int move) {
+        if (ply == undoMove.length) growUndo();
+        int from = MoveCodec.from(move), to = MoveCodec.to(move), flags = MoveCodec.flags(move);
+        int us = sideToMove;
+        int piece = board[from];
+
+        undoMove[ply] = move;
+        undoState[ply] = castling | ((epSquare + 1) << 4) | (halfmoveClock << 11);
+        undoKey[ply] = key;
+
+        long k = key ^ Zobrist.WHITE_TO_MOVE ^ Zobrist.CASTLING[castling];
+        if (epCaptureAvailable()) k ^= Zobrist.EN_PASSANT_FILE[fileOf(epSquare)];
+
+        int captured = NO_PIECE;
+        if (flags == MoveCodec.EN_PASSANT) {
+            captured = board[to ^ 8];
+            k ^= Zobrist.PIECE_SQUARE[captured][to ^ 8];
+            removePiece(to ^ 8);
+        } else if (board[to] != NO_PIECE) {
+            captured = board[to];
+            k ^= Zobrist.PIECE_SQUARE[captured][to];
+            removePiece(to);
+        }
+        undoCaptured[ply] = captured;
+
+        movePiece(from, to);
+        k ^= Zobrist.PIECE_SQUARE[piece][from] ^ Zobrist.PIECE_SQUARE[piece][to];
+        if ((flags & MoveCodec.PROMOTION) != 0) {
+            int promoted = us * 6 + MoveCodec.promotionType(move);
+            removePiece(to);
+            putPiece(to, promoted);
+            k ^= Zobrist.PIECE_SQUARE[piece][to] ^ Zobrist.PIECE_SQUARE[promoted][to];
+        } else if (flags == MoveCodec.KING_CASTLE) {
+            movePiece(from + 3, from + 1);
+            k ^= Zobrist.PIECE_SQUARE[us * 6 + ROOK][from + 3] ^ Zobrist.PIECE_SQUARE[us * 6 + ROOK][from + 1];
+        } else if (flags == MoveCodec.QUEEN_CASTLE) {
+            movePiece(from - 4, from - 1);
+            k ^= Zobrist.PIECE_SQUARE[us * 6 + ROOK][from - 4] ^ Zobrist.PIECE_SQUARE[us * 6 + ROOK][from - 1];
+        }
+
+        halfmoveClock = (typeOf(piece) == PAWN || captured != NO_PIECE) ? 0 : halfmoveClock + 1;
+        epSquare = flags == MoveCodec.DOUBLE_PUSH ? (from + to) >>> 1 : NO_SQUARE;
+        castling &= CASTLE_MASK[from] & CASTLE_MASK[to];
+        if (us == BLACK) fullmoveNumber++;
+        sideToMove = us ^ 1;
+        ply++;
+
+        k ^= Zobrist.CASTLING[castling];
+        if (epCaptureAvailable()) k ^= Zobrist.EN_PASSANT_FILE[fileOf(epSquare)];
+        key = k;
+    }
+
+    public void unmakeMove() {
+        ply--;
+        int move = undoMove[ply];
+        int from = MoveCodec.from(move), to = MoveCodec.to(move), flags = MoveCodec.flags(move);
+        sideToMove ^= 1;
+        int us = sideToMove;
+        if (us == BLACK) fullmoveNumber--;
+
+        int state = undoState[ply];
+        castling = state & 0xF;
+        epSquare = ((state >>> 4) & 0x7F) - 1;
+        halfmoveClock = state >>> 11;
+        key = undoKey[ply];
+
+        if ((flags & MoveCodec.PROMOTION) != 0) {
+            removePiece(to);
+            putPiece(to, us * 6 + PAWN);
+        } else if (flags == MoveCodec.KING_CASTLE) {
+            movePiece(from + 1, from + 3);
+        } else if (flags == MoveCodec.QUEEN_CASTLE) {
+            movePiece(from - 1, from - 4);
+        }
+        movePiece(to, from);
+
+        int captured = undoCaptured[ply];
+        if (captured != NO_PIECE) {
+            putPiece(flags == MoveCodec.EN_PASSANT ? to ^ 8 : to, captured);
+        }
+    }
+
+    /** Move made at the given ply (0-based) since setup; used to replay or serialize a line. */
+    public int moveAt(int index) {
+        return undoMove[index];
+    }
+
+    private void growUndo() {
+        int size = undoMove.length * 2;
+        undoMove = java.util.Arrays.copyOf(undoMove, size);
+        undoCaptured = java.util.Arrays.copyOf(undoCaptured, size);
+        undoState = java.util.Arrays.copyOf(undoState, size);
+        undoKey = java.util.Arrays.copyOf(undoKey, size);
+    }
+}
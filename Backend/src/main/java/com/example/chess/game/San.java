@@ -0,0 +1,145 @@
+package com.example.chess.game;
+
+import static com.example.chess.game.Bitboards.*;
+
+/**
+ * Standard Algebraic Notation against a live {@link Position}. Disambiguation looks only at pieces
+ * of the same type that attack the destination square, so neither direction builds a full move list.
+ */
+public final class San {
+
+    private static final char[] PIECE_LETTERS = {' ', 'N', 'B', 'R', 'Q', 'K'};
+
+    private San() {
+    }
+
+    /** SAN for a legal {@code move} in {@code position}; the position is left unchanged. */
+    public static String encode(Position position, int move) {
+        int from = MoveCodec.from(move), to = MoveCodec.to(move);
+        int flags = MoveCodec.flags(move);
+        StringBuilder sb = new StringBuilder(8);
+
+        if (flags == MoveCodec.KING_CASTLE) {
+            sb.append("O-O");
+        } else if (flags == MoveCodec.QUEEN_CASTLE) {
+            sb.append("O-O-O");
+        } else {
+            int type = Position.typeOf(position.pieceAt(from));
+            if (type == Position.PAWN) {
+                if (MoveCodec.isCapture(move)) sb.append((char) ('a' + fileOf(from))).append('x');
+                sb.append(squareName(to));
+                if (MoveCodec.isPromotion(move)) {
+                    sb.append('=').append(PIECE_LETTERS[MoveCodec.promotionType(move)]);
+                }
+            } else {
+                sb.append(PIECE_LETTERS[type]);
+                appendDisambiguation(sb, position, type, from, to);
+                if (MoveCodec.isCapture(move)) sb.append('x');
+                sb.append(squareName(to));
+            }
+        }
+
+        position.makeMove(move);
+        if (position.inCheck()) sb.append(position.hasLegalMove() ? '+' : '#');
+        position.unmakeMove();
+        return sb.toString();
+    }
+
+    private static void appendDisambiguation(StringBuilder sb, Position position, int type, int from, int to) {
+        if (type == Position.KING) return;
+        int us = position.sideToMove();
+        long rivals = reach(type, to, position.occupied()) & position.pieces(us, type) & ~(1L << from);
+        boolean sameFile = false, sameRank = false, any = false;
+        for (; rivals != 0; rivals &= rivals - 1) {
+            int rival = Long.numberOfTrailingZeros(rivals);
+            if (position.findLegal(rival, to, -1) == MoveCodec.NONE) continue; // pinned rivals don't count
+            any = true;
+            sameFile |= fileOf(rival) == fileOf(from);
+            sameRank |= rankOf(rival) == rankOf(from);
+        }
+        if (!any) return;
+        if (!sameFile) {
+            sb.append((char) ('a' + fileOf(from)));
+        } else if (!sameRank) {
+            sb.append((char) ('1' + rankOf(from)));
+        } else {
+            sb.append(squareName(from));
+        }
+    }
+
+    /** Squares from which a piece of {@code type} attacks {@code sq}. */
+    private static long reach(int type, int sq, long occupied) {
+        return switch (type) {
+            case Position.KNIGHT -> knightAttacks(sq);
+            case Position.BISHOP -> bishopAttacks(sq, occupied);
+            case Position.ROOK -> rookAttacks(sq, occupied);
+            case Position.QUEEN -> queenAttacks(sq, occupied);
+            case Position.KING -> kingAttacks(sq);
+            default -> 0L;
+        };
+    }
+
+    /**
+     * Resolves SAN (check/mate/annotation suffixes optional, "0-0" accepted for castling) to the
+     * unique legal move it names; returns {@link MoveCodec#NONE} when it names none or several.
+     */
+    public static int decode(Position position, String san) {
+        if (san == null) return MoveCodec.NONE;
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) end--;
+        if (end < 2) return MoveCodec.NONE;
+
+        int us = position.sideToMove();
+        int kingFrom = us == Position.WHITE ? 4 : 60;
+        String body = san.substring(0, end).replace('0', 'O');
+        if (body.equals("O-O")) return position.findLegal(kingFrom, kingFrom + 2, -1);
+        if (body.equals("O-O-O")) return position.findLegal(kingFrom, kingFrom - 2, -1);
+
+        int i = 0;
+        int type = Position.PAWN;
+        int letter = "NBRQK".indexOf(san.charAt(0));
+        if (letter >= 0) {
+            type = Position.KNIGHT + letter;
+            i = 1;
+        }
+
+        int promotion = -1;
+        int promoLetter = "NBRQ".indexOf(san.charAt(end - 1));
+        if (type == Position.PAWN && promoLetter >= 0) {
+            promotion = Position.KNIGHT + promoLetter;
+            end--;
+            if (end > 0 && san.charAt(end - 1) == '=') end--;
+        }
+        if (end - i < 2) return MoveCodec.NONE;
+
+        int to = parseSquare(san.subSequence(end - 2, end));
+        if (to < 0) return MoveCodec.NONE;
+
+        // Whatever sits between the piece letter and the destination: disambiguation and/or 'x'
+        int fromFile = -1, fromRank = -1;
+        for (int j = i; j < end - 2; j++) {
+            char c = san.charAt(j);
+            if (c >= 'a' && c <= 'h') fromFile = c - 'a';
+            else if (c >= '1' && c <= '8') fromRank = c - '1';
+            else if (c != 'x') return MoveCodec.NONE;
+        }
+
+        long candidates = position.pieces(us, type);
+        if (type == Position.PAWN) {
+            candidates &= FILE_A << (fromFile >= 0 ? fromFile : fileOf(to));
+        } else {
+            candidates &= reach(type, to, position.occupied());
+            if (fromFile >= 0) candidates &= FILE_A << fromFile;
+        }
+        if (fromRank >= 0) candidates &= RANK_1 << (8 * fromRank);
+
+        int found = MoveCodec.NONE;
+        for (; candidates != 0; candidates &= candidates - 1) {
+            int move = position.findLegal(Long.numberOfTrailingZeros(candidates), to, promotion);
+            if (move == MoveCodec.NONE) continue;
+            if (found != MoveCodec.NONE) return MoveCodec.NONE; // ambiguous
+            found = move;
+        }
+        return found;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.chess.game;
+
+/**
+ * Why a game ended. There is no draw-claim flow, so the claimable draws (threefold repetition,
+ * fifty-move rule) end the game automatically just like their mandatory counterparts. Three-piece
+ * endings decided by {@link Bitbases} are adjudicated on arrival when {@code chess.bitbase.adjudicate} is on.
+ */
+public enum Termination {
+    CHECKMATE,
+    STALEMATE,
+    INSUFFICIENT_MATERIAL,
+    THREEFOLD_REPETITION,
+    FIVEFOLD_REPETITION,
+    FIFTY_MOVE_RULE,
+    SEVENTY_FIVE_MOVE_RULE,
+    ADJUDICATED_WIN,
+    ADJUDICATED_DRAW;
+
+    public boolean isDecisive() {
+        return this == CHECKMATE || this == ADJUDICATED_WIN;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.chess.game;
+
+import java.util.SplittableRandom;
+
+/**
+ * 64-bit position keys, laid out like the Polyglot book format: 768 piece-square entries
+ * (piece kind = 2 * type + 1 for white), four castling entries, eight en-passant files and a
+ * side-to-move entry. The en-passant file only counts when a capture is actually available, so
+ * keys agree with the repetition rule. {@link Position} keeps its key up to date on every make/unmake.
+ */
+public final class Zobrist {
+
+    static final long[] RANDOM = new long[781];
+
+    static final long[][] PIECE_SQUARE = new long[12][64];
+    static final long[] CASTLING = new long[16];
+    static final long[] EN_PASSANT_FILE = new long[8];
+    static final long WHITE_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x9E3779B97F4A7C15L);
+        for (int i = 0; i < RANDOM.length; i++) {
+            RANDOM[i] = random.nextLong();
+        }
+        for (int piece = 0; piece < 12; piece++) {
+            int kind = 2 * Position.typeOf(piece) + (Position.colorOf(piece) == Position.WHITE ? 1 : 0);
+            for (int sq = 0; sq < 64; sq++) {
+                PIECE_SQUARE[piece][sq] = RANDOM[64 * kind + sq];
+            }
+        }
+        for (int rights = 0; rights < 16; rights++) {
+            long key = 0L;
+            for (int bit = 0; bit < 4; bit++) {
+                if ((rights & (1 << bit)) != 0) key ^= RANDOM[768 + bit];
+            }
+            CASTLING[rights] = key;
+        }
+        for (int file = 0; file < 8; file++) {
+            EN_PASSANT_FILE[file] = RANDOM[772 + file];
+        }
+        WHITE_TO_MOVE = RANDOM[780];
+    }
+
+    private Zobrist() {
+    }
+
+    /** Full recomputation; used at setup and to cross-check the incremental key. */
+    public static long hash(Position position) {
+        long key = 0L;
+        for (int sq = 0; sq < 64; sq++) {
+            int piece = position.pieceAt(sq);
+            if (piece != Position.NO_PIECE) key ^= PIECE_SQUARE[piece][sq];
+        }
+        key ^= CASTLING[position.castlingRights()];
+        if (position.epCaptureAvailable()) key ^= EN_PASSANT_FILE[Bitboards.fileOf(position.epSquare())];
+        if (position.sideToMove() == Position.WHITE) key ^= WHITE_TO_MOVE;
+        return key;
+    }
+
+    /**
+     * Same layout hashed with another 781-entry table, e.g. the published Polyglot Random64 values
+     * needed to probe third-party opening books.
+     */
+    public static long hash(Position position, long[] random) {
+        long key = 0L;
+        for (int sq = 0; sq < 64; sq++) {
+            int piece = position.pieceAt(sq);
+            if (piece == Position.NO_PIECE) continue;
+            int kind = 2 * Position.typeOf(piece) + (Position.colorOf(piece) == Position.WHITE ? 1 : 0);
+            key ^= random[64 * kind + sq];
+        }
+        for (int bit = 0; bit < 4; bit++) {
+            if ((position.castlingRights() & (1 << bit)) != 0) key ^= random[768 + bit];
+        }
+        if (position.epCaptureAvailable()) key ^= random[772 + Bitboards.fileOf(position.epSquare())];
+        if (position.sideToMove() == Position.WHITE) key ^= random[780];
+        return key;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.chess.lobby;
 
+import com.example.chess.bot.BotService;
 import com.example.chess.common.Dto;
 import com.example.chess.game.Game;
 import com.example.chess.game.GameService;
@@ -27,6 +28,7 @@ public class LobbyController {
     private final LobbyService lobby;
     private final SimpMessagingTemplate messaging;
     private final GameService gameService;
+    private final BotService bots;
 
     // ====== CONNECT / DISCONNECT / SUBSCRIBE ======
 
@@ -79,6 +81,11 @@ public class LobbyController {
             throw new IllegalArgumentException("Cannot invite yourself");
         }
 
+        if (bots.isBot(req.toUserId())) {
+            inviteBot(me, req.toUserId());
+            return;
+        }
+
         Long inviteId = lobby.createInvite(me.getId(), req.toUserId());
         Dto.UserLite fromLite = new Dto.UserLite(me.getId(), me.getDisplayName());
 
@@ -87,6 +94,22 @@ public class LobbyController {
         log.info("Invite created id={} from={} to={}", inviteId, me.getId(), req.toUserId());
     }
 
+    /** Bots answer at once: a game when one of them is free, otherwise a decline. */
+    private void inviteBot(User me, Long botId) {
+        Long inviteId = lobby.createInvite(me.getId(), botId);
+        lobby.removeInvite(inviteId);
+        Dto.UserLite bot = bots.bot(botId).orElseThrow();
+        var game = bots.accept(me.getId(), botId);
+        if (game.isEmpty()) {
+            lobby.notifyDeclined(inviteId, me.getId(), bot);
+            log.info("Bot {} declined invite from={}: all bots busy", botId, me.getId());
+            return;
+        }
+        var created = new Dto.GameCreated(game.get().getId().toString(), game.get().getWhitePlayerId(), game.get().getBlackPlayerId());
+        lobby.notifyGameCreated(me.getId(), created);
+        log.info("Bot game created id={} white={} black={}", game.get().getId(), me.getId(), botId);
+    }
+
     @MessageMapping("invite.reply")
     public void inviteReply(Dto.InviteReply req, Principal principal) {
         if (!(principal instanceof Authentication auth) || !(auth.getPrincipal() instanceof User me)) {
@@ -51,6 +51,11 @@ public class LobbyService {
         broadcastOnline();
     }
 
+    /** Bots have no session; they stay listed as online for as long as the server runs. */
+    public void registerBot(User bot) {
+        online.put(bot.getId(), new Dto.UserLite(bot.getId(), bot.getDisplayName()));
+    }
+
     public void broadcastOnline() {
         List<Dto.UserLite> users = online.values().stream()
                 .sorted(Comparator.comparing(Dto.UserLite::displayName))
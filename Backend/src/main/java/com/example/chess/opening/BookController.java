@@ -0,0 +1,41 @@
+package com.example.chess.opening;
+
+import com.example.chess.common.Dto;
+import com.example.chess.game.MoveCodec;
+import com.example.chess.game.Position;
+import com.example.chess.game.San;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Comparator;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/book")
+@RequiredArgsConstructor
+public class BookController {
+
+    private final PolyglotBook book;
+
+    @GetMapping
+    public ResponseEntity<List<Dto.BookMoveDto>> moves(@RequestParam(defaultValue = Position.START_FEN) String fen) {
+        Position position;
+        try {
+            position = Position.fromFen(fen);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(book.lookup(position).stream()
+                .sorted(Comparator.comparingInt(PolyglotBook.BookMove::weight).reversed())
+                .map(entry -> new Dto.BookMoveDto(
+                        MoveCodec.toUci(entry.move()),
+                        San.encode(position, entry.move()),
+                        entry.weight()
+                ))
+                .toList());
+    }
+}
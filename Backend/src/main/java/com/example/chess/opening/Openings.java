@@ -0,0 +1,103 @@
+package com.example.chess.opening;
+
+import com.example.chess.game.LongIntMap;
+import com.example.chess.game.MoveCodec;
+import com.example.chess.game.Position;
+import com.example.chess.game.San;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ECO classification. The embedded dataset (lichess chess-openings TSV layout: eco, name, pgn) is
+ * replayed once at startup and every named position is indexed by its Zobrist key, so classifying
+ * the position after a move is one primitive hash lookup and transpositions land on the same entry.
+ */
+@Component
+@Slf4j
+public class Openings {
+
+    static final String RESOURCE = "eco/openings.tsv";
+
+    public record Opening(String eco, String name) {
+    }
+
+    private final Opening[] openings;
+    private final LongIntMap byKey;
+
+    public Openings() {
+        List<Opening> loaded = new ArrayList<>();
+        List<Long> keys = new ArrayList<>();
+        try (InputStream in = new ClassPathResource(RESOURCE).getInputStream();
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            Position position = new Position();
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 || line.isBlank()) continue; // header
+                String[] fields = line.split("\t");
+                if (fields.length != 3) {
+                    throw new IllegalStateException(RESOURCE + ":" + lineNumber + " needs eco, name and pgn");
+                }
+                keys.add(play(position, fields[2], lineNumber));
+                loaded.add(new Opening(fields[0], fields[1]));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + RESOURCE, e);
+        }
+
+        openings = loaded.toArray(new Opening[0]);
+        byKey = new LongIntMap(openings.length);
+        for (int i = 0; i < openings.length; i++) {
+            // First entry wins when two lines transpose into the same position
+            if (!byKey.containsKey(keys.get(i))) byKey.put(keys.get(i), i);
+        }
+        log.info("Loaded {} ECO openings ({} distinct positions)", openings.length, byKey.size());
+    }
+
+    /** Replays SAN movetext such as "1. e4 e5 2. Nf3" from the start position and returns the final key. */
+    private static long play(Position position, String pgn, int lineNumber) {
+        position.setFen(Position.START_FEN);
+        for (String token : pgn.trim().split("\\s+")) {
+            if (token.endsWith(".")) continue; // move number
+            int move = San.decode(position, token);
+            if (move == MoveCodec.NONE) {
+                throw new IllegalStateException(RESOURCE + ":" + lineNumber + " has an illegal move " + token);
+            }
+            position.makeMove(move);
+        }
+        return position.key();
+    }
+
+    /** The opening named exactly at this position, or null when the dataset has no entry for it. */
+    public Opening classify(long positionKey) {
+        int index = byKey.get(positionKey, -1);
+        return index < 0 ? null : openings[index];
+    }
+
+    /**
+     * Deepest named position along a game, for state rebuilt from history rather than followed move
+     * by move; null when the game never passed through one.
+     */
+    public Opening classify(Position position) {
+        for (int i = position.ply(); i > 0; i--) {
+            Opening opening = classify(position.keyAt(i));
+            if (opening != null) return opening;
+        }
+        return null;
+    }
+
+    public int size() {
+        return openings.length;
+    }
+}
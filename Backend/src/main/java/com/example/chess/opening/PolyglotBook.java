@@ -0,0 +1,143 @@
+package com.example.chess.opening;
+
+import com.example.chess.game.MoveCodec;
+import com.example.chess.game.Position;
+import com.example.chess.game.Zobrist;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Polyglot opening book, memory-mapped read-only. Entries are 16 bytes (key, move, weight, learn;
+ * big-endian, sorted by unsigned key), so a lookup is a binary search with absolute reads straight
+ * out of the page cache: nothing is copied onto the heap and absolute reads make the book safe to
+ * share between threads.
+ * <p>
+ * Keys follow the {@link Zobrist} layout. Books built by other tools are hashed with the published
+ * Polyglot Random64 table, which is read from {@code chess.book.random64} (781 big-endian longs).
+ * A book written with the server's own keys needs {@code chess.book.server-keys=true} instead; a
+ * book configured with neither is refused at startup, since every lookup would silently miss.
+ */
+@Component
+@Slf4j
+public class PolyglotBook {
+
+    static final int ENTRY_SIZE = 16;
+
+    public record BookMove(int move, int weight, int learn) {
+    }
+
+    private final MappedByteBuffer entries; // null when no book is configured
+    private final int size;
+    private final long[] random;              // null = use Position.key()
+
+    public PolyglotBook(@Value("${chess.book.path:}") String bookPath,
+                        @Value("${chess.book.random64:}") String random64Path,
+                        @Value("${chess.book.server-keys:false}") boolean serverKeys) {
+        random = random64Path.isBlank() ? null : readRandom64(Path.of(random64Path));
+        if (bookPath.isBlank()) {
+            entries = null;
+            size = 0;
+            return;
+        }
+        if (random == null && !serverKeys) {
+            throw new IllegalStateException("Opening book " + bookPath + " needs chess.book.random64 (the Polyglot "
+                    + "Random64 table), or chess.book.server-keys=true for a book written with this server's keys");
+        }
+        try (FileChannel channel = FileChannel.open(Path.of(bookPath), StandardOpenOption.READ)) {
+            long bytes = channel.size();
+            if (bytes % ENTRY_SIZE != 0 || bytes > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Not a Polyglot book: " + bookPath);
+            }
+            entries = channel.map(FileChannel.MapMode.READ_ONLY, 0, bytes); // stays valid after close
+            entries.load();
+            size = (int) (bytes / ENTRY_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map opening book " + bookPath, e);
+        }
+        log.info("Mapped opening book {} ({} entries)", bookPath, size);
+    }
+
+    private static long[] readRandom64(Path path) {
+        try {
+            byte[] bytes = Files.readAllBytes(path);
+            if (bytes.length != 781 * 8) throw new IllegalStateException("Random64 table must hold 781 longs: " + path);
+            long[] table = new long[781];
+            ByteBuffer.wrap(bytes).asLongBuffer().get(table);
+            return table;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read Random64 table " + path, e);
+        }
+    }
+
+    public boolean isLoaded() {
+        return entries != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long key(Position position) {
+        return random == null ? position.key() : Zobrist.hash(position, random);
+    }
+
+    /** Legal book moves for {@code position} in file order (Polyglot writers sort by descending weight). */
+    public List<BookMove> lookup(Position position) {
+        List<BookMove> found = new ArrayList<>();
+        if (entries == null) return found;
+        long key = key(position);
+        for (int i = lowerBound(key); i < size && entries.getLong(i * ENTRY_SIZE) == key; i++) {
+            int at = i * ENTRY_SIZE;
+            int move = toMove(position, entries.getShort(at + 8) & 0xFFFF);
+            if (move == MoveCodec.NONE) continue; // key collision or corrupt entry
+            found.add(new BookMove(move, entries.getShort(at + 10) & 0xFFFF, entries.getInt(at + 12)));
+        }
+        return found;
+    }
+
+    private int lowerBound(long key) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (Long.compareUnsigned(entries.getLong(mid * ENTRY_SIZE), key) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Polyglot moves pack to-file, to-row, from-file, from-row and promotion piece in 3-bit fields;
+     * castling is written as the king capturing its own rook.
+     */
+    static int toMove(Position position, int poly) {
+        int to = (poly & 7) + 8 * ((poly >>> 3) & 7);
+        int from = ((poly >>> 6) & 7) + 8 * ((poly >>> 9) & 7);
+        int promotion = (poly >>> 12) & 7;
+        if (Position.typeOf(position.pieceAt(from)) == Position.KING
+                && position.pieceAt(to) == position.pieceAt(from) - Position.KING + Position.ROOK) {
+            to = to > from ? from + 2 : from - 2;
+        }
+        return position.findLegal(from, to, promotion == 0 ? -1 : Position.KNIGHT + promotion - 1);
+    }
+
+    /** Inverse of {@link #toMove}, for writing books. */
+    static int toPolyglot(int move) {
+        int from = MoveCodec.from(move), to = MoveCodec.to(move);
+        if (MoveCodec.flags(move) == MoveCodec.KING_CASTLE) to = from + 3;
+        if (MoveCodec.flags(move) == MoveCodec.QUEEN_CASTLE) to = from - 4;
+        int promotion = MoveCodec.isPromotion(move) ? MoveCodec.promotionType(move) - Position.KNIGHT + 1 : 0;
+        return (to & 7) | (to >>> 3) << 3 | (from & 7) << 6 | (from >>> 3) << 9 | promotion << 12;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.chess.puzzle;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/** A tactic found in a finished game: the position, the winning line and an estimated rating. */
+@Entity
+@Table(name = "puzzles")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Puzzle {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "game_id", nullable = false)
+    private Long gameId;
+
+    @Column(name = "move_number", nullable = false)
+    private Integer moveNumber; // the puzzle starts after this move of the game
+
+    @Column(name = "position", columnDefinition = "bytea", nullable = false)
+    private byte[] position; // see PackedPosition
+
+    @Column(name = "position_key", nullable = false, unique = true)
+    private Long positionKey; // one puzzle per position, however many games reached it
+
+    @Column(name = "solution", columnDefinition = "bytea", nullable = false)
+    private byte[] solution; // see PackedMoves; the solver's moves and the forced replies, solver first and last
+
+    @Column(name = "eval_cp")
+    private Integer evalCp; // for the solver; null when the line mates
+
+    @Column(name = "mate_in")
+    private Integer mateIn;
+
+    @Column(name = "rating", nullable = false)
+    private Integer rating;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
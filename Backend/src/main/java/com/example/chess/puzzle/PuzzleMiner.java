@@ -0,0 +1,330 @@
+package com.example.chess.puzzle;
+
+import com.example.chess.engine.Search;
+import com.example.chess.engine.TranspositionTable;
+import com.example.chess.game.Bitbases;
+import com.example.chess.game.Game;
+import com.example.chess.game.GameRepository;
+import com.example.chess.game.GameRules;
+import com.example.chess.game.Move;
+import com.example.chess.game.MoveCodec;
+import com.example.chess.game.MoveRepository;
+import com.example.chess.game.PackedMoves;
+import com.example.chess.game.PackedPosition;
+import com.example.chess.game.Position;
+import com.example.chess.review.Judgment;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Mines puzzles from finished games. A run walks the games in (updated_at, id) keyset order, a
+ * chunk at a time; a chunk's moves come from {@code moves} in one query, its games are searched on a
+ * small pool of low-priority workers, and its puzzles are stored in the same transaction that moves
+ * the checkpoint past it. Memory is bounded by one chunk, a run that is stopped resumes after the
+ * last committed chunk, and the database only sees short keyset reads and one write per chunk.
+ * <p>
+ * A position is a candidate when the opponent's move threw the game: judged a mistake or blunder by
+ * the review, or, for games without one, a shallow search has the side to move winning where it was
+ * not before. Candidates become puzzles when a full-depth search confirms a win and no other move
+ * keeps a winning score. Runs are started by {@code chess.puzzle.cron}; blank disables them.
+ */
+@Service
+@Slf4j
+public class PuzzleMiner {
+
+    static final String JOB = "puzzles";
+
+    static final int WINNING = 300;     // the solution must win at least this much
+    static final int EVEN = 100;        // and the solver must not have been winning before the mistake
+    static final int ALTERNATIVE = 150; // no other move may keep this much
+
+    // Games finish in transactions that may commit a moment after their updated_at
+    private static final Duration SETTLE = Duration.ofMinutes(1);
+
+    private final GameRepository games;
+    private final MoveRepository moves;
+    private final PuzzleRepository puzzles;
+    private final JobCheckpointRepository checkpoints;
+    private final GameRules rules;
+    private final TransactionTemplate tx;
+    private final Bitbases bitbases;
+    private final CronExpression cron; // null when scheduled runs are off
+    private final int threads;
+    private final int chunk;
+    private final int depth;
+    private final int screenDepth;
+    private final int maxSolution;
+    private final int hashMb;
+    private final long pauseMillis;
+
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean stop = new AtomicBoolean();
+
+    public PuzzleMiner(GameRepository games,
+                       MoveRepository moves,
+                       PuzzleRepository puzzles,
+                       JobCheckpointRepository checkpoints,
+                       GameRules rules,
+                       TransactionTemplate tx,
+                       Bitbases bitbases,
+                       @Value("${chess.puzzle.cron:}") String cron,
+                       @Value("${chess.puzzle.threads:1}") int threads,
+                       @Value("${chess.puzzle.chunk:50}") int chunk,
+                       @Value("${chess.puzzle.depth:10}") int depth,
+                       @Value("${chess.puzzle.screen-depth:4}") int screenDepth,
+                       @Value("${chess.puzzle.max-solution:5}") int maxSolution,
+                       @Value("${chess.puzzle.hash-mb:16}") int hashMb,
+                       @Value("${chess.puzzle.pause-millis:200}") long pauseMillis) {
+        this.games = games;
+        this.moves = moves;
+        this.puzzles = puzzles;
+        this.checkpoints = checkpoints;
+        this.rules = rules;
+        this.tx = tx;
+        this.bitbases = bitbases;
+        this.cron = cron == null || cron.isBlank() ? null : CronExpression.parse(cron);
+        this.threads = Math.max(1, threads);
+        this.chunk = Math.max(1, chunk);
+        this.depth = Math.max(2, depth);
+        this.screenDepth = Math.max(1, Math.min(screenDepth, this.depth));
+        this.maxSolution = Math.max(1, maxSolution);
+        this.hashMb = hashMb;
+        this.pauseMillis = Math.max(0, pauseMillis);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "puzzle-mining");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void schedule() {
+        if (cron == null) return;
+        ZonedDateTime now = ZonedDateTime.now();
+        ZonedDateTime next = cron.next(now);
+        if (next == null) return;
+        scheduler.schedule(() -> {
+            try {
+                mine();
+            } catch (RuntimeException e) {
+                log.warn("Puzzle mining run failed; the next run resumes from the checkpoint", e);
+            } finally {
+                if (!stop.get()) schedule();
+            }
+        }, Duration.between(now, next).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        stop.set(true);
+        scheduler.shutdownNow();
+    }
+
+    /** One pass over the finished games not mined yet; returns the number of puzzles stored. */
+    public int mine() {
+        if (!running.compareAndSet(false, true)) throw new IllegalStateException("Puzzle mining is already running");
+        AtomicInteger workerIds = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "puzzle-" + workerIds.getAndIncrement());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY); // live games first
+            return thread;
+        });
+        BlockingQueue<TranspositionTable> tables = new ArrayBlockingQueue<>(threads);
+        for (int i = 0; i < threads; i++) {
+            tables.add(new TranspositionTable(hashMb));
+        }
+        long started = System.nanoTime();
+        int mined = 0, stored = 0;
+        try {
+            JobCheckpoint checkpoint = checkpoints.findById(JOB).orElseGet(() -> JobCheckpoint.builder()
+                    .name(JOB).lastUpdatedAt(Instant.EPOCH).lastId(0L).build());
+            Instant settled = Instant.now().minus(SETTLE);
+            while (!stop.get()) {
+                List<Game> page = games.findFinishedAfter(checkpoint.getLastUpdatedAt(), checkpoint.getLastId(),
+                        settled, PageRequest.of(0, chunk));
+                if (page.isEmpty()) break;
+                Map<Long, List<Move>> rows = moves.findByGameIdInOrderByGameIdAscMoveNumberAsc(
+                                page.stream().map(Game::getId).toList()).stream()
+                        .collect(Collectors.groupingBy(Move::getGameId, LinkedHashMap::new, Collectors.toList()));
+
+                List<Future<List<Puzzle>>> results = new ArrayList<>(page.size());
+                for (Game game : page) {
+                    List<Move> gameRows = rows.getOrDefault(game.getId(), List.of());
+                    results.add(workers.submit(() -> {
+                        TranspositionTable table = tables.take();
+                        try {
+                            table.newSearch();
+                            return mineGame(game, gameRows, table);
+                        } finally {
+                            tables.put(table);
+                        }
+                    }));
+                }
+                List<Puzzle> found = new ArrayList<>();
+                for (int i = 0; i < results.size(); i++) {
+                    try {
+                        found.addAll(results.get(i).get());
+                    } catch (ExecutionException e) {
+                        log.warn("Puzzle mining skips game {}", page.get(i).getId(), e.getCause());
+                    }
+                }
+                if (stop.get()) break; // searches were cut short; leave the chunk for the next run
+
+                Game last = page.get(page.size() - 1);
+                checkpoint.setLastUpdatedAt(last.getUpdatedAt());
+                checkpoint.setLastId(last.getId());
+                checkpoint.setUpdatedAt(Instant.now());
+                Integer saved = tx.execute(status -> {
+                    int n = store(found);
+                    checkpoints.save(checkpoint);
+                    return n;
+                });
+                mined += page.size();
+                stored += saved == null ? 0 : saved;
+                if (page.size() < chunk) break;
+                if (pauseMillis > 0) Thread.sleep(pauseMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            workers.shutdownNow();
+            running.set(false);
+        }
+        log.info("Puzzle mining: {} games, {} new puzzles in {} s", mined, stored,
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started));
+        return stored;
+    }
+
+    /** Saves the puzzles whose position has none yet; several games often reach the same blunder. */
+    private int store(List<Puzzle> found) {
+        if (found.isEmpty()) return 0;
+        Set<Long> taken = new HashSet<>(puzzles.findExistingKeys(found.stream().map(Puzzle::getPositionKey).toList()));
+        List<Puzzle> fresh = found.stream().filter(puzzle -> taken.add(puzzle.getPositionKey())).toList();
+        puzzles.saveAll(fresh);
+        return fresh.size();
+    }
+
+    List<Puzzle> mineGame(Game game, List<Move> rows, TranspositionTable table) {
+        Position end = game.getPackedMoves() != null ? rules.replay(game.getPackedMoves()) : rules.replay(rows);
+        boolean reviewed = rows.size() == end.ply() && rows.stream().allMatch(row -> row.getJudgment() != null);
+        List<Puzzle> found = new ArrayList<>();
+        Position position = new Position();
+        int before = 0; // screening score of the previous position, for its side to move
+        for (int ply = 1; ply <= end.ply() && !stop.get(); ply++) {
+            position.makeMove(end.moveAt(ply - 1));
+            boolean candidate;
+            if (reviewed) {
+                Judgment judged = Judgment.fromCode(rows.get(ply - 1).getJudgment());
+                candidate = judged == Judgment.MISTAKE || judged == Judgment.BLUNDER;
+            } else {
+                Search.Info screen = search(position, table, screenDepth);
+                if (screen == null) break;
+                candidate = screen.score() >= WINNING && -before < EVEN;
+                before = screen.score();
+            }
+            if (!candidate) continue;
+            Puzzle puzzle = confirm(position, table);
+            if (puzzle == null) continue;
+            puzzle.setGameId(game.getId());
+            puzzle.setMoveNumber(ply);
+            found.add(puzzle);
+        }
+        return found;
+    }
+
+    /** The puzzle starting at {@code position}, or null when the win is not confirmed or not unique. */
+    private Puzzle confirm(Position position, TranspositionTable table) {
+        int[] legal = new int[Position.MAX_MOVES];
+        int n = position.generateLegal(legal);
+        if (n < 2) return null; // nothing to find
+
+        int[] settledAt = new int[1]; // depth from which the best move no longer changed
+        int[] lastBest = {MoveCodec.NONE};
+        Search.Info info = new Search(position, table, stop, bitbases).run(depth, 0, iteration -> {
+            if (iteration.bestMove() != lastBest[0]) {
+                lastBest[0] = iteration.bestMove();
+                settledAt[0] = iteration.depth();
+            }
+        });
+        if (info == null || info.pv().length == 0 || info.score() < WINNING) return null;
+        int best = info.bestMove();
+
+        for (int i = 0; i < n; i++) {
+            if (legal[i] == best) continue;
+            position.makeMove(legal[i]);
+            Search.Info reply = search(position, table, screenDepth - 1);
+            position.unmakeMove();
+            if (reply == null || -reply.score() >= ALTERNATIVE) return null;
+        }
+
+        int length = info.isMate() ? Math.min(info.pv().length, 2 * info.mateIn() - 1) : Math.min(info.pv().length, maxSolution);
+        if (length % 2 == 0) length--; // end on the solver's move
+        byte[] solution = PackedMoves.EMPTY;
+        for (int i = 0; i < length; i++) {
+            solution = PackedMoves.append(solution, info.pv()[i]);
+        }
+        position.makeMove(best);
+        boolean check = position.inCheck();
+        position.unmakeMove();
+        boolean quiet = !check && !MoveCodec.isCapture(best) && !MoveCodec.isPromotion(best);
+
+        return Puzzle.builder()
+                .position(PackedPosition.of(position))
+                .positionKey(position.key())
+                .solution(solution)
+                .evalCp(info.isMate() ? null : info.score())
+                .mateIn(info.isMate() ? info.mateIn() : null)
+                .rating(rating(settledAt[0], (length + 1) / 2, quiet, info.isMate()))
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    private Search.Info search(Position position, TranspositionTable table, int maxDepth) {
+        if (position.generateLegal(new int[Position.MAX_MOVES]) == 0) {
+            // Mate or stalemate: score it directly rather than searching an empty move list
+            return new Search.Info(0, position.inCheck() ? -Search.MATE : 0, 0, 0, new int[0]);
+        }
+        return new Search(position, table, stop, bitbases).run(Math.max(1, maxDepth), 0, null);
+    }
+
+    /**
+     * Rough puzzle rating: longer lines, a quiet first move and a best move the engine only settles
+     * on at depth are all harder to find. A short mate is the easiest kind.
+     */
+    static int rating(int settledDepth, int solverMoves, boolean quiet, boolean mate) {
+        int rating = 800 + 100 * settledDepth + 150 * (solverMoves - 1);
+        if (quiet) rating += 250;
+        if (mate && solverMoves == 1) rating -= 200;
+        return Math.max(600, Math.min(2800, rating));
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.chess.puzzle;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PuzzleRepository extends JpaRepository<Puzzle, Long> {
+
+    @Query("select p.positionKey from Puzzle p where p.positionKey in :keys")
+    List<Long> findExistingKeys(@Param("keys") Collection<Long> keys);
+}
@@ -0,0 +1,42 @@
+package com.example.chess.review;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/** Review progress and outcome for one finished game. */
+@Entity
+@Table(name = "game_reviews")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GameReview {
+
+    public enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    @Id
+    @Column(name = "game_id")
+    private Long gameId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 16, nullable = false)
+    private Status status;
+
+    @Column(name = "next_move", nullable = false)
+    private Integer nextMove; // first move without a score; resuming starts here
+
+    @Column(name = "finished_at", nullable = false)
+    private Instant finishedAt; // review order: most recently finished first
+
+    @Column(name = "white_accuracy")
+    private Float whiteAccuracy;
+
+    @Column(name = "black_accuracy")
+    private Float blackAccuracy;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
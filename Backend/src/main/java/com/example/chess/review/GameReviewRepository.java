@@ -0,0 +1,16 @@
+package com.example.chess.review;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface GameReviewRepository extends JpaRepository<GameReview, Long> {
+
+    @Query("select r from GameReview r where r.status in (com.example.chess.review.GameReview.Status.QUEUED, " +
+            "com.example.chess.review.GameReview.Status.RUNNING) order by r.finishedAt desc")
+    List<GameReview> findPending(Pageable page);
+}
@@ -0,0 +1,17 @@
+package com.example.chess.review;
+
+/** How much a move gave away, by the drop in the mover's winning chances; stored as {@link #code()}. */
+public enum Judgment {
+    GOOD,
+    INACCURACY,
+    MISTAKE,
+    BLUNDER;
+
+    public short code() {
+        return (short) ordinal();
+    }
+
+    public static Judgment fromCode(Short code) {
+        return code == null ? null : values()[code];
+    }
+}
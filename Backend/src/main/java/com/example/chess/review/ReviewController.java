@@ -0,0 +1,20 @@
+package com.example.chess.review;
+
+import com.example.chess.common.Dto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/games")
+@RequiredArgsConstructor
+public class ReviewController {
+
+    private final ReviewService service;
+
+    /** Post-game review of a finished game; partial while it is still running, 404 before it is queued. */
+    @GetMapping("/{id}/review")
+    public ResponseEntity<Dto.GameReviewDto> review(@PathVariable Long id) {
+        return ResponseEntity.of(service.find(id));
+    }
+}
@@ -0,0 +1,306 @@
+package com.example.chess.review;
+
+import com.example.chess.common.Dto;
+import com.example.chess.engine.Search;
+import com.example.chess.engine.TranspositionTable;
+import com.example.chess.game.Bitbases;
+import com.example.chess.game.Game;
+import com.example.chess.game.GameRepository;
+import com.example.chess.game.GameRules;
+import com.example.chess.game.Move;
+import com.example.chess.game.MovePlayed;
+import com.example.chess.game.MoveRepository;
+import com.example.chess.game.Position;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reviews finished games in the background: every move gets a score, a {@link Judgment} and each
+ * side an accuracy. Games run on a work-stealing pool; within a game the positions of a chunk are
+ * split recursively, so idle workers steal positions from a long game instead of waiting on it.
+ * <p>
+ * Scheduling is newest first. At most {@code chess.review.max-queued} games wait in memory; the
+ * rest of a backlog stays in {@code game_reviews} and is read back when the queue drains, so a
+ * burst of finished games costs rows, not heap or threads. Scores are saved a chunk at a time with
+ * the game's progress, and a restarted server picks up at the first move without a score.
+ */
+@Service
+@Slf4j
+public class ReviewService {
+
+    private record Pending(Long gameId, Instant finishedAt) {
+    }
+
+    private static final Comparator<Pending> NEWEST_FIRST =
+            Comparator.comparing(Pending::finishedAt).reversed().thenComparing(Pending::gameId);
+
+    private final GameRepository games;
+    private final MoveRepository moves;
+    private final GameReviewRepository reviews;
+    private final GameRules rules;
+    private final TransactionTemplate tx;
+    private final int depth;
+    private final int maxQueued;
+    private final int chunk;
+    private final int maxInFlight;
+    private final ForkJoinPool pool;
+    private final TranspositionTable table;
+    private final Bitbases bitbases;
+
+    private final TreeSet<Pending> queue = new TreeSet<>(NEWEST_FIRST); // guarded by itself
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private boolean backlog; // more pending rows in the database than in the queue; guarded by queue
+
+    public ReviewService(GameRepository games,
+                         MoveRepository moves,
+                         GameReviewRepository reviews,
+                         GameRules rules,
+                         TransactionTemplate tx,
+                         Bitbases bitbases,
+                         @Value("${chess.review.threads:1}") int threads,
+                         @Value("${chess.review.depth:8}") int depth,
+                         @Value("${chess.review.max-queued:500}") int maxQueued,
+                         @Value("${chess.review.chunk:16}") int chunk,
+                         @Value("${chess.review.hash-mb:32}") int hashMb) {
+        this.games = games;
+        this.moves = moves;
+        this.reviews = reviews;
+        this.rules = rules;
+        this.tx = tx;
+        this.bitbases = bitbases;
+        this.depth = depth;
+        this.maxQueued = Math.max(1, maxQueued);
+        this.chunk = Math.max(1, chunk);
+        this.maxInFlight = Math.max(1, threads);
+        this.table = new TranspositionTable(hashMb);
+        this.pool = new ForkJoinPool(maxInFlight, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("review-" + thread.getPoolIndex());
+            thread.setPriority(Thread.MIN_PRIORITY); // live games first
+            return thread;
+        }, null, false);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /** Picks up reviews left queued or half done by the previous run. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resume() {
+        synchronized (queue) {
+            backlog = true;
+        }
+        pump();
+    }
+
+    @EventListener
+    public void onMovePlayed(MovePlayed event) {
+        if (event.gameOver()) enqueue(event.gameId());
+    }
+
+    /** Records the game as waiting for review and schedules it ahead of older games. */
+    public void enqueue(Long gameId) {
+        if (reviews.existsById(gameId)) return;
+        Instant now = Instant.now();
+        reviews.save(GameReview.builder()
+                .gameId(gameId)
+                .status(GameReview.Status.QUEUED)
+                .nextMove(1)
+                .finishedAt(now)
+                .updatedAt(now)
+                .build());
+        offer(new Pending(gameId, now));
+        pump();
+    }
+
+    public int queued() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    private void offer(Pending pending) {
+        synchronized (queue) {
+            if (inFlight.contains(pending.gameId())) return;
+            queue.add(pending);
+            if (queue.size() > maxQueued) {
+                queue.pollLast(); // oldest waits in the database instead
+                backlog = true;
+            }
+        }
+    }
+
+    /** Starts queued games while there are free workers, refilling the queue from the database when it runs dry. */
+    private void pump() {
+        while (true) {
+            Pending next;
+            synchronized (queue) {
+                if (inFlight.size() >= maxInFlight) return;
+                if (queue.isEmpty() && backlog) refill();
+                next = queue.pollFirst();
+                if (next == null) return;
+                inFlight.add(next.gameId());
+            }
+            Long gameId = next.gameId();
+            pool.execute(() -> {
+                try {
+                    review(gameId);
+                } catch (RuntimeException e) {
+                    log.warn("Review of game {} failed", gameId, e);
+                    markFailed(gameId);
+                } finally {
+                    inFlight.remove(gameId);
+                    pump();
+                }
+            });
+        }
+    }
+
+    // Called with the queue lock held
+    private void refill() {
+        List<GameReview> pending = reviews.findPending(PageRequest.of(0, maxQueued + maxInFlight));
+        for (GameReview review : pending) {
+            if (!inFlight.contains(review.getGameId())) queue.add(new Pending(review.getGameId(), review.getFinishedAt()));
+            if (queue.size() >= maxQueued) break;
+        }
+        backlog = pending.size() >= maxQueued + maxInFlight;
+    }
+
+    void review(Long gameId) {
+        GameReview review = reviews.findById(gameId).orElse(null);
+        if (review == null || review.getStatus() == GameReview.Status.DONE) return;
+        Game game = games.findById(gameId).orElseThrow(() -> new IllegalStateException("Game not found: " + gameId));
+        List<Move> rows = moves.findByGameIdOrderByMoveNumberAsc(gameId);
+        Position end = game.getPackedMoves() != null ? rules.replay(game.getPackedMoves()) : rules.replay(rows);
+        int plies = end.ply();
+        if (rows.size() != plies) throw new IllegalStateException("Game " + gameId + " has " + rows.size() + " rows for " + plies + " moves");
+
+        review.setStatus(GameReview.Status.RUNNING);
+        int start = review.getNextMove();
+        // Score before the first unreviewed move: the stored one, or the start position's
+        int previous = start > 1 ? rows.get(start - 2).getEvalCp() : evaluate(end, 0);
+
+        for (int from = start; from <= plies; from += chunk) {
+            int to = Math.min(plies, from + chunk - 1);
+            short[] scores = new short[to - from + 1];
+            new ScoreRange(end, from, scores, 0, scores.length).invoke(); // on a pool worker, so subranges can be stolen
+
+            List<Move> changed = rows.subList(from - 1, to);
+            for (int i = 0; i < scores.length; i++) {
+                Move move = changed.get(i);
+                boolean white = (from + i) % 2 == 1;
+                move.setEvalCp(scores[i]);
+                move.setJudgment(Scores.judge(previous, scores[i], white).code());
+                previous = scores[i];
+            }
+            review.setNextMove(to + 1);
+            review.setUpdatedAt(Instant.now());
+            tx.executeWithoutResult(status -> {
+                moves.saveAll(changed);
+                reviews.save(review);
+            });
+        }
+
+        // Accuracy is the mean of per-move accuracies for each side
+        double[] sum = new double[2];
+        int[] count = new int[2];
+        int before = evaluate(end, 0);
+        for (Move move : rows) {
+            int side = (move.getMoveNumber() - 1) % 2;
+            sum[side] += Scores.accuracy(before, move.getEvalCp(), side == 0);
+            count[side]++;
+            before = move.getEvalCp();
+        }
+        review.setWhiteAccuracy(count[0] == 0 ? null : (float) (sum[0] / count[0]));
+        review.setBlackAccuracy(count[1] == 0 ? null : (float) (sum[1] / count[1]));
+        review.setStatus(GameReview.Status.DONE);
+        review.setUpdatedAt(Instant.now());
+        reviews.save(review);
+        log.debug("Reviewed game {}: {} moves, accuracy {} / {}", gameId, plies, review.getWhiteAccuracy(), review.getBlackAccuracy());
+    }
+
+    /** Review outcome with per-move scores; empty when the game was never queued. */
+    public Optional<Dto.GameReviewDto> find(Long gameId) {
+        return reviews.findById(gameId).map(review -> new Dto.GameReviewDto(
+                gameId,
+                review.getStatus().name(),
+                review.getWhiteAccuracy(),
+                review.getBlackAccuracy(),
+                moves.findByGameIdOrderByMoveNumberAsc(gameId).stream()
+                        .filter(move -> move.getEvalCp() != null)
+                        .map(move -> new Dto.MoveReviewDto(
+                                move.getMoveNumber(),
+                                move.getSan(),
+                                Scores.isMate(move.getEvalCp()) ? null : (int) move.getEvalCp(),
+                                Scores.isMate(move.getEvalCp()) ? Scores.mateIn(move.getEvalCp()) : null,
+                                Judgment.fromCode(move.getJudgment()).name()))
+                        .toList()));
+    }
+
+    private void markFailed(Long gameId) {
+        reviews.findById(gameId).ifPresent(review -> {
+            review.setStatus(GameReview.Status.FAILED);
+            review.setUpdatedAt(Instant.now());
+            reviews.save(review);
+        });
+    }
+
+    /** Stored score of the position after {@code ply} moves of the game ending in {@code end}. */
+    private short evaluate(Position end, int ply) {
+        Position position = new Position();
+        position.copyFrom(end);
+        for (int i = end.ply(); i > ply; i--) {
+            position.unmakeMove();
+        }
+        Search.Info info = new Search(position, table, new AtomicBoolean(), bitbases).run(depth, 0, null);
+        return Scores.encode(info, position);
+    }
+
+    /** Scores plies {@code first + lo .. first + hi - 1}, halving the range until one position is left. */
+    private final class ScoreRange extends RecursiveAction {
+
+        private final Position end;
+        private final int first;
+        private final short[] scores;
+        private final int lo;
+        private final int hi;
+
+        ScoreRange(Position end, int first, short[] scores, int lo, int hi) {
+            this.end = end;
+            this.first = first;
+            this.scores = scores;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 1) {
+                scores[lo] = evaluate(end, first + lo);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new ScoreRange(end, first, scores, lo, mid), new ScoreRange(end, first, scores, mid, hi));
+        }
+    }
+}
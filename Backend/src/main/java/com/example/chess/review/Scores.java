@@ -0,0 +1,64 @@
+package com.example.chess.review;
+
+import com.example.chess.engine.Search;
+import com.example.chess.game.Position;
+
+/**
+ * Stored scores and the numbers derived from them. A stored score is white's view in a smallint:
+ * centipawns clamped to +-{@value #MAX_CP}, or +-({@value #MATE_BASE} - n) for mate in n moves.
+ * Judgments and accuracy follow the usual winning-chances model: a logistic curve turns centipawns
+ * into chances in [-1, 1], and a move is judged by how much of its side's chances it threw away.
+ */
+public final class Scores {
+
+    public static final int MAX_CP = 9_999;
+    public static final int MATE_BASE = 20_000;
+
+    private Scores() {
+    }
+
+    /** Encodes a finished search of {@code position} for storage. */
+    public static short encode(Search.Info info, Position position) {
+        int score;
+        if (info.isMate()) {
+            int n = Math.abs(info.mateIn());
+            score = info.score() > 0 ? MATE_BASE - n : -(MATE_BASE - n);
+        } else {
+            score = Math.max(-MAX_CP, Math.min(MAX_CP, info.score()));
+        }
+        return (short) (position.sideToMove() == Position.WHITE ? score : -score);
+    }
+
+    public static boolean isMate(int stored) {
+        return Math.abs(stored) > MAX_CP;
+    }
+
+    /** Moves to mate for a stored mate score, negative when black mates. */
+    public static int mateIn(int stored) {
+        return stored > 0 ? MATE_BASE - stored : -(MATE_BASE + stored);
+    }
+
+    /** Winning chances in [-1, 1] for white. */
+    public static double winChances(int stored) {
+        if (isMate(stored)) return stored > 0 ? 1 : -1;
+        return 2 / (1 + Math.exp(-0.00368208 * stored)) - 1;
+    }
+
+    /** Judgment of a move by {@code white} that took the stored score from {@code before} to {@code after}. */
+    public static Judgment judge(int before, int after, boolean white) {
+        double drop = (winChances(before) - winChances(after)) * (white ? 1 : -1);
+        if (drop >= 0.3) return Judgment.BLUNDER;
+        if (drop >= 0.2) return Judgment.MISTAKE;
+        if (drop >= 0.1) return Judgment.INACCURACY;
+        return Judgment.GOOD;
+    }
+
+    /** Accuracy of one move in percent: 100 when nothing is lost, falling off exponentially with the win% dropped. */
+    public static double accuracy(int before, int after, boolean white) {
+        double sign = white ? 1 : -1;
+        double winBefore = 50 + 50 * winChances(before) * sign;
+        double winAfter = 50 + 50 * winChances(after) * sign;
+        double accuracy = 103.1668 * Math.exp(-0.04354 * Math.max(0, winBefore - winAfter)) - 3.1669;
+        return Math.max(0, Math.min(100, accuracy));
+    }
+}
@@ -31,4 +31,12 @@ public class User {
 
     @Column(nullable = false)
     private Instant createdAt;
+
+    // Search strength for bot accounts; null for people
+    @Column(name = "bot_level")
+    private Integer botLevel;
+
+    public boolean isBot() {
+        return botLevel != null;
+    }
 }
\ No newline at end of file
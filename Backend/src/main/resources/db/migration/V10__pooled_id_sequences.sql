@@ -0,0 +1,16 @@
+-- Pooled-lo ids for games and moves: Hibernate takes one sequence value per 50 rows and numbers the
+-- block itself, so inserts batch instead of returning each generated id. The column default stays
+-- for inserts made outside the application; it spends a whole block per row, which is harmless.
+create sequence if not exists games_seq increment by 50;
+select setval('games_seq', coalesce((select max(id) from games), 0) + 1, false);
+alter table games alter column id drop identity if exists;
+alter table games alter column id set default nextval('games_seq');
+alter sequence games_seq owned by games.id;
+drop sequence if exists games_id_seq;
+
+create sequence if not exists moves_seq increment by 50;
+select setval('moves_seq', coalesce((select max(id) from moves), 0) + 1, false);
+alter table moves alter column id drop identity if exists;
+alter table moves alter column id set default nextval('moves_seq');
+alter sequence moves_seq owned by moves.id;
+drop sequence if exists moves_id_seq;
@@ -0,0 +1,13 @@
+-- Broadcasts waiting to be sent, written in the move's transaction and deleted once sent, so a
+-- move that commits is always announced and one that rolls back never is. Ids come in pooled-lo
+-- blocks like games and moves; the relay sends in id order.
+create sequence if not exists outbox_seq increment by 50;
+
+create table if not exists outbox (
+    id         bigint primary key default nextval('outbox_seq'),
+    game_id    bigint not null,
+    payload    text not null,
+    created_at timestamp with time zone not null
+);
+
+alter sequence outbox_seq owned by outbox.id;
@@ -0,0 +1,4 @@
+-- Zobrist key of the position reached by each move (repetition checks, position-keyed lookups)
+alter table moves add column if not exists position_key bigint;
+
+create index if not exists idx_moves_position_key on moves (position_key);
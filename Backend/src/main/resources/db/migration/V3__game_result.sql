@@ -0,0 +1,3 @@
+-- Outcome of finished games
+alter table games add column if not exists result varchar(7);
+alter table games add column if not exists termination varchar(32);
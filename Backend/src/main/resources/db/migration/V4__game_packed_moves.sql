@@ -0,0 +1,2 @@
+-- Whole move list as 16-bit move codes, two bytes per ply, appended as moves are played
+alter table games add column if not exists packed_moves bytea;
@@ -0,0 +1,3 @@
+-- Fixed-size PackedPosition snapshots replacing the FEN text columns for new writes
+alter table moves add column if not exists position_after bytea;
+alter table games add column if not exists last_position bytea;
@@ -0,0 +1,3 @@
+-- Most recent named opening (ECO code and name) the game has passed through
+alter table games add column if not exists eco varchar(3);
+alter table games add column if not exists opening varchar(128);
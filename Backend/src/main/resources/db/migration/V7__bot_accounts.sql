@@ -0,0 +1,10 @@
+-- Bot accounts: users with a level are played by the server's own search. The password hash is
+-- not a valid bcrypt string, so they can never log in.
+alter table users add column if not exists bot_level integer;
+
+insert into users (email, display_name, password_hash, created_at, bot_level) values
+    ('bot-1@bots.chess.local', 'Bot (level 1)', '!', now(), 1),
+    ('bot-3@bots.chess.local', 'Bot (level 3)', '!', now(), 3),
+    ('bot-5@bots.chess.local', 'Bot (level 5)', '!', now(), 5),
+    ('bot-8@bots.chess.local', 'Bot (level 8)', '!', now(), 8)
+on conflict (email) do nothing;
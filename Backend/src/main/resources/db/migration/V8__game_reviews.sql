@@ -0,0 +1,16 @@
+-- Post-game review: every move gets a score and a judgment, two smallints; review progress is
+-- kept per game so an interrupted review resumes at the first move without a score.
+alter table moves add column if not exists eval_cp smallint;
+alter table moves add column if not exists judgment smallint;
+
+create table if not exists game_reviews (
+    game_id        bigint primary key references games (id) on delete cascade,
+    status         varchar(16) not null,
+    next_move      integer not null,
+    finished_at    timestamp with time zone not null,
+    white_accuracy real,
+    black_accuracy real,
+    updated_at     timestamp with time zone not null
+);
+
+create index if not exists idx_game_reviews_pending on game_reviews (finished_at desc) where status in ('QUEUED', 'RUNNING');
@@ -0,0 +1,23 @@
+-- Puzzles mined from finished games, one per position; the miner's keyset position is checkpointed
+-- per chunk so a nightly run resumes where the last one stopped.
+create table if not exists puzzles (
+    id           bigserial primary key,
+    game_id      bigint not null references games (id) on delete cascade,
+    move_number  integer not null,
+    position     bytea not null,
+    position_key bigint not null unique,
+    solution     bytea not null,
+    eval_cp      integer,
+    mate_in      integer,
+    rating       integer not null,
+    created_at   timestamp with time zone not null
+);
+
+create index if not exists idx_puzzles_rating on puzzles (rating);
+
+create table if not exists job_checkpoints (
+    name            varchar(64) primary key,
+    last_updated_at timestamp with time zone not null,
+    last_id         bigint not null,
+    updated_at      timestamp with time zone not null
+);
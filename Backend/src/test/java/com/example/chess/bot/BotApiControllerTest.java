@@ -0,0 +1,158 @@
+package com.example.chess.bot;
+
+import com.example.chess.common.Dto;
+import com.example.chess.game.Game;
+import com.example.chess.game.GameService;
+import com.example.chess.game.GameStarted;
+import com.example.chess.game.GameStatus;
+import com.example.chess.game.Move;
+import com.example.chess.game.MoveDispatcher;
+import com.example.chess.game.MovePlayed;
+import com.example.chess.user.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = BotApiController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import(BotApiControllerTest.MockConfig.class)
+class BotApiControllerTest {
+
+    @TestConfiguration
+    static class MockConfig {
+        @Bean
+        GameService gameService() {
+            return mock(GameService.class);
+        }
+
+        @Bean
+        MoveDispatcher moveDispatcher(GameService gameService) {
+            return new MoveDispatcher(gameService, 2, 10);
+        }
+
+        @Bean
+        BotStreams botStreams(GameService gameService, ObjectMapper mapper) {
+            return new BotStreams(gameService, mapper, 0, 3600);
+        }
+    }
+
+    @Autowired private MockMvc mvc;
+    @Autowired private GameService gameService;
+    @Autowired private BotStreams streams;
+
+    private final User me = User.builder().id(7L).displayName("robo").email("robo@test.com").build();
+
+    @BeforeEach
+    void setUp() {
+        reset(gameService);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(me, null, Collections.emptyList()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void stream_emitsOneJsonObjectPerLine() throws Exception {
+        // Given: one game already running, another starts while connected
+        when(gameService.getActiveGamesFor(7L)).thenReturn(List.of(
+                Game.builder().id(1L).whitePlayerId(7L).blackPlayerId(8L).status(GameStatus.STARTED).build()));
+        MvcResult result = mvc.perform(get("/api/bot/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // When
+        streams.onGameStarted(new GameStarted(2L, 9L, 7L));
+        Move reply = Move.builder().gameId(1L).moveNumber(2).fromSquare("e7").toSquare("e5").san("e5").playedByUserId(8L).build();
+        streams.onMovePlayed(new MovePlayed(1L, reply, null));
+        Move mate = Move.builder().gameId(2L).moveNumber(4).fromSquare("d8").toSquare("h4").san("Qh4#").playedByUserId(7L).build();
+        streams.onMovePlayed(new MovePlayed(2L, mate, new Dto.GameOver(2L, "0-1", "CHECKMATE", 4)));
+        streams.onMovePlayed(new MovePlayed(3L, reply, null)); // not this user's game
+        streams.shutdown();
+
+        // Then
+        String body = mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(body.lines().toList()).containsExactly(
+                "{\"gameId\":1,\"white\":7,\"black\":8,\"type\":\"GAME_START\"}",
+                "{\"gameId\":2,\"white\":9,\"black\":7,\"type\":\"GAME_START\"}",
+                "{\"gameId\":1,\"moveNumber\":2,\"uci\":\"e7e5\",\"san\":\"e5\",\"by\":8,\"type\":\"MOVE\"}",
+                "{\"gameId\":2,\"moveNumber\":4,\"uci\":\"d8h4\",\"san\":\"Qh4#\",\"by\":7,\"type\":\"MOVE\"}",
+                "{\"gameId\":2,\"result\":\"0-1\",\"termination\":\"CHECKMATE\",\"moveNumber\":4,\"type\":\"GAME_OVER\"}");
+        assertThat(streams.openStreams()).isZero();
+        assertThat(streams.watchedGames()).isZero(); // game 1 is still running but nobody streams it
+    }
+
+    @Test
+    void moves_playsEachInOrderAndReportsRejectionsInline() throws Exception {
+        Move played = Move.builder().gameId(1L).moveNumber(3).san("Nf3").playedByUserId(7L).build();
+        when(gameService.recordMove(eq(1L), eq(7L), any())).thenReturn(played);
+        when(gameService.recordMove(eq(2L), eq(7L), any())).thenThrow(new IllegalStateException("Not your turn"));
+
+        mvc.perform(post("/api/bot/moves")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"moves\":[{\"gameId\":2,\"san\":\"e4\"},{\"gameId\":1,\"from\":\"g1\",\"to\":\"f3\"}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].gameId").value(2))
+                .andExpect(jsonPath("$[0].error").value("Not your turn"))
+                .andExpect(jsonPath("$[1].moveNumber").value(3))
+                .andExpect(jsonPath("$[1].san").value("Nf3"))
+                .andExpect(jsonPath("$[1].error").isEmpty());
+
+        verify(gameService).recordMove(1L, 7L, new Dto.MoveSend("g1", "f3", null, null));
+    }
+
+    @Test
+    void moves_gameTheBotDoesNotPlay_isReportedInlineAndTheRestArePlayed() throws Exception {
+        // Given
+        Move played = Move.builder().gameId(1L).moveNumber(3).san("Nf3").playedByUserId(7L).build();
+        when(gameService.recordMove(eq(1L), eq(7L), any())).thenReturn(played);
+        when(gameService.recordMove(eq(5L), eq(7L), any())).thenThrow(new AccessDeniedException("Not a participant"));
+
+        // When & Then
+        mvc.perform(post("/api/bot/moves")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"moves\":[{\"gameId\":1,\"from\":\"g1\",\"to\":\"f3\"},{\"gameId\":5,\"san\":\"e4\"}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].san").value("Nf3"))
+                .andExpect(jsonPath("$[0].error").isEmpty())
+                .andExpect(jsonPath("$[1].gameId").value(5))
+                .andExpect(jsonPath("$[1].moveNumber").isEmpty())
+                .andExpect(jsonPath("$[1].error").value("Not a participant"));
+    }
+
+    @Test
+    void moves_invalidSquare_isRejectedByValidation() throws Exception {
+        mvc.perform(post("/api/bot/moves")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"moves\":[{\"gameId\":1,\"from\":\"z9\",\"to\":\"f3\"}]}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(gameService);
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.chess.bot;
+
+import com.example.chess.common.Dto;
+import com.example.chess.game.Game;
+import com.example.chess.game.GameService;
+import com.example.chess.game.GameStatus;
+import com.example.chess.game.Move;
+import com.example.chess.game.MoveBroadcaster;
+import com.example.chess.game.MoveDispatcher;
+import com.example.chess.game.MovePlayed;
+import com.example.chess.game.Bitbases;
+import com.example.chess.game.Position;
+import com.example.chess.lobby.LobbyService;
+import com.example.chess.user.User;
+import com.example.chess.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class BotServiceTest {
+
+    private static final Long HUMAN = 1L;
+    private static final Long BOT = 100L;
+
+    @Mock private UserRepository users;
+    @Mock private GameService games;
+    @Mock private LobbyService lobby;
+    @Mock private SimpMessagingTemplate messagingTemplate;
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(8), new ThreadPoolExecutor.AbortPolicy());
+
+    private MoveDispatcher dispatcher;
+    private BotService bots;
+
+    @BeforeEach
+    void setUp() {
+        User bot = User.builder().id(BOT).displayName("Bot (level 3)").botLevel(3).build();
+        when(users.findByBotLevelNotNull()).thenReturn(List.of(bot));
+        when(games.getActiveGamesFor(BOT)).thenReturn(List.of());
+        dispatcher = new MoveDispatcher(games, 1, 8);
+        bots = new BotService(users, games, dispatcher, lobby, executor, Bitbases.NONE, 1, 2, 5, 500);
+        bots.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bots.shutdown();
+        executor.shutdownNow();
+    }
+
+    private static Game game(long id) {
+        return Game.builder().id(id).whitePlayerId(HUMAN).blackPlayerId(BOT).status(GameStatus.STARTED).build();
+    }
+
+    /** White's first move by the human. */
+    private static MovePlayed played(long gameId, boolean gameOver) {
+        Move move = Move.builder().gameId(gameId).moveNumber(1).playedByUserId(HUMAN).build();
+        return new MovePlayed(gameId, move, gameOver ? new Dto.GameOver(gameId, "1-0", "CHECKMATE", 1) : null);
+    }
+
+    @Test
+    void start_listsBotsAsOnline() {
+        verify(lobby).registerBot(argThat(user -> user.getId().equals(BOT)));
+        assertThat(bots.isBot(BOT)).isTrue();
+        assertThat(bots.isBot(HUMAN)).isFalse();
+    }
+
+    @Test
+    void accept_inviterPlaysWhiteAndTheBotWaits() throws Exception {
+        // Given
+        when(games.createGame(HUMAN, BOT)).thenReturn(game(10L));
+
+        // When
+        var created = bots.accept(HUMAN, BOT);
+
+        // Then
+        assertThat(created).map(Game::getWhitePlayerId).contains(HUMAN);
+        assertThat(bots.activeGames()).isEqualTo(1);
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+        verify(games, never()).recordMove(any(), any(), any());
+    }
+
+    @Test
+    void accept_declinesWhenEveryBotSlotIsTaken() {
+        when(games.createGame(HUMAN, BOT)).thenReturn(game(10L), game(11L));
+        bots.accept(HUMAN, BOT);
+        bots.accept(HUMAN, BOT);
+
+        assertThat(bots.accept(HUMAN, BOT)).isEmpty();
+        verify(games, times(2)).createGame(HUMAN, BOT);
+    }
+
+    @Test
+    void accept_notABot_throws() {
+        assertThatThrownBy(() -> bots.accept(BOT, HUMAN))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void humanMove_botRepliesThroughTheNormalPipeline() {
+        // Given: black (the bot) has a back-rank mate after white's first move
+        when(games.createGame(HUMAN, BOT)).thenReturn(game(10L));
+        when(games.position(10L)).thenReturn(Position.fromFen("r5k1/8/8/8/8/8/5PPP/6K1 b - - 0 1"));
+        when(games.recordMove(eq(10L), eq(BOT), any()))
+                .thenReturn(Move.builder().gameId(10L).moveNumber(2).san("Ra1#").playedByUserId(BOT).build());
+        bots.accept(HUMAN, BOT);
+
+        // When
+        bots.onMovePlayed(played(10L, false));
+
+        // Then
+        verify(games, timeout(5_000)).recordMove(10L, BOT, new Dto.MoveSend("a8", "a1", null, null));
+    }
+
+    @Test
+    void humanMove_poolFull_retriesTheTurnLater() {
+        // Given: the pool turns the first turn away
+        ThreadPoolExecutor busy = spy(new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(8)));
+        doThrow(new RejectedExecutionException("full")).doCallRealMethod().when(busy).execute(any());
+        bots.shutdown();
+        bots = new BotService(users, games, dispatcher, lobby, busy, Bitbases.NONE, 1, 2, 5, 500);
+        bots.start();
+        when(games.createGame(HUMAN, BOT)).thenReturn(game(10L));
+        when(games.position(10L)).thenReturn(Position.fromFen("r5k1/8/8/8/8/8/5PPP/6K1 b - - 0 1"));
+        when(games.recordMove(eq(10L), eq(BOT), any()))
+                .thenReturn(Move.builder().gameId(10L).moveNumber(2).san("Ra1#").playedByUserId(BOT).build());
+        bots.accept(HUMAN, BOT);
+
+        // When
+        bots.onMovePlayed(played(10L, false));
+
+        // Then
+        verify(games, timeout(5_000)).recordMove(10L, BOT, new Dto.MoveSend("a8", "a1", null, null));
+        busy.shutdownNow();
+    }
+
+    @Test
+    void humanMove_eventQueueFull_botStillReplies() throws Exception {
+        // Given: the listener thread is stuck on another game's event and its one-slot queue is taken
+        CountDownLatch stuck = new CountDownLatch(1);
+        MoveBroadcaster broadcaster = new MoveBroadcaster(messagingTemplate, event -> {
+            MovePlayed played = (MovePlayed) event;
+            if (played.gameId() == 99L) {
+                try {
+                    stuck.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            bots.onMovePlayed(played);
+        }, 1);
+        when(games.createGame(HUMAN, BOT)).thenReturn(game(10L));
+        when(games.position(10L)).thenReturn(Position.fromFen("r5k1/8/8/8/8/8/5PPP/6K1 b - - 0 1"));
+        when(games.recordMove(eq(10L), eq(BOT), any()))
+                .thenReturn(Move.builder().gameId(10L).moveNumber(2).san("Ra1#").playedByUserId(BOT).build());
+        bots.accept(HUMAN, BOT);
+        broadcaster.broadcast(99L, MoveBroadcaster.payload(played(99L, false).move(), null), null);
+        broadcaster.broadcast(99L, MoveBroadcaster.payload(played(99L, false).move(), null), null);
+
+        // When: the human's move is broadcast while the queue is full
+        CompletableFuture<Void> relay = CompletableFuture.runAsync(() ->
+                broadcaster.broadcast(10L, MoveBroadcaster.payload(played(10L, false).move(), null), null));
+
+        // Then: the relay waits for room instead of dropping the event, and the bot replies once it gets through
+        Thread.sleep(100);
+        assertThat(relay).isNotDone();
+        stuck.countDown();
+        relay.get(5, TimeUnit.SECONDS);
+        verify(games, timeout(5_000)).recordMove(10L, BOT, new Dto.MoveSend("a8", "a1", null, null));
+    }
+
+    @Test
+    void gameOver_freesTheSlot() {
+        when(games.createGame(HUMAN, BOT)).thenReturn(game(10L), game(11L), game(12L));
+        bots.accept(HUMAN, BOT);
+        bots.accept(HUMAN, BOT);
+
+        bots.onMovePlayed(played(10L, true));
+
+        assertThat(bots.accept(HUMAN, BOT)).map(Game::getId).contains(12L);
+    }
+
+    @Test
+    void gameOver_forgetsTheGame() {
+        when(games.createGame(HUMAN, BOT)).thenReturn(game(10L));
+        bots.accept(HUMAN, BOT);
+
+        bots.onMovePlayed(played(10L, true));
+
+        assertThat(bots.activeGames()).isZero();
+        verify(games, never()).position(any());
+    }
+
+    @Test
+    void movesInHumanGames_areIgnored() {
+        bots.onMovePlayed(played(99L, false));
+
+        assertThat(executor.getTaskCount()).isZero();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.chess.engine;
+
+import com.example.chess.common.Dto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = AnalysisController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import(AnalysisControllerTest.MockConfig.class)
+class AnalysisControllerTest {
+
+    @TestConfiguration
+    static class MockConfig {
+        @Bean
+        AnalysisService analysisService() {
+            return mock(AnalysisService.class);
+        }
+    }
+
+    @Autowired private MockMvc mvc;
+    @Autowired private AnalysisService service;
+
+    @BeforeEach
+    void setUp() {
+        reset(service);
+    }
+
+    @Test
+    void start_returnsAcceptedWithTopic() throws Exception {
+        when(service.start(any(Dto.AnalysisRequest.class))).thenReturn("abc12345");
+
+        mvc.perform(post("/api/analysis")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fen\":\"rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1\",\"depth\":8}"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.analysisId").value("abc12345"))
+                .andExpect(jsonPath("$.topic").value("/topic/analysis/abc12345"));
+    }
+
+    @Test
+    void start_invalidFen_returnsBadRequest() throws Exception {
+        when(service.start(any(Dto.AnalysisRequest.class))).thenThrow(new IllegalArgumentException("Invalid FEN"));
+
+        mvc.perform(post("/api/analysis")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fen\":\"nonsense\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void start_budgetOutOfRange_isRejectedByValidation() throws Exception {
+        mvc.perform(post("/api/analysis")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fen\":\"8/8/8/8/8/8/8/8 w - - 0 1\",\"depth\":500}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    void start_poolSaturated_returnsServiceUnavailable() throws Exception {
+        when(service.start(any(Dto.AnalysisRequest.class))).thenThrow(new RejectedExecutionException());
+
+        mvc.perform(post("/api/analysis")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fen\":\"rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1\"}"))
+                .andExpect(status().isServiceUnavailable());
+    }
+}
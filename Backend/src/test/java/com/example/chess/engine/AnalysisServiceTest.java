@@ -0,0 +1,135 @@
+package com.example.chess.engine;
+
+import com.example.chess.common.Dto;
+import com.example.chess.game.Bitbases;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnalysisServiceTest {
+
+    @Mock
+    private SimpMessagingTemplate msg;
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1), new ThreadPoolExecutor.AbortPolicy());
+    private final ThreadPoolExecutor helperExecutor = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(2), new ThreadPoolExecutor.AbortPolicy());
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        helperExecutor.shutdownNow();
+    }
+
+    @Test
+    void start_streamsEachIterationThenTheBestMove() throws Exception {
+        // Given
+        AnalysisService service = new AnalysisService(executor, helperExecutor, msg, new TranspositionTable(1), Bitbases.NONE, 4, 5_000, 4);
+
+        // When
+        String id = service.start(new Dto.AnalysisRequest("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1", 10, null, "client-chosen-id", null));
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // Then
+        assertThat(id).isEqualTo("client-chosen-id");
+        ArgumentCaptor<Dto.AnalysisInfo> sent = ArgumentCaptor.forClass(Dto.AnalysisInfo.class);
+        verify(msg, atLeast(2)).convertAndSend(eq("/topic/analysis/client-chosen-id"), sent.capture());
+        List<Dto.AnalysisInfo> messages = sent.getAllValues();
+        assertThat(messages.get(0).type()).isEqualTo("PV");
+        Dto.AnalysisInfo last = messages.get(messages.size() - 1);
+        assertThat(last.type()).isEqualTo("BEST_MOVE");
+        assertThat(last.bestMove()).isEqualTo("a1a8");
+        assertThat(last.mateIn()).isEqualTo(1);
+        assertThat(last.scoreCp()).isNull();
+        assertThat(last.depth()).isLessThanOrEqualTo(4); // capped by chess.analysis.max-depth
+        assertThat(last.threads()).isEqualTo(1);
+    }
+
+    @Test
+    void start_threadsAreCappedPerRequestAndByTheSharedHelperPool() throws Exception {
+        // Given: four threads per request allowed, but only two helpers exist server-wide
+        AnalysisService service = new AnalysisService(executor, helperExecutor, msg, new TranspositionTable(1), Bitbases.NONE, 3, 5_000, 4);
+
+        // When
+        service.start(new Dto.AnalysisRequest(com.example.chess.game.Position.START_FEN, 3, null, "smp-analysis", 64));
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // Then
+        ArgumentCaptor<Dto.AnalysisInfo> sent = ArgumentCaptor.forClass(Dto.AnalysisInfo.class);
+        verify(msg, atLeast(1)).convertAndSend(eq("/topic/analysis/smp-analysis"), sent.capture());
+        Dto.AnalysisInfo last = sent.getValue();
+        assertThat(last.type()).isEqualTo("BEST_MOVE");
+        assertThat(last.threads()).isEqualTo(3);
+        // Helpers are back in the pool shortly after the search returns; wait for that instead of sampling it
+        helperExecutor.shutdown();
+        assertThat(helperExecutor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void start_searchFails_endsWithAnErrorMessage() throws Exception {
+        // Given
+        TranspositionTable broken = mock(TranspositionTable.class);
+        doThrow(new IllegalStateException("table closed")).when(broken).newSearch();
+        AnalysisService service = new AnalysisService(executor, helperExecutor, msg, broken, Bitbases.NONE, 4, 5_000, 4);
+
+        // When
+        service.start(new Dto.AnalysisRequest(com.example.chess.game.Position.START_FEN, 3, null, "doomed", null));
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // Then
+        ArgumentCaptor<Dto.AnalysisInfo> sent = ArgumentCaptor.forClass(Dto.AnalysisInfo.class);
+        verify(msg).convertAndSend(eq("/topic/analysis/doomed"), sent.capture());
+        assertThat(sent.getValue().type()).isEqualTo("ERROR");
+        assertThat(sent.getValue().analysisId()).isEqualTo("doomed");
+        assertThat(sent.getValue().bestMove()).isNull();
+    }
+
+    @Test
+    void start_invalidFen_throwsBeforeQueueing() {
+        AnalysisService service = new AnalysisService(executor, helperExecutor, msg, new TranspositionTable(1), Bitbases.NONE, 4, 5_000, 4);
+
+        assertThatThrownBy(() -> service.start(new Dto.AnalysisRequest("nonsense", null, null, null, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(executor.getTaskCount()).isZero();
+    }
+
+    @Test
+    void start_poolAndQueueFull_rejects() throws Exception {
+        // Given: the only worker is blocked and the single queue slot is taken
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        executor.execute(() -> { });
+        AnalysisService service = new AnalysisService(executor, helperExecutor, msg, new TranspositionTable(1), Bitbases.NONE, 4, 5_000, 4);
+
+        // When & Then
+        assertThatThrownBy(() -> service.start(new Dto.AnalysisRequest(com.example.chess.game.Position.START_FEN, 1, 10L, null, null)))
+                .isInstanceOf(RejectedExecutionException.class);
+        release.countDown();
+    }
+}
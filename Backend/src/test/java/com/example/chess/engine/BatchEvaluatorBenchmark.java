@@ -0,0 +1,87 @@
+package com.example.chess.engine;
+
+import com.example.chess.game.PackedPosition;
+import com.example.chess.game.Position;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of batch evaluation against the scalar {@link Evaluator}; not part of the test
+ * suite. Scores are per position. {@code evaluator} loads each snapshot into a {@link Position}
+ * first, which is what callers holding snapshots pay without the batch API.
+ * <pre>
+ * mvn -q test-compile
+ * java --add-modules jdk.incubator.vector -cp "target/classes:target/test-classes:$(cat cp.txt)" \
+ *      com.example.chess.engine.BatchEvaluatorBenchmark
+ * </pre>
+ * with {@code cp.txt} from {@code mvn -q dependency:build-classpath -Dmdep.outputFile=cp.txt}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@OperationsPerInvocation(BatchEvaluatorBenchmark.BATCH)
+public class BatchEvaluatorBenchmark {
+
+    static final int BATCH = 4096;
+
+    private Position[] positions;
+    private byte[] boards;
+    private final int[] scores = new int[BATCH];
+    private final Position loaded = new Position();
+
+    @Setup
+    public void setUp() {
+        positions = BatchEvaluatorTest.randomPositions(BATCH, 42);
+        boards = BatchEvaluatorTest.pack(positions);
+    }
+
+    @Benchmark
+    public void vector(Blackhole blackhole) {
+        new VectorBatchEvaluator().evaluate(boards, 0, BATCH, scores);
+        blackhole.consume(scores);
+    }
+
+    @Benchmark
+    public void scalarBatch(Blackhole blackhole) {
+        BatchEvaluator.SCALAR.evaluate(boards, 0, BATCH, scores);
+        blackhole.consume(scores);
+    }
+
+    /** The existing evaluator on positions already loaded. */
+    @Benchmark
+    public void evaluatorLoaded(Blackhole blackhole) {
+        for (Position position : positions) {
+            blackhole.consume(Evaluator.evaluate(position));
+        }
+    }
+
+    /** The existing evaluator on snapshots, loading each one. */
+    @Benchmark
+    public void evaluator(Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            loaded.setPacked(boards, i * PackedPosition.SIZE);
+            blackhole.consume(Evaluator.evaluate(loaded));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(BatchEvaluatorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
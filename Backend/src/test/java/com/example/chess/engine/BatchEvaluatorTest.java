@@ -0,0 +1,76 @@
+package com.example.chess.engine;
+
+import com.example.chess.game.PackedPosition;
+import com.example.chess.game.Position;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BatchEvaluatorTest {
+
+    /** {@code count} snapshots from random playouts, back to back, with their positions. */
+    static Position[] randomPositions(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Position[] positions = new Position[count];
+        Position position = new Position();
+        int[] moves = new int[Position.MAX_MOVES];
+        for (int i = 0; i < count; i++) {
+            int n = position.generateLegal(moves);
+            if (n == 0 || position.ply() > 200) {
+                position = new Position();
+                n = position.generateLegal(moves);
+            }
+            position.makeMove(moves[random.nextInt(n)]);
+            positions[i] = new Position();
+            positions[i].copyFrom(position);
+        }
+        return positions;
+    }
+
+    static byte[] pack(Position[] positions) {
+        byte[] boards = new byte[positions.length * PackedPosition.SIZE];
+        for (int i = 0; i < positions.length; i++) {
+            PackedPosition.write(positions[i], boards, i * PackedPosition.SIZE);
+        }
+        return boards;
+    }
+
+    @Test
+    void evaluate_matchesTheEvaluatorOnEveryPosition() {
+        // Given
+        Position[] positions = randomPositions(5_000, 17);
+        byte[] boards = pack(positions);
+        int[] batch = new int[positions.length];
+        int[] scalar = new int[positions.length];
+
+        // When
+        BatchEvaluator.evaluate(boards, 0, positions.length, batch);
+        BatchEvaluator.SCALAR.evaluate(boards, 0, positions.length, scalar);
+
+        // Then
+        for (int i = 0; i < positions.length; i++) {
+            assertThat(batch[i]).as("position %d", i).isEqualTo(Evaluator.evaluate(positions[i]));
+        }
+        assertThat(scalar).isEqualTo(batch);
+    }
+
+    @Test
+    void evaluate_usesTheVectorKernelWhenTheModuleIsPresent() {
+        // Surefire runs with --add-modules jdk.incubator.vector
+        assertThat(BatchEvaluator.isVectorized()).isTrue();
+    }
+
+    @Test
+    void evaluate_honoursOffsetAndCount() {
+        byte[] boards = pack(new Position[]{new Position(), Position.fromFen("4k3/8/8/8/8/8/8/3QK3 b - - 0 1")});
+        int[] scores = new int[1];
+
+        BatchEvaluator.evaluate(boards, PackedPosition.SIZE, 1, scores);
+
+        assertThat(scores[0]).isEqualTo(Evaluator.evaluate(Position.fromFen("4k3/8/8/8/8/8/8/3QK3 b - - 0 1")));
+        assertThatThrownBy(() -> BatchEvaluator.evaluate(boards, PackedPosition.SIZE, 2, new int[2]))
+                .isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.chess.engine;
+
+import com.example.chess.game.Position;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class EvaluatorTest {
+
+    @Test
+    void startPosition_isBalanced() {
+        assertThat(Evaluator.evaluate(new Position())).isZero();
+    }
+
+    @Test
+    void mirroredPositions_scoreTheSameForTheSideToMove() {
+        Position white = Position.fromFen("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3");
+        Position black = Position.fromFen("rnbqkb1r/pppp1ppp/5n2/4p3/4P3/2N5/PPPP1PPP/R1BQKBNR b KQkq - 2 3");
+
+        assertThat(Evaluator.evaluate(white)).isEqualTo(Evaluator.evaluate(black));
+    }
+
+    @Test
+    void extraMaterial_favoursItsOwner() {
+        Position upAQueen = Position.fromFen("4k3/8/8/8/8/8/8/3QK3 w - - 0 1");
+
+        assertThat(Evaluator.evaluate(upAQueen)).isGreaterThan(800);
+        assertThat(Evaluator.evaluate(Position.fromFen("4k3/8/8/8/8/8/8/3QK3 b - - 0 1"))).isLessThan(-800);
+    }
+}
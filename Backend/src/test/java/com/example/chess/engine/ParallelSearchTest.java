@@ -0,0 +1,63 @@
+package com.example.chess.engine;
+
+import com.example.chess.game.MoveCodec;
+import com.example.chess.game.Position;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ParallelSearchTest {
+
+    private final ExecutorService helpers = Executors.newFixedThreadPool(3);
+
+    @AfterEach
+    void tearDown() {
+        helpers.shutdownNow();
+    }
+
+    @Test
+    void findsTheSameMateAsASingleThread() {
+        ParallelSearch search = new ParallelSearch(
+                Position.fromFen("r2qkb1r/pp2nppp/3p4/2pNN1B1/2BnP3/3P4/PPP2PPP/R2bK2R w KQkq - 1 1"),
+                new TranspositionTable(4), new AtomicBoolean(), 3);
+
+        Search.Info info = search.run(helpers, 5, 0, null);
+
+        assertThat(search.threads()).isEqualTo(4);
+        assertThat(MoveCodec.toUci(info.bestMove())).isEqualTo("d5f6");
+        assertThat(info.mateIn()).isEqualTo(2);
+    }
+
+    @Test
+    void run_waitsForHelpersAndCountsTheirNodes() throws InterruptedException {
+        ParallelSearch search = new ParallelSearch(new Position(), new TranspositionTable(4), new AtomicBoolean(), 3);
+
+        Search.Info info = search.run(helpers, 5, 0, null);
+
+        // Every helper has stopped, so the reported total is final
+        assertThat(info.nodes()).isEqualTo(search.nodes());
+        assertThat(info.depth()).isEqualTo(5);
+        // Threads go back to the pool just after signalling, so wait for that instead of sampling it
+        helpers.shutdown();
+        assertThat(helpers.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void rejectedHelpers_fallBackToTheCallingThread() {
+        ParallelSearch search = new ParallelSearch(new Position(), new TranspositionTable(4), new AtomicBoolean(), 2);
+
+        Search.Info info = search.run(task -> {
+            throw new RejectedExecutionException();
+        }, 3, 0, null);
+
+        assertThat(info.depth()).isEqualTo(3);
+        assertThat(info.pv()).isNotEmpty();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.chess.engine;
+
+import com.example.chess.game.Bitbases;
+import com.example.chess.game.MoveCodec;
+import com.example.chess.game.Position;
+import com.example.chess.game.TestBitbases;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SearchTest {
+
+    private static Search.Info search(String fen, int depth) {
+        return new Search(Position.fromFen(fen), new TranspositionTable(4), new AtomicBoolean()).run(depth, 0, null);
+    }
+
+    @Test
+    void findsBackRankMateInOne() {
+        Search.Info info = search("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1", 4);
+
+        assertThat(MoveCodec.toUci(info.bestMove())).isEqualTo("a1a8");
+        assertThat(info.isMate()).isTrue();
+        assertThat(info.mateIn()).isEqualTo(1);
+    }
+
+    @Test
+    void findsMateInTwoWithASacrifice() {
+        Search.Info info = search("r2qkb1r/pp2nppp/3p4/2pNN1B1/2BnP3/3P4/PPP2PPP/R2bK2R w KQkq - 1 1", 5);
+
+        assertThat(MoveCodec.toUci(info.bestMove())).isEqualTo("d5f6");
+        assertThat(info.mateIn()).isEqualTo(2);
+        assertThat(info.pv()).hasSizeGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void alreadyMated_reportsMateInZeroWithoutMoves() {
+        Search.Info info = search("6k1/5ppp/8/8/8/8/5PPP/r5K1 w - - 0 1", 3);
+
+        assertThat(info.isMate()).isTrue();
+        assertThat(info.mateIn()).isZero();
+        assertThat(info.bestMove()).isEqualTo(MoveCodec.NONE);
+    }
+
+    @Test
+    void winsAHangingQueen() {
+        Search.Info info = search("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1", 4);
+
+        assertThat(MoveCodec.toUci(info.bestMove())).isEqualTo("d2d5");
+        assertThat(info.score()).isGreaterThan(300);
+    }
+
+    @Test
+    void run_reportsEveryIterationAndRespectsTheBudget() {
+        List<Integer> depths = new ArrayList<>();
+        Search search = new Search(new Position(), new TranspositionTable(4), new AtomicBoolean());
+
+        long start = System.nanoTime();
+        Search.Info info = search.run(Search.MAX_PLY, 200_000_000L, i -> depths.add(i.depth()));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(depths).startsWith(1, 2, 3).isSorted();
+        assertThat(info.depth()).isEqualTo(depths.get(depths.size() - 1));
+        assertThat(elapsedMillis).isLessThan(1_000);
+        assertThat(info.pv()).isNotEmpty();
+    }
+
+    @Test
+    void stopFlag_endsTheSearchAfterTheFirstIteration() {
+        AtomicBoolean stop = new AtomicBoolean(true);
+
+        Search.Info info = new Search(new Position(), new TranspositionTable(4), stop).run(Search.MAX_PLY, 0, null);
+
+        assertThat(info.depth()).isEqualTo(1);
+    }
+
+    @Test
+    void bitbaseEndings_areScoredFromTheTable() {
+        Bitbases bitbases = TestBitbases.get();
+
+        Search.Info won = new Search(Position.fromFen("4k3/8/4K3/4P3/8/8/8/8 w - - 0 1"), new TranspositionTable(4),
+                new AtomicBoolean(), bitbases).run(2, 0, null);
+        Search.Info drawn = new Search(Position.fromFen("k7/8/8/8/P7/8/1K6/8 w - - 0 1"), new TranspositionTable(4),
+                new AtomicBoolean(), bitbases).run(4, 0, null);
+
+        assertThat(won.score()).isGreaterThan(Search.KNOWN_WIN - Search.MAX_PLY);
+        assertThat(won.isMate()).isFalse();
+        assertThat(drawn.score()).isZero();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.chess.engine;
+
+import com.example.chess.game.Position;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Lazy SMP scaling benchmark for sizing analysis nodes; not part of the test suite. Searches a fixed
+ * set of positions to a fixed depth with 1, 2, 4 ... up to all cores and prints nodes per second and
+ * time to depth, each relative to one thread.
+ * <pre>
+ * mvn -q test-compile
+ * java -cp target/classes:target/test-classes com.example.chess.engine.SmpBenchmark [depth] [hashMb]
+ * </pre>
+ */
+public final class SmpBenchmark {
+
+    private static final String[] POSITIONS = {
+            Position.START_FEN,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP3PPP/R2QKB1R w KQ - 0 8",
+            "2r3k1/1q1nbppp/r3p3/3pP3/pPpP4/P1Q2N2/2RN1PPP/2R4K b - - 0 23",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+    };
+
+    public static void main(String[] args) throws Exception {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 9;
+        int hashMb = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        // Warm up the JIT before measuring anything
+        measure(1, Math.max(1, depth - 3), hashMb, null);
+
+        System.out.printf("depth %d, hash %d MB, %d cores%n", depth, hashMb, cores);
+        System.out.printf("%7s %12s %9s %12s %9s%n", "threads", "knps", "speedup", "ms/position", "speedup");
+        double baseNps = 0, baseMillis = 0;
+        ExecutorService helpers = Executors.newFixedThreadPool(Math.max(1, cores - 1));
+        try {
+            for (int threads = 1; threads <= cores; threads = threads == cores ? cores + 1 : Math.min(threads * 2, cores)) {
+                long[] totals = measure(threads, depth, hashMb, helpers);
+                double nps = totals[0] * 1e9 / totals[1];
+                double millis = totals[1] / 1e6 / POSITIONS.length;
+                if (threads == 1) {
+                    baseNps = nps;
+                    baseMillis = millis;
+                }
+                System.out.printf("%7d %12.0f %8.2fx %12.1f %8.2fx%n",
+                        threads, nps / 1000, nps / baseNps, millis, baseMillis / millis);
+            }
+        } finally {
+            helpers.shutdownNow();
+        }
+    }
+
+    /** Total nodes and nanoseconds over all positions, each searched with a fresh table. */
+    private static long[] measure(int threads, int depth, int hashMb, ExecutorService helpers) {
+        long nodes = 0, nanos = 0;
+        for (String fen : POSITIONS) {
+            ParallelSearch search = new ParallelSearch(Position.fromFen(fen), new TranspositionTable(hashMb),
+                    new AtomicBoolean(), threads - 1);
+            long start = System.nanoTime();
+            Search.Info info = search.run(helpers == null ? Runnable::run : helpers, depth, 0, null);
+            nanos += System.nanoTime() - start;
+            nodes += info.nodes();
+        }
+        return new long[]{nodes, nanos};
+    }
+}
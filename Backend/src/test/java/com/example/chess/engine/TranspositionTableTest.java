@@ -0,0 +1,87 @@
+package com.example.chess.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TranspositionTableTest {
+
+    @Test
+    void storeAndProbe_roundTripsPackedFields() {
+        TranspositionTable table = new TranspositionTable(1);
+
+        table.store(0xABCDEF0123456789L, 0x1234, -517, 9, TranspositionTable.BOUND_LOWER);
+        long entry = table.probe(0xABCDEF0123456789L);
+
+        assertThat(TranspositionTable.move(entry)).isEqualTo(0x1234);
+        assertThat(TranspositionTable.score(entry)).isEqualTo(-517);
+        assertThat(TranspositionTable.depth(entry)).isEqualTo(9);
+        assertThat(TranspositionTable.bound(entry)).isEqualTo(TranspositionTable.BOUND_LOWER);
+        assertThat(table.probe(0x1111L)).isZero();
+    }
+
+    @Test
+    void shallowerResultForAnotherPosition_doesNotEvictADeeperOne() {
+        TranspositionTable table = new TranspositionTable(1);
+        long deep = 5L, collision = deep + ((long) table.slots() << 32) * 3; // same slot, different key
+        table.store(deep, 1, 10, 12, TranspositionTable.BOUND_EXACT);
+
+        table.store(collision, 2, 20, 3, TranspositionTable.BOUND_EXACT);
+
+        assertThat(table.probe(deep)).isNotZero();
+        assertThat(table.probe(collision)).isZero();
+
+        table.newSearch(); // stale entries give way
+        table.store(collision, 2, 20, 3, TranspositionTable.BOUND_EXACT);
+        assertThat(table.probe(collision)).isNotZero();
+    }
+
+    @Test
+    void mapped_reopenedFile_keepsItsEntries(@TempDir Path dir) {
+        // Given
+        Path file = dir.resolve("hash.tt");
+        try (TranspositionTable table = TranspositionTable.mapped(file, 1)) {
+            assertThat(table.isWarm()).isFalse();
+            table.newSearch();
+            table.store(0x0123456789ABCDEFL, 0x0FED, 42, 7, TranspositionTable.BOUND_EXACT);
+        }
+
+        // When
+        TranspositionTable reopened = TranspositionTable.mapped(file, 1);
+
+        // Then
+        assertThat(reopened.isWarm()).isTrue();
+        long entry = reopened.probe(0x0123456789ABCDEFL);
+        assertThat(TranspositionTable.move(entry)).isEqualTo(0x0FED);
+        assertThat(TranspositionTable.score(entry)).isEqualTo(42);
+        assertThat(TranspositionTable.generation(entry)).isEqualTo(1);
+    }
+
+    @Test
+    void mapped_fileOfAnotherSize_isWiped(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("hash.tt");
+        try (TranspositionTable table = TranspositionTable.mapped(file, 2)) {
+            table.store(99L, 1, 1, 1, TranspositionTable.BOUND_EXACT);
+        }
+
+        TranspositionTable resized = TranspositionTable.mapped(file, 1);
+
+        assertThat(resized.isWarm()).isFalse();
+        assertThat(resized.probe(99L)).isZero();
+        assertThat(Files.size(file)).isEqualTo(TranspositionTable.HEADER_SIZE + resized.slots() * TranspositionTable.SLOT_SIZE);
+    }
+
+    @Test
+    void mapped_foreignFile_isNotTrusted(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("hash.tt");
+        Files.write(file, new byte[TranspositionTable.HEADER_SIZE + (1 << 20)]); // right size, no header
+
+        TranspositionTable table = TranspositionTable.mapped(file, 1);
+
+        assertThat(table.isWarm()).isFalse();
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.chess.explorer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ExplorerIndexTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void addGame_countsGamesAndKeepsTheNewestSamples() {
+        // Given
+        ExplorerIndex index = new ExplorerIndex(16);
+
+        // When
+        for (long game = 1; game <= 5; game++) {
+            index.addGame(42L, 0x123, game);
+        }
+        index.addGame(42L, 0x456, 9L);
+
+        // Then
+        ExplorerIndex.Stats stats = index.get(42L, 0x123);
+        assertThat(stats.games()).isEqualTo(5);
+        assertThat(stats.sampleGameIds()).containsExactly(5L, 4L, 3L);
+        assertThat(index.get(42L, 0x456).sampleGameIds()).containsExactly(9L);
+        assertThat(index.get(43L, 0x123)).isNull();
+    }
+
+    @Test
+    void addResult_countsEachOutcomeAndIgnoresUnknownMoves() {
+        // Given
+        ExplorerIndex index = new ExplorerIndex(16);
+        index.addGame(7L, 0x200, 1L);
+
+        // When
+        index.addResult(7L, 0x200, ExplorerIndex.WHITE_WINS);
+        index.addResult(7L, 0x200, ExplorerIndex.DRAW);
+        index.addResult(7L, 0x200, ExplorerIndex.DRAW);
+        index.addResult(7L, 0x300, ExplorerIndex.BLACK_WINS);
+
+        // Then
+        ExplorerIndex.Stats stats = index.get(7L, 0x200);
+        assertThat(stats.whiteWins()).isEqualTo(1);
+        assertThat(stats.draws()).isEqualTo(2);
+        assertThat(stats.blackWins()).isZero();
+        assertThat(index.get(7L, 0x300)).isNull();
+        assertThatThrownBy(() -> index.addResult(7L, 0x200, 3)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void progress_isKeptApartFromContinuationsWithTheSameKey() {
+        // Given
+        ExplorerIndex index = new ExplorerIndex(16);
+        index.addGame(11L, 0x100, 11L);
+
+        // When
+        index.markCounted(11L, 6, true);
+
+        // Then
+        assertThat(index.countedPlies(11L)).isEqualTo(6);
+        assertThat(index.resultCounted(11L)).isTrue();
+        assertThat(index.countedPlies(12L)).isZero();
+        assertThat(index.resultCounted(12L)).isFalse();
+        assertThat(index.get(11L, 0x100).games()).isEqualTo(1);
+    }
+
+    @Test
+    void growth_keepsEveryEntry() {
+        // Given
+        ExplorerIndex index = new ExplorerIndex(16);
+        int initial = index.capacity();
+
+        // When
+        for (int i = 1; i <= 10_000; i++) {
+            index.addGame(i * 0x9E3779B97F4A7C15L, 1 + i % 4000, i);
+        }
+
+        // Then
+        assertThat(index.capacity()).isGreaterThan(initial);
+        assertThat(index.size()).isEqualTo(10_000);
+        for (int i = 1; i <= 10_000; i++) {
+            assertThat(index.get(i * 0x9E3779B97F4A7C15L, 1 + i % 4000).sampleGameIds()).containsExactly((long) i);
+        }
+    }
+
+    @Test
+    void snapshot_roundTripsEntriesProgressAndTime() {
+        // Given
+        ExplorerIndex index = new ExplorerIndex(16);
+        for (int i = 1; i <= 100; i++) {
+            index.addGame(i, 0x80, i);
+            index.addResult(i, 0x80, i % 3);
+        }
+        index.markCounted(5L, 3, false);
+        Path file = dir.resolve("explorer.idx");
+        Instant takenAt = Instant.parse("2026-03-01T12:00:00Z");
+
+        // When
+        index.write(file, takenAt);
+        ExplorerIndex.Snapshot snapshot = ExplorerIndex.read(file);
+
+        // Then
+        assertThat(snapshot.takenAt()).isEqualTo(takenAt);
+        ExplorerIndex loaded = snapshot.index();
+        assertThat(loaded.size()).isEqualTo(index.size());
+        assertThat(loaded.get(40L, 0x80)).usingRecursiveComparison().isEqualTo(index.get(40L, 0x80));
+        assertThat(loaded.countedPlies(5L)).isEqualTo(3);
+        loaded.addGame(40L, 0x80, 500L); // still writable
+        assertThat(loaded.get(40L, 0x80).games()).isEqualTo(2);
+        assertThat(dir.resolve("explorer.idx.tmp")).doesNotExist();
+    }
+
+    @Test
+    void read_missingOrForeignFile_isNull() throws Exception {
+        // Given
+        Path garbage = Files.write(dir.resolve("garbage.idx"), new byte[128]);
+
+        // When / Then
+        assertThat(ExplorerIndex.read(dir.resolve("missing.idx"))).isNull();
+        assertThat(ExplorerIndex.read(garbage)).isNull();
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.chess.explorer;
+
+import com.example.chess.common.Dto;
+import com.example.chess.game.Bitboards;
+import com.example.chess.game.Game;
+import com.example.chess.game.GameRepository;
+import com.example.chess.game.GameRules;
+import com.example.chess.game.GameService;
+import com.example.chess.game.GameStatus;
+import com.example.chess.game.Move;
+import com.example.chess.game.MovePlayed;
+import com.example.chess.game.MoveRepository;
+import com.example.chess.game.PackedMoves;
+import com.example.chess.game.Position;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ExplorerServiceTest {
+
+    private static final String AFTER_E4 = "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1";
+
+    @Mock private GameRepository games;
+    @Mock private MoveRepository moves;
+    @Mock private GameService gameService;
+
+    @TempDir
+    Path dir;
+
+    private ExplorerService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) service.shutdown();
+    }
+
+    private ExplorerService newService(String snapshotFile) {
+        service = new ExplorerService(games, moves, gameService, new GameRules(), snapshotFile, 300, 16, 2);
+        return service;
+    }
+
+    private static Position play(String... uci) {
+        Position position = new Position();
+        for (String move : uci) {
+            int legal = position.findLegal(Bitboards.parseSquare(move.substring(0, 2)), Bitboards.parseSquare(move.substring(2, 4)), -1);
+            position.makeMove(legal);
+        }
+        return position;
+    }
+
+    private static MovePlayed played(long gameId, int moveNumber, String result) {
+        Dto.GameOver over = result == null ? null : new Dto.GameOver(gameId, result, "CHECKMATE", moveNumber, "GAME_OVER");
+        return new MovePlayed(gameId, Move.builder().gameId(gameId).moveNumber(moveNumber).build(), over);
+    }
+
+    private static Game finished(long id, String result, String... uci) {
+        return Game.builder().id(id).status(GameStatus.FINISHED).result(result)
+                .packedMoves(PackedMoves.of(play(uci))).build();
+    }
+
+    @Test
+    void onMovePlayed_countsEachMoveOnceAndTheResultAtTheEnd() {
+        // Given
+        ExplorerService service = newService("");
+        when(gameService.position(1L)).thenReturn(play("e2e4"), play("e2e4", "e7e5"), play("e2e4", "e7e5"));
+
+        // When
+        service.onMovePlayed(played(1L, 1, null));
+        service.onMovePlayed(played(1L, 2, null));
+        service.onMovePlayed(played(1L, 2, "1-0"));
+
+        // Then
+        Dto.ExplorerDto start = service.lookup(Position.START_FEN);
+        assertThat(start.games()).isEqualTo(1);
+        assertThat(start.moves()).singleElement().satisfies(move -> {
+            assertThat(move.san()).isEqualTo("e4");
+            assertThat(move.whiteWins()).isEqualTo(1);
+            assertThat(move.sampleGameIds()).containsExactly(1L);
+        });
+        assertThat(service.lookup(AFTER_E4).moves()).extracting(Dto.ExplorerMoveDto::uci).containsExactly("e7e5");
+    }
+
+    @Test
+    void onMovePlayed_livePositionAhead_countsOnlyUpToTheCommittedMove() {
+        // Given: by the time move 1 is announced the live game already holds move 2, which then rolls back
+        ExplorerService service = newService("");
+        when(gameService.position(1L)).thenReturn(play("e2e4", "c7c5"), play("e2e4", "e7e5"));
+
+        // When
+        service.onMovePlayed(played(1L, 1, null));
+        service.onMovePlayed(played(1L, 2, null));
+
+        // Then
+        assertThat(service.lookup(AFTER_E4).moves()).extracting(Dto.ExplorerMoveDto::uci).containsExactly("e7e5");
+    }
+
+    @Test
+    void onMovePlayed_failure_doesNotPropagate() {
+        // Given
+        ExplorerService service = newService("");
+        when(gameService.position(anyLong())).thenThrow(new IllegalStateException("boom"));
+
+        // When / Then
+        assertThatCode(() -> service.onMovePlayed(played(3L, 1, null))).doesNotThrowAnyException();
+    }
+
+    @Test
+    void catchUp_pagesThroughGamesAndSortsMovesByPopularity() {
+        // Given
+        ExplorerService service = newService("");
+        when(games.findUpdatedSince(any(), eq(0L), any())).thenReturn(List.of(
+                finished(1L, "1-0", "e2e4", "e7e5"),
+                finished(2L, "0-1", "d2d4")));
+        when(games.findUpdatedSince(any(), eq(2L), any())).thenReturn(List.of(
+                finished(3L, "1/2-1/2", "e2e4", "c7c5")));
+
+        // When
+        service.catchUp();
+
+        // Then
+        Dto.ExplorerDto start = service.lookup(Position.START_FEN);
+        assertThat(start.games()).isEqualTo(3);
+        assertThat(start.whiteWins()).isEqualTo(1);
+        assertThat(start.draws()).isEqualTo(1);
+        assertThat(start.blackWins()).isEqualTo(1);
+        assertThat(start.moves()).extracting(Dto.ExplorerMoveDto::san).containsExactly("e4", "d4");
+        assertThat(start.moves().get(0).sampleGameIds()).containsExactly(3L, 1L);
+        assertThat(service.isCaughtUp()).isTrue();
+    }
+
+    @Test
+    void snapshot_restartReplaysOnlyWhatIsMissingAndNeverCountsTwice() {
+        // Given
+        String file = dir.resolve("explorer.idx").toString();
+        when(games.findUpdatedSince(any(), eq(0L), any())).thenReturn(List.of(finished(1L, "1-0", "e2e4")));
+        ExplorerService first = newService(file);
+        first.catchUp();
+        first.shutdown(); // writes the snapshot
+
+        // When
+        ExplorerService second = newService(file);
+        second.catchUp(); // game 1 comes back from the catch-up too
+
+        // Then
+        assertThat(second.lookup(Position.START_FEN).games()).isEqualTo(1);
+        assertThat(second.lookup(Position.START_FEN).whiteWins()).isEqualTo(1);
+        verify(games, times(2)).findUpdatedSince(any(), eq(0L), any());
+    }
+
+    @Test
+    void lookup_invalidFen_throws() {
+        // Given
+        ExplorerService service = newService("");
+
+        // When / Then
+        assertThatThrownBy(() -> service.lookup("not a fen")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.chess.game;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BitbasesTest {
+
+    @TempDir
+    static Path dir;
+
+    private static Bitbases bitbases;
+
+    @BeforeAll
+    static void generate() {
+        bitbases = Bitbases.open(dir);
+    }
+
+    private static int probe(String fen) {
+        return bitbases.probe(Position.fromFen(fen));
+    }
+
+    @Test
+    void queenAgainstKing_isWonUnlessTheQueenHangs() {
+        assertThat(probe("8/8/8/4k3/8/8/8/3QK3 w - - 0 1")).isEqualTo(Bitbases.WIN);
+        assertThat(probe("8/8/8/4k3/8/8/8/3QK3 b - - 0 1")).isEqualTo(Bitbases.LOSS);
+        assertThat(probe("8/8/8/8/8/3k4/3Q4/7K b - - 0 1")).isEqualTo(Bitbases.DRAW);
+    }
+
+    @Test
+    void stalemate_isADraw() {
+        assertThat(probe("k7/2Q5/1K6/8/8/8/8/8 b - - 0 1")).isEqualTo(Bitbases.DRAW);
+        assertThat(probe("k7/8/1K6/8/8/8/8/2R5 b - - 0 1")).isEqualTo(Bitbases.LOSS);
+    }
+
+    @Test
+    void kingAndPawn_followsTheTextbookRules() {
+        // King on the sixth ahead of its pawn wins whoever moves; a rook pawn with the king in the corner does not
+        assertThat(probe("4k3/8/4K3/4P3/8/8/8/8 w - - 0 1")).isEqualTo(Bitbases.WIN);
+        assertThat(probe("4k3/8/4K3/4P3/8/8/8/8 b - - 0 1")).isEqualTo(Bitbases.LOSS);
+        assertThat(probe("k7/8/8/8/P7/8/1K6/8 w - - 0 1")).isEqualTo(Bitbases.DRAW);
+        // With the king in front of the pawn on the fifth, whoever has the opposition decides
+        assertThat(probe("8/4k3/8/4K3/4P3/8/8/8 w - - 0 1")).isEqualTo(Bitbases.DRAW);
+        assertThat(probe("8/4k3/8/4K3/4P3/8/8/8 b - - 0 1")).isEqualTo(Bitbases.LOSS);
+    }
+
+    @Test
+    void blackAsTheStrongSide_isMirrored() {
+        assertThat(probe("8/8/8/8/4p3/4k3/8/4K3 b - - 0 1")).isEqualTo(Bitbases.WIN);
+        assertThat(probe("8/8/8/8/4p3/4k3/8/4K3 w - - 0 1")).isEqualTo(Bitbases.LOSS);
+        assertThat(probe("8/8/8/4K3/8/8/8/3qk3 b - - 0 1")).isEqualTo(Bitbases.WIN);
+    }
+
+    @Test
+    void otherMaterial_isDrawnOrUnknown() {
+        assertThat(probe("4k3/8/8/8/8/8/8/2B1K3 w - - 0 1")).isEqualTo(Bitbases.DRAW);
+        assertThat(probe("4k3/8/8/8/8/8/8/1N2K3 b - - 0 1")).isEqualTo(Bitbases.DRAW);
+        assertThat(probe("4k3/8/8/8/8/8/8/R3K2R w - - 0 1")).isEqualTo(Bitbases.UNKNOWN);
+        assertThat(probe("4k3/8/8/8/8/8/8/4K2R w K - 0 1")).isEqualTo(Bitbases.UNKNOWN); // castling is not indexed
+        assertThat(probe(Position.START_FEN)).isEqualTo(Bitbases.UNKNOWN);
+        assertThat(Bitbases.NONE.probe(Position.fromFen("8/8/8/4k3/8/8/8/3QK3 w - - 0 1"))).isEqualTo(Bitbases.UNKNOWN);
+    }
+
+    @Test
+    void open_mapsExistingFilesAndRegeneratesDamagedOnes() throws Exception {
+        // Given
+        Path kqk = dir.resolve("kqk.bb");
+        Path krk = dir.resolve("krk.bb");
+        FileTime written = FileTime.fromMillis(1_000_000L);
+        Files.setLastModifiedTime(kqk, written);
+        Files.write(krk, new byte[100]);
+
+        // When
+        Bitbases reopened = Bitbases.open(dir);
+
+        // Then
+        assertThat(Files.getLastModifiedTime(kqk)).isEqualTo(written);
+        assertThat(Files.size(krk)).isEqualTo(Bitbases.HEADER_SIZE + Bitbases.TABLE_BYTES);
+        assertThat(reopened.probe(Position.fromFen("k7/8/1K6/8/8/8/8/2R5 b - - 0 1"))).isEqualTo(Bitbases.LOSS);
+    }
+}
@@ -2,9 +2,9 @@ package com.example.chess.game;
 
 import com.example.chess.common.Dto;
 import com.example.chess.user.User;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -12,7 +12,6 @@ import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.core.MethodParameter;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -27,6 +26,7 @@ import java.security.Principal;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -47,8 +47,8 @@ class GameControllerTest {
         }
 
         @Bean
-        SimpMessagingTemplate messagingTemplate() {
-            return mock(SimpMessagingTemplate.class);
+        MoveDispatcher moveDispatcher(GameService gameService) {
+            return new MoveDispatcher(gameService, 1, 10);
         }
 
         @Override
@@ -76,12 +76,18 @@ class GameControllerTest {
 
     @Autowired private MockMvc mvc;
     @Autowired private GameService gameService;
-    @Autowired private SimpMessagingTemplate messagingTemplate;
+    private MoveDispatcher dispatcher;
 
     @BeforeEach
     void setUp() {
         // Reset mocks before each test to avoid cross-test interference
-        reset(gameService, messagingTemplate);
+        reset(gameService);
+        dispatcher = new MoveDispatcher(gameService, 2, 10);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
     }
 
     @Test
@@ -119,6 +125,25 @@ class GameControllerTest {
         verify(gameService).getActiveGamesFor(1L);
     }
 
+    @Test
+    void active_packedSnapshot_isRenderedAsFen() throws Exception {
+        var user = User.builder().id(1L).displayName("Alice").email("alice@test.com").build();
+        String fen = "r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3";
+
+        when(gameService.getActiveGamesFor(1L)).thenReturn(List.of(
+                Game.builder()
+                        .id(10L).whitePlayerId(1L).blackPlayerId(2L)
+                        .status(GameStatus.STARTED)
+                        .lastPosition(PackedPosition.fromFen(fen))
+                        .build()
+        ));
+
+        mvc.perform(get("/api/games/active")
+                        .principal(new UsernamePasswordAuthenticationToken(user, null, Collections.emptyList())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].lastFen").value(fen));
+    }
+
     @Test
     void active_emptyList_returnsEmptyArray() throws Exception {
         var user = User.builder().id(1L).displayName("Alice").email("alice@test.com").build();
@@ -190,76 +215,60 @@ class GameControllerTest {
     }
 
     @Test
-    void submitMove_validMove_recordsAndBroadcasts() {
+    void moves_packedFormat_returnsOctetStream() throws Exception {
         var user = User.builder().id(1L).displayName("Alice").email("alice@test.com").build();
-        Principal principal = new UsernamePasswordAuthenticationToken(user, null, Collections.emptyList());
-
         Long gameId = 42L;
-        Dto.MoveSend request = new Dto.MoveSend("e2", "e4", null, "e4");
+        byte[] packed = {0x07, 0x0C, 0x1D, 0x34};
 
-        Move recordedMove = Move.builder()
-                .moveNumber(1).fromSquare("e2").toSquare("e4").san("e4")
-                .promotion(null).playedByUserId(1L)
-                .playedAt(Instant.parse("2024-01-01T10:00:00Z"))
-                .build();
+        when(gameService.packedMoves(gameId)).thenReturn(Optional.of(packed));
 
-        when(gameService.recordMove(gameId, 1L, request)).thenReturn(recordedMove);
+        mvc.perform(get("/api/games/{id}/moves", gameId).param("format", "packed")
+                        .principal(new UsernamePasswordAuthenticationToken(user, null, Collections.emptyList())))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/octet-stream"))
+                .andExpect(content().bytes(packed));
 
-        GameController controller = new GameController(gameService, messagingTemplate);
+        verify(gameService).packedMoves(gameId);
+        verify(gameService, never()).listMoves(any());
+    }
 
-        controller.submitMove(gameId, request, principal);
+    @Test
+    void moves_packedFormatUnknownGame_returns404() throws Exception {
+        var user = User.builder().id(1L).displayName("Alice").email("alice@test.com").build();
 
-        verify(gameService).recordMove(gameId, 1L, request);
+        when(gameService.packedMoves(404L)).thenReturn(Optional.empty());
 
-        // Capture payload to avoid convertAndSend overload ambiguity
-        ArgumentCaptor<Dto.MoveBroadcast> payload = ArgumentCaptor.forClass(Dto.MoveBroadcast.class);
-        verify(messagingTemplate).convertAndSend(eq("/topic/games/42"), payload.capture());
-
-        var broadcast = payload.getValue();
-        assertThat(broadcast.moveNumber()).isEqualTo(1);
-        assertThat(broadcast.from()).isEqualTo("e2");
-        assertThat(broadcast.to()).isEqualTo("e4");
-        assertThat(broadcast.san()).isEqualTo("e4");
-        assertThat(broadcast.by()).isEqualTo(1L);
-        assertThat(broadcast.promotion()).isNull();
+        mvc.perform(get("/api/games/{id}/moves", 404L).param("format", "packed")
+                        .principal(new UsernamePasswordAuthenticationToken(user, null, Collections.emptyList())))
+                .andExpect(status().isNotFound());
     }
 
     @Test
-    void submitMove_withPromotion_recordsAndBroadcastsCorrectly() {
-        var user = User.builder().id(2L).displayName("Bob").email("bob@test.com").build();
+    void submitMove_validMove_recordsOnTheGamesStripe() throws InterruptedException {
+        var user = User.builder().id(1L).displayName("Alice").email("alice@test.com").build();
         Principal principal = new UsernamePasswordAuthenticationToken(user, null, Collections.emptyList());
 
-        Long gameId = 55L;
-        Dto.MoveSend request = new Dto.MoveSend("e7", "e8", "q", "e8=Q");
+        Long gameId = 42L;
+        Dto.MoveSend request = new Dto.MoveSend("e2", "e4", null, "e4");
 
         Move recordedMove = Move.builder()
-                .moveNumber(15).fromSquare("e7").toSquare("e8").san("e8=Q")
-                .promotion("q").playedByUserId(2L)
-                .playedAt(Instant.now())
+                .moveNumber(1).fromSquare("e2").toSquare("e4").san("e4")
+                .promotion(null).playedByUserId(1L)
+                .playedAt(Instant.parse("2024-01-01T10:00:00Z"))
                 .build();
 
-        when(gameService.recordMove(gameId, 2L, request)).thenReturn(recordedMove);
+        when(gameService.recordMove(gameId, 1L, request)).thenReturn(recordedMove);
 
-        GameController controller = new GameController(gameService, messagingTemplate);
+        GameController controller = new GameController(gameService, dispatcher);
 
         controller.submitMove(gameId, request, principal);
+        dispatcher.shutdown(); // waits for the move to be recorded; the outbox announces it
 
-        verify(gameService).recordMove(gameId, 2L, request);
-
-        ArgumentCaptor<Dto.MoveBroadcast> payload = ArgumentCaptor.forClass(Dto.MoveBroadcast.class);
-        verify(messagingTemplate).convertAndSend(eq("/topic/games/55"), payload.capture());
-
-        var broadcast = payload.getValue();
-        assertThat(broadcast.moveNumber()).isEqualTo(15);
-        assertThat(broadcast.from()).isEqualTo("e7");
-        assertThat(broadcast.to()).isEqualTo("e8");
-        assertThat(broadcast.san()).isEqualTo("e8=Q");
-        assertThat(broadcast.by()).isEqualTo(2L);
-        assertThat(broadcast.promotion()).isEqualTo("q");
+        verify(gameService).recordMove(gameId, 1L, request);
     }
 
     @Test
-    void submitMove_serviceThrows_doesNotBroadcast() {
+    void submitMove_serviceThrows_isNotRethrown() throws InterruptedException {
         var user = User.builder().id(1L).displayName("Alice").email("alice@test.com").build();
         Principal principal = new UsernamePasswordAuthenticationToken(user, null, Collections.emptyList());
 
@@ -269,13 +278,11 @@ class GameControllerTest {
         when(gameService.recordMove(gameId, 1L, request))
                 .thenThrow(new IllegalStateException("Not your turn"));
 
-        GameController controller = new GameController(gameService, messagingTemplate);
+        GameController controller = new GameController(gameService, dispatcher);
 
-        assertThatThrownBy(() -> controller.submitMove(gameId, request, principal))
-                .isInstanceOf(IllegalStateException.class)
-                .hasMessageContaining("Not your turn");
+        assertThatCode(() -> controller.submitMove(gameId, request, principal)).doesNotThrowAnyException();
+        dispatcher.shutdown();
 
         verify(gameService).recordMove(gameId, 1L, request);
-        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
     }
-}
\ No newline at end of file
+}
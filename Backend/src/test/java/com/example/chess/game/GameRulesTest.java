@@ -4,6 +4,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.access.AccessDeniedException;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.*;
 
 class GameRulesTest {
@@ -176,4 +178,130 @@ class GameRulesTest {
                 .isInstanceOf(AccessDeniedException.class)
                 .hasMessageContaining("Not a participant");
     }
-}
\ No newline at end of file
+
+    @Test
+    void validateMove_legalMove_returnsEncodedMove() {
+        Position position = new Position();
+
+        int move = rules.validateMove(position, "g1", "f3", null);
+
+        assertThat(MoveCodec.from(move)).isEqualTo(Bitboards.parseSquare("g1"));
+        assertThat(MoveCodec.to(move)).isEqualTo(Bitboards.parseSquare("f3"));
+    }
+
+    @Test
+    void validateMove_illegalMove_throws() {
+        Position position = new Position();
+
+        assertThatThrownBy(() -> rules.validateMove(position, "e2", "e5", null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Illegal move");
+    }
+
+    @Test
+    void replay_appliesStoredMovesInOrder() {
+        List<Move> history = List.of(
+                Move.builder().moveNumber(1).fromSquare("e2").toSquare("e4").build(),
+                Move.builder().moveNumber(2).fromSquare("e7").toSquare("e5").build()
+        );
+
+        Position position = rules.replay(history);
+
+        assertThat(position.sideToMove()).isEqualTo(Position.WHITE);
+        assertThat(position.pieceAt(Bitboards.parseSquare("e4"))).isEqualTo(Position.PAWN);
+        assertThat(position.pieceAt(Bitboards.parseSquare("e5"))).isEqualTo(6 + Position.PAWN);
+    }
+
+    @Test
+    void replay_illegalStoredMove_throws() {
+        List<Move> history = List.of(
+                Move.builder().moveNumber(1).fromSquare("e2").toSquare("e5").build()
+        );
+
+        assertThatThrownBy(() -> rules.replay(history))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Stored move 1");
+    }
+
+    @Test
+    void validateInProgress_finishedGame_throws() {
+        Game game = Game.builder().status(GameStatus.FINISHED).build();
+
+        assertThatThrownBy(() -> rules.validateInProgress(game))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Game is finished");
+        assertThatNoException().isThrownBy(() ->
+                rules.validateInProgress(Game.builder().status(GameStatus.STARTED).build()));
+    }
+
+    @Test
+    void detectTermination_checkmate_blackWins() {
+        // Fool's mate
+        Position position = Position.fromFen("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3");
+
+        assertThat(rules.detectTermination(position, 1)).isEqualTo(Termination.CHECKMATE);
+        assertThat(rules.result(position, Termination.CHECKMATE)).isEqualTo("0-1");
+    }
+
+    @Test
+    void detectTermination_stalemate_isDraw() {
+        Position position = Position.fromFen("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+
+        assertThat(rules.detectTermination(position, 1)).isEqualTo(Termination.STALEMATE);
+        assertThat(rules.result(position, Termination.STALEMATE)).isEqualTo("1/2-1/2");
+    }
+
+    @Test
+    void detectTermination_insufficientMaterial() {
+        assertThat(rules.detectTermination(Position.fromFen("8/8/4k3/8/8/3NK3/8/8 b - - 0 1"), 1))
+                .isEqualTo(Termination.INSUFFICIENT_MATERIAL);
+        // Bishops on the same colour cannot mate either
+        assertThat(rules.detectTermination(Position.fromFen("8/2b5/4k3/8/8/4K3/3B4/8 b - - 0 1"), 1))
+                .isEqualTo(Termination.INSUFFICIENT_MATERIAL);
+        // Opposite-coloured bishops and two knights can
+        assertThat(rules.detectTermination(Position.fromFen("8/3b4/4k3/8/8/4K3/3B4/8 b - - 0 1"), 1)).isNull();
+        assertThat(rules.detectTermination(Position.fromFen("8/8/4k3/8/8/3NK3/4N3/8 b - - 0 1"), 1)).isNull();
+    }
+
+    @Test
+    void detectTermination_moveRulesAndRepetition() {
+        String fen = "8/8/4k3/8/8/4K3/8/R7 b - - %d 80";
+
+        assertThat(rules.detectTermination(Position.fromFen(fen.formatted(99)), 1)).isNull();
+        assertThat(rules.detectTermination(Position.fromFen(fen.formatted(100)), 1)).isEqualTo(Termination.FIFTY_MOVE_RULE);
+        assertThat(rules.detectTermination(Position.fromFen(fen.formatted(150)), 1)).isEqualTo(Termination.SEVENTY_FIVE_MOVE_RULE);
+        assertThat(rules.detectTermination(Position.fromFen(fen.formatted(0)), 3)).isEqualTo(Termination.THREEFOLD_REPETITION);
+        assertThat(rules.detectTermination(Position.fromFen(fen.formatted(0)), 5)).isEqualTo(Termination.FIVEFOLD_REPETITION);
+    }
+
+    @Test
+    void detectTermination_mateOnTheHundredthHalfMove_isStillMate() {
+        Position position = Position.fromFen("R5k1/5ppp/8/8/8/8/8/6K1 b - - 100 90");
+
+        assertThat(rules.detectTermination(position, 1)).isEqualTo(Termination.CHECKMATE);
+    }
+
+    @Test
+    void detectTermination_decidedThreePieceEnding_isAdjudicatedOnArrival() {
+        GameRules adjudicating = new GameRules(TestBitbases.get(), true);
+        Position queenUp = Position.fromFen("8/8/8/4k3/8/8/8/3QK3 b - - 0 60");
+        Position blackQueenUp = Position.fromFen("8/8/8/4K3/8/8/8/3qk3 w - - 0 60");
+        Position rookPawn = Position.fromFen("k7/8/8/8/P7/8/1K6/8 b - - 0 60");
+
+        assertThat(adjudicating.detectTermination(queenUp, 1)).isEqualTo(Termination.ADJUDICATED_WIN);
+        assertThat(adjudicating.result(queenUp, Termination.ADJUDICATED_WIN)).isEqualTo("1-0");
+        assertThat(adjudicating.detectTermination(blackQueenUp, 1)).isEqualTo(Termination.ADJUDICATED_WIN);
+        assertThat(adjudicating.result(blackQueenUp, Termination.ADJUDICATED_WIN)).isEqualTo("0-1");
+        assertThat(adjudicating.detectTermination(rookPawn, 1)).isEqualTo(Termination.ADJUDICATED_DRAW);
+        assertThat(adjudicating.result(rookPawn, Termination.ADJUDICATED_DRAW)).isEqualTo("1/2-1/2");
+    }
+
+    @Test
+    void detectTermination_adjudicationOffOrClockRunning_playsOn() {
+        assertThat(rules.detectTermination(Position.fromFen("8/8/8/4k3/8/8/8/3QK3 b - - 0 60"), 1)).isNull();
+        assertThat(new GameRules(TestBitbases.get(), false)
+                .detectTermination(Position.fromFen("8/8/8/4k3/8/8/8/3QK3 b - - 0 60"), 1)).isNull();
+        assertThat(new GameRules(TestBitbases.get(), true)
+                .detectTermination(Position.fromFen("8/8/8/4k3/8/8/8/3QK3 b - - 7 60"), 1)).isNull();
+    }
+}
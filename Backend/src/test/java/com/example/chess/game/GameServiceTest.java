@@ -1,14 +1,21 @@
 package com.example.chess.game;
 
 import com.example.chess.common.Dto;
+import com.example.chess.opening.Openings;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
@@ -26,14 +33,38 @@ class GameServiceTest {
     @Mock
     private MoveRepository moveRepository;
 
+    @Spy
+    private GameRules gameRules = new GameRules();
+
+    @Mock
+    private MoveJournal journal;
+
     @Mock
-    private GameRules gameRules;
+    private MoveOutbox outbox;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
 
     private GameService gameService;
 
+    private LiveGames liveGames;
+
+    private static final Openings OPENINGS = new Openings();
+
+    private final List<Object> published = new ArrayList<>();
+
     @BeforeEach
     void setUp() {
-        gameService = new GameService(gameRepository, moveRepository, gameRules);
+        liveGames = new LiveGames(gameRepository, moveRepository, gameRules, OPENINGS, 100, 30);
+        gameService = new GameService(gameRepository, moveRepository, gameRules, liveGames, OPENINGS, published::add, journal, outbox,
+                new TransactionTemplate(transactionManager));
+        lenient().when(gameRepository.recordMove(any(), any(), any(), any(), any(), any())).thenReturn(1);
+        lenient().when(gameRepository.recordFinalMove(any(), any(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        liveGames.shutdown();
     }
 
     @Test
@@ -67,6 +98,7 @@ class GameServiceTest {
                         game.getCreatedAt() != null &&
                         game.getUpdatedAt() != null
         ));
+        assertThat(published).containsExactly(new GameStarted(100L, whitePlayerId, blackPlayerId));
     }
 
     @Test
@@ -137,9 +169,8 @@ class GameServiceTest {
                 .build();
 
         when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
-        when(moveRepository.lastMoveNumber(gameId)).thenReturn(0);
+        when(moveRepository.findByGameIdOrderByMoveNumberAsc(gameId)).thenReturn(List.of());
         when(moveRepository.save(any(Move.class))).thenReturn(savedMove);
-        when(gameRepository.save(any(Game.class))).thenReturn(game);
 
         // When
         Move result = gameService.recordMove(gameId, userId, request);
@@ -152,10 +183,11 @@ class GameServiceTest {
         assertThat(result.getSan()).isEqualTo("e4");
         assertThat(result.getPlayedByUserId()).isEqualTo(userId);
 
-        // Verify all validations were called
-        verify(gameRules).validateParticipant(game, userId);
+        // Verify all validations were called, against the live state
+        verify(gameRules).validateParticipant(any(LiveGame.class), eq(userId));
         verify(gameRules).validateSquares("e2", "e4");
-        verify(gameRules).validateTurn(game, userId, 1);
+        verify(gameRules).validateTurn(any(LiveGame.class), eq(userId), eq(1));
+        verify(gameRules).validateMove(any(), eq("e2"), eq("e4"), isNull());
 
         // Verify move was saved
         verify(moveRepository).save(argThat(move ->
@@ -164,14 +196,24 @@ class GameServiceTest {
                         move.getFromSquare().equals("e2") &&
                         move.getToSquare().equals("e4") &&
                         move.getSan().equals("e4") &&
+                        move.getPositionKey() != null &&
+                        PackedPosition.toFen(move.getPositionAfter())
+                                .equals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1") &&
+                        move.getFenAfter() == null &&
                         move.getPlayedByUserId().equals(userId)
         ));
 
-        // Verify game updatedAt was touched - capture the old time before mutation
-        verify(gameRepository).save(argThat(g ->
-                g.getId().equals(gameId) &&
-                        g.getUpdatedAt().isAfter(oldUpdatedAt)
-        ));
+        // Verify the game row was updated in place, updatedAt touched, without a full-row save
+        verify(gameRepository).recordMove(eq(gameId),
+                argThat(position -> "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1"
+                        .equals(PackedPosition.toFen(position))),
+                argThat(packed -> PackedMoves.count(packed) == 1),
+                any(), any(),
+                argThat(at -> at.isAfter(oldUpdatedAt)));
+        verify(gameRepository, never()).save(any());
+
+        // Announced through the outbox, in the same transaction
+        verify(outbox).append(same(savedMove), any(), isNull());
     }
 
     @Test
@@ -188,9 +230,9 @@ class GameServiceTest {
                 .isInstanceOf(NoSuchElementException.class)
                 .hasMessageContaining("Game not found");
 
-        verify(gameRules, never()).validateParticipant(any(), any());
+        verify(gameRules, never()).validateParticipant(any(LiveGame.class), any());
         verify(gameRules, never()).validateSquares(any(), any());
-        verify(gameRules, never()).validateTurn(any(), any(), anyInt());
+        verify(gameRules, never()).validateTurn(any(LiveGame.class), any(), anyInt());
         verify(moveRepository, never()).save(any());
     }
 
@@ -210,16 +252,16 @@ class GameServiceTest {
 
         when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
         doThrow(new AccessDeniedException("Not a participant"))
-                .when(gameRules).validateParticipant(game, userId);
+                .when(gameRules).validateParticipant(any(LiveGame.class), eq(userId));
 
         // When & Then
         assertThatThrownBy(() -> gameService.recordMove(gameId, userId, request))
                 .isInstanceOf(AccessDeniedException.class)
                 .hasMessageContaining("Not a participant");
 
-        verify(gameRules).validateParticipant(game, userId);
+        verify(gameRules).validateParticipant(any(LiveGame.class), eq(userId));
         verify(gameRules, never()).validateSquares(any(), any());
-        verify(gameRules, never()).validateTurn(any(), any(), anyInt());
+        verify(gameRules, never()).validateTurn(any(LiveGame.class), any(), anyInt());
         verify(moveRepository, never()).save(any());
     }
 
@@ -246,9 +288,9 @@ class GameServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Invalid squares");
 
-        verify(gameRules).validateParticipant(game, userId);
+        verify(gameRules).validateParticipant(any(LiveGame.class), eq(userId));
         verify(gameRules).validateSquares("z9", "e4");
-        verify(gameRules, never()).validateTurn(any(), any(), anyInt());
+        verify(gameRules, never()).validateTurn(any(LiveGame.class), any(), anyInt());
         verify(moveRepository, never()).save(any());
     }
 
@@ -267,19 +309,44 @@ class GameServiceTest {
                 .build();
 
         when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
-        when(moveRepository.lastMoveNumber(gameId)).thenReturn(0); // move 1 = white's turn
+        when(moveRepository.findByGameIdOrderByMoveNumberAsc(gameId)).thenReturn(List.of()); // move 1 = white's turn
         doThrow(new IllegalStateException("Not your turn"))
-                .when(gameRules).validateTurn(game, userId, 1);
+                .when(gameRules).validateTurn(any(LiveGame.class), eq(userId), eq(1));
 
         // When & Then
         assertThatThrownBy(() -> gameService.recordMove(gameId, userId, request))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("Not your turn");
 
-        verify(gameRules).validateParticipant(game, userId);
+        verify(gameRules).validateParticipant(any(LiveGame.class), eq(userId));
         verify(gameRules).validateSquares("e2", "e4");
-        verify(gameRules).validateTurn(game, userId, 1);
+        verify(gameRules).validateTurn(any(LiveGame.class), eq(userId), eq(1));
+        verify(moveRepository, never()).save(any());
+    }
+
+    @Test
+    void recordMove_illegalMove_throwsBeforeSaving() {
+        // Given
+        Long gameId = 1L;
+        Long userId = 1L;
+        Dto.MoveSend request = new Dto.MoveSend("e2", "e5", null, null);
+
+        Game game = Game.builder()
+                .id(gameId)
+                .whitePlayerId(userId)
+                .blackPlayerId(2L)
+                .status(GameStatus.STARTED)
+                .build();
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+        when(moveRepository.findByGameIdOrderByMoveNumberAsc(gameId)).thenReturn(List.of());
+
+        // When & Then
+        assertThatThrownBy(() -> gameService.recordMove(gameId, userId, request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Illegal move");
+
         verify(moveRepository, never()).save(any());
+        verify(gameRepository, never()).save(any());
     }
 
     @Test
@@ -287,7 +354,7 @@ class GameServiceTest {
         // Given
         Long gameId = 1L;
         Long userId = 1L;
-        Dto.MoveSend request = new Dto.MoveSend("e7", "e8", "q", "e8=Q");
+        Dto.MoveSend request = new Dto.MoveSend("h7", "g8", "q", "hxg8=Q+");
 
         Game game = Game.builder()
                 .id(gameId)
@@ -299,29 +366,38 @@ class GameServiceTest {
         Move savedMove = Move.builder()
                 .id(101L)
                 .gameId(gameId)
-                .moveNumber(5)
-                .fromSquare("e7")
-                .toSquare("e8")
+                .moveNumber(9)
+                .fromSquare("h7")
+                .toSquare("g8")
                 .promotion("q")
-                .san("e8=Q")
+                .san("hxg8=Q+")
                 .playedByUserId(userId)
                 .build();
 
         when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
-        when(moveRepository.lastMoveNumber(gameId)).thenReturn(4); // move 5 = white's turn
+        when(moveRepository.findByGameIdOrderByMoveNumberAsc(gameId)).thenReturn(List.of(
+                Move.builder().moveNumber(1).fromSquare("h2").toSquare("h4").build(),
+                Move.builder().moveNumber(2).fromSquare("g7").toSquare("g5").build(),
+                Move.builder().moveNumber(3).fromSquare("h4").toSquare("g5").build(),
+                Move.builder().moveNumber(4).fromSquare("f8").toSquare("g7").build(),
+                Move.builder().moveNumber(5).fromSquare("g5").toSquare("g6").build(),
+                Move.builder().moveNumber(6).fromSquare("g7").toSquare("f6").build(),
+                Move.builder().moveNumber(7).fromSquare("g6").toSquare("h7").build(),
+                Move.builder().moveNumber(8).fromSquare("e7").toSquare("e6").build()
+        )); // move 9 = white's turn, pawn on h7 can take the knight on g8
         when(moveRepository.save(any(Move.class))).thenReturn(savedMove);
-        when(gameRepository.save(any(Game.class))).thenReturn(game);
 
         // When
         Move result = gameService.recordMove(gameId, userId, request);
 
         // Then
         assertThat(result.getPromotion()).isEqualTo("q");
-        assertThat(result.getSan()).isEqualTo("e8=Q");
+        assertThat(result.getSan()).isEqualTo("hxg8=Q+");
 
         verify(moveRepository).save(argThat(move ->
-                move.getPromotion().equals("q") &&
-                        move.getSan().equals("e8=Q")
+                move.getMoveNumber().equals(9) &&
+                        move.getPromotion().equals("q") &&
+                        move.getSan().equals("hxg8=Q+")
         ));
     }
 
@@ -348,4 +424,327 @@ class GameServiceTest {
         assertThat(result.whitePlayerId()).isEqualTo(player1Id);
         assertThat(result.blackPlayerId()).isEqualTo(player2Id);
     }
-}
\ No newline at end of file
+
+    @Test
+    void recordMove_repeatedPositions_shareThePositionKey() {
+        // Given
+        Long gameId = 1L;
+        Game game = Game.builder()
+                .id(gameId)
+                .whitePlayerId(1L)
+                .blackPlayerId(2L)
+                .status(GameStatus.STARTED)
+                .build();
+
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+        when(moveRepository.save(any(Move.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // When: knights out and back, twice
+        String[][] line = {{"g1", "f3"}, {"g8", "f6"}, {"f3", "g1"}, {"f6", "g8"},
+                {"g1", "f3"}, {"g8", "f6"}, {"f3", "g1"}, {"f6", "g8"}};
+        List<Move> played = new java.util.ArrayList<>();
+        for (int i = 0; i < line.length; i++) {
+            Long player = i % 2 == 0 ? 1L : 2L;
+            played.add(gameService.recordMove(gameId, player, new Dto.MoveSend(line[i][0], line[i][1], null, null)));
+        }
+
+        // Then
+        assertThat(played.get(3).getPositionKey()).isEqualTo(played.get(7).getPositionKey());
+        assertThat(played.get(1).getPositionKey()).isEqualTo(played.get(5).getPositionKey());
+        assertThat(played.get(0).getPositionKey()).isNotEqualTo(played.get(1).getPositionKey());
+        verify(moveRepository, times(1)).findByGameIdOrderByMoveNumberAsc(gameId); // rebuilt once, then kept live
+        verify(gameRepository, times(1)).findById(gameId); // later moves validate against memory
+        assertThat(liveGames.hits()).isEqualTo(7);
+        assertThat(liveGames.misses()).isEqualTo(1);
+    }
+
+    @Test
+    void recordMove_checkmate_finishesGameAndReportsResult() {
+        // Given
+        Long gameId = 1L;
+        Game game = Game.builder()
+                .id(gameId)
+                .whitePlayerId(1L)
+                .blackPlayerId(2L)
+                .status(GameStatus.STARTED)
+                .build();
+
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+        when(moveRepository.findByGameIdOrderByMoveNumberAsc(gameId)).thenReturn(List.of(
+                Move.builder().moveNumber(1).fromSquare("f2").toSquare("f3").build(),
+                Move.builder().moveNumber(2).fromSquare("e7").toSquare("e5").build(),
+                Move.builder().moveNumber(3).fromSquare("g2").toSquare("g4").build()
+        ));
+        when(moveRepository.save(any(Move.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // When
+        gameService.recordMove(gameId, 2L, new Dto.MoveSend("d8", "h4", null, null));
+
+        // Then
+        verify(gameRepository).recordFinalMove(eq(gameId), any(), any(), any(), any(), any(),
+                eq("0-1"), eq(Termination.CHECKMATE));
+        verify(gameRepository, never()).recordMove(any(), any(), any(), any(), any(), any());
+        assertThat(gameService.gameOver(gameId)).hasValueSatisfying(over -> {
+            assertThat(over.result()).isEqualTo("0-1");
+            assertThat(over.termination()).isEqualTo("CHECKMATE");
+            assertThat(over.moveNumber()).isEqualTo(4);
+            assertThat(over.type()).isEqualTo("GAME_OVER");
+        });
+        verify(outbox).append(any(), any(), argThat(over -> "CHECKMATE".equals(over.termination())));
+    }
+
+    @Test
+    void recordMove_journalOn_journalsInsteadOfWriting() {
+        // Given
+        Long gameId = 1L;
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(Game.builder()
+                .id(gameId).whitePlayerId(1L).blackPlayerId(2L).status(GameStatus.STARTED).build()));
+        when(moveRepository.findByGameIdOrderByMoveNumberAsc(gameId)).thenReturn(List.of());
+        when(journal.admit()).thenReturn(true);
+        when(journal.append(any(), any(), any(), any(), any(), any(), any())).thenReturn(7L);
+
+        // When
+        Move move = gameService.recordMove(gameId, 1L, new Dto.MoveSend("e2", "e4", null, null));
+
+        // Then
+        assertThat(move.getMoveNumber()).isEqualTo(1);
+        verify(journal).append(any(LiveGame.class), same(move), argThat(packed -> PackedMoves.count(packed) == 1),
+                any(), any(), isNull(), isNull());
+        verify(journal).awaitSynced(7L);
+        verify(outbox).send(same(move), any(), isNull());
+        verify(outbox, never()).append(any(), any(), any());
+        verify(transactionManager, never()).getTransaction(any()); // no connection held while waiting
+        verify(moveRepository, never()).save(any());
+        verify(gameRepository, never()).recordMove(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void recordMove_writeFails_dropsTheLiveStateSoItReloads() {
+        // Given
+        Long gameId = 1L;
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(Game.builder()
+                .id(gameId).whitePlayerId(1L).blackPlayerId(2L).status(GameStatus.STARTED).build()));
+        when(moveRepository.findByGameIdOrderByMoveNumberAsc(gameId)).thenReturn(List.of());
+        when(moveRepository.save(any(Move.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(gameRepository.recordMove(any(), any(), any(), any(), any(), any())).thenReturn(0); // row deleted meanwhile
+
+        // When / Then
+        assertThatThrownBy(() -> gameService.recordMove(gameId, 1L, new Dto.MoveSend("e2", "e4", null, null)))
+                .isInstanceOf(NoSuchElementException.class);
+        verify(transactionManager).rollback(any());
+        assertThat(liveGames.peek(gameId)).isNull();
+        verify(outbox, never()).append(any(), any(), any());
+    }
+
+    @Test
+    void recordMove_journalFull_rejectsWithoutPlaying() {
+        // Given
+        Long gameId = 1L;
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(Game.builder()
+                .id(gameId).whitePlayerId(1L).blackPlayerId(2L).status(GameStatus.STARTED).build()));
+        when(moveRepository.findByGameIdOrderByMoveNumberAsc(gameId)).thenReturn(List.of());
+        when(journal.admit()).thenThrow(new IllegalStateException("Too many moves waiting to be stored, try again"));
+
+        // When / Then
+        assertThatThrownBy(() -> gameService.recordMove(gameId, 1L, new Dto.MoveSend("e2", "e4", null, null)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(liveGames.get(gameId).lastMoveNumber()).isZero();
+        verify(journal, never()).append(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void recordMove_finishedGame_throws() {
+        // Given
+        Long gameId = 1L;
+        Game game = Game.builder()
+                .id(gameId)
+                .whitePlayerId(1L)
+                .blackPlayerId(2L)
+                .status(GameStatus.FINISHED)
+                .build();
+
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+
+        // When & Then
+        assertThatThrownBy(() -> gameService.recordMove(gameId, 1L, new Dto.MoveSend("e2", "e4", null, null)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Game is finished");
+        verify(moveRepository, never()).save(any());
+    }
+
+    @Test
+    void gameOver_gameInProgressOrNotLoaded_isEmpty() {
+        assertThat(gameService.gameOver(123L)).isEmpty();
+    }
+
+    @Test
+    void recordMove_sanOnly_resolvesSquaresAndStoresServerNotation() {
+        // Given
+        Long gameId = 1L;
+        Game game = Game.builder()
+                .id(gameId)
+                .whitePlayerId(1L)
+                .blackPlayerId(2L)
+                .status(GameStatus.STARTED)
+                .build();
+
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+        when(moveRepository.save(any(Move.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // When
+        Move result = gameService.recordMove(gameId, 1L, new Dto.MoveSend(null, null, null, "Nf3"));
+
+        // Then
+        assertThat(result.getFromSquare()).isEqualTo("g1");
+        assertThat(result.getToSquare()).isEqualTo("f3");
+        assertThat(result.getSan()).isEqualTo("Nf3");
+        verify(gameRules, never()).validateSquares(any(), any());
+    }
+
+    @Test
+    void recordMove_clientSan_isReplacedByServerNotation() {
+        // Given
+        Long gameId = 1L;
+        Game game = Game.builder()
+                .id(gameId)
+                .whitePlayerId(1L)
+                .blackPlayerId(2L)
+                .status(GameStatus.STARTED)
+                .build();
+
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+        when(moveRepository.save(any(Move.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // When
+        Move result = gameService.recordMove(gameId, 1L, new Dto.MoveSend("b1", "c3", null, "Qxf7#"));
+
+        // Then
+        assertThat(result.getSan()).isEqualTo("Nc3");
+    }
+
+    @Test
+    void recordMove_noSquaresNoSan_throws() {
+        // Given
+        Long gameId = 1L;
+        Game game = Game.builder()
+                .id(gameId)
+                .whitePlayerId(1L)
+                .blackPlayerId(2L)
+                .status(GameStatus.STARTED)
+                .build();
+
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+
+        // When & Then
+        assertThatThrownBy(() -> gameService.recordMove(gameId, 1L, new Dto.MoveSend(null, null, null, null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Move requires from/to or san");
+        verify(moveRepository, never()).save(any());
+    }
+
+    @Test
+    void recordMove_packedHistory_replaysWithoutMoveRowsAndAppends() {
+        // Given
+        Long gameId = 1L;
+        Position played = new Position();
+        played.makeMove(played.findLegal(Bitboards.parseSquare("e2"), Bitboards.parseSquare("e4"), -1));
+        played.makeMove(played.findLegal(Bitboards.parseSquare("e7"), Bitboards.parseSquare("e5"), -1));
+        Game game = Game.builder()
+                .id(gameId)
+                .whitePlayerId(1L)
+                .blackPlayerId(2L)
+                .status(GameStatus.STARTED)
+                .packedMoves(PackedMoves.of(played))
+                .build();
+
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+        when(moveRepository.save(any(Move.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // When
+        Move result = gameService.recordMove(gameId, 1L, new Dto.MoveSend("g1", "f3", null, null));
+
+        // Then
+        assertThat(result.getMoveNumber()).isEqualTo(3);
+        assertThat(result.getSan()).isEqualTo("Nf3");
+        verify(moveRepository, never()).findByGameIdOrderByMoveNumberAsc(any());
+        ArgumentCaptor<byte[]> packed = ArgumentCaptor.forClass(byte[].class);
+        verify(gameRepository).recordMove(eq(gameId), any(), packed.capture(), any(), any(), any());
+        assertThat(PackedMoves.count(packed.getValue())).isEqualTo(3);
+        assertThat(MoveCodec.toUci(PackedMoves.moveAt(packed.getValue(), 2))).isEqualTo("g1f3");
+    }
+
+    @Test
+    void packedMoves_legacyGame_isDerivedFromMoveRows() {
+        // Given
+        Long gameId = 1L;
+        Game game = Game.builder().id(gameId).whitePlayerId(1L).blackPlayerId(2L).status(GameStatus.STARTED).build();
+
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+        when(moveRepository.findByGameIdOrderByMoveNumberAsc(gameId)).thenReturn(List.of(
+                Move.builder().moveNumber(1).fromSquare("d2").toSquare("d4").build(),
+                Move.builder().moveNumber(2).fromSquare("g8").toSquare("f6").build()
+        ));
+
+        // When
+        byte[] packed = gameService.packedMoves(gameId).orElseThrow();
+
+        // Then
+        assertThat(PackedMoves.count(packed)).isEqualTo(2);
+        assertThat(MoveCodec.toUci(PackedMoves.moveAt(packed, 0))).isEqualTo("d2d4");
+        assertThat(MoveCodec.toUci(PackedMoves.moveAt(packed, 1))).isEqualTo("g8f6");
+    }
+
+    @Test
+    void packedMoves_storedGame_isReadWithoutLoadingItLive() {
+        // Given
+        Long gameId = 1L;
+        byte[] stored = {0x07, 0x0C, 0x1D, 0x34};
+        Game game = Game.builder().id(gameId).whitePlayerId(1L).blackPlayerId(2L).status(GameStatus.FINISHED)
+                .packedMoves(stored).build();
+
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+
+        // When
+        Optional<byte[]> packed = gameService.packedMoves(gameId);
+
+        // Then
+        assertThat(packed).contains(stored);
+        assertThat(liveGames.peek(gameId)).isNull();
+        verify(moveRepository, never()).findByGameIdOrderByMoveNumberAsc(any());
+    }
+
+    @Test
+    void packedMoves_unknownGame_isEmpty() {
+        when(gameRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThat(gameService.packedMoves(99L)).isEmpty();
+    }
+
+    @Test
+    void recordMove_bookMove_classifiesOpeningAndKeepsItOutOfBook() {
+        // Given
+        Long gameId = 1L;
+        Game game = Game.builder().id(gameId).whitePlayerId(1L).blackPlayerId(2L).status(GameStatus.STARTED).build();
+
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+        when(moveRepository.findByGameIdOrderByMoveNumberAsc(gameId)).thenReturn(List.of(
+                Move.builder().moveNumber(1).fromSquare("e2").toSquare("e4").build(),
+                Move.builder().moveNumber(2).fromSquare("e7").toSquare("e5").build(),
+                Move.builder().moveNumber(3).fromSquare("g1").toSquare("f3").build(),
+                Move.builder().moveNumber(4).fromSquare("b8").toSquare("c6").build()
+        ));
+        when(moveRepository.save(any(Move.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // When
+        gameService.recordMove(gameId, 1L, new Dto.MoveSend("f1", "b5", null, null));
+        gameService.recordMove(gameId, 2L, new Dto.MoveSend("h7", "h6", null, null));
+
+        // Then
+        ArgumentCaptor<String> eco = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> name = ArgumentCaptor.forClass(String.class);
+        verify(gameRepository, times(2)).recordMove(eq(gameId), any(), any(), eco.capture(), name.capture(), any());
+        assertThat(eco.getAllValues()).containsOnly("C60");
+        assertThat(name.getAllValues()).containsOnly("Ruy Lopez");
+        assertThat(gameService.opening(gameId)).hasValue(new Openings.Opening("C60", "Ruy Lopez"));
+    }
+}
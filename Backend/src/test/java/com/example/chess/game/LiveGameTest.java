@@ -0,0 +1,55 @@
+package com.example.chess.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LiveGameTest {
+
+    private static void play(LiveGame live, String from, String to) {
+        live.play(live.position().findLegal(Bitboards.parseSquare(from), Bitboards.parseSquare(to), -1));
+    }
+
+    @Test
+    void play_countsEachOccurrenceOfThePosition() {
+        LiveGame live = new LiveGame(new Position());
+
+        for (int round = 0; round < 2; round++) {
+            play(live, "g1", "f3");
+            play(live, "g8", "f6");
+            play(live, "f3", "g1");
+            play(live, "f6", "g8");
+        }
+
+        assertThat(live.repetitionCount()).isEqualTo(3);
+        assertThat(live.lastMoveNumber()).isEqualTo(8);
+    }
+
+    @Test
+    void constructor_countsPositionsAlreadyInTheHistory() {
+        Position position = new Position();
+        for (String[] move : new String[][]{{"b1", "c3"}, {"b8", "c6"}, {"c3", "b1"}, {"c6", "b8"}}) {
+            position.makeMove(position.findLegal(Bitboards.parseSquare(move[0]), Bitboards.parseSquare(move[1]), -1));
+        }
+
+        LiveGame live = new LiveGame(position);
+
+        assertThat(live.repetitionCount()).isEqualTo(2);
+    }
+
+    @Test
+    void doublePush_withoutCapturingPawn_doesNotChangeTheRepetitionKey() {
+        // 1.e4 Nf6 2.Nf3 Ng8 3.Ng1 reaches the post-1.e4 position again with black to move;
+        // the e3 square is not hashed because no black pawn can capture there
+        LiveGame live = new LiveGame(new Position());
+        play(live, "e2", "e4");
+        long afterE4 = live.position().key();
+        play(live, "g8", "f6");
+        play(live, "g1", "f3");
+        play(live, "f6", "g8");
+        play(live, "f3", "g1");
+
+        assertThat(live.position().key()).isEqualTo(afterE4);
+        assertThat(live.repetitionCount()).isEqualTo(2);
+    }
+}
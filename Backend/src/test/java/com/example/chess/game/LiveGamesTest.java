@@ -0,0 +1,187 @@
+package com.example.chess.game;
+
+import com.example.chess.opening.Openings;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LiveGamesTest {
+
+    @Mock private GameRepository games;
+    @Mock private MoveRepository moves;
+
+    private LiveGames liveGames;
+
+    @BeforeEach
+    void setUp() {
+        liveGames = new LiveGames(games, moves, new GameRules(), new Openings(), 2, 30);
+    }
+
+    @AfterEach
+    void tearDown() {
+        liveGames.shutdown();
+    }
+
+    private void stored(Long id, GameStatus status) {
+        Position played = new Position();
+        played.makeMove(played.findLegal(Bitboards.parseSquare("e2"), Bitboards.parseSquare("e4"), -1));
+        when(games.findById(id)).thenReturn(Optional.of(Game.builder().id(id).whitePlayerId(1L).blackPlayerId(2L)
+                .status(status).result(status == GameStatus.FINISHED ? "1-0" : null)
+                .packedMoves(PackedMoves.of(played)).build()));
+    }
+
+    @Test
+    void get_loadsOnceAndCountsHitsAndMisses() {
+        // Given
+        stored(1L, GameStatus.STARTED);
+
+        // When
+        LiveGame first = liveGames.get(1L);
+        LiveGame second = liveGames.get(1L);
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(first.whitePlayerId()).isEqualTo(1L);
+        assertThat(first.blackPlayerId()).isEqualTo(2L);
+        assertThat(first.lastMoveNumber()).isEqualTo(1);
+        assertThat(first.isFinished()).isFalse();
+        assertThat(liveGames.misses()).isEqualTo(1);
+        assertThat(liveGames.hits()).isEqualTo(1);
+        verify(games, times(1)).findById(1L);
+        verify(moves, never()).findByGameIdOrderByMoveNumberAsc(any());
+    }
+
+    @Test
+    void get_finishedGame_isLoadedAsFinished() {
+        // Given
+        stored(1L, GameStatus.FINISHED);
+
+        // When
+        LiveGame live = liveGames.get(1L);
+
+        // Then
+        assertThat(live.isFinished()).isTrue();
+        assertThat(live.result()).isEqualTo("1-0");
+    }
+
+    @Test
+    void get_unknownGame_throwsAndCachesNothing() {
+        // Given
+        when(games.findById(9L)).thenReturn(Optional.empty());
+
+        // When / Then
+        assertThatThrownBy(() -> liveGames.get(9L)).isInstanceOf(NoSuchElementException.class);
+        assertThat(liveGames.size()).isZero();
+    }
+
+    @Test
+    void get_overCapacity_evictsTheLeastRecentlyUsed() throws Exception {
+        // Given
+        stored(1L, GameStatus.STARTED);
+        stored(2L, GameStatus.STARTED);
+        stored(3L, GameStatus.STARTED);
+        liveGames.get(1L);
+        Thread.sleep(2);
+        liveGames.get(2L);
+        Thread.sleep(2);
+        liveGames.get(1L); // 2 is now the least recently used
+
+        // When
+        liveGames.get(3L);
+
+        // Then
+        assertThat(liveGames.size()).isEqualTo(2);
+        assertThat(liveGames.peek(1L)).isNotNull();
+        assertThat(liveGames.peek(2L)).isNull();
+        assertThat(liveGames.peek(3L)).isNotNull();
+    }
+
+    @Test
+    void get_overCapacity_sampledEvictionKeepsTheRegistryBoundedAndTheNewGame() {
+        // Given: a registry larger than one eviction sample
+        liveGames.shutdown();
+        liveGames = new LiveGames(games, moves, new GameRules(), new Openings(), 3 * LiveGames.EVICTION_SAMPLE, 30);
+        when(games.findById(any())).thenAnswer(call -> Optional.of(Game.builder().id(call.getArgument(0))
+                .whitePlayerId(1L).blackPlayerId(2L).status(GameStatus.STARTED).packedMoves(new byte[0]).build()));
+
+        // When
+        for (long id = 1; id <= 10L * LiveGames.EVICTION_SAMPLE; id++) {
+            liveGames.get(id);
+            assertThat(liveGames.peek(id)).isNotNull();
+        }
+
+        // Then
+        assertThat(liveGames.size()).isEqualTo(3 * LiveGames.EVICTION_SAMPLE);
+    }
+
+    @Test
+    void acquire_gameWithAMoveUnderWay_isNotEvictedUntilReleased() throws Exception {
+        // Given: game 1 is the least recently used but a move of it is being recorded
+        stored(1L, GameStatus.STARTED);
+        stored(2L, GameStatus.STARTED);
+        stored(3L, GameStatus.STARTED);
+        LiveGame updating = liveGames.acquire(1L);
+        Thread.sleep(2);
+        liveGames.get(2L);
+
+        // When
+        liveGames.get(3L);
+        int idle = liveGames.evictIdle(0);
+
+        // Then
+        assertThat(liveGames.peek(1L)).isSameAs(updating);
+        assertThat(liveGames.peek(2L)).isNull();
+        assertThat(idle).isEqualTo(1); // game 3 only
+        liveGames.release(updating);
+        assertThat(liveGames.evictIdle(0)).isEqualTo(1);
+        assertThat(liveGames.size()).isZero();
+    }
+
+    @Test
+    void evictIdle_dropsIdleGamesWhichReloadOnNextUse() {
+        // Given
+        stored(1L, GameStatus.STARTED);
+        liveGames.get(1L);
+
+        // When
+        int evicted = liveGames.evictIdle(0);
+        LiveGame reloaded = liveGames.get(1L);
+
+        // Then
+        assertThat(evicted).isEqualTo(1);
+        assertThat(reloaded.lastMoveNumber()).isEqualTo(1);
+        assertThat(liveGames.misses()).isEqualTo(2);
+        assertThat(liveGames.evictIdle(Long.MAX_VALUE)).isZero();
+    }
+
+    @Test
+    void bindTo_publishesHitMissAndEvictionMeters() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        liveGames.bindTo(registry);
+        stored(1L, GameStatus.STARTED);
+
+        // When
+        liveGames.get(1L);
+        liveGames.get(1L);
+        liveGames.evictIdle(0);
+
+        // Then
+        assertThat(registry.get("chess.live.games.requests").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("chess.live.games.requests").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("chess.live.games.evictions").tag("cause", "idle").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("chess.live.games.size").gauge().value()).isZero();
+    }
+}
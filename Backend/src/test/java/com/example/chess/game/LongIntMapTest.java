@@ -0,0 +1,47 @@
+package com.example.chess.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LongIntMapTest {
+
+    @Test
+    void putAndGet_roundTripsAcrossRehash() {
+        LongIntMap map = new LongIntMap(4);
+
+        for (long k = 1; k <= 1000; k++) {
+            map.put(k * 0x1234567L, (int) k);
+        }
+
+        assertThat(map.size()).isEqualTo(1000);
+        for (long k = 1; k <= 1000; k++) {
+            assertThat(map.get(k * 0x1234567L, -1)).isEqualTo((int) k);
+        }
+        assertThat(map.get(42L, -1)).isEqualTo(-1);
+    }
+
+    @Test
+    void add_accumulatesFromZero() {
+        LongIntMap map = new LongIntMap(8);
+
+        assertThat(map.add(7L, 1)).isEqualTo(1);
+        assertThat(map.add(7L, 1)).isEqualTo(2);
+        assertThat(map.add(0L, 5)).isEqualTo(5);
+        assertThat(map.get(0L, -1)).isEqualTo(5);
+        assertThat(map.containsKey(0L)).isTrue();
+    }
+
+    @Test
+    void clear_removesEverything() {
+        LongIntMap map = new LongIntMap(8);
+        map.put(1L, 1);
+        map.put(0L, 1);
+
+        map.clear();
+
+        assertThat(map.size()).isZero();
+        assertThat(map.containsKey(1L)).isFalse();
+        assertThat(map.containsKey(0L)).isFalse();
+    }
+}
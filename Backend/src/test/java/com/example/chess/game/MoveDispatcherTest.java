@@ -0,0 +1,127 @@
+package com.example.chess.game;
+
+import com.example.chess.common.Dto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MoveDispatcherTest {
+
+    @Mock private GameService service;
+
+    private MoveDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new MoveDispatcher(service, 2, 100);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    private static Dto.MoveSend san(String san) {
+        return new Dto.MoveSend(null, null, null, san);
+    }
+
+    @Test
+    void submit_sameGame_recordsOneAtATimeInArrivalOrder() {
+        // Given: each call overlapping another would be caught
+        AtomicInteger inside = new AtomicInteger();
+        List<String> order = new ArrayList<>();
+        when(service.recordMove(eq(1L), eq(7L), any())).thenAnswer(call -> {
+            assertThat(inside.incrementAndGet()).isEqualTo(1);
+            Dto.MoveSend request = call.getArgument(2);
+            order.add(request.san());
+            Thread.sleep(1);
+            inside.decrementAndGet();
+            return Move.builder().gameId(1L).moveNumber(order.size()).san(request.san()).build();
+        });
+
+        // When
+        List<CompletableFuture<Move>> pending = new ArrayList<>();
+        for (int i = 0; i < 20; i++) pending.add(dispatcher.submit(1L, 7L, san("m" + i)));
+
+        // Then
+        for (int i = 0; i < 20; i++) assertThat(pending.get(i).join().getMoveNumber()).isEqualTo(i + 1);
+        assertThat(order).containsExactly(IntStream.range(0, 20).mapToObj(i -> "m" + i).toArray(String[]::new));
+    }
+
+    @Test
+    void submit_gamesOnOtherStripes_runInParallel() throws InterruptedException {
+        // Given: game 1 blocks until game 2 has been recorded
+        CountDownLatch second = new CountDownLatch(1);
+        when(service.recordMove(eq(1L), any(), any())).thenAnswer(call -> {
+            assertThat(second.await(5, TimeUnit.SECONDS)).isTrue();
+            return Move.builder().gameId(1L).moveNumber(1).build();
+        });
+        when(service.recordMove(eq(2L), any(), any())).thenAnswer(call -> {
+            second.countDown();
+            return Move.builder().gameId(2L).moveNumber(1).build();
+        });
+
+        // When
+        CompletableFuture<Move> first = dispatcher.submit(1L, 7L, san("e4"));
+        CompletableFuture<Move> other = dispatcher.submit(2L, 8L, san("d4"));
+
+        // Then
+        assertThat(other.join().getGameId()).isEqualTo(2L);
+        assertThat(first.join().getGameId()).isEqualTo(1L);
+    }
+
+    @Test
+    void submit_rejectedMove_failsFuture() {
+        // Given
+        when(service.recordMove(eq(1L), any(), any())).thenThrow(new IllegalStateException("Not your turn"));
+
+        // When
+        CompletableFuture<Move> result = dispatcher.submit(1L, 7L, san("e4"));
+
+        // Then
+        assertThatThrownBy(result::join).hasCauseInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Not your turn");
+    }
+
+    @Test
+    void submit_stripeFull_failsFast() throws InterruptedException {
+        // Given: the stripe's thread is stuck on one move and its queue of two is full
+        dispatcher.shutdown();
+        dispatcher = new MoveDispatcher(service, 2, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        when(service.recordMove(any(), any(), any())).thenAnswer(call -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Move.builder().gameId(1L).build();
+        });
+        dispatcher.submit(1L, 7L, san("e4"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        dispatcher.submit(3L, 7L, san("e4"));
+        dispatcher.submit(3L, 7L, san("e5"));
+
+        // When
+        CompletableFuture<Move> overflow = dispatcher.submit(1L, 7L, san("Nf3"));
+
+        // Then
+        assertThat(overflow).isCompletedExceptionally();
+        assertThatThrownBy(overflow::join).hasCauseInstanceOf(IllegalStateException.class);
+        release.countDown();
+    }
+}
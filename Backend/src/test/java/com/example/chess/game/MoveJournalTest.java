@@ -0,0 +1,264 @@
+package com.example.chess.game;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.invocation.Invocation;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MoveJournalTest {
+
+    @Mock private JdbcTemplate jdbc;
+    @Mock private PlatformTransactionManager transactions;
+    @Mock private LiveGames liveGames;
+
+    @TempDir
+    Path dir;
+
+    private final List<String> inserted = new ArrayList<>(); // game:move number
+    private final List<String> updated = new ArrayList<>();  // game:packed length
+    private final List<Long> ids = new ArrayList<>();
+    private final Set<String> refused = new HashSet<>(); // "game:move" inserts that fail like a foreign key violation
+    private final List<MoveJournal> journals = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Record what each batch binds, as "game:move" for inserts and "game:packed length" for row updates
+        lenient().when(jdbc.queryForList(anyString(), eq(Long.class), any(Object[].class)))
+                .thenAnswer(call -> LongStream.range(0, (int) call.getArgument(2)).map(i -> 1 + i * Move.ID_BLOCK).boxed().toList());
+        lenient().when(jdbc.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class))).thenAnswer(call -> {
+            BatchPreparedStatementSetter setter = call.getArgument(1);
+            List<Map<Integer, Object>> rows = new ArrayList<>();
+            for (int i = 0; i < setter.getBatchSize(); i++) {
+                int row = i;
+                rows.add(bind(ps -> setter.setValues(ps, row)));
+            }
+            if (rows.stream().anyMatch(bound -> refused.contains(bound.get(2) + ":" + bound.get(3)))) {
+                throw new DataIntegrityViolationException("insert violates foreign key constraint");
+            }
+            for (Map<Integer, Object> bound : rows) {
+                inserted.add(bound.get(2) + ":" + bound.get(3));
+                ids.add((Long) bound.get(1));
+            }
+            return new int[0];
+        });
+        lenient().when(jdbc.batchUpdate(anyString(), ArgumentMatchers.<Collection<Object>>any(), anyInt(),
+                        ArgumentMatchers.<ParameterizedPreparedStatementSetter<Object>>any()))
+                .thenAnswer(call -> {
+                    Collection<Object> rows = call.getArgument(1);
+                    ParameterizedPreparedStatementSetter<Object> setter = call.getArgument(3);
+                    for (Object row : rows) {
+                        Map<Integer, Object> bound = bind(ps -> setter.setValues(ps, row));
+                        updated.add(bound.get(9) + ":" + bound.get(10));
+                    }
+                    return new int[0][];
+                });
+    }
+
+    private interface Binding {
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+
+    private static Map<Integer, Object> bind(Binding binding) throws SQLException {
+        PreparedStatement ps = mock(PreparedStatement.class);
+        binding.bind(ps);
+        Map<Integer, Object> bound = new HashMap<>();
+        for (Invocation set : mockingDetails(ps).getInvocations()) bound.put(set.getArgument(0), set.getArgument(1));
+        return bound;
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (MoveJournal journal : journals) journal.shutdown();
+    }
+
+    private MoveJournal journal(int maxPending) {
+        // Intervals long enough that nothing happens unless a test asks for it
+        MoveJournal journal = new MoveJournal(jdbc, new TransactionTemplate(transactions), liveGames, true, dir.toString(),
+                60_000, true, 60_000, 100, maxPending, 16);
+        journals.add(journal);
+        return journal;
+    }
+
+    private static long append(MoveJournal journal, LiveGame live, long gameId, int moveNumber) {
+        Move move = Move.builder().gameId(gameId).moveNumber(moveNumber).fromSquare("e2").toSquare("e4").san("e4")
+                .positionAfter(new byte[]{1, 2, 3}).positionKey(42L).playedByUserId(7L).playedAt(Instant.now()).build();
+        return journal.append(live, move, new byte[2 * moveNumber], "B00", "King's Pawn Game", null, null);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.sorted().toList();
+        }
+    }
+
+    @Test
+    void flush_insertsEveryMoveAndUpdatesEachGameOnce() {
+        // Given
+        MoveJournal journal = journal(100);
+        LiveGame first = new LiveGame(new Position());
+        LiveGame second = new LiveGame(new Position());
+        append(journal, first, 1L, 1);
+        append(journal, first, 1L, 2);
+        append(journal, second, 2L, 1);
+        assertThat(first.hasUnflushed()).isTrue();
+
+        // When
+        assertThat(journal.flush()).isTrue();
+
+        // Then
+        assertThat(inserted).containsExactly("1:1", "1:2", "2:1");
+        assertThat(ids).containsExactly(1L, 2L, 3L); // one block from the sequence
+        assertThat(updated).containsExactly("1:4", "2:2");
+        assertThat(first.hasUnflushed()).isFalse();
+        assertThat(second.hasUnflushed()).isFalse();
+    }
+
+    @Test
+    void flush_moveTheDatabaseRefuses_isDroppedAndTheRestGoThrough() {
+        // Given: game 2 was deleted while its move sat in the journal
+        refused.add("2:1");
+        MoveJournal journal = journal(100);
+        LiveGame deleted = new LiveGame(new Position());
+        append(journal, new LiveGame(new Position()), 1L, 1);
+        append(journal, deleted, 2L, 1);
+        append(journal, new LiveGame(new Position()), 3L, 1);
+
+        // When
+        assertThat(journal.flush()).isTrue();
+
+        // Then
+        assertThat(inserted).containsExactly("1:1", "3:1");
+        assertThat(deleted.hasUnflushed()).isFalse();
+        assertThat(journal.admit()).isTrue();
+        assertThat(journal.flush()).isTrue(); // nothing left to retry
+        assertThat(inserted).hasSize(2);
+    }
+
+    @Test
+    void flush_moveTheDatabaseRefuses_discardsTheLiveGameAndDropsItsLaterMoves() {
+        // Given: only the first move of game 2 is refused, but the live game played on from it
+        refused.add("2:1");
+        MoveJournal journal = journal(100);
+        LiveGame diverged = new LiveGame(new Position());
+        append(journal, diverged, 2L, 1);
+        append(journal, new LiveGame(new Position()), 1L, 1);
+        append(journal, diverged, 2L, 2);
+
+        // When
+        assertThat(journal.flush()).isTrue();
+        append(journal, diverged, 2L, 3); // played before the stripe saw the discard
+        assertThat(journal.flush()).isTrue();
+
+        // Then: memory and the database agree again once the game reloads
+        assertThat(inserted).containsExactly("1:1");
+        assertThat(updated).containsExactly("1:2");
+        assertThat(diverged.isDiscarded()).isTrue();
+        assertThat(diverged.hasUnflushed()).isFalse();
+        verify(liveGames).evict(2L, diverged);
+    }
+
+    @Test
+    void restart_replaysJournaledMovesAndDeletesTheSegment() throws IOException {
+        // Given: two moves on disk that never reached the database
+        MoveJournal crashed = journal(100);
+        append(crashed, new LiveGame(new Position()), 1L, 1);
+        append(crashed, new LiveGame(new Position()), 1L, 2);
+        crashed.sync();
+        List<Path> before = segments();
+
+        // When
+        journal(100);
+
+        // Then
+        assertThat(inserted).containsExactly("1:1", "1:2");
+        assertThat(updated).containsExactly("1:4");
+        assertThat(segments()).doesNotContainAnyElementsOf(before);
+    }
+
+    @Test
+    void restart_tornLastRecord_replaysTheRecordsBeforeIt() throws IOException {
+        // Given
+        MoveJournal crashed = journal(100);
+        append(crashed, new LiveGame(new Position()), 1L, 1);
+        append(crashed, new LiveGame(new Position()), 1L, 2);
+        crashed.sync();
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+
+        // When
+        journal(100);
+
+        // Then
+        assertThat(inserted).containsExactly("1:1");
+    }
+
+    @Test
+    void awaitSynced_returnsOnceTheGroupIsOnDisk() throws IOException {
+        // Given
+        MoveJournal journal = new MoveJournal(jdbc, new TransactionTemplate(transactions), liveGames, true, dir.toString(),
+                1, true, 60_000, 100, 100, 16);
+        journals.add(journal);
+
+        // When
+        journal.awaitSynced(append(journal, new LiveGame(new Position()), 1L, 1));
+
+        // Then
+        assertThat(Files.size(segments().get(0))).isPositive();
+    }
+
+    @Test
+    void admit_tooManyUnflushed_rejects() {
+        // Given
+        MoveJournal journal = journal(1);
+        assertThat(journal.admit()).isTrue();
+        append(journal, new LiveGame(new Position()), 1L, 1);
+
+        // When / Then
+        assertThatThrownBy(journal::admit).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void disabled_admitsNothing() {
+        MoveJournal journal = new MoveJournal(jdbc, new TransactionTemplate(transactions), liveGames, false, dir.resolve("off").toString(),
+                2, true, 100, 100, 100, 16);
+
+        assertThat(journal.admit()).isFalse();
+        assertThat(journal.isEnabled()).isFalse();
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.chess.game;
+
+import com.example.chess.common.Dto;
+import com.example.chess.opening.Openings;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Pageable;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class MoveOutboxTest {
+
+    @Mock private OutboxRepository repository;
+    @Mock private SimpMessagingTemplate messagingTemplate;
+
+    private final List<OutboxMessage> table = new ArrayList<>(); // the outbox rows, in id order
+    private final List<Object> published = new ArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final JsonMapper mapper = JsonMapper.builder().findAndAddModules().build();
+    private MoveBroadcaster broadcaster;
+    private MoveOutbox outbox;
+
+    @BeforeEach
+    void setUp() {
+        // Back the repository with a list so appended rows can be read and deleted again
+        when(repository.save(any(OutboxMessage.class))).thenAnswer(call -> {
+            OutboxMessage message = call.getArgument(0);
+            message.setId(ids.incrementAndGet());
+            synchronized (table) {
+                table.add(message);
+            }
+            return message;
+        });
+        when(repository.findAllByOrderByIdAsc(any(Pageable.class))).thenAnswer(call -> {
+            Pageable page = call.getArgument(0);
+            synchronized (table) {
+                return List.copyOf(table.subList(0, Math.min(page.getPageSize(), table.size())));
+            }
+        });
+        doAnswer(call -> {
+            Collection<Long> sent = call.getArgument(0);
+            synchronized (table) {
+                table.removeIf(message -> sent.contains(message.getId()));
+            }
+            return null;
+        }).when(repository).deleteAllByIdInBatch(any());
+
+        broadcaster = new MoveBroadcaster(messagingTemplate, published::add, 100);
+        outbox = new MoveOutbox(repository, broadcaster, mapper, 2, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        outbox.shutdown();
+        broadcaster.shutdown();
+    }
+
+    private static Move move(long gameId, int moveNumber, String san) {
+        return Move.builder().gameId(gameId).moveNumber(moveNumber).fromSquare("e2").toSquare("e4").san(san)
+                .playedByUserId(1L).playedAt(Instant.parse("2024-01-01T10:00:00Z")).build();
+    }
+
+    private List<Object> sentTo(long gameId, int times) {
+        // Capture payloads to avoid convertAndSend overload ambiguity
+        ArgumentCaptor<Object> payloads = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, timeout(5_000).times(times)).convertAndSend(eq("/topic/games/" + gameId), payloads.capture());
+        return payloads.getAllValues();
+    }
+
+    @Test
+    void relay_sendsCommittedEntriesInIdOrderAndDeletesEachBatchAtOnce() throws JsonProcessingException {
+        // Given: three rows with a batch of two, written before the relay ran
+        table.add(row(1L, 42L, new MoveOutbox.Body(42L, MoveBroadcaster.payload(move(42L, 1, "e4"),
+                new Openings.Opening("B00", "King's Pawn Game")), null)));
+        table.add(row(2L, 42L, new MoveOutbox.Body(42L, MoveBroadcaster.payload(move(42L, 2, "e5"), null), null)));
+        table.add(row(3L, 42L, new MoveOutbox.Body(42L, MoveBroadcaster.payload(move(42L, 3, "Nf3"), null), null)));
+
+        // When
+        outbox.relay(true);
+
+        // Then
+        List<Object> payloads = sentTo(42L, 3);
+        assertThat(payloads).extracting(payload -> ((Dto.MoveBroadcast) payload).moveNumber())
+                .containsExactly(1, 2, 3);
+        Dto.MoveBroadcast first = (Dto.MoveBroadcast) payloads.get(0);
+        assertThat(first.from()).isEqualTo("e2");
+        assertThat(first.to()).isEqualTo("e4");
+        assertThat(first.san()).isEqualTo("e4");
+        assertThat(first.by()).isEqualTo(1L);
+        assertThat(first.promotion()).isNull();
+        assertThat(first.eco()).isEqualTo("B00");
+        assertThat(first.opening()).isEqualTo("King's Pawn Game");
+        assertThat(first.type()).isEqualTo("MOVE");
+        verify(repository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(repository).deleteAllByIdInBatch(List.of(3L));
+        assertThat(table).isEmpty();
+    }
+
+    @Test
+    void relay_deleteFails_retriesTheDeleteWithoutResending() throws JsonProcessingException {
+        // Given
+        table.add(row(1L, 42L, new MoveOutbox.Body(42L, MoveBroadcaster.payload(move(42L, 1, "e4"), null), null)));
+        doThrow(new IllegalStateException("connection reset"))
+                .doAnswer(call -> {
+                    table.clear();
+                    return null;
+                })
+                .when(repository).deleteAllByIdInBatch(any());
+
+        // When
+        outbox.relay(true);
+        outbox.relay(true);
+
+        // Then
+        verify(repository, times(2)).deleteAllByIdInBatch(List.of(1L));
+        sentTo(42L, 1);
+        assertThat(table).isEmpty();
+    }
+
+    @Test
+    void append_outsideTransaction_isSentWithItsTerminalEventAndMovePlayed() throws InterruptedException {
+        // Given
+        Move mate = Move.builder().gameId(77L).moveNumber(4).fromSquare("d8").toSquare("h4").san("Qh4#")
+                .playedByUserId(2L).playedAt(Instant.now()).build();
+        Dto.GameOver over = new Dto.GameOver(77L, "0-1", "CHECKMATE", 4);
+
+        // When
+        outbox.append(mate, null, over);
+
+        // Then
+        List<Object> payloads = sentTo(77L, 2);
+        assertThat(payloads.get(0)).isInstanceOfSatisfying(Dto.MoveBroadcast.class, broadcast -> {
+            assertThat(broadcast.san()).isEqualTo("Qh4#");
+            assertThat(broadcast.eco()).isNull();
+        });
+        assertThat(payloads.get(1)).isInstanceOfSatisfying(Dto.GameOver.class, sent -> {
+            assertThat(sent.result()).isEqualTo("0-1");
+            assertThat(sent.termination()).isEqualTo("CHECKMATE");
+            assertThat(sent.type()).isEqualTo("GAME_OVER");
+        });
+        verify(repository, timeout(5_000)).deleteAllByIdInBatch(List.of(1L));
+        broadcaster.shutdown(); // lets the queued MovePlayed reach its listeners
+        assertThat(published).singleElement().isInstanceOfSatisfying(MovePlayed.class, played -> {
+            assertThat(played.move().getSan()).isEqualTo("Qh4#");
+            assertThat(played.gameOver()).isTrue();
+        });
+    }
+
+    @Test
+    void send_journaledMove_skipsTheTable() {
+        // Given
+        Move promotion = Move.builder().gameId(55L).moveNumber(15).fromSquare("e7").toSquare("e8").san("e8=Q")
+                .promotion("q").playedByUserId(2L).playedAt(Instant.now()).build();
+
+        // When
+        outbox.send(promotion, null, null);
+
+        // Then
+        assertThat(sentTo(55L, 1).get(0)).isInstanceOfSatisfying(Dto.MoveBroadcast.class, broadcast -> {
+            assertThat(broadcast.moveNumber()).isEqualTo(15);
+            assertThat(broadcast.promotion()).isEqualTo("q");
+        });
+        verify(repository, never()).save(any());
+        verify(repository, never()).findAllByOrderByIdAsc(any());
+    }
+
+    private OutboxMessage row(Long id, Long gameId, MoveOutbox.Body body) throws JsonProcessingException {
+        return OutboxMessage.builder().id(id).gameId(gameId).payload(mapper.writeValueAsString(body))
+                .createdAt(Instant.now()).build();
+    }
+}
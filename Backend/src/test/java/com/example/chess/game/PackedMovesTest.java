@@ -0,0 +1,56 @@
+package com.example.chess.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PackedMovesTest {
+
+    @Test
+    void of_packsTwoBytesPerPlyAndDecodesBack() {
+        Position position = new Position();
+        for (String uci : new String[]{"e2e4", "e7e5", "g1f3", "b8c6", "f1c4", "g8f6", "e1g1"}) {
+            position.makeMove(position.findLegal(Bitboards.parseSquare(uci.substring(0, 2)),
+                    Bitboards.parseSquare(uci.substring(2, 4)), -1));
+        }
+
+        byte[] packed = PackedMoves.of(position);
+
+        assertThat(packed).hasSize(14);
+        assertThat(PackedMoves.count(packed)).isEqualTo(7);
+        int[] moves = PackedMoves.decode(packed);
+        for (int i = 0; i < moves.length; i++) {
+            assertThat(moves[i]).isEqualTo(position.moveAt(i));
+        }
+        assertThat(MoveCodec.flags(moves[6])).isEqualTo(MoveCodec.KING_CASTLE);
+    }
+
+    @Test
+    void append_keepsFlagsInHighBits() {
+        int promotion = MoveCodec.promotion(Bitboards.parseSquare("g7"), Bitboards.parseSquare("h8"), Position.QUEEN, true);
+
+        byte[] packed = PackedMoves.append(PackedMoves.EMPTY, promotion);
+
+        assertThat(packed).hasSize(2);
+        assertThat(PackedMoves.moveAt(packed, 0)).isEqualTo(promotion);
+        assertThat(MoveCodec.toUci(PackedMoves.moveAt(packed, 0))).isEqualTo("g7h8q");
+    }
+
+    @Test
+    void replay_rebuildsPositionAndRejectsTamperedCodes() {
+        Position played = Position.fromFen(Position.START_FEN);
+        played.makeMove(played.findLegal(Bitboards.parseSquare("e2"), Bitboards.parseSquare("e4"), -1));
+        played.makeMove(played.findLegal(Bitboards.parseSquare("d7"), Bitboards.parseSquare("d5"), -1));
+        byte[] packed = PackedMoves.of(played);
+        GameRules rules = new GameRules();
+
+        assertThat(rules.replay(packed).key()).isEqualTo(played.key());
+
+        // e2e4 stored as a quiet push instead of a double push
+        byte[] tampered = PackedMoves.append(PackedMoves.EMPTY,
+                MoveCodec.encode(Bitboards.parseSquare("e2"), Bitboards.parseSquare("e4"), MoveCodec.QUIET));
+        assertThatThrownBy(() -> rules.replay(tampered))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Stored move 1 is not legal");
+    }
+}
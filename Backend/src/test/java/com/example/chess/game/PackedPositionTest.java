@@ -0,0 +1,61 @@
+package com.example.chess.game;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PackedPositionTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            Position.START_FEN,
+            "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 37 61",
+            "4k3/8/8/8/8/8/8/4K2R b K - 149 300"
+    })
+    void roundTripsThroughFen(String fen) {
+        byte[] packed = PackedPosition.fromFen(fen);
+
+        assertThat(packed).hasSize(PackedPosition.SIZE);
+        assertThat(PackedPosition.toFen(packed)).isEqualTo(fen);
+    }
+
+    @Test
+    void setPacked_restoresKeyAndLegalMovesInPlace() {
+        Position source = Position.fromFen("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1");
+        byte[] buffer = new byte[PackedPosition.SIZE + 4];
+        PackedPosition.write(source, buffer, 4);
+
+        Position target = new Position();
+        target.setPacked(buffer, 4);
+
+        assertThat(target.key()).isEqualTo(source.key());
+        assertThat(Perft.count(target, 3)).isEqualTo(Perft.count(source, 3));
+    }
+
+    @Test
+    void samePosition_ignoresMoveCounters() {
+        byte[] a = PackedPosition.fromFen("4k3/8/8/8/8/8/8/4K2R w K - 0 10");
+        byte[] b = PackedPosition.fromFen("4k3/8/8/8/8/8/8/4K2R w K - 12 40");
+        byte[] c = PackedPosition.fromFen("4k3/8/8/8/8/8/8/4K2R w - - 0 10");
+
+        assertThat(PackedPosition.samePosition(a, b)).isTrue();
+        assertThat(PackedPosition.samePosition(a, c)).isFalse();
+    }
+
+    @Test
+    void setPacked_rejectsCorruptSnapshots() {
+        byte[] noKings = new byte[PackedPosition.SIZE];
+        byte[] badPiece = PackedPosition.fromFen(Position.START_FEN);
+        badPiece[10] = (byte) 0xEE;
+
+        assertThatThrownBy(() -> new Position().setPacked(noKings, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid packed position");
+        assertThatThrownBy(() -> new Position().setPacked(badPiece, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.chess.game;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Reference positions and node counts from the Chess Programming Wiki perft results page.
+ * Depths are kept moderate so the suite stays in the normal test run.
+ */
+class PerftTest {
+
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdown();
+    }
+
+    @ParameterizedTest(name = "{0} depth {1}")
+    @CsvSource(delimiter = '|', value = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 | 1 | 20",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 | 3 | 8902",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 | 5 | 4865609",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1 | 3 | 97862",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1 | 4 | 4085603",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1 | 5 | 674624",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1 | 4 | 422333",
+            "r2q1rk1/pP1p2pp/Q4n2/bbp1p3/Np6/1B3NBn/pPPP1PPP/R3K2R b KQ - 0 1 | 4 | 422333",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8 | 4 | 2103487",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10 | 4 | 3894594"
+    })
+    void referencePositions_matchPublishedCounts(String fen, int depth, long expected) {
+        assertThat(Perft.run(fen, depth).nodes()).isEqualTo(expected);
+    }
+
+    @Test
+    void parallel_matchesSingleThreadedCount() {
+        Perft.Result single = Perft.run(KIWIPETE, 3);
+        Perft.Result parallel = Perft.runParallel(KIWIPETE, 3, pool);
+
+        assertThat(parallel.nodes()).isEqualTo(single.nodes());
+    }
+
+    @Test
+    void parallel_deepSplitMatchesReference() {
+        assertThat(Perft.runParallel(KIWIPETE, 4, pool).nodes()).isEqualTo(4085603);
+    }
+
+    @Test
+    void result_reportsNodesPerSecond() {
+        Perft.Result result = Perft.run(Position.START_FEN, 4);
+
+        assertThat(result.nodes()).isEqualTo(197281);
+        assertThat(result.nanos()).isPositive();
+        assertThat(result.nodesPerSecond()).isPositive();
+    }
+
+    @Test
+    void depthZero_countsTheRootOnly() {
+        assertThat(Perft.count(new Position(), 0)).isEqualTo(1);
+        assertThat(Perft.runParallel(Position.START_FEN, 1, pool).nodes()).isEqualTo(20);
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.chess.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PositionTest {
+
+    private static int legalCount(String fen) {
+        return Position.fromFen(fen).generateLegal(new int[Position.MAX_MOVES]);
+    }
+
+    private static int find(Position position, String from, String to, String promotion) {
+        return position.findLegal(Bitboards.parseSquare(from), Bitboards.parseSquare(to),
+                MoveCodec.promotionType(promotion));
+    }
+
+    @Test
+    void startPosition_hasTwentyLegalMoves() {
+        assertThat(legalCount(Position.START_FEN)).isEqualTo(20);
+    }
+
+    @Test
+    void kiwipete_hasFortyEightLegalMoves() {
+        assertThat(legalCount("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1"))
+                .isEqualTo(48);
+    }
+
+    @Test
+    void pinnedPiece_cannotLeaveThePinLine() {
+        // White knight on e2 is pinned by the rook on e8
+        Position position = Position.fromFen("4r1k1/8/8/8/8/8/4N3/4K3 w - - 0 1");
+
+        assertThat(find(position, "e2", "c3", null)).isEqualTo(MoveCodec.NONE);
+        assertThat(find(position, "e1", "d1", null)).isNotEqualTo(MoveCodec.NONE);
+    }
+
+    @Test
+    void inCheck_onlyEvasionsAreLegal() {
+        Position position = Position.fromFen("4k3/8/8/8/8/8/3q4/R3K3 w Q - 0 1");
+
+        assertThat(position.inCheck()).isTrue();
+        assertThat(find(position, "e1", "c1", null)).isEqualTo(MoveCodec.NONE); // no castling out of check
+        assertThat(find(position, "a1", "a8", null)).isEqualTo(MoveCodec.NONE); // ignores the check
+        assertThat(find(position, "e1", "d2", null)).isNotEqualTo(MoveCodec.NONE); // king takes queen
+    }
+
+    @Test
+    void castling_throughAttackedSquare_isIllegal() {
+        // Black rook on f8 covers f1
+        Position position = Position.fromFen("1k3r2/8/8/8/8/8/8/R3K2R w KQ - 0 1");
+
+        assertThat(find(position, "e1", "g1", null)).isEqualTo(MoveCodec.NONE);
+        assertThat(find(position, "e1", "c1", null)).isNotEqualTo(MoveCodec.NONE);
+    }
+
+    @Test
+    void castling_movesTheRookAndClearsRights() {
+        Position position = Position.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+
+        position.makeMove(find(position, "e1", "g1", null));
+
+        assertThat(position.pieceAt(Bitboards.parseSquare("f1"))).isEqualTo(Position.ROOK);
+        assertThat(position.pieceAt(Bitboards.parseSquare("h1"))).isEqualTo(Position.NO_PIECE);
+        assertThat(position.castlingRights()).isEqualTo(Position.BLACK_OO | Position.BLACK_OOO);
+    }
+
+    @Test
+    void enPassant_capturesThePassedPawn() {
+        Position position = Position.fromFen("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 2");
+
+        int move = find(position, "e5", "d6", null);
+        assertThat(MoveCodec.isEnPassant(move)).isTrue();
+
+        position.makeMove(move);
+        assertThat(position.pieceAt(Bitboards.parseSquare("d5"))).isEqualTo(Position.NO_PIECE);
+        assertThat(position.pieceAt(Bitboards.parseSquare("d6"))).isEqualTo(Position.PAWN);
+    }
+
+    @Test
+    void enPassant_exposingKingOnRank_isIllegal() {
+        // Capturing would remove both pawns from the fifth rank and expose the king to the rook
+        Position position = Position.fromFen("8/8/8/K2pP2r/8/8/8/7k w - d6 0 2");
+
+        assertThat(find(position, "e5", "d6", null)).isEqualTo(MoveCodec.NONE);
+    }
+
+    @Test
+    void promotion_requiresExplicitPieceAndPromotes() {
+        Position position = Position.fromFen("8/4P3/8/8/8/8/k7/4K3 w - - 0 1");
+
+        assertThat(find(position, "e7", "e8", null)).isEqualTo(MoveCodec.NONE);
+
+        int move = find(position, "e7", "e8", "n");
+        assertThat(MoveCodec.promotionType(move)).isEqualTo(Position.KNIGHT);
+
+        position.makeMove(move);
+        assertThat(position.pieceAt(Bitboards.parseSquare("e8"))).isEqualTo(Position.KNIGHT);
+    }
+
+    @Test
+    void makeThenUnmake_restoresEveryMoveOfKiwipete() {
+        Position position = Position.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        int[] before = boardOf(position);
+        int[] moves = new int[Position.MAX_MOVES];
+        int count = position.generateLegal(moves);
+
+        for (int i = 0; i < count; i++) {
+            position.makeMove(moves[i]);
+            position.unmakeMove();
+
+            assertThat(boardOf(position)).isEqualTo(before);
+            assertThat(position.castlingRights()).isEqualTo(0xF);
+            assertThat(position.sideToMove()).isEqualTo(Position.WHITE);
+        }
+    }
+
+    @Test
+    void setFen_rejectsMalformedInput() {
+        assertThatThrownBy(() -> Position.fromFen("not a fen"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid FEN");
+        assertThatThrownBy(() -> Position.fromFen("8/8/8/8/8/8/8/8 w - - 0 1"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static int[] boardOf(Position position) {
+        int[] squares = new int[64];
+        Arrays.setAll(squares, position::pieceAt);
+        return squares;
+    }
+
+    @Test
+    void incrementalKey_matchesFullHashAcrossTheTree() {
+        Position position = Position.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        assertKeysConsistent(position, 3, new int[4][Position.MAX_MOVES]);
+    }
+
+    @Test
+    void key_differsBySideToMoveAndCastlingRights() {
+        long white = Position.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1").key();
+        long black = Position.fromFen("r3k2r/8/8/8/8/8/8/R3K2R b KQkq - 0 1").key();
+        long noRights = Position.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w - - 0 1").key();
+
+        assertThat(white).isNotEqualTo(black).isNotEqualTo(noRights);
+    }
+
+    @Test
+    void copyFrom_copiesHistorySoBothSidesUnwindTheSame() {
+        Position original = new Position();
+        original.makeMove(find(original, "g1", "f3", null));
+        original.makeMove(find(original, "g8", "f6", null));
+        original.makeMove(find(original, "f3", "g1", null));
+
+        Position copy = Position.fromFen("8/8/8/8/8/8/8/K6k w - - 0 1");
+        copy.copyFrom(original);
+        copy.unmakeMove();
+
+        assertThat(copy.ply()).isEqualTo(2);
+        assertThat(copy.keyAt(0)).isEqualTo(original.keyAt(0));
+        assertThat(original.ply()).isEqualTo(3);
+        assertThat(Fen.of(original)).isEqualTo("rnbqkb1r/pppppppp/5n2/8/8/8/PPPPPPPP/RNBQKBNR b KQkq - 3 2");
+        assertThat(Fen.of(copy)).isEqualTo("rnbqkb1r/pppppppp/5n2/8/8/5N2/PPPPPPPP/RNBQKB1R w KQkq - 2 2");
+    }
+
+    private static void assertKeysConsistent(Position position, int depth, int[][] buffers) {
+        assertThat(position.key()).isEqualTo(Zobrist.hash(position));
+        if (depth == 0) return;
+        int n = position.generateLegal(buffers[depth]);
+        for (int i = 0; i < n; i++) {
+            long before = position.key();
+            position.makeMove(buffers[depth][i]);
+            assertKeysConsistent(position, depth - 1, buffers);
+            position.unmakeMove();
+            assertThat(position.key()).isEqualTo(before);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.chess.game;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SanTest {
+
+    private static int move(Position position, String uci) {
+        return position.findLegal(Bitboards.parseSquare(uci.substring(0, 2)), Bitboards.parseSquare(uci.substring(2, 4)),
+                uci.length() > 4 ? MoveCodec.promotionType(uci.substring(4)) : -1);
+    }
+
+    @ParameterizedTest(name = "{1} -> {2}")
+    @CsvSource(delimiter = '|', value = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 | e2e4 | e4",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 | g1f3 | Nf3",
+            "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1 | e1g1 | O-O",
+            "r3k2r/8/8/8/8/8/8/R3K2R b KQkq - 0 1 | e8c8 | O-O-O",
+            "4k3/8/8/3p4/4P3/8/8/4K3 w - - 0 1 | e4d5 | exd5",
+            "4k3/8/8/8/8/8/8/RN2K1NR w - - 0 1 | b1d2 | Nd2",
+            "4k3/8/8/8/8/8/8/R4RK1 w - - 0 1 | a1d1 | Rad1",
+            "4k3/R7/8/8/8/8/8/R3K3 w - - 0 1 | a1a4 | R1a4",
+            "7k/8/8/8/2Q1Q3/8/2Q5/4K3 w - - 0 1 | c4d3 | Qc4d3",
+            "4k3/8/8/8/8/8/3N1N2/4K3 w - - 0 1 | d2e4 | Nde4",
+            "1n2k3/P7/8/8/8/8/8/4K3 w - - 0 1 | a7b8q | axb8=Q+",
+            "4k3/8/8/8/8/8/p7/4K3 b - - 0 1 | a2a1n | a1=N",
+            "rnbqkbnr/pppp1ppp/8/4p3/6P1/5P2/PPPPP2P/RNBQKBNR b KQkq - 0 2 | d8h4 | Qh4#",
+            "4k3/8/8/8/8/8/8/R3K3 w Q - 0 1 | a1a8 | Ra8+"
+    })
+    void encode_producesStandardNotation(String fen, String uci, String expected) {
+        Position position = Position.fromFen(fen);
+        int move = move(position, uci);
+        String before = Fen.of(position);
+
+        assertThat(San.encode(position, move)).isEqualTo(expected);
+        assertThat(Fen.of(position)).isEqualTo(before);
+    }
+
+    @Test
+    void encode_ignoresPinnedRivalsForDisambiguation() {
+        // The d2 knight is pinned by the bishop on b4, so Nf2-e4 needs no file hint
+        Position position = Position.fromFen("4k3/8/8/8/1b6/8/3N1N2/4K3 w - - 0 1");
+
+        assertThat(San.encode(position, move(position, "f2e4"))).isEqualTo("Ne4");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1"
+    })
+    void decode_invertsEncodeForEveryMoveTwoPliesDeep(String fen) {
+        Position position = Position.fromFen(fen);
+        int[] root = new int[Position.MAX_MOVES];
+        int[] replies = new int[Position.MAX_MOVES];
+        int n = position.generateLegal(root);
+        for (int i = 0; i < n; i++) {
+            assertThat(San.decode(position, San.encode(position, root[i]))).isEqualTo(root[i]);
+            position.makeMove(root[i]);
+            int m = position.generateLegal(replies);
+            for (int j = 0; j < m; j++) {
+                assertThat(San.decode(position, San.encode(position, replies[j]))).isEqualTo(replies[j]);
+            }
+            position.unmakeMove();
+        }
+    }
+
+    @Test
+    void decode_acceptsCommonVariants() {
+        Position start = new Position();
+        assertThat(San.decode(start, "Nf3")).isEqualTo(move(start, "g1f3"));
+        assertThat(San.decode(start, "e4!?")).isEqualTo(move(start, "e2e4"));
+
+        Position castle = Position.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        assertThat(San.decode(castle, "0-0")).isEqualTo(move(castle, "e1g1"));
+        assertThat(San.decode(castle, "O-O-O+")).isEqualTo(move(castle, "e1c1"));
+
+        Position promo = Position.fromFen("4k3/P7/8/8/8/8/8/4K3 w - - 0 1");
+        assertThat(San.decode(promo, "a8Q")).isEqualTo(move(promo, "a7a8q"));
+    }
+
+    @Test
+    void decode_rejectsIllegalOrAmbiguousNotation() {
+        Position start = new Position();
+        assertThat(San.decode(start, "e5")).isEqualTo(MoveCodec.NONE);
+        assertThat(San.decode(start, "Qh5")).isEqualTo(MoveCodec.NONE);
+        assertThat(San.decode(start, "zz")).isEqualTo(MoveCodec.NONE);
+        assertThat(San.decode(start, null)).isEqualTo(MoveCodec.NONE);
+
+        Position twoKnights = Position.fromFen("4k3/8/8/8/8/8/8/1N2KN2 w - - 0 1");
+        assertThat(San.decode(twoKnights, "Nd2")).isEqualTo(MoveCodec.NONE);
+        assertThat(San.decode(twoKnights, "Nbd2")).isEqualTo(move(twoKnights, "b1d2"));
+    }
+}
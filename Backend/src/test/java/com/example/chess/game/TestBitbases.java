@@ -0,0 +1,15 @@
+package com.example.chess.game;
+
+/** One set of in-memory bitbases for every test class in the run; generating them takes seconds. */
+public final class TestBitbases {
+
+    private static Bitbases bitbases;
+
+    private TestBitbases() {
+    }
+
+    public static synchronized Bitbases get() {
+        if (bitbases == null) bitbases = Bitbases.inMemory();
+        return bitbases;
+    }
+}
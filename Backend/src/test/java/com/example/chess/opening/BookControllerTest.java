@@ -0,0 +1,69 @@
+package com.example.chess.opening;
+
+import com.example.chess.game.Bitboards;
+import com.example.chess.game.Position;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = BookController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import(BookControllerTest.MockConfig.class)
+class BookControllerTest {
+
+    @TestConfiguration
+    static class MockConfig {
+        @Bean
+        PolyglotBook polyglotBook() {
+            return mock(PolyglotBook.class);
+        }
+    }
+
+    @Autowired private MockMvc mvc;
+    @Autowired private PolyglotBook book;
+
+    @BeforeEach
+    void setUp() {
+        reset(book);
+    }
+
+    @Test
+    void moves_startPosition_returnsBookMovesByWeight() throws Exception {
+        Position start = new Position();
+        int e4 = start.findLegal(Bitboards.parseSquare("e2"), Bitboards.parseSquare("e4"), -1);
+        int nf3 = start.findLegal(Bitboards.parseSquare("g1"), Bitboards.parseSquare("f3"), -1);
+        when(book.lookup(any())).thenReturn(List.of(
+                new PolyglotBook.BookMove(nf3, 12, 0),
+                new PolyglotBook.BookMove(e4, 50, 0)
+        ));
+
+        mvc.perform(get("/api/book"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].uci").value("e2e4"))
+                .andExpect(jsonPath("$[0].san").value("e4"))
+                .andExpect(jsonPath("$[0].weight").value(50))
+                .andExpect(jsonPath("$[1].san").value("Nf3"));
+    }
+
+    @Test
+    void moves_invalidFen_returnsBadRequest() throws Exception {
+        mvc.perform(get("/api/book").param("fen", "not a fen"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(book);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.chess.opening;
+
+import com.example.chess.game.Position;
+import com.example.chess.game.San;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class OpeningsTest {
+
+    private static final Openings OPENINGS = new Openings();
+
+    private static Position play(String... san) {
+        Position position = new Position();
+        for (String move : san) {
+            position.makeMove(San.decode(position, move));
+        }
+        return position;
+    }
+
+    @Test
+    void loadsEveryLineOfTheDataset() {
+        assertThat(OPENINGS.size()).isGreaterThan(100);
+    }
+
+    @Test
+    void classify_namedPosition_returnsEcoAndName() {
+        Position berlin = play("e4", "e5", "Nf3", "Nc6", "Bb5", "Nf6");
+
+        assertThat(OPENINGS.classify(berlin.key())).isEqualTo(new Openings.Opening("C65", "Ruy Lopez: Berlin Defense"));
+    }
+
+    @Test
+    void classify_transposition_landsOnTheSameEntry() {
+        Position viaKnight = play("Nf3", "d5", "d4");
+
+        assertThat(OPENINGS.classify(viaKnight.key()))
+                .isEqualTo(new Openings.Opening("D02", "Queen's Pawn Game: Zukertort Variation"));
+    }
+
+    @Test
+    void classify_unnamedPosition_isNull() {
+        assertThat(OPENINGS.classify(play("e4", "e5", "Ke2").key())).isNull();
+    }
+
+    @Test
+    void classify_history_returnsDeepestNamedPosition() {
+        Position outOfBook = play("e4", "c5", "Nf3", "d6", "d4", "cxd4", "Nxd4", "Nf6", "Nc3", "a6", "h3", "h6");
+
+        assertThat(OPENINGS.classify(outOfBook).eco()).isEqualTo("B90");
+        assertThat(OPENINGS.classify(new Position())).isNull();
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.chess.opening;
+
+import com.example.chess.game.Bitboards;
+import com.example.chess.game.MoveCodec;
+import com.example.chess.game.Position;
+import com.example.chess.game.Zobrist;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PolyglotBookTest {
+
+    @TempDir
+    Path dir;
+
+    private record Entry(long key, int poly, int weight) {
+    }
+
+    private static int move(Position position, String uci) {
+        return position.findLegal(Bitboards.parseSquare(uci.substring(0, 2)), Bitboards.parseSquare(uci.substring(2, 4)),
+                MoveCodec.promotionType(uci.length() > 4 ? uci.substring(4) : null));
+    }
+
+    /** Writes entries sorted by unsigned key, the way Polyglot tools do. */
+    private Path writeBook(List<Entry> entries) throws IOException {
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort((a, b) -> Long.compareUnsigned(a.key(), b.key()));
+        ByteBuffer buffer = ByteBuffer.allocate(sorted.size() * PolyglotBook.ENTRY_SIZE);
+        for (Entry e : sorted) {
+            buffer.putLong(e.key()).putShort((short) e.poly()).putShort((short) e.weight()).putInt(0);
+        }
+        Path file = dir.resolve("book.bin");
+        Files.write(file, buffer.array());
+        return file;
+    }
+
+    @Test
+    void lookup_findsEveryEntryForTheKeyAmongNeighbours() throws IOException {
+        Position start = new Position();
+        List<Entry> entries = new ArrayList<>();
+        entries.add(new Entry(start.key(), PolyglotBook.toPolyglot(move(start, "e2e4")), 40));
+        entries.add(new Entry(start.key(), PolyglotBook.toPolyglot(move(start, "d2d4")), 30));
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 500; i++) {
+            entries.add(new Entry(random.nextLong(), 0, 1)); // unrelated positions on both sides of the key
+        }
+
+        PolyglotBook book = new PolyglotBook(writeBook(entries).toString(), "", true);
+
+        assertThat(book.size()).isEqualTo(502);
+        assertThat(book.lookup(start))
+                .extracting(e -> MoveCodec.toUci(e.move()), PolyglotBook.BookMove::weight)
+                .containsExactlyInAnyOrder(tuple("e2e4", 40), tuple("d2d4", 30));
+        assertThat(book.lookup(Position.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 0 1"))).isEmpty();
+    }
+
+    @Test
+    void toMove_translatesKingTakesRookCastlingAndPromotions() {
+        Position castling = Position.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        Position promotion = Position.fromFen("4k3/1P6/8/8/8/8/8/4K3 w - - 0 1");
+
+        // Polyglot writes O-O as e1h1 and O-O-O as e1a1
+        int shortCastle = 7 | 4 << 6;
+        int longCastle = 4 << 6;
+        assertThat(MoveCodec.flags(PolyglotBook.toMove(castling, shortCastle))).isEqualTo(MoveCodec.KING_CASTLE);
+        assertThat(MoveCodec.flags(PolyglotBook.toMove(castling, longCastle))).isEqualTo(MoveCodec.QUEEN_CASTLE);
+        assertThat(PolyglotBook.toPolyglot(move(castling, "e1g1"))).isEqualTo(shortCastle);
+
+        int knightPromotion = PolyglotBook.toPolyglot(move(promotion, "b7b8n"));
+        assertThat(knightPromotion >>> 12).isEqualTo(1);
+        assertThat(MoveCodec.toUci(PolyglotBook.toMove(promotion, knightPromotion))).isEqualTo("b7b8n");
+    }
+
+    @Test
+    void random64Table_isUsedForKeysWhenConfigured() throws IOException {
+        long[] table = new long[781];
+        SplittableRandom random = new SplittableRandom(42);
+        ByteBuffer bytes = ByteBuffer.allocate(781 * 8);
+        for (int i = 0; i < table.length; i++) {
+            table[i] = random.nextLong();
+            bytes.putLong(table[i]);
+        }
+        Path tableFile = dir.resolve("random64.bin");
+        Files.write(tableFile, bytes.array());
+
+        Position position = Position.fromFen("rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3");
+        long key = Zobrist.hash(position, table);
+        Path book = writeBook(List.of(new Entry(key, PolyglotBook.toPolyglot(move(position, "e5f6")), 1)));
+
+        PolyglotBook polyglot = new PolyglotBook(book.toString(), tableFile.toString(), false);
+
+        assertThat(polyglot.key(position)).isEqualTo(key).isNotEqualTo(position.key());
+        assertThat(polyglot.lookup(position)).extracting(e -> MoveCodec.toUci(e.move())).containsExactly("e5f6");
+    }
+
+    @Test
+    void noBookConfigured_answersEmpty() {
+        PolyglotBook book = new PolyglotBook("", "", false);
+
+        assertThat(book.isLoaded()).isFalse();
+        assertThat(book.lookup(new Position())).isEmpty();
+    }
+
+    @Test
+    void truncatedFile_isRejected() throws IOException {
+        Path file = dir.resolve("broken.bin");
+        Files.write(file, new byte[20]);
+
+        assertThatThrownBy(() -> new PolyglotBook(file.toString(), "", true))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Not a Polyglot book");
+    }
+
+    @Test
+    void bookWithoutKeyTable_isRejected() throws IOException {
+        Path book = writeBook(List.of(new Entry(new Position().key(), 0, 1)));
+
+        assertThatThrownBy(() -> new PolyglotBook(book.toString(), "", false))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("chess.book.random64");
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.chess.puzzle;
+
+import com.example.chess.engine.TranspositionTable;
+import com.example.chess.game.Bitbases;
+import com.example.chess.game.Game;
+import com.example.chess.game.GameRepository;
+import com.example.chess.game.GameRules;
+import com.example.chess.game.GameStatus;
+import com.example.chess.game.Move;
+import com.example.chess.game.MoveCodec;
+import com.example.chess.game.MoveRepository;
+import com.example.chess.game.PackedMoves;
+import com.example.chess.game.PackedPosition;
+import com.example.chess.review.Judgment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PuzzleMinerTest {
+
+    private static final Long GAME = 7L;
+    private static final Instant FINISHED = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Mock private GameRepository games;
+    @Mock private MoveRepository moves;
+    @Mock private PuzzleRepository puzzles;
+    @Mock private JobCheckpointRepository checkpoints;
+    @Mock private PlatformTransactionManager transactions;
+
+    private PuzzleMiner miner;
+
+    @BeforeEach
+    void setUp() {
+        miner = new PuzzleMiner(games, moves, puzzles, checkpoints, new GameRules(), new TransactionTemplate(transactions),
+                Bitbases.NONE, "", 1, 2, 4, 2, 5, 1, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        miner.shutdown();
+    }
+
+    /** 1.f3 e5 2.g4 Qh4#; after 2.g4 black mates in one. */
+    private static List<Move> foolsMate(Long gameId, Judgment... judgments) {
+        String[][] squares = {{"f2", "f3"}, {"e7", "e5"}, {"g2", "g4"}, {"d8", "h4"}};
+        List<Move> rows = new ArrayList<>();
+        for (int i = 0; i < squares.length; i++) {
+            rows.add(Move.builder().gameId(gameId).moveNumber(i + 1)
+                    .fromSquare(squares[i][0]).toSquare(squares[i][1])
+                    .judgment(judgments.length == 0 ? null : judgments[i].code())
+                    .build());
+        }
+        return rows;
+    }
+
+    private static Game finished(Long id) {
+        return Game.builder().id(id).status(GameStatus.FINISHED).result("0-1").updatedAt(FINISHED.plusSeconds(id)).build();
+    }
+
+    @Test
+    void mineGame_unreviewed_findsTheMateByScreening() {
+        // When
+        List<Puzzle> found = miner.mineGame(finished(GAME), foolsMate(GAME), new TranspositionTable(1));
+
+        // Then
+        assertThat(found).singleElement().satisfies(puzzle -> {
+            assertThat(puzzle.getGameId()).isEqualTo(GAME);
+            assertThat(puzzle.getMoveNumber()).isEqualTo(3);
+            assertThat(PackedPosition.toFen(puzzle.getPosition()))
+                    .isEqualTo("rnbqkbnr/pppp1ppp/8/4p3/6P1/5P2/PPPPP2P/RNBQKBNR b KQkq g3 0 2");
+            assertThat(PackedMoves.count(puzzle.getSolution())).isEqualTo(1);
+            assertThat(MoveCodec.toUci(PackedMoves.moveAt(puzzle.getSolution(), 0))).isEqualTo("d8h4");
+            assertThat(puzzle.getMateIn()).isEqualTo(1);
+            assertThat(puzzle.getEvalCp()).isNull();
+        });
+    }
+
+    @Test
+    void mineGame_reviewed_onlyConfirmsPositionsAfterMistakes() {
+        // Given
+        List<Move> blunder = foolsMate(GAME, Judgment.GOOD, Judgment.GOOD, Judgment.BLUNDER, Judgment.GOOD);
+        List<Move> clean = foolsMate(GAME, Judgment.GOOD, Judgment.GOOD, Judgment.GOOD, Judgment.GOOD);
+
+        // When / Then
+        assertThat(miner.mineGame(finished(GAME), blunder, new TranspositionTable(1)))
+                .extracting(Puzzle::getMoveNumber).containsExactly(3);
+        assertThat(miner.mineGame(finished(GAME), clean, new TranspositionTable(1))).isEmpty();
+    }
+
+    @Test
+    void mine_storesNewPuzzlesAndCheckpointsEachChunk() {
+        // Given two games reaching the same position, and a third in the next chunk
+        when(checkpoints.findById(PuzzleMiner.JOB)).thenReturn(Optional.empty());
+        when(games.findFinishedAfter(eq(Instant.EPOCH), eq(0L), any(), any())).thenReturn(List.of(finished(1L), finished(2L)));
+        when(games.findFinishedAfter(eq(FINISHED.plusSeconds(2)), eq(2L), any(), any())).thenReturn(List.of(finished(3L)));
+        when(moves.findByGameIdInOrderByGameIdAscMoveNumberAsc(List.of(1L, 2L))).thenReturn(
+                concat(foolsMate(1L), foolsMate(2L)));
+        when(moves.findByGameIdInOrderByGameIdAscMoveNumberAsc(List.of(3L))).thenReturn(foolsMate(3L));
+        when(puzzles.findExistingKeys(any())).thenReturn(List.of()).thenAnswer(call -> new ArrayList<>(call.getArgument(0)));
+
+        // When
+        int stored = miner.mine();
+
+        // Then
+        assertThat(stored).isEqualTo(1);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Puzzle>> saved = ArgumentCaptor.forClass(List.class);
+        verify(puzzles, times(2)).saveAll(saved.capture());
+        assertThat(saved.getAllValues().get(0)).extracting(Puzzle::getGameId).containsExactly(1L);
+        assertThat(saved.getAllValues().get(1)).isEmpty(); // game 3's position already has a puzzle
+        ArgumentCaptor<JobCheckpoint> checkpoint = ArgumentCaptor.forClass(JobCheckpoint.class);
+        verify(checkpoints, times(2)).save(checkpoint.capture());
+        assertThat(checkpoint.getValue().getLastId()).isEqualTo(3L);
+        assertThat(checkpoint.getValue().getLastUpdatedAt()).isEqualTo(FINISHED.plusSeconds(3));
+    }
+
+    @Test
+    void mine_resumesFromTheStoredCheckpoint() {
+        // Given
+        Instant at = FINISHED.plusSeconds(40);
+        when(checkpoints.findById(PuzzleMiner.JOB)).thenReturn(Optional.of(
+                JobCheckpoint.builder().name(PuzzleMiner.JOB).lastUpdatedAt(at).lastId(40L).build()));
+        when(games.findFinishedAfter(any(), any(), any(), any())).thenReturn(List.of());
+
+        // When
+        miner.mine();
+
+        // Then
+        verify(games).findFinishedAfter(eq(at), eq(40L), any(), any());
+        verify(puzzles, never()).saveAll(any());
+    }
+
+    @Test
+    void rating_growsWithLengthAndQuietMoves() {
+        assertThat(PuzzleMiner.rating(1, 1, false, true)).isLessThan(PuzzleMiner.rating(1, 1, false, false));
+        assertThat(PuzzleMiner.rating(3, 1, false, false)).isLessThan(PuzzleMiner.rating(3, 1, true, false));
+        assertThat(PuzzleMiner.rating(3, 1, false, false)).isLessThan(PuzzleMiner.rating(3, 3, false, false));
+        assertThat(PuzzleMiner.rating(40, 10, true, false)).isEqualTo(2800);
+    }
+
+    private static List<Move> concat(List<Move> a, List<Move> b) {
+        List<Move> all = new ArrayList<>(a);
+        all.addAll(b);
+        return all;
+    }
+}
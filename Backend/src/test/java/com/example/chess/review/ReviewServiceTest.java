@@ -0,0 +1,175 @@
+package com.example.chess.review;
+
+import com.example.chess.common.Dto;
+import com.example.chess.game.Bitbases;
+import com.example.chess.game.Game;
+import com.example.chess.game.GameRepository;
+import com.example.chess.game.GameRules;
+import com.example.chess.game.Move;
+import com.example.chess.game.MovePlayed;
+import com.example.chess.game.MoveRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReviewServiceTest {
+
+    private static final Long GAME = 7L;
+
+    @Mock private GameRepository games;
+    @Mock private MoveRepository moves;
+    @Mock private GameReviewRepository reviews;
+    @Mock private PlatformTransactionManager transactions;
+
+    private ReviewService service;
+
+    @BeforeEach
+    void setUp() {
+        service = newService(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private ReviewService newService(int maxQueued) {
+        return new ReviewService(games, moves, reviews, new GameRules(), new TransactionTemplate(transactions), Bitbases.NONE,
+                1, 3, maxQueued, 2, 1);
+    }
+
+    /** 1.f3 e5 2.g4 Qh4# */
+    private List<Move> foolsMate() {
+        String[][] squares = {{"f2", "f3"}, {"e7", "e5"}, {"g2", "g4"}, {"d8", "h4"}};
+        String[] san = {"f3", "e5", "g4", "Qh4#"};
+        List<Move> rows = new ArrayList<>();
+        for (int i = 0; i < squares.length; i++) {
+            rows.add(Move.builder().gameId(GAME).moveNumber(i + 1)
+                    .fromSquare(squares[i][0]).toSquare(squares[i][1]).san(san[i]).build());
+        }
+        when(games.findById(GAME)).thenReturn(Optional.of(Game.builder().id(GAME).build()));
+        when(moves.findByGameIdOrderByMoveNumberAsc(GAME)).thenReturn(rows);
+        return rows;
+    }
+
+    private GameReview queued(Long gameId, int nextMove) {
+        GameReview review = GameReview.builder().gameId(gameId).status(GameReview.Status.QUEUED).nextMove(nextMove).build();
+        when(reviews.findById(gameId)).thenReturn(Optional.of(review));
+        return review;
+    }
+
+    @Test
+    void review_scoresEveryMoveAndFlagsTheBlunder() {
+        // Given
+        List<Move> rows = foolsMate();
+        GameReview review = queued(GAME, 1);
+
+        // When
+        service.review(GAME);
+
+        // Then
+        assertThat(rows).allSatisfy(move -> assertThat(move.getEvalCp()).isNotNull());
+        assertThat(Judgment.fromCode(rows.get(2).getJudgment())).isEqualTo(Judgment.BLUNDER);
+        assertThat(Judgment.fromCode(rows.get(3).getJudgment())).isEqualTo(Judgment.GOOD);
+        assertThat(Scores.mateIn(rows.get(2).getEvalCp())).isEqualTo(-1);
+        assertThat(Scores.mateIn(rows.get(3).getEvalCp())).isZero();
+        assertThat(review.getStatus()).isEqualTo(GameReview.Status.DONE);
+        assertThat(review.getNextMove()).isEqualTo(5);
+        assertThat(review.getWhiteAccuracy()).isLessThan(review.getBlackAccuracy());
+        verify(moves, times(2)).saveAll(anyList()); // chunks of two moves
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void review_resumesAfterTheLastSavedChunk() {
+        // Given
+        List<Move> rows = foolsMate();
+        rows.get(0).setEvalCp((short) -40);
+        rows.get(1).setEvalCp((short) 30);
+        queued(GAME, 3);
+
+        // When
+        service.review(GAME);
+
+        // Then
+        ArgumentCaptor<List<Move>> saved = ArgumentCaptor.forClass(List.class);
+        verify(moves).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(Move::getMoveNumber).containsExactly(3, 4);
+        assertThat(rows.get(0).getJudgment()).isNull(); // left as stored
+    }
+
+    @Test
+    void review_alreadyDone_isSkipped() {
+        GameReview review = queued(GAME, 5);
+        review.setStatus(GameReview.Status.DONE);
+
+        service.review(GAME);
+
+        verifyNoInteractions(games);
+        verify(moves, never()).saveAll(anyList());
+    }
+
+    @Test
+    void onMovePlayed_queuesOnlyFinishedGames() {
+        Move move = Move.builder().gameId(GAME).moveNumber(3).build();
+
+        service.onMovePlayed(new MovePlayed(GAME, move, null));
+        verify(reviews, never()).save(any());
+
+        when(reviews.findById(GAME)).thenReturn(Optional.empty());
+        service.onMovePlayed(new MovePlayed(GAME, move, new Dto.GameOver(GAME, "1-0", "CHECKMATE", 1)));
+        verify(reviews).save(argThat(review -> review.getGameId().equals(GAME)
+                && review.getStatus() == GameReview.Status.QUEUED && review.getNextMove() == 1));
+    }
+
+    @Test
+    void enqueue_runsNewestFirstAndKeepsTheOverflowInTheDatabase() throws Exception {
+        // Given: the only worker is busy with game 1
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> started = Collections.synchronizedList(new ArrayList<>());
+        when(reviews.findById(anyLong())).thenAnswer(invocation -> {
+            Long id = invocation.getArgument(0);
+            started.add(id);
+            if (id == 1L) release.await(5, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+        service.enqueue(1L);
+        while (started.isEmpty()) Thread.sleep(5);
+
+        // When
+        service.enqueue(2L);
+        Thread.sleep(2); // distinct finish times
+        service.enqueue(3L);
+        Thread.sleep(2);
+        service.enqueue(4L);
+
+        // Then: two fit in memory, the oldest waits in game_reviews
+        assertThat(service.queued()).isEqualTo(2);
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (started.size() < 3 && System.nanoTime() < deadline) Thread.sleep(5);
+        assertThat(started).containsExactly(1L, 4L, 3L);
+        verify(reviews, timeout(1000)).findPending(any());
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.chess.review;
+
+import com.example.chess.engine.Search;
+import com.example.chess.game.Position;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ScoresTest {
+
+    @Test
+    void encode_storesWhitesView() {
+        Search.Info blackUp = new Search.Info(5, 120, 0, 0, new int[0]);
+
+        assertThat(Scores.encode(blackUp, Position.fromFen("4k3/8/8/8/8/8/8/4K3 b - - 0 1"))).isEqualTo((short) -120);
+        assertThat(Scores.encode(blackUp, new Position())).isEqualTo((short) 120);
+    }
+
+    @Test
+    void encode_clampsCentipawnsAndKeepsMateDistance() {
+        Search.Info huge = new Search.Info(5, 25_000, 0, 0, new int[0]);
+        Search.Info mateInTwo = new Search.Info(5, Search.MATE - 3, 0, 0, new int[0]);
+
+        assertThat(Scores.encode(huge, new Position())).isEqualTo((short) Scores.MAX_CP);
+        short stored = Scores.encode(mateInTwo, Position.fromFen("4k3/8/8/8/8/8/8/4K3 b - - 0 1"));
+        assertThat(Scores.isMate(stored)).isTrue();
+        assertThat(Scores.mateIn(stored)).isEqualTo(-2);
+    }
+
+    @Test
+    void judge_usesDropInTheMoversChances() {
+        assertThat(Scores.judge(0, -10, true)).isEqualTo(Judgment.GOOD);
+        assertThat(Scores.judge(0, -60, true)).isEqualTo(Judgment.INACCURACY);
+        assertThat(Scores.judge(0, -120, true)).isEqualTo(Judgment.MISTAKE);
+        assertThat(Scores.judge(0, -200, true)).isEqualTo(Judgment.BLUNDER);
+        // The same swing is good for black
+        assertThat(Scores.judge(0, -400, false)).isEqualTo(Judgment.GOOD);
+        assertThat(Scores.judge(-Scores.MATE_BASE + 1, 0, false)).isEqualTo(Judgment.BLUNDER);
+    }
+
+    @Test
+    void accuracy_isFullForBestPlayAndFallsWithTheLoss() {
+        assertThat(Scores.accuracy(50, 80, true)).isEqualTo(100.0, within(0.01));
+        assertThat(Scores.accuracy(0, -300, true)).isBetween(20.0, 60.0);
+        assertThat(Scores.accuracy(Scores.MAX_CP, -Scores.MAX_CP, true)).isLessThan(1.0);
+    }
+}
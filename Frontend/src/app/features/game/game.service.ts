@@ -2,7 +2,7 @@
 import { Injectable, inject } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { environment } from '../../../environments/environment';
-import { Observable, Subject, merge, scan, shareReplay } from 'rxjs';
+import { Observable, Subject, filter, merge, scan, shareReplay } from 'rxjs';
 import { StompService } from '../../core/ws/stomp.service';
 
 export interface ActiveGameDto {
@@ -38,8 +38,22 @@ export interface MoveBroadcast {
   promotion?: string | null;
   by: number;
   ts: string;
+  eco?: string | null;
+  opening?: string | null;
+  type: 'MOVE';
 }
 
+export interface GameOver {
+  gameId: number;
+  result: string;
+  termination: string;
+  moveNumber: number;
+  type: 'GAME_OVER';
+}
+
+/** Frames on /topic/games/{id}: every move, then a GameOver when the game ends. */
+export type GameFrame = MoveBroadcast | GameOver;
+
 @Injectable({ providedIn: 'root' })
 export class GameService {
   private http = inject(HttpClient);
@@ -54,7 +68,9 @@ export class GameService {
   }
 
   movesStream$(gameId: number): Observable<MoveBroadcast> {
-    return this.stomp.subscribe<MoveBroadcast>(`/topic/games/${gameId}`);
+    return this.stomp.subscribe<GameFrame>(`/topic/games/${gameId}`).pipe(
+      filter((frame): frame is MoveBroadcast => frame.type !== 'GAME_OVER')
+    );
   }
 
   sendMove(gameId: number, move: MoveSend) {
@@ -63,7 +79,7 @@ export class GameService {
 
   /**
    * Convenience stream: load history once, then append live moves.
-   * Returns a growing array of normalized move records.
+   * Returns a growing array of normalized move records, one per move number.
    */
   combinedMoves$(gameId: number): Observable<MoveRecord[]> {
     const history$ = this.getMoves(gameId);
@@ -87,6 +103,8 @@ export class GameService {
     return merge(history$, liveAsRecord$).pipe(
       scan<MoveRecord | MoveRecord[], MoveRecord[]>((acc, val) => {
         if (Array.isArray(val)) return [...val];  // initial history
+        // The relay may resend a move after a crash; keep the first copy
+        if (acc.some(m => m.moveNumber === val.moveNumber)) return acc;
         return [...acc, val];                      // append live
       }, []),
       shareReplay(1)